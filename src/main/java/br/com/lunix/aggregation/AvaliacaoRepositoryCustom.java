@@ -1,9 +1,15 @@
 package br.com.lunix.aggregation;
 
-import br.com.lunix.dto.avaliacao.ResultadoAgregacaoDto;
+import br.com.lunix.dto.dashboard.ResumoAvaliacoesDashboardDto;
+import br.com.lunix.model.entities.Avaliacao;
+import br.com.lunix.model.enums.Role;
+
+import java.util.List;
 
 // Interface para declarar os métodos a serem feitos pelo próprio banco de dados
 public interface AvaliacaoRepositoryCustom {
-    ResultadoAgregacaoDto calcularMediaDoJogo(String jogoId);
     Double calcularMediaGlobal();
+    ResumoAvaliacoesDashboardDto resumirParaDashboard();
+    List<Avaliacao> buscarRecentesPorAutorRole(String jogoId, int limitePorRole);
+    long atualizarAutorRole(String usuarioId, Role autorRole);
 }
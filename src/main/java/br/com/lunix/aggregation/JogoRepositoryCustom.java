@@ -0,0 +1,51 @@
+package br.com.lunix.aggregation;
+
+import br.com.lunix.dto.dashboard.ResumoJogosDashboardDto;
+import br.com.lunix.dto.jogos.CandidatoAtualizacaoPrecosDto;
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.dto.jogos.HistogramaNotasDto;
+import br.com.lunix.dto.jogos.JogoCursor;
+import br.com.lunix.dto.jogos.JogoResponseDto;
+import br.com.lunix.dto.jogos.JogoSliceDto;
+import br.com.lunix.dto.jogos.ResultadoFiltroJogosDto;
+import br.com.lunix.model.entities.CriadorSnapshot;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.PrecoPlataforma;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Interface para declarar as consultas de jogos feitas direto com o MongoTemplate
+public interface JogoRepositoryCustom {
+    Page<JogoResponseDto> buscarPorTexto(String termo, Pageable pageable);
+    Page<JogoResponseDto> buscarResumos(Criteria filtro, Pageable pageable);
+    List<JogoResponseDto> buscarResumos(Criteria filtro, Sort sort, int limite);
+    List<JogoResponseDto> buscarResumosPorIds(List<String> ids);
+    JogoSliceDto buscarResumosComCursor(Criteria filtro, JogoCursor.Ordenacao ordenacao, JogoCursor cursor, int tamanho);
+    ResultadoFiltroJogosDto contarFacetas(Criteria filtro);
+    ResumoJogosDashboardDto resumirParaDashboard();
+    long atualizarCriador(CriadorSnapshot criador);
+    Jogo aplicarAvaliacao(String jogoId, Double notaRemovida, Double notaAdicionada);
+    List<Jogo> buscarParaAtualizacaoPrecos(Collection<String> ids);
+    List<HistogramaNotasDto> buscarHistogramas(List<String> ids);
+    List<String> recalcularEstatisticasDeAvaliacoes();
+    Jogo atualizarCampos(String id, Update update);
+    long percorrerEstatisticasDeRanking(int tamanhoLote, Consumer<List<EstatisticasRankingDto>> consumidor);
+    long atualizarScoresRanking(List<EstatisticasRankingDto> jogos);
+    long atualizarPrecos(Map<String, List<PrecoPlataforma>> precosPorJogo, Map<String, Double> volatilidadePorJogo, LocalDateTime atualizadoEm);
+    long marcarPrecosVerificados(Collection<String> ids, LocalDateTime verificadoEm);
+    Stream<CandidatoAtualizacaoPrecosDto> buscarCandidatosAtualizacaoPrecos(LocalDateTime vencidosAte, int tamanhoLote);
+    long agendarAtualizacoesPrecos(Map<String, LocalDateTime> proximaPorJogo);
+    List<Jogo> buscarSemItadId(String aposId, int limite);
+    long atualizarItadIds(Map<String, String> itadIdPorJogo);
+    long percorrerIds(int tamanhoLote, Consumer<List<String>> consumidor);
+}
@@ -0,0 +1,15 @@
+package br.com.lunix.aggregation;
+
+import br.com.lunix.model.entities.ResumoMetrica;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Interface para declarar as consultas da série temporal de métricas feitas direto com o MongoTemplate
+public interface MetricaRepositoryCustom {
+    List<ResumoMetrica> agruparPontos(Metrica metrica, Granularidade granularidade, LocalDateTime inicio, LocalDateTime fim);
+    List<ResumoMetrica> buscarConsolidados(Metrica metrica, Granularidade periodo, LocalDateTime inicio, LocalDateTime fim);
+    void consolidar(Granularidade periodo, LocalDateTime desde);
+}
@@ -0,0 +1,10 @@
+package br.com.lunix.aggregation;
+
+import br.com.lunix.dto.dashboard.ResumoUsuariosDashboardDto;
+
+import java.time.LocalDateTime;
+
+// Interface para declarar as consultas de usuários feitas direto com o MongoTemplate
+public interface UsuarioRepositoryCustom {
+    ResumoUsuariosDashboardDto resumirParaDashboard(LocalDateTime novosDesde);
+}
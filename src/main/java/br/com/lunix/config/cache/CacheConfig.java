@@ -0,0 +1,116 @@
+package br.com.lunix.config.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+    Configuração do cache em duas camadas.
+
+    L1: Caffeine na memória de cada instância, com TTL curto e tamanho máximo.
+    L2: Redis compartilhado, com TTL por cache.
+
+    Remoções são publicadas no canal CANAL_INVALIDACAO para que as
+    outras instâncias descartem a própria L1.
+*/
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String CANAL_INVALIDACAO = "lunix:cache:invalidacao";
+
+    private static final List<String> CACHES = List.of(
+            CacheNames.JOGOS_DETALHES,
+            CacheNames.JOGOS_TOP10_NOTA,
+            CacheNames.JOGOS_TOP10_RECENTES
+    );
+
+    // Identifica esta instância nas mensagens, para ignorar as próprias invalidações
+    private final String instancia = UUID.randomUUID().toString();
+
+    @Bean
+    public DuasCamadasCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                                CacheProperties propriedades,
+                                                StringRedisTemplate redisTemplate,
+                                                ObjectMapper objectMapper) {
+        // Medido para que a L1 use como peso o tamanho já calculado na gravação ou leitura do Redis
+        SerializadorMedido serializador = new SerializadorMedido(criarSerializador(propriedades));
+
+        // O formato entra no prefixo das chaves, para que trocar a serialização não leia valores no formato antigo
+        // Sem valores nulos: nenhum método em cache devolve nulo, e o NullValue do Spring não passa pela lista de tipos do CborRedisSerializer
+        RedisCacheConfiguration base = RedisCacheConfiguration.defaultCacheConfig()
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializador))
+                .computePrefixWith(nome -> nome + ":" + propriedades.serializacao().name().toLowerCase() + "::");
+
+        Map<String, RedisCacheConfiguration> porCache = new HashMap<>();
+        for (String nome : CACHES) {
+            porCache.put(nome, base.entryTtl(propriedades.de(nome).ttl()));
+        }
+
+        // Criado aqui e não como bean, para que o único CacheManager da aplicação seja o de duas camadas
+        RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(base.entryTtl(propriedades.padrao().ttl()))
+                .withInitialCacheConfigurations(porCache)
+                .build();
+        redis.afterPropertiesSet();
+
+        return new DuasCamadasCacheManager(redis, propriedades, (cache, chave) -> {
+            try {
+                redisTemplate.convertAndSend(CANAL_INVALIDACAO,
+                        objectMapper.writeValueAsString(new InvalidacaoCache(instancia, cache, chave)));
+            } catch (JsonProcessingException e) {
+                log.warn("Não foi possível publicar a invalidação do cache {}: {}", cache, e.getMessage());
+            }
+        }, serializador);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer invalidacaoDeCacheListener(RedisConnectionFactory connectionFactory,
+                                                                    DuasCamadasCacheManager cacheManager,
+                                                                    ObjectMapper objectMapper) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            try {
+                InvalidacaoCache invalidacao = objectMapper.readValue(
+                        new String(message.getBody(), StandardCharsets.UTF_8), InvalidacaoCache.class);
+
+                if (!instancia.equals(invalidacao.origem())) {
+                    cacheManager.invalidarLocal(invalidacao.cache(), invalidacao.chave());
+                }
+            } catch (Exception e) {
+                log.warn("Mensagem de invalidação de cache inválida: {}", e.getMessage());
+            }
+        }, new ChannelTopic(CANAL_INVALIDACAO));
+        return container;
+    }
+
+    // Escolhe o serializador dos valores conforme lunix.cache.serializacao
+    private RedisSerializer<Object> criarSerializador(CacheProperties propriedades) {
+        ClassLoader classLoader = CacheConfig.class.getClassLoader();
+
+        return switch (propriedades.serializacao()) {
+            case JDK -> RedisSerializer.java(classLoader);
+            case CBOR -> new CborRedisSerializer(classLoader, (int) propriedades.compressaoAPartirDe().toBytes());
+        };
+    }
+}
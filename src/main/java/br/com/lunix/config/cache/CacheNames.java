@@ -0,0 +1,15 @@
+package br.com.lunix.config.cache;
+
+/*
+    Nomes dos caches da aplicação, usados nas anotações
+    @Cacheable/@CacheEvict e na configuração de cada camada.
+*/
+public final class CacheNames {
+
+    public static final String JOGOS_DETALHES = "jogos-detalhes";
+    public static final String JOGOS_TOP10_NOTA = "jogos-top10-nota";
+    public static final String JOGOS_TOP10_RECENTES = "jogos-top10-recentes";
+
+    private CacheNames() {
+    }
+}
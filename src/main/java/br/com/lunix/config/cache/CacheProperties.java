@@ -0,0 +1,56 @@
+package br.com.lunix.config.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+/*
+    Configuração das camadas de cache lida das propriedades lunix.cache.*
+
+    @param padrao - Configuração usada pelos caches sem entrada própria
+    @param caches - Configuração por nome de cache
+    @param serializacao - Formato dos valores gravados no Redis
+    @param compressaoAPartirDe - Tamanho a partir do qual os valores CBOR são comprimidos com LZ4 (0 desliga)
+*/
+@ConfigurationProperties(prefix = "lunix.cache")
+public record CacheProperties(Camadas padrao, Map<String, Camadas> caches,
+                              Serializacao serializacao, DataSize compressaoAPartirDe) {
+
+    public CacheProperties {
+        if (padrao == null) padrao = new Camadas(null, null, null, null);
+        if (caches == null) caches = Map.of();
+        if (serializacao == null) serializacao = Serializacao.CBOR;
+        if (compressaoAPartirDe == null) compressaoAPartirDe = DataSize.ofKilobytes(2);
+    }
+
+    public enum Serializacao {
+        // Serialização padrão do Java, usada antes do CBOR
+        JDK,
+        // JSON binário (Jackson CBOR), menor e mais rápido de ler
+        CBOR
+    }
+
+    public Camadas de(String nome) {
+        return caches.getOrDefault(nome, padrao);
+    }
+
+    /*
+        @param ttl - Tempo de vida no Redis (L2)
+        @param ttlLocal - Tempo de vida na memória da instância (L1), limita
+                          a defasagem caso uma mensagem de invalidação se perca
+        @param tamanhoMaximoLocal - Tamanho máximo da L1, medido pelo tamanho serializado dos valores
+        @param janelaVencido - Tempo após o ttlLocal em que a entrada ainda é servida enquanto
+                               uma recarga roda em segundo plano (0 desliga)
+    */
+    public record Camadas(Duration ttl, Duration ttlLocal, DataSize tamanhoMaximoLocal, Duration janelaVencido) {
+
+        public Camadas {
+            if (ttl == null) ttl = Duration.ofMinutes(10);
+            if (ttlLocal == null) ttlLocal = Duration.ofMinutes(1);
+            if (tamanhoMaximoLocal == null) tamanhoMaximoLocal = DataSize.ofMegabytes(16);
+            if (janelaVencido == null) janelaVencido = Duration.ZERO;
+        }
+    }
+}
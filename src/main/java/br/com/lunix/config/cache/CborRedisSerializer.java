@@ -0,0 +1,163 @@
+package br.com.lunix.config.cache;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+    Serializador dos valores de cache no Redis usando CBOR (JSON binário),
+    com compressão LZ4 opcional para valores grandes.
+
+    Formato: 1 byte de formato, seguido (se comprimido) de 4 bytes com o
+    tamanho original e do conteúdo. O conteúdo é um array CBOR
+    [tipo, tipoDoElemento, valor]: o tipo só aparece na raiz, já que os
+    records dos DTOs declaram os tipos dos campos aninhados.
+*/
+public class CborRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte FORMATO_CBOR = 1;
+    private static final byte FORMATO_CBOR_LZ4 = 2;
+
+    private static final String TIPO_LISTA = "java.util.List";
+    private static final String TIPO_CONJUNTO = "java.util.Set";
+
+    // Somente estas classes podem ser instanciadas a partir do conteúdo do Redis
+    private static final List<String> PACOTES_PERMITIDOS = List.of("br.com.lunix.", "java.lang.", "java.time.");
+
+    private final ObjectMapper mapper;
+    private final ClassLoader classLoader;
+    private final int limiteCompressao;
+
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor descompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+    /*
+        @param classLoader - ClassLoader usado para carregar os tipos gravados
+        @param limiteCompressao - Tamanho em bytes a partir do qual o valor é comprimido (0 ou menos desliga)
+    */
+    public CborRedisSerializer(ClassLoader classLoader, int limiteCompressao) {
+        this.classLoader = classLoader;
+        this.limiteCompressao = limiteCompressao;
+        this.mapper = CBORMapper.builder()
+                // Nomes de campos e textos repetidos (ex: listas de DTOs) são gravados uma vez e referenciados
+                .enable(CBORGenerator.Feature.STRINGREF)
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        if (valor == null) return new byte[0];
+
+        byte[] cbor = escreverCbor(valor);
+
+        if (limiteCompressao > 0 && cbor.length >= limiteCompressao) {
+            byte[] comprimido = compressor.compress(cbor);
+
+            // Só vale a pena guardar comprimido se realmente diminuiu
+            if (comprimido.length + 5 < cbor.length + 1) {
+                return ByteBuffer.allocate(5 + comprimido.length)
+                        .put(FORMATO_CBOR_LZ4)
+                        .putInt(cbor.length)
+                        .put(comprimido)
+                        .array();
+            }
+        }
+
+        byte[] saida = new byte[cbor.length + 1];
+        saida[0] = FORMATO_CBOR;
+        System.arraycopy(cbor, 0, saida, 1, cbor.length);
+        return saida;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+
+        return switch (bytes[0]) {
+            case FORMATO_CBOR -> lerCbor(bytes, 1, bytes.length - 1);
+            case FORMATO_CBOR_LZ4 -> {
+                int tamanhoOriginal = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                byte[] cbor = descompressor.decompress(bytes, 5, tamanhoOriginal);
+                yield lerCbor(cbor, 0, cbor.length);
+            }
+            default -> throw new SerializationException("Formato de cache desconhecido: " + bytes[0]);
+        };
+    }
+
+    private byte[] escreverCbor(Object valor) {
+        String tipo;
+        String tipoElemento = null;
+
+        if (valor instanceof Collection<?> colecao) {
+            tipo = valor instanceof Set ? TIPO_CONJUNTO : TIPO_LISTA;
+            tipoElemento = colecao.stream().filter(e -> e != null).findFirst().map(e -> e.getClass().getName()).orElse(null);
+        } else {
+            tipo = valor.getClass().getName();
+        }
+
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(256);
+        try (JsonGenerator gerador = mapper.createGenerator(saida)) {
+            gerador.writeStartArray();
+            gerador.writeString(tipo);
+            gerador.writeString(tipoElemento);
+            mapper.writeValue(gerador, valor);
+            gerador.writeEndArray();
+        } catch (IOException e) {
+            throw new SerializationException("Não foi possível serializar o valor em CBOR", e);
+        }
+        return saida.toByteArray();
+    }
+
+    private Object lerCbor(byte[] bytes, int inicio, int tamanho) {
+        try (JsonParser leitor = mapper.createParser(bytes, inicio, tamanho)) {
+            if (leitor.nextToken() != JsonToken.START_ARRAY) {
+                throw new SerializationException("Conteúdo de cache inválido");
+            }
+            String tipo = leitor.nextTextValue();
+            String tipoElemento = leitor.nextTextValue();
+            leitor.nextToken();
+
+            return mapper.readValue(leitor, tipoJava(tipo, tipoElemento));
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationException("Não foi possível ler o valor CBOR do cache", e);
+        }
+    }
+
+    private JavaType tipoJava(String tipo, String tipoElemento) throws ClassNotFoundException {
+        if (TIPO_LISTA.equals(tipo) || TIPO_CONJUNTO.equals(tipo)) {
+            Class<?> elemento = tipoElemento != null ? carregar(tipoElemento) : Object.class;
+            Class<? extends Collection> colecao = TIPO_LISTA.equals(tipo) ? ArrayList.class : HashSet.class;
+            return mapper.getTypeFactory().constructCollectionType(colecao, elemento);
+        }
+        return mapper.getTypeFactory().constructType(carregar(tipo));
+    }
+
+    private Class<?> carregar(String nome) throws ClassNotFoundException {
+        if (PACOTES_PERMITIDOS.stream().noneMatch(nome::startsWith)) {
+            throw new SerializationException("Tipo não permitido no cache: " + nome);
+        }
+        return Class.forName(nome, false, classLoader);
+    }
+}
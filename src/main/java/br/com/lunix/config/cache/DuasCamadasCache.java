@@ -0,0 +1,280 @@
+package br.com.lunix.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/*
+    Cache em duas camadas: uma L1 em memória (Caffeine), limitada pelo
+    tamanho serializado dos valores e com TTL curto, na frente da L2
+    compartilhada (Redis).
+
+    Leituras tentam a L1 e só vão ao Redis em caso de falta, guardando o
+    resultado localmente. Remoções vão às duas camadas e são publicadas
+    para que as outras instâncias limpem a própria L1.
+
+    Nas leituras com loader (@Cacheable com sync = true), faltas simultâneas
+    da mesma chave esperam uma única carga em andamento, e entradas da L1
+    que passaram do ttlLocal, mas ainda estão dentro da janelaVencido, são
+    servidas enquanto uma única recarga roda em segundo plano.
+*/
+@Slf4j
+public class DuasCamadasCache extends AbstractValueAdaptingCache {
+
+    // Peso usado quando o valor não foi medido ao passar pela L2 (ex: Redis fora do ar)
+    private static final int PESO_PADRAO = 1024;
+
+    private final String nome;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Entrada> local;
+    private final Cache remoto;
+    private final BiConsumer<String, String> publicadorDeInvalidacao;
+    private final SerializadorMedido serializador;
+    private final Executor executor;
+    private final long ttlLocalNanos;
+
+    // Cargas em andamento por chave; quem chega durante uma carga espera o mesmo resultado
+    private final Map<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+
+    // Incrementada a cada remoção, para que uma carga iniciada antes dela não grave um valor já desatualizado
+    private final AtomicLong geracao = new AtomicLong();
+
+    /*
+        @param nome - Nome do cache
+        @param remoto - Cache da L2 (Redis)
+        @param camadas - TTLs, janela de valor vencido e tamanho máximo da L1
+        @param publicadorDeInvalidacao - Recebe (cache, chave) a cada remoção; chave nula indica limpeza total
+        @param serializador - Mesmo serializador da L2, que informa o tamanho dos valores usado como peso na L1
+        @param executor - Executa as recargas em segundo plano das entradas vencidas
+    */
+    public DuasCamadasCache(String nome, Cache remoto, CacheProperties.Camadas camadas,
+                            BiConsumer<String, String> publicadorDeInvalidacao, SerializadorMedido serializador,
+                            Executor executor) {
+        // Nulos recusados nas duas camadas, como na L2 (disableCachingNullValues no CacheConfig)
+        super(false);
+        this.nome = nome;
+        this.remoto = remoto;
+        this.publicadorDeInvalidacao = publicadorDeInvalidacao;
+        this.serializador = serializador;
+        this.executor = executor;
+        this.ttlLocalNanos = camadas.ttlLocal().toNanos();
+        this.local = Caffeine.newBuilder()
+                .maximumWeight(camadas.tamanhoMaximoLocal().toBytes())
+                .weigher((String chave, Entrada entrada) -> entrada.peso())
+                .expireAfterWrite(camadas.ttlLocal().plus(camadas.janelaVencido()))
+                .build();
+    }
+
+    /*
+        Valor guardado na L1 com o instante até o qual ele é considerado fresco
+        e o peso calculado ao guardar. Depois de vencido ele só é servido por
+        get(key, loader), enquanto é recarregado.
+    */
+    private record Entrada(Object valor, long frescoAte, int peso) {
+
+        boolean fresca() {
+            return System.nanoTime() - frescoAte < 0;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String chave = chaveLocal(key);
+
+        Entrada entrada = local.getIfPresent(chave);
+        if (entrada != null && entrada.fresca()) {
+            return entrada.valor();
+        }
+
+        ValueWrapper doRedis = remoto.get(key);
+        if (doRedis == null) {
+            return null;
+        }
+
+        Object armazenado = toStoreValue(doRedis.get());
+        guardarLocal(chave, armazenado);
+        return armazenado;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String chave = chaveLocal(key);
+
+        Entrada entrada = local.getIfPresent(chave);
+        if (entrada != null) {
+            if (!entrada.fresca()) {
+                recarregarEmSegundoPlano(key, chave, valueLoader);
+            }
+            return (T) fromStoreValue(entrada.valor());
+        }
+
+        return (T) fromStoreValue(carregarUmaVez(key, chave, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // Valida antes de gravar, para que um nulo não chegue ao Redis
+        Object armazenado = toStoreValue(value);
+        remoto.put(key, value);
+        guardarLocal(chaveLocal(key), armazenado);
+    }
+
+    @Override
+    public void evict(Object key) {
+        geracao.incrementAndGet();
+        remoto.evict(key);
+        local.invalidate(chaveLocal(key));
+        publicadorDeInvalidacao.accept(nome, chaveLocal(key));
+    }
+
+    @Override
+    public void clear() {
+        geracao.incrementAndGet();
+        remoto.clear();
+        local.invalidateAll();
+        publicadorDeInvalidacao.accept(nome, null);
+    }
+
+    /*
+        Remove entradas apenas da L1, ao receber a invalidação publicada por outra instância.
+
+        @param chave - Chave a remover (nula para limpar a L1 inteira)
+    */
+    public void invalidarLocal(String chave) {
+        geracao.incrementAndGet();
+        if (chave == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(chave);
+        }
+    }
+
+    /*
+        Carga única por chave: a primeira thread a faltar registra a carga e a
+        executa; as demais esperam o mesmo resultado (ou a mesma exceção).
+    */
+    private Object carregarUmaVez(Object key, String chave, Callable<?> valueLoader) {
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(chave, nova);
+
+        if (existente != null) {
+            return aguardar(existente);
+        }
+
+        try {
+            nova.complete(carregar(key, chave, valueLoader));
+        } catch (Throwable e) {
+            // Também para Error, senão as threads em espera ficariam bloqueadas para sempre
+            nova.completeExceptionally(e);
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+        return aguardar(nova);
+    }
+
+    // Dispara a recarga de uma entrada vencida, a menos que já exista uma carga em andamento para a chave
+    private void recarregarEmSegundoPlano(Object key, String chave, Callable<?> valueLoader) {
+        CompletableFuture<Object> nova = new CompletableFuture<>();
+        if (emAndamento.putIfAbsent(chave, nova) != null) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    nova.complete(carregar(key, chave, valueLoader));
+                } catch (Throwable e) {
+                    // Quem esperava por esta carga recebe o erro; a entrada vencida continua sendo servida
+                    nova.completeExceptionally(e);
+                    log.warn("Falha ao recarregar a chave {} do cache {}: {}", chave, nome, e.getMessage());
+                } finally {
+                    emAndamento.remove(chave, nova);
+                }
+            });
+        } catch (RuntimeException e) {
+            emAndamento.remove(chave, nova);
+            nova.completeExceptionally(e);
+        }
+    }
+
+    // Lê da L2 ou, se também faltar lá, executa o loader e grava nas duas camadas
+    private Object carregar(Object key, String chave, Callable<?> valueLoader) {
+        long geracaoInicial = geracao.get();
+
+        ValueWrapper doRedis = remoto.get(key);
+        Object valor;
+        if (doRedis != null) {
+            valor = doRedis.get();
+        } else {
+            try {
+                valor = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            // Uma remoção durante a carga indica que o valor pode ter sido lido antes da mudança
+            if (geracao.get() == geracaoInicial) {
+                remoto.put(key, valor);
+            }
+        }
+
+        Object armazenado = toStoreValue(valor);
+        if (geracao.get() == geracaoInicial) {
+            guardarLocal(chave, armazenado);
+        }
+        return armazenado;
+    }
+
+    private Object aguardar(CompletableFuture<Object> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+
+    // Chamado logo depois de o valor ser gravado ou lido na L2, na mesma thread, que já mediu o seu tamanho
+    private void guardarLocal(String chave, Object armazenado) {
+        local.put(chave, new Entrada(armazenado, System.nanoTime() + ttlLocalNanos, pesoDe(armazenado)));
+    }
+
+    // Mesma representação em texto que o Redis usa para a chave, para casar com as mensagens de invalidação
+    private String chaveLocal(Object key) {
+        return String.valueOf(key);
+    }
+
+    /*
+        Tamanho serializado do valor, para limitar a L1 pelo uso real de memória
+        e não pela quantidade de entradas. Reaproveita a medida da escrita ou
+        leitura na L2, sem serializar e comprimir o valor de novo.
+    */
+    private int pesoDe(Object valor) {
+        int medido = serializador.tamanhoMedido(valor);
+        return medido >= 0 ? medido : PESO_PADRAO;
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.lunix.config.cache;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/*
+    CacheManager que monta um DuasCamadasCache para cada cache do
+    gerenciador remoto (Redis), aplicando a configuração de L1 de cada nome.
+*/
+public class DuasCamadasCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager remoto;
+    private final CacheProperties propriedades;
+    private final BiConsumer<String, String> publicadorDeInvalidacao;
+    private final SerializadorMedido serializador;
+
+    private final Map<String, DuasCamadasCache> caches = new ConcurrentHashMap<>();
+
+    // Recargas de entradas vencidas passam quase todo o tempo esperando Mongo/Redis, por isso threads virtuais
+    private final ExecutorService recargas = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DuasCamadasCacheManager(CacheManager remoto, CacheProperties propriedades,
+                                   BiConsumer<String, String> publicadorDeInvalidacao, SerializadorMedido serializador) {
+        this.remoto = remoto;
+        this.propriedades = propriedades;
+        this.publicadorDeInvalidacao = publicadorDeInvalidacao;
+        this.serializador = serializador;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, nome -> {
+            Cache cacheRemoto = remoto.getCache(nome);
+            return cacheRemoto == null ? null
+                    : new DuasCamadasCache(nome, cacheRemoto, propriedades.de(nome), publicadorDeInvalidacao,
+                                           serializador, recargas);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /*
+        Aplica na L1 desta instância uma invalidação publicada por outra.
+
+        @param cache - Nome do cache
+        @param chave - Chave removida (nula para limpar o cache inteiro)
+    */
+    public void invalidarLocal(String cache, String chave) {
+        DuasCamadasCache alvo = caches.get(cache);
+        if (alvo != null) {
+            alvo.invalidarLocal(chave);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        recargas.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.lunix.config.cache;
+
+/*
+    Mensagem publicada no Redis quando uma instância remove
+    entradas de um cache, para que as outras limpem a própria L1.
+
+    @param origem - Identificador da instância que publicou
+    @param cache - Nome do cache
+    @param chave - Chave removida (nula quando o cache inteiro foi limpo)
+*/
+public record InvalidacaoCache(String origem, String cache, String chave) {
+}
@@ -0,0 +1,52 @@
+package br.com.lunix.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/*
+    Serializador da L2 que guarda, por thread, o tamanho em bytes do
+    último valor gravado ou lido do Redis.
+
+    O DuasCamadasCache sempre guarda na L1 o mesmo objeto que acabou de
+    passar pela L2 na mesma thread, então usa esse tamanho como peso da
+    entrada em vez de serializar (e comprimir) o valor uma segunda vez.
+*/
+public class SerializadorMedido implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegado;
+
+    private final ThreadLocal<Medida> ultima = new ThreadLocal<>();
+
+    private record Medida(Object valor, int bytes) {}
+
+    public SerializadorMedido(RedisSerializer<Object> delegado) {
+        this.delegado = delegado;
+    }
+
+    @Override
+    public byte[] serialize(Object valor) throws SerializationException {
+        byte[] bytes = delegado.serialize(valor);
+        ultima.set(bytes == null ? null : new Medida(valor, bytes.length));
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        Object valor = delegado.deserialize(bytes);
+        ultima.set(bytes == null ? null : new Medida(valor, bytes.length));
+        return valor;
+    }
+
+    /*
+        Tamanho medido do valor, se ele foi o último a passar por este
+        serializador na thread atual. A medida é consumida na leitura.
+
+        @param valor - Objeto guardado na L1 (comparado por identidade)
+        return: Tamanho em bytes, ou -1 se o valor não foi medido
+    */
+    public int tamanhoMedido(Object valor) {
+        Medida medida = ultima.get();
+        ultima.remove();
+        return medida != null && medida.valor() == valor ? medida.bytes() : -1;
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.lunix.config.migrations;
+
+import com.mongodb.client.model.Indexes;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+
+/*
+    Classe de migração que substitui o índice de texto simples
+    do título por um índice ponderado entre título e descrição,
+    usado pela busca textual com ranking de relevância.
+*/
+@ChangeUnit(id = "create-weighted-text-index", order = "006", author = "lunix-dev")
+public class V1_006__CreateWeightedTextIndex {
+
+    public static final String NOME_INDICE = "jogos_busca_texto";
+
+    /*
+        Método de execução que remove o índice antigo (só pode existir
+        um índice de texto por coleção) e cria o novo.
+
+        O título pesa 10x mais que a descrição no textScore. O idioma padrão
+        é português, e documentos podem declarar outro idioma (ex: english)
+        pelo campo 'idioma' para usar o stemming correspondente.
+    */
+    @Execution
+    public void createWeightedTextIndex(MongoTemplate template) {
+        System.out.println("MONGOCK[006]: Criando índice de texto ponderado em jogos...");
+
+        if (template.indexOps("jogos").getIndexInfo().stream().anyMatch(i -> i.getName().equals("titulo_text"))) {
+            template.indexOps("jogos").dropIndex("titulo_text");
+        }
+
+        template.indexOps("jogos").createIndex(TextIndexDefinition.builder()
+                .onField("titulo", 10F)
+                .onField("descricao", 2F)
+                .withDefaultLanguage("portuguese")
+                .withLanguageOverride("idioma")
+                .named(NOME_INDICE)
+                .build());
+    }
+
+    /*
+        Método de rollback que volta para o índice
+        de texto original apenas no título.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.indexOps("jogos").dropIndex(NOME_INDICE);
+        template.getCollection("jogos").createIndex(Indexes.text("titulo"));
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.lunix.config.migrations;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/*
+    Classe de migração que cria os índices compostos usados
+    pela busca facetada e pelas listagens por lançamento.
+
+    Cada índice segue a regra igualdade -> ordenação -> faixa:
+    o campo filtrado vem primeiro, seguido de dataLancamento e _id,
+    que são a ordenação da listagem e também a faixa de anos.
+    Gêneros e plataformas são arrays e por isso não podem estar
+    no mesmo índice composto.
+*/
+@ChangeUnit(id = "create-faceted-search-indexes", order = "007", author = "lunix-dev")
+public class V1_007__CreateFacetedSearchIndexes {
+
+    /*
+        Método de execução que cria os índices
+        compostos na collection de jogos.
+    */
+    @Execution
+    public void createFacetedSearchIndexes(MongoTemplate template) {
+        System.out.println("MONGOCK[007]: Criando índices compostos da busca facetada em jogos...");
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("generos", Sort.Direction.ASC)
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("generos_lancamento"));
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("plataformas", Sort.Direction.ASC)
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("plataformas_lancamento"));
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("classificacao", Sort.Direction.ASC)
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("classificacao_lancamento"));
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("lancamento"));
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("precos.precoAtual", Sort.Direction.ASC)
+                .named("precos_preco_atual"));
+    }
+
+    /*
+        Rollback em caso de problemas deletando
+        os índices criados.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.indexOps("jogos").dropIndex("generos_lancamento");
+        template.indexOps("jogos").dropIndex("plataformas_lancamento");
+        template.indexOps("jogos").dropIndex("classificacao_lancamento");
+        template.indexOps("jogos").dropIndex("lancamento");
+        template.indexOps("jogos").dropIndex("precos_preco_atual");
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.lunix.config.migrations;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/*
+    Classe de migração que cria índices compostos no formato
+    exato das consultas dos repositórios (filtro + ordenação),
+    evitando varreduras completas e ordenações em memória.
+
+    Os índices simples de V1_004/V1_005 que viraram prefixo
+    de um índice composto são removidos, pois só custam escrita.
+*/
+@ChangeUnit(id = "create-query-shaped-indexes", order = "008", author = "lunix-dev")
+public class V1_008__CreateQueryShapedIndexes {
+
+    /*
+        Método de execução que cria os índices por coleção
+        e remove os índices simples redundantes.
+    */
+    @Execution
+    public void createQueryShapedIndexes(MongoTemplate template) {
+        System.out.println("MONGOCK[008]: Criando índices compostos por formato de consulta...");
+
+        // Jogos: listagens por empresa/dev ordenadas por lançamento ou título, top 10 por nota e ordenação por título
+        template.indexOps("jogos").createIndex(new Index()
+                .on("empresa", Sort.Direction.ASC)
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("empresa_lancamento"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("empresa", Sort.Direction.ASC)
+                .on("titulo", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("empresa_titulo"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("devAutonomo", Sort.Direction.ASC)
+                .on("dataLancamento", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC)
+                .named("dev_lancamento"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("devAutonomo", Sort.Direction.ASC)
+                .on("titulo", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("dev_titulo"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("titulo", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("titulo"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("notaMedia", Sort.Direction.DESC)
+                .named("nota_media"));
+
+        // Avaliações: listagens por jogo/usuário mais recentes primeiro e checagem de avaliação duplicada
+        template.indexOps("avaliacoes").createIndex(new Index()
+                .on("jogo", Sort.Direction.ASC)
+                .on("dataCriacao", Sort.Direction.DESC)
+                .named("jogo_data"));
+        template.indexOps("avaliacoes").createIndex(new Index()
+                .on("usuario", Sort.Direction.ASC)
+                .on("dataCriacao", Sort.Direction.DESC)
+                .named("usuario_data"));
+        template.indexOps("avaliacoes").createIndex(new Index()
+                .on("usuario", Sort.Direction.ASC)
+                .on("jogo", Sort.Direction.ASC)
+                .named("usuario_jogo"));
+
+        // Usuários: filtros por role, status, empresa e data de cadastro e busca por nome ordenada
+        template.indexOps("usuarios").createIndex(new Index().on("roles", Sort.Direction.ASC).named("roles"));
+        template.indexOps("usuarios").createIndex(new Index().on("ativo", Sort.Direction.ASC).named("ativo"));
+        template.indexOps("usuarios").createIndex(new Index().on("empresa", Sort.Direction.ASC).named("empresa"));
+        template.indexOps("usuarios").createIndex(new Index().on("dataCriacao", Sort.Direction.ASC).named("data_criacao"));
+        template.indexOps("usuarios").createIndex(new Index().on("nome", Sort.Direction.ASC).named("nome"));
+
+        // Prefixos de índices compostos, tanto os de V1_007 quanto os criados acima
+        removerSeExistir(template, "jogos", "generos_1");
+        removerSeExistir(template, "jogos", "plataformas_1");
+        removerSeExistir(template, "avaliacoes", "jogo_1");
+        removerSeExistir(template, "avaliacoes", "usuario_1");
+    }
+
+    /*
+        Rollback em caso de problemas: remove os índices
+        compostos e recria os índices simples originais.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        for (String nome : new String[]{"empresa_lancamento", "empresa_titulo", "dev_lancamento", "dev_titulo", "titulo", "nota_media"}) {
+            removerSeExistir(template, "jogos", nome);
+        }
+        for (String nome : new String[]{"jogo_data", "usuario_data", "usuario_jogo"}) {
+            removerSeExistir(template, "avaliacoes", nome);
+        }
+        for (String nome : new String[]{"roles", "ativo", "empresa", "data_criacao", "nome"}) {
+            removerSeExistir(template, "usuarios", nome);
+        }
+
+        template.indexOps("jogos").createIndex(new Index().on("generos", Sort.Direction.ASC));
+        template.indexOps("jogos").createIndex(new Index().on("plataformas", Sort.Direction.ASC));
+        template.indexOps("avaliacoes").createIndex(new Index().on("jogo", Sort.Direction.ASC));
+        template.indexOps("avaliacoes").createIndex(new Index().on("usuario", Sort.Direction.ASC));
+    }
+
+    // Remove o índice apenas se ele existir, mantendo a migração idempotente
+    private void removerSeExistir(MongoTemplate template, String colecao, String indice) {
+        if (template.indexOps(colecao).getIndexInfo().stream().anyMatch(i -> i.getName().equals(indice))) {
+            template.indexOps(colecao).dropIndex(indice);
+        }
+    }
+}
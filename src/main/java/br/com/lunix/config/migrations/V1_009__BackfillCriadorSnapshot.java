@@ -0,0 +1,152 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.model.enums.TipoCriador;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    Classe de migração que preenche a cópia embutida do criador
+    (CriadorSnapshot) nos jogos já cadastrados e cria o índice
+    usado para propagar renomeações de empresas e devs.
+
+    Os jogos são percorridos em lotes por _id. Para cada lote os
+    criadores são buscados com um $in por coleção e os jogos
+    são atualizados com um único bulkWrite.
+*/
+@ChangeUnit(id = "backfill-criador-snapshot", order = "009", author = "lunix-dev")
+public class V1_009__BackfillCriadorSnapshot {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /*
+        Método de execução que cria o índice e preenche os jogos sem cópia.
+        Jogos sem empresa nem dev (ex: importados) continuam sem criador.
+    */
+    @Execution
+    public void backfillCriadorSnapshot(MongoTemplate template) {
+        System.out.println("MONGOCK[009]: Preenchendo a cópia do criador nos jogos...");
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("criador.tipo", Sort.Direction.ASC)
+                .on("criador.idOrigem", Sort.Direction.ASC)
+                .named("criador_origem"));
+
+        MongoCollection<Document> jogos = template.getCollection("jogos");
+        Object ultimoId = null;
+        long atualizados = 0;
+
+        while (true) {
+            Bson filtro = ultimoId == null
+                    ? Filters.exists("criador", false)
+                    : Filters.and(Filters.exists("criador", false), Filters.gt("_id", ultimoId));
+
+            List<Document> lote = jogos.find(filtro)
+                    .projection(Projections.include("empresa", "devAutonomo"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(TAMANHO_LOTE)
+                    .into(new ArrayList<>());
+
+            if (lote.isEmpty()) break;
+
+            Set<Object> idsEmpresas = new HashSet<>();
+            Set<Object> idsDevs = new HashSet<>();
+            for (Document jogo : lote) {
+                Object empresa = idDaReferencia(jogo.get("empresa"));
+                Object dev = idDaReferencia(jogo.get("devAutonomo"));
+                if (empresa != null) idsEmpresas.add(empresa);
+                if (dev != null) idsDevs.add(dev);
+            }
+
+            Map<Object, Document> empresas = buscarPorIds(template, "empresas", idsEmpresas, "nome", "urlLogo");
+            Map<Object, Document> devs = buscarPorIds(template, "usuarios", idsDevs, "nome");
+
+            List<WriteModel<Document>> escritas = new ArrayList<>();
+            for (Document jogo : lote) {
+                Document criador = montarCriador(jogo, empresas, devs);
+                if (criador != null) {
+                    escritas.add(new UpdateOneModel<>(Filters.eq("_id", jogo.get("_id")), Updates.set("criador", criador)));
+                }
+            }
+
+            if (!escritas.isEmpty()) {
+                atualizados += jogos.bulkWrite(escritas, new BulkWriteOptions().ordered(false)).getModifiedCount();
+            }
+
+            ultimoId = lote.get(lote.size() - 1).get("_id");
+        }
+
+        System.out.println("MONGOCK[009]: " + atualizados + " jogos atualizados.");
+    }
+
+    /*
+        Rollback em caso de problemas: remove a cópia
+        do criador dos jogos e o índice criado.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.getCollection("jogos").updateMany(Filters.exists("criador"), Updates.unset("criador"));
+
+        if (template.indexOps("jogos").getIndexInfo().stream().anyMatch(i -> i.getName().equals("criador_origem"))) {
+            template.indexOps("jogos").dropIndex("criador_origem");
+        }
+    }
+
+    // Mesma regra do JogoMapper: a empresa tem prioridade sobre o dev autônomo
+    private Document montarCriador(Document jogo, Map<Object, Document> empresas, Map<Object, Document> devs) {
+        Document empresa = empresas.get(idDaReferencia(jogo.get("empresa")));
+        if (empresa != null) {
+            return new Document("idOrigem", empresa.get("_id").toString())
+                    .append("tipo", TipoCriador.EMPRESA.name())
+                    .append("nome", empresa.getString("nome"))
+                    .append("urlLogo", empresa.getString("urlLogo"));
+        }
+
+        Document dev = devs.get(idDaReferencia(jogo.get("devAutonomo")));
+        if (dev != null) {
+            return new Document("idOrigem", dev.get("_id").toString())
+                    .append("tipo", TipoCriador.DEV_AUTONOMO.name())
+                    .append("nome", dev.getString("nome"));
+        }
+        return null;
+    }
+
+    // Busca os campos informados de vários documentos de uma coleção em uma única consulta
+    private Map<Object, Document> buscarPorIds(MongoTemplate template, String colecao, Set<Object> ids, String... campos) {
+        Map<Object, Document> documentos = new HashMap<>();
+        if (ids.isEmpty()) return documentos;
+
+        for (Document doc : template.getCollection(colecao).find(Filters.in("_id", ids)).projection(Projections.include(campos))) {
+            documentos.put(doc.get("_id"), doc);
+        }
+        return documentos;
+    }
+
+    // Extrai o id de uma referência, lida pelo driver como DBRef ou como documento { $ref, $id }
+    private Object idDaReferencia(Object referencia) {
+        if (referencia instanceof DBRef dbRef) return dbRef.getId();
+        if (referencia instanceof Document doc) return doc.get("$id");
+        return null;
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.model.enums.Role;
+import com.mongodb.DBRef;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+    Classe de migração que grava a categoria do autor (autorRole)
+    nas avaliações existentes e cria o índice usado pelas seções
+    de avaliações da página do jogo.
+
+    Os usuários são lidos em lotes e, para cada lote, as avaliações
+    são atualizadas com um updateMany por categoria.
+*/
+@ChangeUnit(id = "backfill-autor-role", order = "010", author = "lunix-dev")
+public class V1_010__BackfillAutorRole {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    /*
+        Método de execução que cria o índice e preenche o autorRole
+        seguindo a prioridade ADMIN > DEV > USER.
+    */
+    @Execution
+    public void backfillAutorRole(MongoTemplate template) {
+        System.out.println("MONGOCK[010]: Gravando a categoria do autor nas avaliações...");
+
+        template.indexOps("avaliacoes").createIndex(new Index()
+                .on("jogo", Sort.Direction.ASC)
+                .on("autorRole", Sort.Direction.ASC)
+                .on("dataCriacao", Sort.Direction.DESC)
+                .named("jogo_autor_data"));
+
+        Map<Role, List<DBRef>> lote = new EnumMap<>(Role.class);
+        int lidos = 0;
+
+        for (Document usuario : template.getCollection("usuarios").find().projection(Projections.include("roles"))) {
+            Role autorRole = Role.principal(lerRoles(usuario));
+            lote.computeIfAbsent(autorRole, r -> new ArrayList<>()).add(new DBRef("usuarios", usuario.get("_id")));
+
+            if (++lidos % TAMANHO_LOTE == 0) {
+                gravarLote(template, lote);
+            }
+        }
+        gravarLote(template, lote);
+    }
+
+    /*
+        Rollback em caso de problemas: remove o campo
+        das avaliações e o índice criado.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.getCollection("avaliacoes").updateMany(Filters.exists("autorRole"), Updates.unset("autorRole"));
+
+        if (template.indexOps("avaliacoes").getIndexInfo().stream().anyMatch(i -> i.getName().equals("jogo_autor_data"))) {
+            template.indexOps("avaliacoes").dropIndex("jogo_autor_data");
+        }
+    }
+
+    // Atualiza as avaliações dos usuários do lote, uma operação por categoria, e esvazia o lote
+    private void gravarLote(MongoTemplate template, Map<Role, List<DBRef>> lote) {
+        lote.forEach((role, usuarios) -> template.getCollection("avaliacoes")
+                .updateMany(Filters.in("usuario", usuarios), Updates.set("autorRole", role.name())));
+        lote.clear();
+    }
+
+    private Set<Role> lerRoles(Document usuario) {
+        Set<Role> roles = new HashSet<>();
+        for (String role : usuario.getList("roles", String.class, List.of())) {
+            roles.add(Role.valueOf(role));
+        }
+        return roles;
+    }
+}
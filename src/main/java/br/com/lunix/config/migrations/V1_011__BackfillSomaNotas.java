@@ -0,0 +1,42 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.repository.JogoRepositoryImpl;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/*
+    Classe de migração que preenche a soma das notas (somaNotas)
+    dos jogos existentes, base dos incrementos atômicos feitos a
+    cada avaliação criada, editada ou removida.
+
+    Usa o mesmo reparo do job diário, que também acerta o total e a
+    média de jogos cujas estatísticas já estivessem divergentes.
+*/
+@ChangeUnit(id = "backfill-soma-notas", order = "011", author = "lunix-dev")
+public class V1_011__BackfillSomaNotas {
+
+    /*
+        Método de execução que recalcula as estatísticas de todos os
+        jogos a partir das avaliações.
+    */
+    @Execution
+    public void backfillSomaNotas(MongoTemplate template) {
+        System.out.println("MONGOCK[011]: Calculando a soma das notas dos jogos...");
+
+        int corrigidos = new JogoRepositoryImpl(template).recalcularEstatisticasDeAvaliacoes().size();
+        System.out.println("MONGOCK[011]: " + corrigidos + " jogo(s) atualizados.");
+    }
+
+    /*
+        Rollback em caso de problemas: remove o campo dos jogos.
+        Total e média continuam válidos para o cálculo antigo.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.getCollection("jogos").updateMany(Filters.exists("somaNotas"), Updates.unset("somaNotas"));
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.repository.JogoRepositoryImpl;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/*
+    Classe de migração que preenche o histograma de notas
+    (histogramaNotas) dos jogos existentes, mantido depois
+    disso a cada avaliação criada, editada ou removida.
+*/
+@ChangeUnit(id = "backfill-histograma-notas", order = "012", author = "lunix-dev")
+public class V1_012__BackfillHistogramaNotas {
+
+    /*
+        Método de execução que recalcula as estatísticas de todos os
+        jogos, agora incluindo o histograma, a partir das avaliações.
+    */
+    @Execution
+    public void backfillHistogramaNotas(MongoTemplate template) {
+        System.out.println("MONGOCK[012]: Montando o histograma de notas dos jogos...");
+
+        int corrigidos = new JogoRepositoryImpl(template).recalcularEstatisticasDeAvaliacoes().size();
+        System.out.println("MONGOCK[012]: " + corrigidos + " jogo(s) atualizados.");
+    }
+
+    /*
+        Rollback em caso de problemas: remove o campo dos jogos.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.getCollection("jogos").updateMany(Filters.exists("histogramaNotas"), Updates.unset("histogramaNotas"));
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.lunix.config.migrations;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/*
+    Classe de migração que cria o índice do score de ranking (nota
+    média ponderada), usado pelo top de melhores avaliados e pelo
+    top 5 do dashboard.
+
+    O índice de notaMedia criado em V1_008 deixa de ser usado por
+    qualquer ordenação e é removido, pois só custa escrita.
+
+    O valor do campo é preenchido pelo job de score de ranking, que
+    trata jogos sem o campo como pendentes de cálculo.
+*/
+@ChangeUnit(id = "create-score-ranking-index", order = "013", author = "lunix-dev")
+public class V1_013__CreateScoreRankingIndex {
+
+    // Método de execução que cria o índice novo e remove o antigo
+    @Execution
+    public void createScoreRankingIndex(MongoTemplate template) {
+        System.out.println("MONGOCK[013]: Criando índice do score de ranking...");
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("scoreRanking", Sort.Direction.DESC)
+                .named("score_ranking"));
+
+        removerSeExistir(template, "jogos", "nota_media");
+    }
+
+    /*
+        Rollback em caso de problemas: remove o índice e o campo
+        e recria o índice de nota média.
+    */
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        removerSeExistir(template, "jogos", "score_ranking");
+        template.getCollection("jogos").updateMany(Filters.exists("scoreRanking"), Updates.unset("scoreRanking"));
+        template.indexOps("jogos").createIndex(new Index()
+                .on("notaMedia", Sort.Direction.DESC)
+                .named("nota_media"));
+    }
+
+    // Remove o índice apenas se ele existir, mantendo a migração idempotente
+    private void removerSeExistir(MongoTemplate template, String colecao, String indice) {
+        if (template.indexOps(colecao).getIndexInfo().stream().anyMatch(i -> i.getName().equals(indice))) {
+            template.indexOps(colecao).dropIndex(indice);
+        }
+    }
+}
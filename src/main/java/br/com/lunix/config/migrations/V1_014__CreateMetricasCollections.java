@@ -0,0 +1,66 @@
+package br.com.lunix.config.migrations;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.Duration;
+
+/*
+    Classe de migração que cria as coleções da série temporal de
+    métricas do dashboard.
+
+    - metricas: time series com momento como campo de tempo e metrica
+      como metadado. Os pontos brutos (retratos diários e contagens por
+      hora) expiram depois de RETENCAO_PONTOS.
+    - metricas_resumo: resumos semanais e mensais consolidados a partir
+      dos pontos. O índice único por métrica, período e início atende
+      as leituras das séries e o $merge da consolidação; o índice TTL
+      em inicio descarta resumos depois de RETENCAO_RESUMOS.
+*/
+@ChangeUnit(id = "create-metricas-collections", order = "014", author = "lunix-dev")
+public class V1_014__CreateMetricasCollections {
+
+    static final Duration RETENCAO_PONTOS = Duration.ofDays(400);
+    static final Duration RETENCAO_RESUMOS = Duration.ofDays(5 * 365);
+
+    // Método de execução que cria as coleções e os índices
+    @Execution
+    public void createMetricasCollections(MongoTemplate template) {
+        System.out.println("MONGOCK[014]: Criando coleções da série temporal de métricas...");
+
+        if (!template.collectionExists("metricas")) {
+            template.createCollection("metricas", CollectionOptions.timeSeries("momento", opcoes -> opcoes
+                    .metaField("metrica")
+                    .granularity(Granularity.HOURS)
+                    .expireAfter(RETENCAO_PONTOS)));
+        }
+        template.indexOps("metricas").createIndex(new Index()
+                .on("metrica", Sort.Direction.ASC)
+                .on("momento", Sort.Direction.ASC)
+                .named("metrica_momento"));
+
+        template.indexOps("metricas_resumo").createIndex(new Index()
+                .on("metrica", Sort.Direction.ASC)
+                .on("periodo", Sort.Direction.ASC)
+                .on("inicio", Sort.Direction.ASC)
+                .unique()
+                .named("metrica_periodo_inicio"));
+        template.indexOps("metricas_resumo").createIndex(new Index()
+                .on("inicio", Sort.Direction.ASC)
+                .expire(RETENCAO_RESUMOS)
+                .named("inicio_ttl"));
+    }
+
+    // Rollback em caso de problemas: remove as duas coleções
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        template.dropCollection("metricas");
+        template.dropCollection("metricas_resumo");
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.lunix.config.migrations;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+/*
+    Classe de migração que cria o índice da próxima atualização de
+    preços, usado pelo planejador de atualizações (PlanejadorPrecosService).
+
+    Cada jogo guarda quando os preços vencem de novo, então uma passada
+    do planejador lê só os jogos vencidos: a igualdade com null (nunca
+    planejados) e o intervalo "até agora", em ordem crescente, são dois
+    intervalos deste índice, sem ler o resto da coleção nem ordenar em memória.
+*/
+@ChangeUnit(id = "create-price-refresh-index", order = "015", author = "lunix-dev")
+public class V1_015__CreatePriceRefreshIndex {
+
+    // Método de execução que cria o índice
+    @Execution
+    public void createPriceRefreshIndex(MongoTemplate template) {
+        System.out.println("MONGOCK[015]: Criando índice da próxima atualização de preços...");
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("proximaAtualizacaoPrecos", Sort.Direction.ASC)
+                .named("proxima_atualizacao_precos"));
+    }
+
+    // Rollback em caso de problemas: remove o índice e os campos do planejador
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        removerSeExistir(template, "jogos", "proxima_atualizacao_precos");
+        template.getCollection("jogos").updateMany(
+                Filters.or(Filters.exists("proximaAtualizacaoPrecos"), Filters.exists("volatilidadePrecos")),
+                Updates.combine(Updates.unset("proximaAtualizacaoPrecos"), Updates.unset("volatilidadePrecos")));
+    }
+
+    // Remove o índice apenas se ele existir, mantendo a migração idempotente
+    private void removerSeExistir(MongoTemplate template, String colecao, String indice) {
+        if (template.indexOps(colecao).getIndexInfo().stream().anyMatch(i -> i.getName().equals(indice))) {
+            template.indexOps(colecao).dropIndex(indice);
+        }
+    }
+}
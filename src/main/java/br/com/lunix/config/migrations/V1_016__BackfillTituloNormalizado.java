@@ -0,0 +1,91 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.model.entities.Jogo;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Classe de migração que preenche o título em minúsculas
+    (tituloNormalizado) dos jogos já cadastrados e cria o índice
+    usado pela busca por prefixo de termos curtos.
+
+    O valor é calculado em Java com a mesma regra da entidade
+    (Jogo.normalizarTitulo), porque o $toLower do Mongo só trata
+    letras ASCII. Os jogos são percorridos em lotes por _id e
+    atualizados com um bulkWrite por lote.
+*/
+@ChangeUnit(id = "backfill-titulo-normalizado", order = "016", author = "lunix-dev")
+public class V1_016__BackfillTituloNormalizado {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    // Método de execução que cria o índice e preenche os jogos sem o campo
+    @Execution
+    public void backfillTituloNormalizado(MongoTemplate template) {
+        System.out.println("MONGOCK[016]: Preenchendo o título normalizado dos jogos...");
+
+        template.indexOps("jogos").createIndex(new Index()
+                .on("tituloNormalizado", Sort.Direction.ASC)
+                .named("titulo_normalizado"));
+
+        MongoCollection<Document> jogos = template.getCollection("jogos");
+        Object ultimoId = null;
+        long atualizados = 0;
+
+        while (true) {
+            Bson filtro = ultimoId == null
+                    ? Filters.exists("tituloNormalizado", false)
+                    : Filters.and(Filters.exists("tituloNormalizado", false), Filters.gt("_id", ultimoId));
+
+            List<Document> lote = jogos.find(filtro)
+                    .projection(Projections.include("titulo"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(TAMANHO_LOTE)
+                    .into(new ArrayList<>());
+
+            if (lote.isEmpty()) break;
+
+            List<WriteModel<Document>> escritas = new ArrayList<>(lote.size());
+            for (Document jogo : lote) {
+                escritas.add(new UpdateOneModel<>(Filters.eq("_id", jogo.get("_id")),
+                        Updates.set("tituloNormalizado", Jogo.normalizarTitulo(jogo.getString("titulo")))));
+            }
+            atualizados += jogos.bulkWrite(escritas, new BulkWriteOptions().ordered(false)).getModifiedCount();
+
+            ultimoId = lote.get(lote.size() - 1).get("_id");
+        }
+
+        System.out.println("MONGOCK[016]: " + atualizados + " jogos atualizados.");
+    }
+
+    // Rollback em caso de problemas: remove o índice e o campo dos jogos
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+        removerSeExistir(template, "jogos", "titulo_normalizado");
+        template.getCollection("jogos").updateMany(Filters.exists("tituloNormalizado"), Updates.unset("tituloNormalizado"));
+    }
+
+    // Remove o índice apenas se ele existir, mantendo a migração idempotente
+    private void removerSeExistir(MongoTemplate template, String colecao, String indice) {
+        if (template.indexOps(colecao).getIndexInfo().stream().anyMatch(i -> i.getName().equals(indice))) {
+            template.indexOps(colecao).dropIndex(indice);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.lunix.config.migrations;
+
+import br.com.lunix.model.entities.Estatisticas;
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+/*
+    Classe de migração que descarta o documento de estatísticas do
+    dashboard, que ainda não tem a contagem de jogos por classificação
+    indicativa usada pela busca facetada sem filtro.
+
+    A próxima leitura (EstatisticasService.buscar) não encontra o
+    documento e o recalcula inteiro a partir das coleções, já com o
+    novo mapa.
+*/
+@ChangeUnit(id = "reconcile-estatisticas-classificacao", order = "017", author = "lunix-dev")
+public class V1_017__ReconcileEstatisticasClassificacao {
+
+    // Método de execução que remove o documento para ser recalculado
+    @Execution
+    public void reconcileEstatisticasClassificacao(MongoTemplate template) {
+        System.out.println("MONGOCK[017]: Descartando as estatísticas do dashboard para recálculo...");
+
+        long removidos = template.remove(new Query(Criteria.where("_id").is(Estatisticas.ID_GLOBAL)), Estatisticas.class).getDeletedCount();
+
+        System.out.println("MONGOCK[017]: " + removidos + " documento(s) removido(s).");
+    }
+
+    // Rollback em caso de problemas: o documento é recalculado na próxima leitura, nada a desfazer
+    @RollbackExecution
+    public void rollback(MongoTemplate template) {
+    }
+}
@@ -1,17 +1,36 @@
 package br.com.lunix.config.rabbit;
 
+import br.com.lunix.services.itad.ItadApiService;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.amqp.core.Queue;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
 @Configuration
 public class RabbitMQConfig {
 
+    // Nome da fábrica de listeners da fila de preços, referenciada no @RabbitListener do consumidor
+    public static final String FABRICA_PRECOS = "precosListenerContainerFactory";
+
     @Value("${indiezone.rabbitmq.queue}")
     private String queueName;
 
+    @Value("${lunix.precos.tamanho-lote:50}")
+    private int tamanhoLote;
+
+    // Consumidores simultâneos da fila de preços em cada instância
+    @Value("${lunix.precos.consumidores:4}")
+    private int consumidores;
+
+    // Lotes entregues antecipadamente a cada consumidor (prefetch = lotes x tamanho do lote)
+    @Value("${lunix.precos.lotes-prefetch:2}")
+    private int lotesPrefetch;
+
     @Bean
     public Queue queue() {
         return new Queue(queueName, true);
@@ -21,4 +40,40 @@ public class RabbitMQConfig {
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
     }
+
+    /*
+        Fábrica de listeners da fila de preços que entrega as mensagens
+        em lotes de até tamanhoLote IDs, para que os preços do lote sejam
+        buscados em uma única requisição à ITAD.
+
+        Parte da configuração padrão do Spring Boot (spring.rabbitmq.listener.simple.*)
+        e ajusta o prefetch ao tamanho do lote, senão o lote nunca enche.
+        Um lote incompleto é entregue depois do receiveTimeout (1s padrão).
+
+        Roda consumidores simultâneos em virtual threads: cada lote passa a
+        maior parte do tempo esperando a ITAD e o MongoDB, então mais
+        consumidores não ocupam threads de plataforma. O prefetch guarda
+        lotesPrefetch lotes por consumidor, para o próximo lote já estar no
+        cliente quando o atual termina. O ritmo real das requisições continua
+        sendo o do LimitadorItad, compartilhado por todos os consumidores.
+    */
+    @Bean(FABRICA_PRECOS)
+    public SimpleRabbitListenerContainerFactory precosListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        // O lote vira uma única requisição de preços, que tem limite de IDs
+        int lote = Math.min(tamanhoLote, ItadApiService.MAXIMO_IDS_POR_REQUISICAO);
+        factory.setBatchSize(lote);
+        factory.setPrefetchCount(lote * Math.max(lotesPrefetch, 1));
+
+        factory.setConcurrentConsumers(Math.max(consumidores, 1));
+        factory.setMaxConcurrentConsumers(Math.max(consumidores, 1));
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("precos-");
+        executor.setVirtualThreads(true);
+        factory.setTaskExecutor(executor);
+        return factory;
+    }
 }
@@ -65,6 +65,8 @@ public class SecurityConfig {
 
                         // Rota de sync de preços (JogoController)
                         .requestMatchers(HttpMethod.POST, "/jogos/sync-prices").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/jogos/ranking/reconstruir").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/avaliacoes/estatisticas/recalcular").hasRole("ADMIN")
 
                         .requestMatchers(HttpMethod.GET, "/jogos/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/empresas/**").permitAll()
@@ -1,43 +1,111 @@
 package br.com.lunix.consumers;
 
+import br.com.lunix.config.rabbit.RabbitMQConfig;
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
 import br.com.lunix.services.jogo.JogoPrecoService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 @Component
 @RequiredArgsConstructor
 public class JogoPrecoConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(JogoPrecoConsumer.class);
 
+    // Id do listener da fila de preços no RabbitListenerEndpointRegistry
+    public static final String LISTENER_PRECOS = "precos";
+
+    // Pausa mínima do listener, para o stop terminar antes do start agendado
+    static final Duration PAUSA_MINIMA = Duration.ofSeconds(1);
+
+    // Pausa do listener depois de uma falha do MongoDB ou do Redis, para o lote devolvido não girar sem parar
+    static final Duration PAUSA_FALHA_DADOS = Duration.ofSeconds(30);
+
     private final JogoPrecoService precoService;
+    private final RabbitListenerEndpointRegistry registry;
 
     /*
-        Método que ouve a fila de atualização de preços
+        Agendador próprio da pausa do listener. O TaskScheduler do Spring é
+        compartilhado com todos os @Scheduled, e um job demorado nele
+        atrasaria a volta do listener pelo tempo do job.
+    */
+    ScheduledExecutorService retomadas = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("precos-retomada").daemon().factory());
+
+    private final AtomicBoolean pausado = new AtomicBoolean();
+
+    /*
+        Método que ouve a fila de atualização de preços. As mensagens
+        chegam em lotes (ver RabbitMQConfig.precosListenerContainerFactory)
+        e o lote inteiro é atualizado com uma busca de preços na ITAD.
+
+        O ritmo das requisições é controlado pelo LimitadorItad. Sem cota,
+        a thread não espera com o lote em mãos: os IDs voltam para a fila,
+        o lote é confirmado e o listener para até a cota voltar.
 
-        @param jogoId - ID do jogo a ser atualizado
+        Uma falha do MongoDB ou do Redis segue o mesmo caminho, com uma
+        pausa fixa: o planejador já adiou o próximo vencimento desses
+        jogos, então confirmar o lote sem processá-lo perderia a
+        atualização até o jogo vencer de novo. Qualquer outro erro é
+        relançado e fica com o retry do container (spring.rabbitmq.listener.simple.retry).
+
+        @param jogoIds - IDs dos jogos a serem atualizados
     */
-    @RabbitListener(queues = "${indiezone.rabbitmq.queue}")
-    public void consumirMensagem(String jogoId) {
-        log.info("Mensagem recebida da fila. Iniciando atualização para Jogo ID: {}", jogoId);
+    @RabbitListener(id = LISTENER_PRECOS, queues = "${indiezone.rabbitmq.queue}", containerFactory = RabbitMQConfig.FABRICA_PRECOS)
+    public void consumirLote(List<String> jogoIds) {
+        log.info("Lote recebido da fila. Iniciando atualização de preços para {} jogos.", jogoIds.size());
 
         try {
             // A regra de negócio é delegada para a Service
-            boolean atualizou = precoService.processarAtualizacaoLogica(jogoId);
-
-            if (atualizou) {
-                // Rate limiting: Pausa estratégica para respeitar a API do ITAD
-                Thread.sleep(2000);
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Consumer interrompido inesperadamente", e);
-        } catch (Exception e) {
-            // Loga o erro mas não derruba o listener.
-            log.error("Erro ao processar atualização de preço para o ID: {}", jogoId, e);
+            precoService.processarLote(jogoIds);
+        } catch (LimiteItadExcedidoException e) {
+            log.warn("Limite de requisições à ITAD atingido, lote devolvido para a fila: {}", e.getMessage());
+            precoService.devolverParaFila(jogoIds);
+            pausar(e.getEspera());
+        } catch (DataAccessException e) {
+            log.error("Falha de acesso a dados ao atualizar preços, lote devolvido para a fila: {}", e.getMessage());
+            precoService.devolverParaFila(jogoIds);
+            pausar(PAUSA_FALHA_DADOS);
         }
     }
+
+    /*
+        Para o listener da fila de preços e agenda a volta dele. O stop roda
+        em outra thread, pois espera o lote atual terminar, e uma pausa já
+        agendada (outro consumidor que atingiu o limite) não é repetida.
+        Com uma única thread em retomadas, o start nunca passa na frente
+        de um stop que ainda não terminou.
+    */
+    private void pausar(Duration espera) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_PRECOS);
+        if (container == null || !pausado.compareAndSet(false, true)) return;
+
+        Duration pausa = espera.compareTo(PAUSA_MINIMA) < 0 ? PAUSA_MINIMA : espera;
+        log.info("Listener de preços pausado por {} ms.", pausa.toMillis());
+
+        retomadas.execute(container::stop);
+        retomadas.schedule(() -> {
+            pausado.set(false);
+            container.start();
+        }, pausa.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        retomadas.shutdownNow();
+    }
 }
@@ -16,6 +16,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -121,4 +122,16 @@ public class AvaliacaoController {
     ) {
         return ResponseEntity.ok(service.listarMinhas(page, size));
     }
+
+    @PostMapping("/estatisticas/recalcular")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reparar Estatísticas (Admin)", description = "Recalcula soma, total e nota média de todos os jogos a partir das avaliações.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Quantidade de jogos corrigidos"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado",
+                    content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<Integer> recalcularEstatisticas() {
+        return ResponseEntity.ok(service.recalcularEstatisticas());
+    }
 }
@@ -1,8 +1,13 @@
 package br.com.lunix.controller;
 
 import br.com.lunix.dto.dashboard.DashboardCompletoDto;
+import br.com.lunix.dto.dashboard.SerieMetricaDto;
 import br.com.lunix.dto.error.StandardError;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
 import br.com.lunix.services.dashboard.DashboardService;
+import br.com.lunix.services.dashboard.MetricaService;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,12 +16,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/admin/dashboard")
 @Tag(name = "Dashboard", description = "Dados analíticos e estatísticos para administração.")
@@ -25,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final MetricaService metricaService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -38,4 +49,26 @@ public class DashboardController {
     public ResponseEntity<DashboardCompletoDto> getDadosDashboard() {
         return ResponseEntity.ok(dashboardService.gerarDashboardCompleto());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/series/{metrica}")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Série de uma Métrica", description = "Retorna a evolução de uma métrica no intervalo, por hora, dia, semana ou mês.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Série retornada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SerieMetricaDto.class))),
+            @ApiResponse(responseCode = "400", description = "Intervalo inválido ou grande demais para a granularidade",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "403", description = "Acesso negado (Requer ADMIN)",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<SerieMetricaDto> getSerie(
+            @PathVariable Metrica metrica,
+            @Parameter(description = "Tamanho de cada ponto", example = "DIA") @RequestParam(defaultValue = "DIA") Granularidade granularidade,
+            @Parameter(description = "Primeiro dia (padrão: 30 dias antes do fim)", example = "2026-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+            @Parameter(description = "Último dia, inclusivo (padrão: hoje)", example = "2026-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim
+    ) {
+        return ResponseEntity.ok(metricaService.buscarSerie(metrica, granularidade, inicio, fim));
+    }
+}
@@ -2,11 +2,14 @@ package br.com.lunix.controller;
 
 import br.com.lunix.dto.error.StandardError;
 import br.com.lunix.dto.jogos.*;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
 import br.com.lunix.model.enums.Genero;
 import br.com.lunix.model.enums.Plataforma;
 import br.com.lunix.services.jogo.JogoImportService;
 import br.com.lunix.services.jogo.JogoPrecoService;
 import br.com.lunix.services.jogo.JogoService;
+import br.com.lunix.services.ranking.RankingService;
+import br.com.lunix.services.ranking.TrendingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,8 +21,10 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -37,6 +42,10 @@ public class JogoController {
 
     private final JogoPrecoService precoService;
 
+    private final RankingService rankingService;
+
+    private final TrendingService trendingService;
+
     @GetMapping("/{id}")
     @Operation(summary = "Detalhes do Jogo", description = "Retorna dados completos, incluindo avaliações separadas por perfil.")
     @ApiResponses(value = {
@@ -45,8 +54,11 @@ public class JogoController {
             @ApiResponse(responseCode = "404", description = "Jogo não encontrado",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
     })
-    public ResponseEntity<JogoDetalhesDto> buscarPorId(@PathVariable String id) {
-        return ResponseEntity.ok(jogoService.buscarDetalhesPorId(id));
+    public ResponseEntity<JogoDetalhesDto> buscarPorId(@PathVariable String id, Authentication authentication) {
+        JogoDetalhesDto detalhes = jogoService.buscarDetalhesPorId(id);
+        // Contado aqui, fora do cache de detalhes; só visualizações autenticadas entram no trending
+        trendingService.registrarVisualizacao(id, authentication == null ? null : authentication.getName());
+        return ResponseEntity.ok(detalhes);
     }
 
     @GetMapping
@@ -64,8 +76,22 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.listarTodos(page, size));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar Todos (Cursor)", description = "Paginação por cursor, sem contagem total. Use o proximoCursor da resposta para a próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoSliceDto> listarTodosPorCursor(
+            @Parameter(description = "Token devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação usada na primeira página") @RequestParam(defaultValue = "LANCAMENTO") JogoCursor.Ordenacao ordem,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(jogoService.listarTodosPorCursor(cursor, ordem, size));
+    }
+
     @GetMapping("/search")
-    @Operation(summary = "Buscar por Título", description = "Pesquisa jogos pelo nome (busca parcial case-insensitive).")
+    @Operation(summary = "Buscar por Título", description = "Busca textual em título e descrição ordenada por relevância. Termos com menos de 3 letras buscam pelo início do título.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Jogo encontrado",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = JogoResponseDto.class))),
@@ -80,6 +106,43 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarPorTitulo(termo, page, size));
     }
 
+    @GetMapping("/autocomplete")
+    @Operation(summary = "Autocomplete", description = "Sugestões de jogos e empresas pelo início das palavras do nome, servidas de um índice em memória.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SugestaoAutocompleteDto.class)))
+    })
+    public ResponseEntity<List<SugestaoAutocompleteDto>> autocompletar(
+            @Parameter(description = "Texto digitado", example = "hol") @RequestParam String termo,
+            @Parameter(description = "Máximo de sugestões (até 20)", example = "8") @RequestParam(defaultValue = "8") int limite
+    ) {
+        return ResponseEntity.ok(jogoService.autocompletar(termo, limite));
+    }
+
+    @GetMapping("/filter")
+    @Operation(summary = "Busca Facetada", description = "Combina gêneros, plataformas, classificações, faixa de anos e faixa de preço. Retorna a página de jogos, o cursor da próxima página e a contagem por faceta.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = JogoFiltroResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Faixa de anos ou preços inválida",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoFiltroResponseDto> filtrar(
+            @Parameter(description = "Gêneros aceitos", example = "RPG,ACAO") @RequestParam(required = false) List<Genero> generos,
+            @Parameter(description = "Plataformas aceitas", example = "PC") @RequestParam(required = false) List<Plataforma> plataformas,
+            @Parameter(description = "Classificações aceitas", example = "LIVRE,DEZ") @RequestParam(required = false) List<ClassificacaoIndicativa> classificacoes,
+            @Parameter(description = "Ano de lançamento inicial", example = "2015") @RequestParam(required = false) Integer anoInicio,
+            @Parameter(description = "Ano de lançamento final", example = "2023") @RequestParam(required = false) Integer anoFim,
+            @Parameter(description = "Preço mínimo", example = "0") @RequestParam(required = false) Double precoMin,
+            @Parameter(description = "Preço máximo", example = "50") @RequestParam(required = false) Double precoMax,
+            @Parameter(description = "Token devolvido pela página anterior (substitui o page)") @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        JogoFiltroDto filtro = new JogoFiltroDto(generos, plataformas, classificacoes, anoInicio, anoFim, precoMin, precoMax);
+        return ResponseEntity.ok(jogoService.filtrar(filtro, cursor, page, size));
+    }
+
     @GetMapping("/genero/{genero}")
     @Operation(summary = "Filtrar por Gênero")
     @ApiResponses(value = {
@@ -96,6 +159,21 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarPorGenero(genero, page, size));
     }
 
+    @GetMapping("/genero/{genero}/cursor")
+    @Operation(summary = "Filtrar por Gênero (Cursor)", description = "Paginação por cursor, sem contagem total. Use o proximoCursor da resposta para a próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoSliceDto> buscarPorGeneroPorCursor(
+            @PathVariable Genero genero,
+            @Parameter(description = "Token devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação usada na primeira página") @RequestParam(defaultValue = "LANCAMENTO") JogoCursor.Ordenacao ordem,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(jogoService.buscarPorGeneroPorCursor(genero, cursor, ordem, size));
+    }
+
     @GetMapping("/plataforma/{plataforma}")
     @Operation(summary = "Filtrar por Plataforma")
     @ApiResponses(value = {
@@ -112,6 +190,21 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarPorPlataforma(plataforma, page, size));
     }
 
+    @GetMapping("/plataforma/{plataforma}/cursor")
+    @Operation(summary = "Filtrar por Plataforma (Cursor)", description = "Paginação por cursor, sem contagem total. Use o proximoCursor da resposta para a próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoSliceDto> buscarPorPlataformaPorCursor(
+            @PathVariable Plataforma plataforma,
+            @Parameter(description = "Token devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação usada na primeira página") @RequestParam(defaultValue = "LANCAMENTO") JogoCursor.Ordenacao ordem,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(jogoService.buscarPorPlataformaPorCursor(plataforma, cursor, ordem, size));
+    }
+
     @GetMapping("/empresa/{id}")
     @Operation(summary = "Filtrar por Empresa")
 
@@ -127,6 +220,22 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarPorEmpresa(id, page, size));
     }
 
+    @GetMapping("/empresa/{id}/cursor")
+    @Operation(summary = "Filtrar por Empresa (Cursor)", description = "Paginação por cursor, sem contagem total. Use o proximoCursor da resposta para a próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Empresa não encontrada", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoSliceDto> buscarPorEmpresaPorCursor(
+            @PathVariable String id,
+            @Parameter(description = "Token devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação usada na primeira página") @RequestParam(defaultValue = "LANCAMENTO") JogoCursor.Ordenacao ordem,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(jogoService.buscarPorEmpresaPorCursor(id, cursor, ordem, size));
+    }
+
     @GetMapping("/dev/{id}")
     @Operation(summary = "Filtrar por Desenvolvedor")
     @ApiResponses(value = {
@@ -141,6 +250,22 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarPorDev(id, page, size));
     }
 
+    @GetMapping("/dev/{id}/cursor")
+    @Operation(summary = "Filtrar por Desenvolvedor (Cursor)", description = "Paginação por cursor, sem contagem total. Use o proximoCursor da resposta para a próxima página.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoSliceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido", content = @Content(schema = @Schema(implementation = StandardError.class))),
+            @ApiResponse(responseCode = "404", description = "Desenvolvedor não encontrado", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<JogoSliceDto> buscarPorDevPorCursor(
+            @PathVariable String id,
+            @Parameter(description = "Token devolvido pela página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Ordenação usada na primeira página") @RequestParam(defaultValue = "LANCAMENTO") JogoCursor.Ordenacao ordem,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(jogoService.buscarPorDevPorCursor(id, cursor, ordem, size));
+    }
+
     @GetMapping("/top-avaliados")
     @Operation(summary = "Top 10 Melhores")
     @ApiResponses(value = {
@@ -151,6 +276,53 @@ public class JogoController {
         return ResponseEntity.ok(jogoService.buscarTop10MelhoresAvaliados());
     }
 
+    @GetMapping("/ranking/genero/{genero}")
+    @Operation(summary = "Ranking por Gênero", description = "Jogos com melhor nota do gênero, lidos do ranking materializado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoResponseDto.class)))
+    })
+    public ResponseEntity<List<JogoResponseDto>> rankingPorGenero(
+            @PathVariable Genero genero,
+            @Parameter(description = "Quantidade de jogos (máximo " + RankingService.LIMITE_MAXIMO + ")") @RequestParam(defaultValue = "10") int limite
+    ) {
+        return ResponseEntity.ok(jogoService.buscarTopPorGenero(genero, limite));
+    }
+
+    @GetMapping("/ranking/plataforma/{plataforma}")
+    @Operation(summary = "Ranking por Plataforma", description = "Jogos com melhor nota da plataforma, lidos do ranking materializado.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoResponseDto.class)))
+    })
+    public ResponseEntity<List<JogoResponseDto>> rankingPorPlataforma(
+            @PathVariable Plataforma plataforma,
+            @Parameter(description = "Quantidade de jogos (máximo " + RankingService.LIMITE_MAXIMO + ")") @RequestParam(defaultValue = "10") int limite
+    ) {
+        return ResponseEntity.ok(jogoService.buscarTopPorPlataforma(plataforma, limite));
+    }
+
+    @GetMapping("/trending")
+    @Operation(summary = "Jogos em Alta", description = "Jogos com mais avaliações e visualizações recentes, com peso maior para a atividade mais nova.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = JogoResponseDto.class)))
+    })
+    public ResponseEntity<List<JogoResponseDto>> trending(
+            @Parameter(description = "Quantidade de jogos (máximo " + RankingService.LIMITE_MAXIMO + ")") @RequestParam(defaultValue = "10") int limite
+    ) {
+        return ResponseEntity.ok(jogoService.buscarTrending(limite));
+    }
+
+    @GetMapping("/histogramas")
+    @Operation(summary = "Histogramas de Notas", description = "Distribuição das notas de vários jogos em uma chamada (até 100 ids).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sucesso", content = @Content(schema = @Schema(implementation = HistogramaNotasDto.class))),
+            @ApiResponse(responseCode = "400", description = "Nenhum id ou ids demais", content = @Content(schema = @Schema(implementation = StandardError.class)))
+    })
+    public ResponseEntity<List<HistogramaNotasDto>> histogramas(
+            @Parameter(description = "IDs dos jogos (ex: ?ids=a,b,c)") @RequestParam List<String> ids
+    ) {
+        return ResponseEntity.ok(jogoService.buscarHistogramas(ids));
+    }
+
     @GetMapping("/lancamentos")
     @Operation(summary = "Lançamentos Recentes")
     @ApiResponses(value = {
@@ -231,13 +403,27 @@ public class JogoController {
 
     @PostMapping("/sync-prices")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Sincronização Global de Preços (Admin)", description = "Dispara atualização de todos os jogos via RabbitMQ.")
+    @Operation(summary = "Sincronização Global de Preços (Admin)", description = "Dispara atualização de todos os jogos via RabbitMQ. Retorna quantos jogos foram enviados para a fila.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Processamento iniciado"),
             @ApiResponse(responseCode = "403", description = "Acesso negado")
     })
-    public ResponseEntity<Void> syncPrices() {
-        precoService.solicitarAtualizacaoGlobalAdmin();
-        return ResponseEntity.accepted().build();
+    public ResponseEntity<EnfileiramentoPrecosDto> syncPrices() {
+        return ResponseEntity.accepted().body(precoService.solicitarAtualizacaoGlobalAdmin());
+    }
+
+    @PostMapping("/ranking/reconstruir")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruir Rankings (Admin)", description = "Remonta todos os rankings do Redis a partir do banco.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Rankings reconstruídos"),
+            @ApiResponse(responseCode = "403", description = "Acesso negado"),
+            @ApiResponse(responseCode = "409", description = "Reconstrução já em andamento em outra instância")
+    })
+    public ResponseEntity<Void> reconstruirRankings() {
+        if (rankingService.reconstruir() < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
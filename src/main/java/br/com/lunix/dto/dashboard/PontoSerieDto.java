@@ -0,0 +1,14 @@
+package br.com.lunix.dto.dashboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+// Dto para um ponto de uma série de métricas do dashboard
+public record PontoSerieDto(
+        @Schema(description = "Início do período do ponto", example = "2026-03-02T00:00:00")
+        LocalDateTime inicio,
+        @Schema(description = "Valor da métrica no período (soma dos eventos ou último retrato)", example = "42")
+        double valor
+) {
+}
@@ -0,0 +1,11 @@
+package br.com.lunix.dto.dashboard;
+
+/*
+    DTO interno com a quantidade de avaliações e a soma de todas
+    as notas, base da média global do dashboard.
+*/
+public record ResumoAvaliacoesDashboardDto(
+        long total,
+        double somaNotas
+) {
+}
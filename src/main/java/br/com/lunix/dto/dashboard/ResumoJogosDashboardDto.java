@@ -0,0 +1,17 @@
+package br.com.lunix.dto.dashboard;
+
+import java.util.Map;
+
+/*
+    DTO interno com as contagens de jogos do dashboard, todas
+    produzidas pela mesma agregação $facet (chave dos mapas é o
+    nome do enum e valor é a quantidade de jogos).
+*/
+public record ResumoJogosDashboardDto(
+        long semPreco,
+        long semEmpresa,
+        Map<String, Long> porGenero,
+        Map<String, Long> porPlataforma,
+        Map<String, Long> porClassificacao
+) {
+}
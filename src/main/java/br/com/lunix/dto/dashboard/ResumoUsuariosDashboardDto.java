@@ -0,0 +1,15 @@
+package br.com.lunix.dto.dashboard;
+
+import java.util.Map;
+
+/*
+    DTO interno com as contagens de usuários do dashboard, todas
+    produzidas pela mesma agregação $facet (chave de porRole é o nome
+    da role e de novosPorDia é o dia do cadastro, yyyy-MM-dd).
+*/
+public record ResumoUsuariosDashboardDto(
+        long desativados,
+        Map<String, Long> novosPorDia,
+        Map<String, Long> porRole
+) {
+}
@@ -0,0 +1,18 @@
+package br.com.lunix.dto.dashboard;
+
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+// Dto para a série de uma métrica do dashboard em um intervalo
+public record SerieMetricaDto(
+        @Schema(description = "Métrica consultada", example = "AVALIACOES_CRIADAS")
+        Metrica metrica,
+        @Schema(description = "Tamanho de cada ponto da série", example = "SEMANA")
+        Granularidade granularidade,
+        @Schema(description = "Pontos em ordem cronológica; períodos sem dados não aparecem")
+        List<PontoSerieDto> pontos
+) {
+}
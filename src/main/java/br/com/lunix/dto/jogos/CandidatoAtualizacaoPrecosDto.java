@@ -0,0 +1,14 @@
+package br.com.lunix.dto.jogos;
+
+/*
+    DTO interno com os campos de um jogo vencido usados pelo planejador
+    de atualização de preços para calcular o próximo vencimento:
+    popularidade (totalAvaliacoes) e volatilidade dos preços (nula se
+    nunca medida).
+*/
+public record CandidatoAtualizacaoPrecosDto(
+        String id,
+        int totalAvaliacoes,
+        Double volatilidadePrecos
+) {
+}
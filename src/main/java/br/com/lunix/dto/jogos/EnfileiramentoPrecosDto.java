@@ -0,0 +1,14 @@
+package br.com.lunix.dto.jogos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+// Dto com o resultado do envio de todos os jogos para a fila de preços
+public record EnfileiramentoPrecosDto(
+        @Schema(description = "Jogos enviados para a fila", example = "100000")
+        long jogos,
+        @Schema(description = "Lotes publicados, cada um confirmado pelo broker", example = "100")
+        int lotes,
+        @Schema(description = "Duração do envio em milissegundos", example = "4200")
+        long duracaoMs
+) {
+}
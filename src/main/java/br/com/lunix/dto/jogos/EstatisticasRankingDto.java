@@ -0,0 +1,23 @@
+package br.com.lunix.dto.jogos;
+
+import java.util.List;
+
+/*
+    DTO interno com os dados de um jogo usados no cálculo do score de
+    ranking: soma e total de avaliações, o score gravado atualmente (nulo
+    se nunca foi calculado) e os gêneros/plataformas dos rankings filtrados.
+*/
+public record EstatisticasRankingDto(
+        String jogoId,
+        double somaNotas,
+        int totalAvaliacoes,
+        Double scoreRanking,
+        List<String> generos,
+        List<String> plataformas
+) {
+
+    // Cópia com o novo score calculado
+    public EstatisticasRankingDto comScore(double score) {
+        return new EstatisticasRankingDto(jogoId, somaNotas, totalAvaliacoes, score, generos, plataformas);
+    }
+}
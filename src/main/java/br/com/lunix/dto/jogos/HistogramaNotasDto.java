@@ -0,0 +1,17 @@
+package br.com.lunix.dto.jogos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+// DTO com a distribuição das notas de um jogo, usado na busca de histogramas em lote
+public record HistogramaNotasDto(
+        @Schema(description = "Identificador único do jogo", example = "650c...")
+        String jogoId,
+        @Schema(description = "Quantidade de avaliações por faixa de nota (índice 0 = 0 a 0.9, ..., índice 10 = 10)",
+                example = "[0, 0, 1, 0, 2, 3, 5, 9, 14, 8, 4]")
+        List<Integer> faixas,
+        @Schema(description = "Quantidade total de avaliações do jogo", example = "46")
+        int totalAvaliacoes
+) {
+}
@@ -0,0 +1,89 @@
+package br.com.lunix.dto.jogos;
+
+import br.com.lunix.exceptions.RegraDeNegocioException;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/*
+    Record que representa a posição de leitura em uma paginação
+    por cursor (keyset) dos jogos.
+
+    O cursor guarda a ordenação utilizada, o id do último jogo
+    devolvido e o valor do campo de ordenação desse jogo. Para o
+    cliente ele é apenas um token opaco em Base64.
+
+    @param ordenacao - Ordenação que gerou o cursor
+    @param ultimoId - ID do último jogo da página anterior
+    @param ultimoValor - Valor do campo de ordenação do último jogo (pode ser nulo)
+*/
+public record JogoCursor(Ordenacao ordenacao, String ultimoId, String ultimoValor) {
+
+    private static final String SEPARADOR = "|";
+
+    /*
+        Ordenações suportadas pela paginação por cursor.
+        O _id é sempre utilizado como critério de desempate.
+    */
+    public enum Ordenacao {
+        LANCAMENTO("dataLancamento", Sort.Direction.DESC),
+        TITULO("titulo", Sort.Direction.ASC);
+
+        private final String campo;
+        private final Sort.Direction direcao;
+
+        Ordenacao(String campo, Sort.Direction direcao) {
+            this.campo = campo;
+            this.direcao = direcao;
+        }
+
+        public String getCampo() {
+            return campo;
+        }
+
+        public Sort.Direction getDirecao() {
+            return direcao;
+        }
+    }
+
+    // Gera o token opaco que será enviado ao cliente
+    public String codificar() {
+        StringBuilder sb = new StringBuilder()
+                .append(ordenacao.name()).append(SEPARADOR)
+                .append(ultimoId);
+
+        // Valor nulo é representado pela ausência da terceira parte
+        if (ultimoValor != null) {
+            sb.append(SEPARADOR).append(ultimoValor);
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /*
+        Reconstrói um cursor a partir do token recebido do cliente.
+
+        @param token - Token gerado anteriormente por codificar()
+        return: Cursor decodificado
+    */
+    public static JogoCursor decodificar(String token) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = bruto.split("\\|", 3);
+
+            if (partes.length < 2 || !ObjectId.isValid(partes[1])) {
+                throw new RegraDeNegocioException("Cursor de paginação inválido.");
+            }
+
+            Ordenacao ordenacao = Ordenacao.valueOf(partes[0]);
+            String valor = partes.length == 3 ? partes[2] : null;
+
+            return new JogoCursor(ordenacao, partes[1], valor);
+        } catch (IllegalArgumentException e) {
+            throw new RegraDeNegocioException("Cursor de paginação inválido.");
+        }
+    }
+}
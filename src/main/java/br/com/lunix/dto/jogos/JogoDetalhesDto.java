@@ -36,6 +36,9 @@ public record JogoDetalhesDto(
         double notaMedia,
         @Schema(description = "Quantidade total de avaliações do jogo", example = "40")
         int totalAvaliacoes,
+        @Schema(description = "Quantidade de avaliações por faixa de nota (índice 0 = 0 a 0.9, ..., índice 10 = 10)",
+                example = "[0, 0, 1, 0, 2, 3, 5, 9, 14, 8, 4]")
+        List<Integer> histogramaNotas,
         @Schema(description = "Nome do criador do jogo", example = "Team Cherry")
         String nomeCriador,
         @Schema(description = "URL do trailer (Youtube/Clip)", example = "https://video.com/clip.mp4")
@@ -0,0 +1,31 @@
+package br.com.lunix.dto.jogos;
+
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/*
+    DTO com os filtros combináveis da busca facetada.
+    Todos os campos são opcionais: valores da mesma lista são
+    combinados com OU e filtros diferentes são combinados com E.
+*/
+public record JogoFiltroDto(
+        @Schema(description = "Gêneros aceitos", example = "[ 'RPG', 'ACAO' ]")
+        List<Genero> generos,
+        @Schema(description = "Plataformas aceitas", example = "[ 'PC', 'NINTENDO_SWITCH' ]")
+        List<Plataforma> plataformas,
+        @Schema(description = "Classificações indicativas aceitas", example = "[ 'LIVRE', 'DEZ' ]")
+        List<ClassificacaoIndicativa> classificacoes,
+        @Schema(description = "Ano de lançamento inicial (inclusivo)", example = "2015")
+        Integer anoInicio,
+        @Schema(description = "Ano de lançamento final (inclusivo)", example = "2023")
+        Integer anoFim,
+        @Schema(description = "Preço atual mínimo em alguma loja", example = "0")
+        Double precoMin,
+        @Schema(description = "Preço atual máximo em alguma loja", example = "50.0")
+        Double precoMax
+) {
+}
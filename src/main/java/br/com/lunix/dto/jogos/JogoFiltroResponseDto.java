@@ -0,0 +1,24 @@
+package br.com.lunix.dto.jogos;
+
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+// DTO de resposta da busca facetada com a página de jogos e as contagens por faceta
+public record JogoFiltroResponseDto(
+        @Schema(description = "Página com os jogos que atendem aos filtros")
+        Page<JogoResponseDto> resultados,
+        @Schema(description = "Token para buscar a próxima página por cursor (nulo se não houver)", example = "TEFOQ0FNRU5UT3w2NTBj...")
+        String proximoCursor,
+        @Schema(description = "Quantidade de jogos filtrados em cada gênero", example = "{ 'RPG': 12, 'ACAO': 30 }")
+        Map<Genero, Long> generos,
+        @Schema(description = "Quantidade de jogos filtrados em cada plataforma", example = "{ 'PC': 40, 'NINTENDO_SWITCH': 8 }")
+        Map<Plataforma, Long> plataformas,
+        @Schema(description = "Quantidade de jogos filtrados em cada classificação", example = "{ 'LIVRE': 20, 'DEZ': 5 }")
+        Map<ClassificacaoIndicativa, Long> classificacoes
+) {
+}
@@ -0,0 +1,22 @@
+package br.com.lunix.dto.jogos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/*
+    DTO de resposta da paginação por cursor.
+    Diferente de Page, não traz o total de elementos,
+    evitando a contagem da coleção inteira a cada página.
+*/
+public record JogoSliceDto(
+        @Schema(description = "Jogos da página atual")
+        List<JogoResponseDto> conteudo,
+        @Schema(description = "Token para buscar a próxima página (nulo se não houver)", example = "TEFOQ0FNRU5UT3w2NTBj...")
+        String proximoCursor,
+        @Schema(description = "Indica se existe uma próxima página", example = "true")
+        boolean temProximo,
+        @Schema(description = "Quantidade de itens solicitada por página", example = "10")
+        int tamanho
+) {
+}
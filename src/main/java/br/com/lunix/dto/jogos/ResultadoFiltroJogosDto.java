@@ -0,0 +1,16 @@
+package br.com.lunix.dto.jogos;
+
+import java.util.Map;
+
+/*
+    DTO interno com o resultado da agregação facetada de jogos:
+    o total filtrado e as contagens de cada faceta (chave é o nome
+    do enum e valor é a quantidade de jogos).
+*/
+public record ResultadoFiltroJogosDto(
+        long total,
+        Map<String, Long> generos,
+        Map<String, Long> plataformas,
+        Map<String, Long> classificacoes
+) {
+}
@@ -0,0 +1,23 @@
+package br.com.lunix.dto.jogos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/*
+    DTO com uma sugestão da barra de pesquisa.
+    Pode representar um jogo ou uma empresa.
+*/
+public record SugestaoAutocompleteDto(
+        @Schema(description = "Identificador único do jogo ou empresa", example = "650c...")
+        String id,
+        @Schema(description = "Nome exibido na sugestão", example = "Hollow Knight")
+        String nome,
+        @Schema(description = "Tipo da sugestão", example = "JOGO")
+        Tipo tipo,
+        @Schema(description = "Nota média (apenas para jogos)", example = "9.2")
+        double notaMedia
+) {
+    public enum Tipo {
+        JOGO,
+        EMPRESA
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.lunix.exceptions;
+
+import java.time.Duration;
+
+/*
+    Lançada quando não há cota de requisições à ITAD disponível, seja pelo
+    limitador local (LimitadorItad) ou por uma resposta 429 da própria API.
+    Carrega o tempo até a cota voltar, para quem chamou decidir o que fazer.
+*/
+public class LimiteItadExcedidoException extends RuntimeException {
+
+    private final Duration espera;
+
+    public LimiteItadExcedidoException(Duration espera) {
+        super("Limite de requisições à ITAD atingido. Nova tentativa em " + espera.toMillis() + " ms.");
+        this.espera = espera;
+    }
+
+    public Duration getEspera() {
+        return espera;
+    }
+}
@@ -116,6 +116,7 @@ public class JogoMapper {
                 jogo.getPlataformas(),
                 jogo.getNotaMedia(),
                 jogo.getTotalAvaliacoes(),
+                Jogo.normalizarHistograma(jogo.getHistogramaNotas()),
                 determinarNomeCriador(jogo),
                 jogo.getUrlTrailer(),
                 jogo.getScreenshots(),
@@ -127,8 +128,12 @@ public class JogoMapper {
 
     /*
       Define quem deve aparecer como "Criador": A Empresa ou o Dev Autônomo.
+      Usa a cópia embutida quando existir, evitando resolver a referência.
     */
     private String determinarNomeCriador(Jogo jogo) {
+        if (jogo.getCriador() != null && jogo.getCriador().getNome() != null) {
+            return jogo.getCriador().getNome();
+        }
         if (jogo.getEmpresa() != null) {
             return jogo.getEmpresa().getNome();
         } else if (jogo.getDevAutonomo() != null) {
@@ -1,5 +1,6 @@
 package br.com.lunix.model.entities;
 
+import br.com.lunix.model.enums.Role;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -35,6 +36,9 @@ public class Avaliacao {
     @DBRef
     private Jogo jogo;
 
+    // Categoria do autor no momento da escrita, usada para separar as seções da página do jogo
+    private Role autorRole;
+
     private double nota;
 
     private String comentario;
@@ -0,0 +1,50 @@
+package br.com.lunix.model.entities;
+
+import br.com.lunix.model.enums.TipoCriador;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/*
+    Classe de suporte embutida no Jogo com uma cópia dos dados
+    de exibição do criador (empresa ou dev autônomo).
+
+    Permite montar as listagens sem resolver a referência do criador
+    jogo a jogo. A cópia é atualizada quando a empresa ou o
+    usuário de origem muda de nome ou logo.
+
+    @Getter @Setter - Cria todos os getters e setters da classe.
+    @NoArgsConstructor @AllArgsConstructor - Anotações que criam
+    automaticamente os construtores pricipais da classe.
+*/
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CriadorSnapshot implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Id do documento de origem (não se chama "id" para não ser mapeado como _id)
+    private String idOrigem;
+
+    private TipoCriador tipo;
+
+    private String nome;
+
+    private String urlLogo;
+
+    // Cria a cópia a partir de uma empresa
+    public static CriadorSnapshot daEmpresa(Empresa empresa) {
+        return new CriadorSnapshot(empresa.getId(), TipoCriador.EMPRESA, empresa.getNome(), empresa.getUrlLogo());
+    }
+
+    // Cria a cópia a partir de um dev autônomo (usuários não têm logo)
+    public static CriadorSnapshot doDev(Usuario dev) {
+        return new CriadorSnapshot(dev.getId(), TipoCriador.DEV_AUTONOMO, dev.getNome(), null);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.lunix.model.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Entidade do banco de dados com os contadores do dashboard do admin.
+    Existe um único documento (id "global"), mantido com $inc pelas
+    escritas de jogos, usuários, empresas e avaliações e reconciliado
+    com as coleções de origem todas as noites.
+
+    Chaves dos mapas são nomes de enum (gênero, plataforma, classificação
+    indicativa e role) ou,
+    nos novos usuários, o dia do cadastro no formato yyyy-MM-dd.
+
+    @Document - Define a classe como uma entidade no MongoDB.
+    @Getter @Setter - Cria todos os getters e setters da classe.
+    @NoArgsConstructor @AllArgsConstructor - Anotações que criam
+    automaticamente os construtores pricipais da classe.
+*/
+@Document(collection = "estatisticas")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Estatisticas {
+
+    public static final String ID_GLOBAL = "global";
+
+    @Id
+    private String id = ID_GLOBAL;
+
+    private long totalJogos;
+
+    private long jogosSemPreco;
+
+    private long jogosSemEmpresa;
+
+    private Map<String, Long> jogosPorGenero = new HashMap<>();
+
+    private Map<String, Long> jogosPorPlataforma = new HashMap<>();
+
+    private Map<String, Long> jogosPorClassificacao = new HashMap<>();
+
+    private long totalUsuarios;
+
+    private long usuariosDesativados;
+
+    private Map<String, Long> usuariosPorRole = new HashMap<>();
+
+    private Map<String, Long> novosUsuariosPorDia = new HashMap<>();
+
+    private long totalEmpresas;
+
+    private long totalAvaliacoes;
+
+    private double somaNotas;
+
+    private LocalDateTime reconciliadoEm;
+}
@@ -14,7 +14,9 @@ import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 
 /*
@@ -32,11 +34,23 @@ import java.util.List;
 @AllArgsConstructor
 public class Jogo {
 
+    public static final int FAIXAS_HISTOGRAMA = 11;
+
+    // Primeira posição da lista de preços: não existe quando a lista está ausente ou vazia (ver semPreco)
+    public static final String PRIMEIRO_PRECO = "precos.0";
+
     @Id
     private String id;
 
     private String titulo;
 
+    /*
+        Título em minúsculas, mantido pelo setTitulo. A busca por prefixo de
+        termos curtos usa um regex ancorado e sensível a maiúsculas sobre este
+        campo, que o índice resolve como um intervalo justo de chaves.
+    */
+    private String tituloNormalizado;
+
     private String descricao;
 
     private String urlCapa;
@@ -57,17 +71,77 @@ public class Jogo {
 
     private int totalAvaliacoes = 0;
 
+    // Soma das notas de todas as avaliações; a média é derivada dela e do total
+    private double somaNotas = 0.0;
+
+    // Quantidade de avaliações por faixa de nota (índice 0 = notas de 0 a 0.9, ..., índice 10 = nota 10)
+    private List<Integer> histogramaNotas = new ArrayList<>(Collections.nCopies(FAIXAS_HISTOGRAMA, 0));
+
+    /*
+        Nota ponderada (bayesiana) usada para ordenar os rankings: puxa a média
+        de jogos com poucas avaliações em direção à média global. Calculada
+        em segundo plano pelo ScoreRankingService, nunca durante uma requisição.
+    */
+    private double scoreRanking = 0.0;
+
     @DBRef
     private Empresa empresa;
 
     @DBRef
     private Usuario devAutonomo;
 
+    // Cópia dos dados de exibição da empresa/dev, usada nas listagens
+    private CriadorSnapshot criador;
+
+    // Última vez em que os preços foram buscados na ITAD (com ou sem resultado)
     private LocalDateTime ultimaAtualizacaoPrecos;
 
+    // Frequência com que os preços mudam entre atualizações (0 a 1), usada pelo planejador de atualizações
+    private Double volatilidadePrecos;
+
+    // Quando os preços vencem de novo, gravado pelo planejador ao enviar o jogo para a fila (nulo: nunca planejado)
+    private LocalDateTime proximaAtualizacaoPrecos;
+
+    // ID do jogo na ITAD, gravado na primeira busca de preços para não consultar pelo título de novo
+    private String itadId;
+
     private LocalDate dataLancamento;
 
     private LocalDateTime dataCriacao = LocalDateTime.now();
 
-
+    // Faixa do histograma em que a nota cai (parte inteira, limitada a 0..10)
+    public static int faixaDaNota(double nota) {
+        return (int) Math.max(0, Math.min(FAIXAS_HISTOGRAMA - 1, Math.floor(nota)));
+    }
+
+    // Completa com zeros um histograma ausente ou gravado com menos faixas
+    public static List<Integer> normalizarHistograma(List<Integer> histograma) {
+        List<Integer> normalizado = new ArrayList<>(Collections.nCopies(FAIXAS_HISTOGRAMA, 0));
+        if (histograma != null) {
+            for (int i = 0; i < Math.min(histograma.size(), FAIXAS_HISTOGRAMA); i++) {
+                normalizado.set(i, histograma.get(i) != null ? histograma.get(i) : 0);
+            }
+        }
+        return normalizado;
+    }
+
+    /*
+        Definição de "jogo sem preço" usada pelos contadores do dashboard:
+        lista de preços ausente ou vazia. No banco, a mesma regra é o filtro
+        PRIMEIRO_PRECO inexistente (JogoRepositoryImpl.resumirParaDashboard).
+    */
+    public static boolean semPreco(List<PrecoPlataforma> precos) {
+        return precos == null || precos.isEmpty();
+    }
+
+    // Troca o título e mantém a cópia em minúsculas usada na busca por prefixo
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+        this.tituloNormalizado = normalizarTitulo(titulo);
+    }
+
+    // Minúsculas pelo Locale.ROOT, iguais às do termo buscado em qualquer servidor
+    public static String normalizarTitulo(String titulo) {
+        return titulo == null ? null : titulo.toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,44 @@
+package br.com.lunix.model.entities;
+
+import br.com.lunix.model.enums.Metrica;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/*
+    Entidade do banco de dados com um ponto da série temporal de
+    métricas. A coleção é uma time series do MongoDB (criada em
+    V1_014), com momento como campo de tempo e metrica como metadado,
+    e os pontos expiram sozinhos depois da retenção configurada nela.
+
+    @Document - Define a classe como uma entidade no MongoDB.
+    @Getter @Setter - Cria todos os getters e setters da classe.
+    @NoArgsConstructor @AllArgsConstructor - Anotações que criam
+    automaticamente os construtores pricipais da classe.
+*/
+@Document(collection = "metricas")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PontoMetrica {
+
+    @Id
+    private String id;
+
+    private Metrica metrica;
+
+    private LocalDateTime momento;
+
+    private double valor;
+
+    public PontoMetrica(Metrica metrica, LocalDateTime momento, double valor) {
+        this.metrica = metrica;
+        this.momento = momento;
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.lunix.model.entities;
+
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/*
+    Entidade do banco de dados com o resumo de uma métrica em uma
+    semana ou um mês, consolidado a partir dos pontos da série
+    temporal. Existe um documento por métrica, período e início
+    (índice único criado em V1_014).
+
+    @Document - Define a classe como uma entidade no MongoDB.
+    @Getter @Setter - Cria todos os getters e setters da classe.
+    @NoArgsConstructor @AllArgsConstructor - Anotações que criam
+    automaticamente os construtores pricipais da classe.
+*/
+@Document(collection = "metricas_resumo")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMetrica {
+
+    @Id
+    private String id;
+
+    private Metrica metrica;
+
+    private Granularidade periodo;
+
+    private LocalDateTime inicio;
+
+    private double soma;
+
+    private double minimo;
+
+    private double maximo;
+
+    // Valor do ponto mais recente do período
+    private double ultimo;
+
+    private long quantidade;
+
+    // Valor do período conforme o tipo da métrica: soma dos eventos ou último retrato
+    public double valorDoPeriodo() {
+        return metrica.isEvento() ? soma : ultimo;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.lunix.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+    Enum com as granularidades das séries de métricas do dashboard.
+
+    Hora e dia são agrupados a partir dos pontos brutos; semana e mês
+    são lidos dos resumos consolidados, que duram mais que os pontos.
+
+    @param unidade - Unidade do $dateTrunc usada para agrupar os pontos.
+    @param consolidada - Indica se a série é lida da coleção de resumos.
+*/
+@Getter
+@AllArgsConstructor
+public enum Granularidade {
+    HORA("hour", false),
+    DIA("day", false),
+    SEMANA("week", true),
+    MES("month", true);
+
+    private final String unidade;
+    private final boolean consolidada;
+}
@@ -0,0 +1,36 @@
+package br.com.lunix.model.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+    Enum com as métricas gravadas na série temporal do dashboard.
+
+    Métricas de retrato são fotografias diárias dos contadores do
+    dashboard: dentro de um período vale o último valor. Métricas de
+    evento são contagens por hora: dentro de um período os valores
+    são somados.
+
+    @param evento - Indica se a métrica é uma contagem de eventos (somada nos períodos).
+    @param descricao - Descrição do que a métrica mede.
+*/
+@Getter
+@AllArgsConstructor
+public enum Metrica {
+    TOTAL_USUARIOS(false, "Total de usuários"),
+    USUARIOS_DESATIVADOS(false, "Usuários desativados"),
+    TOTAL_JOGOS(false, "Total de jogos"),
+    JOGOS_SEM_PRECO(false, "Jogos sem preço"),
+    COBERTURA_PRECOS(false, "Percentual de jogos com preço"),
+    TOTAL_EMPRESAS(false, "Total de empresas"),
+    TOTAL_AVALIACOES(false, "Total de avaliações"),
+    MEDIA_NOTAS(false, "Média global das notas"),
+
+    USUARIOS_CADASTRADOS(true, "Usuários cadastrados"),
+    JOGOS_CADASTRADOS(true, "Jogos cadastrados"),
+    AVALIACOES_CRIADAS(true, "Avaliações criadas"),
+    AVALIACOES_EXCLUIDAS(true, "Avaliações excluídas");
+
+    private final boolean evento;
+    private final String descricao;
+}
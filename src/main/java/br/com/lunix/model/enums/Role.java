@@ -1,5 +1,7 @@
 package br.com.lunix.model.enums;
 
+import java.util.Set;
+
 
 /*
     Enum utilizado para definir as Roles(cargos) possíveis que um usuário pode ter
@@ -16,5 +18,18 @@ package br.com.lunix.model.enums;
 public enum Role {
     ROLE_USER,
     ROLE_ADMIN,
-    ROLE_DEV
+    ROLE_DEV;
+
+    /*
+        Retorna a role que define a categoria do usuário nas avaliações,
+        seguindo a prioridade ADMIN > DEV > USER.
+
+        @param roles - Roles do usuário
+    */
+    public static Role principal(Set<Role> roles) {
+        if (roles == null) return ROLE_USER;
+        if (roles.contains(ROLE_ADMIN)) return ROLE_ADMIN;
+        if (roles.contains(ROLE_DEV)) return ROLE_DEV;
+        return ROLE_USER;
+    }
 }
@@ -0,0 +1,13 @@
+package br.com.lunix.model.enums;
+
+/*
+    Enum utilizado para identificar a origem do criador de um jogo.
+
+    EMPRESA - O jogo pertence a uma empresa (coleção empresas).
+
+    DEV_AUTONOMO - O jogo pertence a um desenvolvedor independente (coleção usuarios).
+*/
+public enum TipoCriador {
+    EMPRESA,
+    DEV_AUTONOMO
+}
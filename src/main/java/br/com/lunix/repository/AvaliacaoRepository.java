@@ -8,8 +8,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.List;
-
 public interface AvaliacaoRepository extends MongoRepository<Avaliacao, String>, AvaliacaoRepositoryCustom {
 
     // Método para encontrar todas as avaliações de um jogo
@@ -20,6 +18,4 @@ public interface AvaliacaoRepository extends MongoRepository<Avaliacao, String>,
 
     // Método para verificar se uma avaliação existe com um usuário e jogo específico
     boolean existsByUsuarioAndJogo(Usuario usuario, Jogo jogo);
-
-    Page<Avaliacao> findByJogoAndUsuarioIn(Jogo jogo, List<Usuario> usuarios, Pageable pageable);
 }
@@ -1,19 +1,30 @@
 package br.com.lunix.repository;
 
 import br.com.lunix.aggregation.AvaliacaoRepositoryCustom;
-import br.com.lunix.dto.avaliacao.ResultadoAgregacaoDto;
+import br.com.lunix.dto.dashboard.ResumoAvaliacoesDashboardDto;
+import br.com.lunix.model.entities.Avaliacao;
+import br.com.lunix.model.enums.Role;
+import com.mongodb.DBRef;
 import lombok.RequiredArgsConstructor;
 import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /*
-    Classe de implementação para fazer uma consulta direto no banco
-    para realizar o cálculo da nota média de um jogo
+    Classe de implementação para fazer consultas direto no banco:
+    nota média global e seções de avaliações por autor
 */
 @RequiredArgsConstructor
 public class AvaliacaoRepositoryImpl implements AvaliacaoRepositoryCustom {
@@ -21,36 +32,6 @@ public class AvaliacaoRepositoryImpl implements AvaliacaoRepositoryCustom {
     private final MongoTemplate mongoTemplate;
 
 
-    /*
-        Método responsável por calcular a média dos jogos no banco
-
-        @param jogoId - ID do jogo a ter a média calculada
-    */
-    @Override
-    public ResultadoAgregacaoDto calcularMediaDoJogo(String jogoId) {
-        try {
-            // Primeiro filtra as avaliações de um jogo pelo ID
-            var matchOperation = Aggregation.match(Criteria.where("jogo.$id").is(new ObjectId(jogoId)));
-
-            // Agrupa pelo campo 'jogo' e calcula a média e contagem
-            var groupOperation = Aggregation.group("jogo.$id")
-                    .avg("nota").as("mediaCalculada")
-                    .count().as("totalAvaliacoes");
-
-            // Executa a query
-            Aggregation aggregation = Aggregation.newAggregation(matchOperation, groupOperation);
-
-            // Coleta os resultados
-            AggregationResults<ResultadoAgregacaoDto> resultadoAgregacao = mongoTemplate
-                    .aggregate(aggregation, "avaliacoes", ResultadoAgregacaoDto.class);
-
-            return resultadoAgregacao.getUniqueMappedResult();
-        } catch (IllegalArgumentException e) {
-            System.err.println("Erro ao converter ID para ObjectId: " + jogoId);
-            return null;
-        }
-    }
-
     // Método responsável por calcular a média de todas as notas da aplicação
     @Override
     public Double calcularMediaGlobal() {
@@ -62,4 +43,67 @@ public class AvaliacaoRepositoryImpl implements AvaliacaoRepositoryCustom {
 
         return doc != null ? doc.getDouble("mediaCalculada") : 0.0;
     }
+
+    // Método responsável por contar as avaliações e somar todas as notas em um único $group
+    @Override
+    public ResumoAvaliacoesDashboardDto resumirParaDashboard() {
+        GroupOperation groupOperation = Aggregation.group().count().as("total").sum("nota").as("somaNotas");
+        Document doc = mongoTemplate.aggregate(Aggregation.newAggregation(groupOperation), "avaliacoes", Document.class)
+                .getUniqueMappedResult();
+
+        if (doc == null) {
+            return new ResumoAvaliacoesDashboardDto(0, 0.0);
+        }
+        return new ResumoAvaliacoesDashboardDto(doc.get("total", Number.class).longValue(), doc.get("somaNotas", Number.class).doubleValue());
+    }
+
+    /*
+        Método responsável por buscar as avaliações mais recentes de um jogo
+        para cada categoria de autor (admin, dev e usuário comum).
+
+        Cada categoria é um ramo com $match + $sort + $limit sobre o índice
+        (jogo, autorRole, dataCriacao), unidos com $unionWith em uma única
+        agregação. O custo depende só do limite, não da quantidade de
+        usuários nem de avaliações do jogo.
+
+        @param jogoId - ID do jogo
+        @param limitePorRole - Quantidade de avaliações por categoria
+    */
+    @Override
+    public List<Avaliacao> buscarRecentesPorAutorRole(String jogoId, int limitePorRole) {
+        DBRef jogo = new DBRef("jogos", new ObjectId(jogoId));
+
+        List<AggregationOperation> etapas = new ArrayList<>(ramoDaRole(jogo, Role.ROLE_ADMIN, limitePorRole));
+        etapas.add(UnionWithOperation.unionWith("avaliacoes").pipeline(ramoDaRole(jogo, Role.ROLE_DEV, limitePorRole)));
+        etapas.add(UnionWithOperation.unionWith("avaliacoes").pipeline(ramoDaRole(jogo, Role.ROLE_USER, limitePorRole)));
+
+        // O jogo já é conhecido por quem chama, então a referência não precisa ser resolvida em cada avaliação
+        etapas.add(Aggregation.project().andExclude("jogo"));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(etapas), "avaliacoes", Avaliacao.class).getMappedResults();
+    }
+
+    /*
+        Método responsável por atualizar a categoria do autor em todas
+        as avaliações de um usuário (ex: quando as roles dele mudam).
+
+        @param usuarioId - ID do usuário
+        @param autorRole - Nova categoria
+    */
+    @Override
+    public long atualizarAutorRole(String usuarioId, Role autorRole) {
+        Query query = new Query(Criteria.where("usuario").is(new DBRef("usuarios", new ObjectId(usuarioId)))
+                .and("autorRole").ne(autorRole.name()));
+
+        return mongoTemplate.updateMulti(query, new Update().set("autorRole", autorRole.name()), Avaliacao.class).getModifiedCount();
+    }
+
+    // Etapas de um ramo: avaliações do jogo de uma categoria, mais recentes primeiro
+    private List<AggregationOperation> ramoDaRole(DBRef jogo, Role role, int limite) {
+        return List.of(
+                Aggregation.match(Criteria.where("jogo").is(jogo).and("autorRole").is(role.name())),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "dataCriacao")),
+                Aggregation.limit(limite)
+        );
+    }
 }
@@ -0,0 +1,965 @@
+package br.com.lunix.repository;
+
+import br.com.lunix.aggregation.JogoRepositoryCustom;
+import br.com.lunix.dto.dashboard.ResumoJogosDashboardDto;
+import br.com.lunix.dto.jogos.CandidatoAtualizacaoPrecosDto;
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.dto.jogos.HistogramaNotasDto;
+import br.com.lunix.dto.jogos.JogoCursor;
+import br.com.lunix.dto.jogos.JogoResponseDto;
+import br.com.lunix.dto.jogos.JogoSliceDto;
+import br.com.lunix.dto.jogos.ResultadoFiltroJogosDto;
+import br.com.lunix.exceptions.RegraDeNegocioException;
+import br.com.lunix.model.entities.CriadorSnapshot;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.PrecoPlataforma;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import com.mongodb.client.FindIterable;
+import com.mongodb.DBRef;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+    Classe de implementação das consultas de jogos que
+    precisam ser montadas manualmente com o MongoTemplate.
+*/
+@RequiredArgsConstructor
+public class JogoRepositoryImpl implements JogoRepositoryCustom {
+
+    // Únicos campos do documento usados pelo JogoResponseDto (o nome do criador vem da cópia embutida)
+    private static final String[] CAMPOS_RESUMO = {"titulo", "urlCapa", "notaMedia", "generos", "classificacao", "criador"};
+
+    // Campos devolvidos após aplicar uma avaliação: os que alimentam os rankings e o autocomplete
+    private static final String[] CAMPOS_ESTATISTICAS = {"titulo", "notaMedia", "totalAvaliacoes", "somaNotas", "histogramaNotas", "scoreRanking", "generos", "plataformas", "dataLancamento"};
+
+    // Campos lidos na atualização de preços: os da consulta na ITAD e os comparados com os novos preços
+    private static final String[] CAMPOS_ATUALIZACAO_PRECOS = {"titulo", "itadId", "precos", "volatilidadePrecos"};
+
+    private static final int TAMANHO_LOTE_REPARO = 500;
+
+    // Tempo para o $inc de uma avaliação recém-gravada chegar ao jogo; jogos com avaliações mais novas ficam para o próximo reparo
+    private static final Duration MARGEM_ESCRITAS = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+
+    /*
+        Método responsável pela busca textual usando o índice de texto
+        ponderado (título e descrição), ordenando pela relevância (textScore).
+
+        A contagem total só é executada quando necessária para montar a página.
+
+        @param termo - Termo(s) pesquisado(s)
+        @param pageable - Paginação (a ordenação é sempre por relevância)
+    */
+    @Override
+    public Page<JogoResponseDto> buscarPorTexto(String termo, Pageable pageable) {
+        TextCriteria criteria = TextCriteria.forDefaultLanguage().matching(termo);
+
+        Query query = TextQuery.queryText(criteria)
+                .sortByScore()
+                .with(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
+
+        List<JogoResponseDto> jogos = lerResumos(query);
+
+        return PageableExecutionUtils.getPage(jogos, pageable,
+                () -> mongoTemplate.count(TextQuery.queryText(criteria), Jogo.class));
+    }
+
+    /*
+        Método responsável pelas listagens paginadas de jogos.
+
+        Lê apenas os campos exibidos nos cards, direto para o DTO, sem
+        materializar a entidade Jogo (descrição, screenshots e preços ficam
+        no banco) e sem resolver a referência de empresa/dev de cada jogo.
+
+        @param filtro - Filtro da listagem (pode ser nulo)
+        @param pageable - Página, tamanho e ordenação (pode ser unpaged)
+    */
+    @Override
+    public Page<JogoResponseDto> buscarResumos(Criteria filtro, Pageable pageable) {
+        Query query = filtro != null ? new Query(filtro) : new Query();
+        query.with(pageable);
+
+        List<JogoResponseDto> jogos = lerResumos(query);
+
+        return PageableExecutionUtils.getPage(jogos, pageable,
+                () -> mongoTemplate.count(filtro != null ? new Query(filtro) : new Query(), Jogo.class));
+    }
+
+    /*
+        Método responsável pelas listagens curtas (top 10) de jogos,
+        usando o mesmo modelo de leitura das listagens paginadas.
+
+        @param filtro - Filtro da listagem (pode ser nulo)
+        @param sort - Ordenação desejada
+        @param limite - Quantidade máxima de jogos
+    */
+    @Override
+    public List<JogoResponseDto> buscarResumos(Criteria filtro, Sort sort, int limite) {
+        Query query = filtro != null ? new Query(filtro) : new Query();
+        query.with(sort).limit(limite);
+
+        return lerResumos(query);
+    }
+
+    /*
+        Método responsável pela paginação por cursor (keyset).
+
+        Ao invés de pular N documentos, filtra a partir do último
+        (valor, _id) lido, o que mantém o custo de cada página constante
+        e a ordem estável mesmo com inserções concorrentes.
+
+        Lê só o resumo de cada jogo, com o mesmo modelo de leitura das
+        listagens paginadas. Busca um item a mais do que o solicitado para
+        saber se existe próxima página, e o cursor é montado a partir do
+        documento cru do último jogo da página.
+
+        @param filtro - Filtro base da listagem (pode ser nulo)
+        @param ordenacao - Campo e direção da ordenação
+        @param cursor - Posição da última leitura (nulo na primeira página)
+        @param tamanho - Quantidade de jogos da página
+    */
+    @Override
+    public JogoSliceDto buscarResumosComCursor(Criteria filtro, JogoCursor.Ordenacao ordenacao, JogoCursor cursor, int tamanho) {
+        Query query = new Query();
+
+        if (filtro != null) {
+            query.addCriteria(filtro);
+        }
+
+        if (cursor != null) {
+            query.addCriteria(criarCriterioDoCursor(ordenacao, cursor));
+        }
+
+        query.with(Sort.by(ordenacao.getDirecao(), ordenacao.getCampo())
+                .and(Sort.by(ordenacao.getDirecao(), "_id")));
+        query.limit(tamanho + 1);
+        query.fields().include(ordenacao.getCampo());
+
+        List<Document> documentos = lerDocumentosDeResumo(query);
+
+        boolean temProximo = documentos.size() > tamanho;
+        List<Document> pagina = temProximo ? documentos.subList(0, tamanho) : documentos;
+
+        String proximoCursor = null;
+        if (temProximo) {
+            Document ultimo = pagina.get(pagina.size() - 1);
+            proximoCursor = new JogoCursor(ordenacao, ultimo.get("_id").toString(), lerValorOrdenacao(ultimo, ordenacao)).codificar();
+        }
+
+        return new JogoSliceDto(montarResumos(pagina), proximoCursor, temProximo, tamanho);
+    }
+
+    /*
+        Método responsável pelas contagens da busca facetada.
+
+        O total e as contagens por gênero, plataforma e classificação
+        indicativa do conjunto filtrado saem de uma agregação: o $match usa
+        os índices do filtro (V1_007) e o $facet só conta, então nenhum
+        estágio precisa de ordenação. A página de jogos é lida à parte,
+        por cursor (ver buscarResumosComCursor).
+
+        @param filtro - Filtro montado a partir dos parâmetros da busca
+    */
+    @Override
+    public ResultadoFiltroJogosDto contarFacetas(Criteria filtro) {
+        FacetOperation facetas = Aggregation.facet(Aggregation.count().as("total")).as("total")
+                .and(Aggregation.unwind("generos"), Aggregation.group("generos").count().as("total")).as("generos")
+                .and(Aggregation.unwind("plataformas"), Aggregation.group("plataformas").count().as("total")).as("plataformas")
+                .and(Aggregation.group("classificacao").count().as("total")).as("classificacoes");
+
+        TypedAggregation<Jogo> aggregation = Aggregation.newAggregation(Jogo.class, Aggregation.match(filtro), facetas);
+
+        Document resultado = mongoTemplate.aggregate(aggregation, Document.class).getUniqueMappedResult();
+        if (resultado == null) {
+            return new ResultadoFiltroJogosDto(0, Map.of(), Map.of(), Map.of());
+        }
+
+        return new ResultadoFiltroJogosDto(
+                lerTotal(resultado, "total"),
+                lerContagens(resultado, "generos"),
+                lerContagens(resultado, "plataformas"),
+                lerContagens(resultado, "classificacoes")
+        );
+    }
+
+    /*
+        Método responsável pelas contagens de jogos do dashboard.
+
+        Uma única agregação percorre a coleção e o $facet produz, sobre o
+        mesmo conjunto, a quantidade de jogos sem preço, sem empresa (devs
+        autônomos) e por gênero, plataforma e classificação, no lugar de uma
+        contagem separada para cada valor dos enums.
+    */
+    @Override
+    public ResumoJogosDashboardDto resumirParaDashboard() {
+        FacetOperation facetas = Aggregation.facet(
+                        // Mesma regra de Jogo.semPreco, usada nos incrementos do dashboard
+                        Aggregation.match(Criteria.where(Jogo.PRIMEIRO_PRECO).exists(false)),
+                        Aggregation.count().as("total"))
+                .as("semPreco")
+                .and(Aggregation.match(Criteria.where("empresa").is(null)),
+                        Aggregation.count().as("total")).as("semEmpresa")
+                .and(Aggregation.unwind("generos"), Aggregation.group("generos").count().as("total")).as("generos")
+                .and(Aggregation.unwind("plataformas"), Aggregation.group("plataformas").count().as("total")).as("plataformas")
+                .and(Aggregation.match(Criteria.where("classificacao").ne(null)),
+                        Aggregation.group("classificacao").count().as("total")).as("classificacoes");
+
+        Document resultado = mongoTemplate.aggregate(Aggregation.newAggregation(facetas),
+                mongoTemplate.getCollectionName(Jogo.class), Document.class).getUniqueMappedResult();
+        if (resultado == null) {
+            return new ResumoJogosDashboardDto(0, 0, Map.of(), Map.of(), Map.of());
+        }
+
+        return new ResumoJogosDashboardDto(
+                lerTotal(resultado, "semPreco"),
+                lerTotal(resultado, "semEmpresa"),
+                lerContagens(resultado, "generos"),
+                lerContagens(resultado, "plataformas"),
+                lerContagens(resultado, "classificacoes")
+        );
+    }
+
+    /*
+        Busca os resumos de uma lista de jogos já ordenada (ex.: um ranking),
+        com uma única consulta por _id e mantendo a ordem recebida.
+        Ids que não existem mais no banco são ignorados.
+
+        @param ids - Ids dos jogos na ordem de exibição
+    */
+    @Override
+    public List<JogoResponseDto> buscarResumosPorIds(List<String> ids) {
+        List<ObjectId> objectIds = ids.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        if (objectIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, JogoResponseDto> porId = new HashMap<>();
+        for (JogoResponseDto resumo : lerResumos(new Query(Criteria.where("_id").in(objectIds)))) {
+            porId.put(resumo.id(), resumo);
+        }
+
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /*
+        Executa a consulta projetando somente os campos do resumo.
+
+        O filtro e a ordenação passam pelo QueryMapper para que enums, datas
+        e entidades referenciadas sejam convertidos como no repositório, mas
+        o resultado é lido como Document cru, sem passar pelo conversor da entidade.
+    */
+    private List<JogoResponseDto> lerResumos(Query query) {
+        return montarResumos(lerDocumentosDeResumo(query));
+    }
+
+    // Executa a consulta com os campos do resumo (e os que a query já incluir) e devolve os documentos crus
+    private List<Document> lerDocumentosDeResumo(Query query) {
+        query.fields().include(CAMPOS_RESUMO);
+
+        MongoPersistentEntity<?> entidade = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Jogo.class);
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+
+        FindIterable<Document> cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class))
+                .find(queryMapper.getMappedObject(query.getQueryObject(), entidade))
+                .projection(queryMapper.getMappedFields(query.getFieldsObject(), entidade))
+                .sort(queryMapper.getMappedSort(query.getSortObject(), entidade))
+                .skip((int) query.getSkip())
+                .limit(query.getLimit());
+
+        return cursor.into(new ArrayList<>());
+    }
+
+    /*
+        Converte os documentos projetados em DTOs.
+        O nome do criador vem da cópia embutida no próprio jogo,
+        então nenhuma consulta extra é feita por página.
+
+        @param documentos - Documentos com os campos de CAMPOS_RESUMO
+    */
+    private List<JogoResponseDto> montarResumos(List<Document> documentos) {
+        List<JogoResponseDto> resumos = new ArrayList<>(documentos.size());
+        for (Document doc : documentos) {
+            Document criador = doc.get("criador", Document.class);
+
+            resumos.add(new JogoResponseDto(
+                    doc.get("_id").toString(),
+                    doc.getString("titulo"),
+                    doc.getString("urlCapa"),
+                    criador != null && criador.getString("nome") != null ? criador.getString("nome") : "Desconhecido",
+                    doc.get("notaMedia") instanceof Number nota ? nota.doubleValue() : 0.0,
+                    doc.getList("generos", String.class, List.of()).stream().map(Genero::valueOf).toList(),
+                    doc.getString("classificacao") != null ? ClassificacaoIndicativa.valueOf(doc.getString("classificacao")) : null
+            ));
+        }
+        return resumos;
+    }
+
+    /*
+        Método responsável por propagar a nova cópia do criador
+        para todos os jogos da mesma empresa ou dev autônomo.
+
+        @param criador - Cópia atualizada a partir da origem
+    */
+    @Override
+    public long atualizarCriador(CriadorSnapshot criador) {
+        Query query = new Query(Criteria.where("criador.tipo").is(criador.getTipo())
+                .and("criador.idOrigem").is(criador.getIdOrigem()));
+
+        return mongoTemplate.updateMulti(query, new Update().set("criador", criador), Jogo.class).getModifiedCount();
+    }
+
+    /*
+        Método responsável por aplicar uma avaliação nova, editada ou removida
+        nas estatísticas do jogo com uma única escrita atômica.
+
+        A soma, o total e a faixa do histograma são incrementados no próprio
+        banco e a nota média é derivada deles no mesmo update (pipeline de
+        agregação), então escritas concorrentes de avaliações do mesmo jogo
+        nunca sobrescrevem umas às outras.
+
+        @param jogoId - ID do jogo avaliado
+        @param notaRemovida - Nota que deixa de contar (edição ou remoção), nula na criação
+        @param notaAdicionada - Nota que passa a contar (criação ou edição), nula na remoção
+        return: O jogo com as estatísticas já atualizadas (apenas os campos usados por rankings e autocomplete)
+    */
+    @Override
+    public Jogo aplicarAvaliacao(String jogoId, Double notaRemovida, Double notaAdicionada) {
+        double deltaSoma = 0;
+        int deltaTotal = 0;
+        List<Integer> deltaHistograma = new ArrayList<>(Collections.nCopies(Jogo.FAIXAS_HISTOGRAMA, 0));
+
+        if (notaRemovida != null) {
+            deltaSoma -= notaRemovida;
+            deltaTotal--;
+            deltaHistograma.set(Jogo.faixaDaNota(notaRemovida), deltaHistograma.get(Jogo.faixaDaNota(notaRemovida)) - 1);
+        }
+        if (notaAdicionada != null) {
+            deltaSoma += notaAdicionada;
+            deltaTotal++;
+            deltaHistograma.set(Jogo.faixaDaNota(notaAdicionada), deltaHistograma.get(Jogo.faixaDaNota(notaAdicionada)) + 1);
+        }
+
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("somaNotas").toValue(ArithmeticOperators.valueOf(
+                        ConditionalOperators.ifNull("somaNotas").then(0)).add(deltaSoma))
+                .set("totalAvaliacoes").toValue(ArithmeticOperators.valueOf(
+                        ConditionalOperators.ifNull("totalAvaliacoes").then(0)).add(deltaTotal))
+                .set("histogramaNotas").toValue(somarNoHistograma(deltaHistograma))
+                .set("notaMedia").toValue(ConditionalOperators
+                        .when(ComparisonOperators.valueOf("totalAvaliacoes").greaterThanValue(0))
+                        .then(ArithmeticOperators.valueOf(ArithmeticOperators.valueOf("somaNotas").divideBy("totalAvaliacoes")).roundToPlace(1))
+                        .otherwise(0.0));
+
+        Query query = new Query(Criteria.where("_id").is(new ObjectId(jogoId)));
+        query.fields().include(CAMPOS_ESTATISTICAS);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Jogo.class);
+    }
+
+    /*
+        Lê os jogos de um lote da fila de preços só com os campos usados na
+        atualização (CAMPOS_ATUALIZACAO_PRECOS). As referências de empresa e
+        dev ficam de fora, então nenhuma consulta extra é feita por jogo.
+
+        @param ids - IDs dos jogos do lote
+        return: Jogos parciais; IDs inexistentes são ignorados
+    */
+    @Override
+    public List<Jogo> buscarParaAtualizacaoPrecos(Collection<String> ids) {
+        Query query = new Query(Criteria.where("_id").in(ids.stream().filter(ObjectId::isValid).map(ObjectId::new).toList()));
+        query.fields().include(CAMPOS_ATUALIZACAO_PRECOS);
+
+        return mongoTemplate.find(query, Jogo.class);
+    }
+
+    /*
+        Método responsável por buscar os histogramas de nota de vários jogos
+        com uma única consulta, lendo só o histograma e o total de cada um.
+
+        @param ids - IDs dos jogos
+        return: Histogramas na ordem recebida; IDs inexistentes são ignorados
+    */
+    @Override
+    public List<HistogramaNotasDto> buscarHistogramas(List<String> ids) {
+        List<ObjectId> objectIds = ids.stream().filter(ObjectId::isValid).map(ObjectId::new).toList();
+        if (objectIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, HistogramaNotasDto> porId = new HashMap<>();
+        for (Document doc : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class))
+                .find(Filters.in("_id", objectIds))
+                .projection(Projections.include("histogramaNotas", "totalAvaliacoes"))) {
+            String id = doc.getObjectId("_id").toHexString();
+            porId.put(id, new HistogramaNotasDto(id,
+                    Jogo.normalizarHistograma(doc.getList("histogramaNotas", Integer.class)),
+                    doc.get("totalAvaliacoes") instanceof Number total ? total.intValue() : 0));
+        }
+
+        return ids.stream().map(porId::get).filter(Objects::nonNull).toList();
+    }
+
+    /*
+        Método responsável por reparar as estatísticas de avaliação de todos os
+        jogos, recalculando soma, total, histograma e média a partir das
+        próprias avaliações.
+
+        Os jogos são percorridos em lotes por _id: para cada lote, as
+        estatísticas gravadas são lidas e só as avaliações daqueles jogos
+        são agregadas (pelo índice de jogo), de modo que nem a coleção de
+        jogos nem o resultado da agregação ficam inteiros em memória. Só os
+        jogos que divergem são corrigidos, em um bulkWrite por lote. Jogos
+        sem nenhuma avaliação voltam para zero.
+
+        Cada correção só é aplicada se somaNotas e totalAvaliacoes ainda
+        forem os valores lidos, o que protege dos $inc que chegam depois da
+        leitura. Sobra o caso inverso: uma avaliação já gravada cujo $inc
+        ainda não chegou seria contada pela agregação e depois de novo pelo
+        $inc. Por isso a leitura de cada lote marca um instante de corte, e
+        os jogos com avaliações criadas depois de (corte - MARGEM_ESCRITAS)
+        ficam de fora desta execução; a próxima os confere já assentados.
+
+        return: IDs dos jogos que divergiam (os que mudaram durante o reparo
+        também entram, pois são relidos depois)
+    */
+    @Override
+    public List<String> recalcularEstatisticasDeAvaliacoes() {
+        MongoCollection<Document> jogos = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+
+        List<String> corrigidos = new ArrayList<>();
+        Object ultimoId = null;
+
+        while (true) {
+            Date limiteRecentes = Date.from(Instant.now().minus(MARGEM_ESCRITAS));
+
+            List<Document> gravados = jogos.find(ultimoId == null ? new Document() : Filters.gt("_id", ultimoId))
+                    .projection(Projections.include("somaNotas", "totalAvaliacoes", "notaMedia", "histogramaNotas"))
+                    .sort(new Document("_id", 1))
+                    .limit(TAMANHO_LOTE_REPARO)
+                    .into(new ArrayList<>(TAMANHO_LOTE_REPARO));
+            if (gravados.isEmpty()) {
+                break;
+            }
+            ultimoId = gravados.get(gravados.size() - 1).get("_id");
+
+            corrigidos.addAll(repararLote(jogos, gravados, limiteRecentes));
+
+            if (gravados.size() < TAMANHO_LOTE_REPARO) {
+                break;
+            }
+        }
+
+        return corrigidos;
+    }
+
+    // Agrega as avaliações de um lote de jogos e corrige os que divergem
+    private List<String> repararLote(MongoCollection<Document> jogos, List<Document> gravados, Date limiteRecentes) {
+        String colecaoJogos = mongoTemplate.getCollectionName(Jogo.class);
+        List<DBRef> referencias = gravados.stream().map(jogo -> new DBRef(colecaoJogos, jogo.get("_id"))).toList();
+
+        Map<Object, EstatisticasCalculadas> porJogo = new HashMap<>();
+        Set<Object> comAvaliacoesRecentes = new HashSet<>();
+
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("jogo", new Document("$in", referencias))),
+                new Document("$group", new Document("_id",
+                        new Document("jogo", "$jogo").append("faixa", new Document("$floor", "$nota")))
+                        .append("soma", new Document("$sum", "$nota"))
+                        .append("total", new Document("$sum", 1))
+                        .append("recentes", new Document("$sum", new Document("$cond",
+                                List.of(new Document("$gt", List.of("$dataCriacao", limiteRecentes)), 1, 0))))));
+        for (Document grupo : mongoTemplate.getCollection("avaliacoes").aggregate(pipeline)) {
+            Document chave = grupo.get("_id", Document.class);
+            Object id = idDaReferencia(chave.get("jogo"));
+            if (id != null) {
+                porJogo.computeIfAbsent(id, k -> new EstatisticasCalculadas())
+                        .somar(grupo.get("soma", Number.class).doubleValue(), grupo.get("total", Number.class).intValue(),
+                                chave.get("faixa") instanceof Number faixa ? faixa.doubleValue() : 0);
+                if (grupo.get("recentes", Number.class).intValue() > 0) {
+                    comAvaliacoesRecentes.add(id);
+                }
+            }
+        }
+
+        List<String> corrigidos = new ArrayList<>();
+        List<WriteModel<Document>> lote = new ArrayList<>();
+
+        for (Document jogo : gravados) {
+            if (comAvaliacoesRecentes.contains(jogo.get("_id"))) {
+                continue;
+            }
+            EstatisticasCalculadas esperado = porJogo.getOrDefault(jogo.get("_id"), new EstatisticasCalculadas());
+
+            if (!esperado.iguaisA(jogo)) {
+                lote.add(new UpdateOneModel<>(
+                        Filters.and(
+                                Filters.eq("_id", jogo.get("_id")),
+                                Filters.eq("somaNotas", jogo.get("somaNotas")),
+                                Filters.eq("totalAvaliacoes", jogo.get("totalAvaliacoes"))),
+                        Updates.combine(
+                                Updates.set("somaNotas", esperado.soma),
+                                Updates.set("totalAvaliacoes", esperado.total),
+                                Updates.set("histogramaNotas", esperado.histograma),
+                                Updates.set("notaMedia", esperado.media()))));
+                corrigidos.add(jogo.get("_id").toString());
+            }
+        }
+        if (!lote.isEmpty()) {
+            jogos.bulkWrite(lote, new BulkWriteOptions().ordered(false));
+        }
+
+        return corrigidos;
+    }
+
+    /*
+        Aplica um $set/$unset parcial em um jogo e devolve o documento já
+        alterado. Usado nas edições de cadastro, para gravar só os campos
+        editados sem sobrescrever os que outras escritas mantêm (estatísticas
+        de avaliação, score de ranking, preços e ID da ITAD).
+
+        @param id - Id do jogo
+        @param update - Campos editados
+        return: Jogo atualizado, ou nulo se não existir mais
+    */
+    @Override
+    public Jogo atualizarCampos(String id, Update update) {
+        Query query = new Query(Criteria.where("_id").is(new ObjectId(id)));
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Jogo.class);
+    }
+
+    /*
+        Método responsável por percorrer, de todos os jogos, só os campos
+        usados no cálculo do score de ranking. Os documentos são lidos com
+        um cursor, convertidos direto para o DTO (sem montar a entidade) e
+        entregues em blocos de tamanhoLote, então só um bloco fica em
+        memória por vez, como em percorrerIds.
+
+        return: Quantidade de jogos entregues
+    */
+    @Override
+    public long percorrerEstatisticasDeRanking(int tamanhoLote, Consumer<List<EstatisticasRankingDto>> consumidor) {
+        MongoCollection<Document> jogos = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+
+        long total = 0;
+        List<EstatisticasRankingDto> lote = new ArrayList<>(tamanhoLote);
+        try (MongoCursor<Document> cursor = jogos.find()
+                .projection(Projections.include("somaNotas", "totalAvaliacoes", "scoreRanking", "generos", "plataformas"))
+                .batchSize(tamanhoLote)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document jogo = cursor.next();
+                lote.add(new EstatisticasRankingDto(
+                        jogo.getObjectId("_id").toHexString(),
+                        jogo.get("somaNotas") instanceof Number soma ? soma.doubleValue() : 0.0,
+                        jogo.get("totalAvaliacoes") instanceof Number totalAvaliacoes ? totalAvaliacoes.intValue() : 0,
+                        jogo.get("scoreRanking") instanceof Number score ? score.doubleValue() : null,
+                        jogo.getList("generos", String.class, List.of()),
+                        jogo.getList("plataformas", String.class, List.of())));
+                if (lote.size() == tamanhoLote) {
+                    consumidor.accept(lote);
+                    total += lote.size();
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            consumidor.accept(lote);
+            total += lote.size();
+        }
+        return total;
+    }
+
+    /*
+        Método responsável por gravar o score de ranking calculado de cada
+        jogo, em lotes de bulkWrite não ordenados.
+
+        @param jogos - Jogos com o novo score
+        return: Quantidade de jogos alterados
+    */
+    @Override
+    public long atualizarScoresRanking(List<EstatisticasRankingDto> jogos) {
+        MongoCollection<Document> colecao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+        long alterados = 0;
+
+        for (int inicio = 0; inicio < jogos.size(); inicio += TAMANHO_LOTE_REPARO) {
+            List<WriteModel<Document>> lote = jogos.subList(inicio, Math.min(inicio + TAMANHO_LOTE_REPARO, jogos.size())).stream()
+                    .<WriteModel<Document>>map(jogo -> new UpdateOneModel<>(
+                            Filters.eq("_id", new ObjectId(jogo.jogoId())),
+                            Updates.set("scoreRanking", jogo.scoreRanking())))
+                    .toList();
+            alterados += colecao.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return alterados;
+    }
+
+    /*
+        Grava os preços de vários jogos de uma vez, a partir do resultado
+        de uma busca em lote na ITAD. Cada jogo recebe um $set dos preços,
+        da volatilidade e da data de atualização, e todos vão para o banco
+        em um único bulkWrite não ordenado (em lotes de TAMANHO_LOTE_REPARO),
+        sem ler nem regravar o documento inteiro.
+
+        @param precosPorJogo - Id do jogo -> lista de preços encontrada
+        @param volatilidadePorJogo - Id do jogo -> nova volatilidade de preços
+        @param atualizadoEm - Data gravada em ultimaAtualizacaoPrecos
+        return: Quantidade de jogos alterados
+    */
+    @Override
+    public long atualizarPrecos(Map<String, List<PrecoPlataforma>> precosPorJogo, Map<String, Double> volatilidadePorJogo,
+                                LocalDateTime atualizadoEm) {
+        MongoCollection<Document> colecao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+        Object data = mongoTemplate.getConverter().convertToMongoType(atualizadoEm);
+
+        List<WriteModel<Document>> modelos = precosPorJogo.entrySet().stream()
+                .<WriteModel<Document>>map(entrada -> {
+                    List<Bson> campos = new ArrayList<>(List.of(
+                            Updates.set("precos", mongoTemplate.getConverter().convertToMongoType(entrada.getValue())),
+                            Updates.set("ultimaAtualizacaoPrecos", data)));
+                    Double volatilidade = volatilidadePorJogo.get(entrada.getKey());
+                    if (volatilidade != null) {
+                        campos.add(Updates.set("volatilidadePrecos", volatilidade));
+                    }
+                    return new UpdateOneModel<>(Filters.eq("_id", new ObjectId(entrada.getKey())), Updates.combine(campos));
+                })
+                .toList();
+
+        long alterados = 0;
+        for (int inicio = 0; inicio < modelos.size(); inicio += TAMANHO_LOTE_REPARO) {
+            List<WriteModel<Document>> lote = modelos.subList(inicio, Math.min(inicio + TAMANHO_LOTE_REPARO, modelos.size()));
+            alterados += colecao.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return alterados;
+    }
+
+    /*
+        Marca jogos cuja busca de preços terminou sem resultado como
+        verificados agora, sem mexer nos preços gravados.
+
+        return: Quantidade de jogos alterados
+    */
+    @Override
+    public long marcarPrecosVerificados(Collection<String> ids, LocalDateTime verificadoEm) {
+        Query query = new Query(Criteria.where("_id").in(ids.stream().map(ObjectId::new).toList()));
+        return mongoTemplate.updateMulti(query, new Update().set("ultimaAtualizacaoPrecos", verificadoEm), Jogo.class)
+                .getModifiedCount();
+    }
+
+    /*
+        Candidatos do planejador de atualização de preços: jogos nunca
+        planejados, seguidos dos vencidos até a data informada, do mais
+        atrasado para o mais recente.
+
+        São duas consultas pelo índice de proximaAtualizacaoPrecos (a
+        igualdade com null e o intervalo), em vez de um $or que obrigaria
+        a ordenação em memória, e as duas só alcançam jogos vencidos. Os
+        cursores trazem só os campos usados no cálculo do intervalo, em
+        lotes de tamanhoLote, e são fechados junto com a Stream devolvida.
+    */
+    @Override
+    public Stream<CandidatoAtualizacaoPrecosDto> buscarCandidatosAtualizacaoPrecos(LocalDateTime vencidosAte, int tamanhoLote) {
+        Query nuncaPlanejados = new Query(Criteria.where("proximaAtualizacaoPrecos").is(null));
+        Query vencidos = new Query(Criteria.where("proximaAtualizacaoPrecos").lte(vencidosAte))
+                .with(Sort.by(Sort.Direction.ASC, "proximaAtualizacaoPrecos"));
+
+        String colecao = mongoTemplate.getCollectionName(Jogo.class);
+        return Stream.concat(
+                mongoTemplate.stream(camposDoCandidato(nuncaPlanejados, tamanhoLote), CandidatoAtualizacaoPrecosDto.class, colecao),
+                mongoTemplate.stream(camposDoCandidato(vencidos, tamanhoLote), CandidatoAtualizacaoPrecosDto.class, colecao));
+    }
+
+    private static Query camposDoCandidato(Query query, int tamanhoLote) {
+        query.fields().include("totalAvaliacoes", "volatilidadePrecos");
+        return query.cursorBatchSize(tamanhoLote);
+    }
+
+    /*
+        Grava o próximo vencimento dos preços de vários jogos com um único
+        bulkWrite não ordenado. Chamado pelo planejador logo depois de
+        enviar os jogos para a fila, o que também os tira das próximas
+        passadas enquanto esperam na fila.
+
+        return: Quantidade de jogos alterados
+    */
+    @Override
+    public long agendarAtualizacoesPrecos(Map<String, LocalDateTime> proximaPorJogo) {
+        MongoCollection<Document> colecao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+
+        List<WriteModel<Document>> modelos = proximaPorJogo.entrySet().stream()
+                .<WriteModel<Document>>map(entrada -> new UpdateOneModel<>(
+                        Filters.eq("_id", new ObjectId(entrada.getKey())),
+                        Updates.set("proximaAtualizacaoPrecos", mongoTemplate.getConverter().convertToMongoType(entrada.getValue()))))
+                .toList();
+
+        long alterados = 0;
+        for (int inicio = 0; inicio < modelos.size(); inicio += TAMANHO_LOTE_REPARO) {
+            List<WriteModel<Document>> lote = modelos.subList(inicio, Math.min(inicio + TAMANHO_LOTE_REPARO, modelos.size()));
+            alterados += colecao.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return alterados;
+    }
+
+    /*
+        Busca uma página de jogos ainda sem o ID da ITAD, em ordem de _id,
+        trazendo só o título (o necessário para a consulta na ITAD).
+
+        @param aposId - Último ID da página anterior (nulo na primeira página)
+        @param limite - Tamanho da página
+    */
+    @Override
+    public List<Jogo> buscarSemItadId(String aposId, int limite) {
+        Criteria criteria = Criteria.where("itadId").is(null);
+        if (aposId != null) {
+            criteria.and("_id").gt(new ObjectId(aposId));
+        }
+
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(limite);
+        query.fields().include("titulo");
+
+        return mongoTemplate.find(query, Jogo.class);
+    }
+
+    /*
+        Grava os IDs da ITAD resolvidos para vários jogos com um único
+        bulkWrite não ordenado.
+
+        return: Quantidade de jogos alterados
+    */
+    @Override
+    public long atualizarItadIds(Map<String, String> itadIdPorJogo) {
+        MongoCollection<Document> colecao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+
+        List<WriteModel<Document>> modelos = itadIdPorJogo.entrySet().stream()
+                .<WriteModel<Document>>map(entrada -> new UpdateOneModel<>(
+                        Filters.eq("_id", new ObjectId(entrada.getKey())),
+                        Updates.set("itadId", entrada.getValue())))
+                .toList();
+
+        long alterados = 0;
+        for (int inicio = 0; inicio < modelos.size(); inicio += TAMANHO_LOTE_REPARO) {
+            List<WriteModel<Document>> lote = modelos.subList(inicio, Math.min(inicio + TAMANHO_LOTE_REPARO, modelos.size()));
+            alterados += colecao.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return alterados;
+    }
+
+    /*
+        Percorre os IDs de todos os jogos com um cursor projetado só no _id,
+        entregando-os em blocos de tamanhoLote. Só um bloco fica em memória
+        por vez, independente do tamanho do catálogo, e o batchSize do cursor
+        acompanha o bloco para cada ida ao banco trazer um bloco inteiro.
+
+        O hint no índice de _id torna a consulta coberta: os IDs saem do
+        índice, sem ler nenhum documento.
+
+        return: Quantidade de IDs entregues
+    */
+    @Override
+    public long percorrerIds(int tamanhoLote, Consumer<List<String>> consumidor) {
+        MongoCollection<Document> colecao = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Jogo.class));
+
+        long total = 0;
+        List<String> lote = new ArrayList<>(tamanhoLote);
+        try (MongoCursor<Document> cursor = colecao.find()
+                .projection(Projections.include("_id"))
+                .hint(new Document("_id", 1))
+                .batchSize(tamanhoLote)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                lote.add(cursor.next().getObjectId("_id").toHexString());
+                if (lote.size() == tamanhoLote) {
+                    consumidor.accept(lote);
+                    total += lote.size();
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            consumidor.accept(lote);
+            total += lote.size();
+        }
+        return total;
+    }
+
+    // Estatísticas de um jogo acumuladas a partir dos grupos (jogo, faixa) da agregação
+    private static class EstatisticasCalculadas {
+        double soma;
+        int total;
+        final List<Integer> histograma = new ArrayList<>(Collections.nCopies(Jogo.FAIXAS_HISTOGRAMA, 0));
+
+        void somar(double somaDaFaixa, int totalDaFaixa, double faixa) {
+            soma += somaDaFaixa;
+            total += totalDaFaixa;
+            int indice = Jogo.faixaDaNota(faixa);
+            histograma.set(indice, histograma.get(indice) + totalDaFaixa);
+        }
+
+        double media() {
+            return total > 0 ? Math.round(soma / total * 10.0) / 10.0 : 0.0;
+        }
+
+        // Compara com tolerância: a média gravada pelo $round do banco pode diferir do arredondamento do Java no último dígito
+        boolean iguaisA(Document jogo) {
+            return jogo.get("somaNotas") instanceof Number somaAtual && Math.abs(somaAtual.doubleValue() - soma) < 1e-6
+                    && jogo.get("totalAvaliacoes") instanceof Number totalAtual && totalAtual.intValue() == total
+                    && jogo.get("notaMedia") instanceof Number mediaAtual && Math.abs(mediaAtual.doubleValue() - media()) <= 0.051
+                    && histograma.equals(jogo.getList("histogramaNotas", Integer.class));
+        }
+    }
+
+    /*
+        Soma o vetor de variações no histograma gravado, posição a posição.
+        Um histograma ausente (jogo sem avaliações ainda) conta como zeros.
+    */
+    private AggregationExpression somarNoHistograma(List<Integer> delta) {
+        return contexto -> new Document("$map", new Document("input", new Document("$range", List.of(0, Jogo.FAIXAS_HISTOGRAMA)))
+                .append("as", "i")
+                .append("in", new Document("$add", List.of(
+                        new Document("$ifNull", List.of(new Document("$arrayElemAt", List.of("$histogramaNotas", "$$i")), 0)),
+                        new Document("$arrayElemAt", List.of(delta, "$$i"))))));
+    }
+
+    // O $group pela referência devolve o DBRef decodificado ou o documento { $ref, $id }, conforme o codec
+    private Object idDaReferencia(Object referencia) {
+        if (referencia instanceof DBRef dbRef) {
+            return dbRef.getId();
+        }
+        if (referencia instanceof Document documento) {
+            return documento.get("$id");
+        }
+        return null;
+    }
+
+    // Converte a saída de um $group ({ _id: valor, total: n }) em um mapa valor -> quantidade
+    // O $count não devolve documento quando nada casa com o $match, então a faceta vazia vale zero
+    private long lerTotal(Document resultado, String faceta) {
+        List<Document> total = resultado.getList(faceta, Document.class);
+        return total.isEmpty() ? 0 : total.get(0).get("total", Number.class).longValue();
+    }
+
+    private Map<String, Long> lerContagens(Document resultado, String faceta) {
+        Map<String, Long> contagens = new HashMap<>();
+        for (Document doc : resultado.getList(faceta, Document.class)) {
+            Object valor = doc.get("_id");
+            if (valor != null) {
+                contagens.put(valor.toString(), doc.get("total", Number.class).longValue());
+            }
+        }
+        return contagens;
+    }
+
+    /*
+        Monta o critério "depois do cursor" respeitando a direção da ordenação.
+
+        O Mongo ordena valores nulos como os menores possíveis, então em
+        ordenações DESC eles ficam no fim e em ASC ficam no começo.
+    */
+    private Criteria criarCriterioDoCursor(JogoCursor.Ordenacao ordenacao, JogoCursor cursor) {
+        String campo = ordenacao.getCampo();
+        ObjectId ultimoId = new ObjectId(cursor.ultimoId());
+        Object valor = converterValor(ordenacao, cursor.ultimoValor());
+        boolean desc = ordenacao.getDirecao() == Sort.Direction.DESC;
+
+        Criteria desempate = desc ? Criteria.where("_id").lt(ultimoId) : Criteria.where("_id").gt(ultimoId);
+
+        if (valor == null) {
+            Criteria mesmoValorNulo = new Criteria().andOperator(Criteria.where(campo).is(null), desempate);
+
+            // Em DESC os nulos são os últimos, então só resta desempatar entre eles
+            if (desc) {
+                return mesmoValorNulo;
+            }
+            return new Criteria().orOperator(mesmoValorNulo, Criteria.where(campo).ne(null));
+        }
+
+        Criteria mesmoValor = new Criteria().andOperator(Criteria.where(campo).is(valor), desempate);
+
+        if (desc) {
+            return new Criteria().orOperator(
+                    Criteria.where(campo).lt(valor),
+                    mesmoValor,
+                    Criteria.where(campo).is(null)
+            );
+        }
+        return new Criteria().orOperator(Criteria.where(campo).gt(valor), mesmoValor);
+    }
+
+    // Lê do documento cru o valor do campo de ordenação, no formato que converterValor entende
+    private String lerValorOrdenacao(Document documento, JogoCursor.Ordenacao ordenacao) {
+        Object valor = documento.get(ordenacao.getCampo());
+        if (valor == null) return null;
+
+        return switch (ordenacao) {
+            case LANCAMENTO -> mongoTemplate.getConverter().getConversionService().convert(valor, LocalDate.class).toString();
+            case TITULO -> valor.toString();
+        };
+    }
+
+    // Converte o valor salvo no cursor para o tipo do campo no documento
+    private Object converterValor(JogoCursor.Ordenacao ordenacao, String valor) {
+        if (valor == null) return null;
+
+        try {
+            return switch (ordenacao) {
+                case LANCAMENTO -> LocalDate.parse(valor);
+                case TITULO -> valor;
+            };
+        } catch (DateTimeParseException e) {
+            throw new RegraDeNegocioException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.lunix.repository;
+
+import br.com.lunix.aggregation.MetricaRepositoryCustom;
+import br.com.lunix.model.entities.PontoMetrica;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface MetricaRepository extends MongoRepository<PontoMetrica, String>, MetricaRepositoryCustom {
+}
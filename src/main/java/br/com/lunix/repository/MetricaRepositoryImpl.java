@@ -0,0 +1,116 @@
+package br.com.lunix.repository;
+
+import br.com.lunix.aggregation.MetricaRepositoryCustom;
+import br.com.lunix.model.entities.ResumoMetrica;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+    Classe de implementação das consultas da série temporal de métricas
+    que precisam ser montadas manualmente com o MongoTemplate.
+
+    Os períodos são truncados no fuso padrão, o mesmo em que o Spring
+    Data converte o LocalDateTime de momento ao gravar, e as semanas
+    começam na segunda-feira.
+*/
+@RequiredArgsConstructor
+public class MetricaRepositoryImpl implements MetricaRepositoryCustom {
+
+    static final String COLECAO_PONTOS = "metricas";
+    static final String COLECAO_RESUMOS = "metricas_resumo";
+
+    private final MongoTemplate mongoTemplate;
+
+    /*
+        Agrupa os pontos brutos de uma métrica por hora ou dia, direto na
+        série temporal (o MongoDB lê só os buckets da métrica no intervalo).
+
+        @param inicio - Início do intervalo (inclusivo)
+        @param fim - Fim do intervalo (exclusivo)
+    */
+    @Override
+    public List<ResumoMetrica> agruparPontos(Metrica metrica, Granularidade granularidade, LocalDateTime inicio, LocalDateTime fim) {
+        Criteria filtro = Criteria.where("metrica").is(metrica.name()).and("momento").gte(inicio).lt(fim);
+
+        List<AggregationOperation> etapas = new ArrayList<>(resumir(filtro, granularidade));
+        etapas.add(Aggregation.sort(Sort.Direction.ASC, "inicio"));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(etapas), COLECAO_PONTOS, ResumoMetrica.class)
+                .getMappedResults();
+    }
+
+    // Lê os resumos semanais ou mensais já consolidados de uma métrica, em ordem cronológica
+    @Override
+    public List<ResumoMetrica> buscarConsolidados(Metrica metrica, Granularidade periodo, LocalDateTime inicio, LocalDateTime fim) {
+        Query query = new Query(Criteria.where("metrica").is(metrica)
+                .and("periodo").is(periodo)
+                .and("inicio").gte(inicio).lt(fim))
+                .with(Sort.by(Sort.Direction.ASC, "inicio"));
+
+        return mongoTemplate.find(query, ResumoMetrica.class);
+    }
+
+    /*
+        Consolida os pontos de todas as métricas em resumos semanais ou
+        mensais e grava na coleção de resumos com $merge, substituindo o
+        resumo já existente do mesmo período. A agregação roda inteira no
+        banco, sem trazer os pontos para a aplicação.
+
+        @param desde - Primeiro momento considerado; deve ser o início de um
+                       período, para que o resumo dele não fique parcial
+    */
+    @Override
+    public void consolidar(Granularidade periodo, LocalDateTime desde) {
+        List<AggregationOperation> etapas = new ArrayList<>(resumir(Criteria.where("momento").gte(desde), periodo));
+        etapas.add(Aggregation.addFields().addFieldWithValue("periodo", periodo.name()).build());
+        etapas.add(MergeOperation.builder()
+                .intoCollection(COLECAO_RESUMOS)
+                .on("metrica", "periodo", "inicio")
+                .whenMatched(MergeOperation.WhenDocumentsMatch.replaceDocument())
+                .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                .build());
+
+        mongoTemplate.aggregate(Aggregation.newAggregation(etapas), COLECAO_PONTOS, ResumoMetrica.class);
+    }
+
+    /*
+        Etapas comuns às leituras e à consolidação: filtra os pontos,
+        ordena por momento (para o $last ser o ponto mais recente) e
+        agrupa por métrica e início do período.
+    */
+    private List<AggregationOperation> resumir(Criteria filtro, Granularidade granularidade) {
+        DateOperators.DateTrunc inicioDoPeriodo = DateOperators.dateOf("momento")
+                .truncate(granularidade.getUnidade())
+                .startOfWeek(DayOfWeek.MONDAY)
+                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()));
+
+        return List.of(
+                Aggregation.match(filtro),
+                Aggregation.sort(Sort.Direction.ASC, "momento"),
+                Aggregation.project("metrica", "valor").and(inicioDoPeriodo).as("inicio"),
+                Aggregation.group("metrica", "inicio")
+                        .sum("valor").as("soma")
+                        .min("valor").as("minimo")
+                        .max("valor").as("maximo")
+                        .last("valor").as("ultimo")
+                        .count().as("quantidade"),
+                Aggregation.project("metrica", "inicio", "soma", "minimo", "maximo", "ultimo", "quantidade")
+                        .andExclude("_id")
+        );
+    }
+}
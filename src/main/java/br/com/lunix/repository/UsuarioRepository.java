@@ -1,5 +1,6 @@
 package br.com.lunix.repository;
 
+import br.com.lunix.aggregation.UsuarioRepositoryCustom;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
@@ -12,7 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
-public interface UsuarioRepository extends MongoRepository<Usuario, String> {
+public interface UsuarioRepository extends MongoRepository<Usuario, String>, UsuarioRepositoryCustom {
 
     /*
         Busca um usuário pelo email dele na aplicação
@@ -0,0 +1,79 @@
+package br.com.lunix.repository;
+
+import br.com.lunix.aggregation.UsuarioRepositoryCustom;
+import br.com.lunix.dto.dashboard.ResumoUsuariosDashboardDto;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.FacetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Classe de implementação das consultas de usuários que
+    precisam ser montadas manualmente com o MongoTemplate.
+*/
+@RequiredArgsConstructor
+public class UsuarioRepositoryImpl implements UsuarioRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    /*
+        Método responsável pelas contagens de usuários do dashboard.
+
+        Uma única agregação percorre a coleção e o $facet produz, sobre
+        o mesmo conjunto, os desativados, os criados por dia desde a data
+        informada e a quantidade de usuários por role.
+
+        Os dias são calculados no fuso padrão, o mesmo em que o Spring
+        Data converte o LocalDateTime de dataCriacao ao gravar.
+
+        @param novosDesde - Data a partir da qual os cadastros são contados por dia
+    */
+    @Override
+    public ResumoUsuariosDashboardDto resumirParaDashboard(LocalDateTime novosDesde) {
+        FacetOperation facetas = Aggregation.facet(
+                        Aggregation.match(Criteria.where("ativo").is(false)),
+                        Aggregation.count().as("total"))
+                .as("desativados")
+                .and(Aggregation.match(Criteria.where("dataCriacao").gte(novosDesde)),
+                        Aggregation.project().and(DateOperators.DateToString.dateOf("dataCriacao").toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))).as("dia"),
+                        Aggregation.group("dia").count().as("total")).as("novos")
+                .and(Aggregation.unwind("roles"), Aggregation.group("roles").count().as("total")).as("roles");
+
+        Document resultado = mongoTemplate.aggregate(Aggregation.newAggregation(facetas), "usuarios", Document.class)
+                .getUniqueMappedResult();
+        if (resultado == null) {
+            return new ResumoUsuariosDashboardDto(0, Map.of(), Map.of());
+        }
+
+        return new ResumoUsuariosDashboardDto(
+                lerTotal(resultado, "desativados"),
+                lerContagens(resultado, "novos"),
+                lerContagens(resultado, "roles"));
+    }
+
+    private Map<String, Long> lerContagens(Document resultado, String faceta) {
+        Map<String, Long> contagens = new HashMap<>();
+        for (Document doc : resultado.getList(faceta, Document.class)) {
+            if (doc.get("_id") != null) {
+                contagens.put(doc.get("_id").toString(), doc.get("total", Number.class).longValue());
+            }
+        }
+        return contagens;
+    }
+
+    // O $count não devolve documento quando nada casa com o $match, então a faceta vazia vale zero
+    private long lerTotal(Document resultado, String faceta) {
+        List<Document> total = resultado.getList(faceta, Document.class);
+        return total.isEmpty() ? 0 : total.get(0).get("total", Number.class).longValue();
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.lunix.scheduler;
+
+import br.com.lunix.services.avaliacao.AvaliacaoService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EstatisticasAvaliacaoScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasAvaliacaoScheduler.class);
+
+    private final AvaliacaoService avaliacaoService;
+
+    /*
+        Reparo periódico das estatísticas de avaliação dos jogos.
+        As escritas do dia a dia são incrementais; aqui tudo é recalculado
+        a partir das avaliações para corrigir qualquer divergência.
+    */
+
+    // Configurado para rodar todos os dias às 04:00 AM, depois da atualização de preços
+    @Scheduled(cron = "${lunix.avaliacoes.cron-reparo:0 0 4 * * *}")
+    public void repararEstatisticas() {
+        log.info("SCHEDULER: Conferindo as estatísticas de avaliação dos jogos...");
+        int corrigidos = avaliacaoService.recalcularEstatisticas();
+        log.info("SCHEDULER: {} jogo(s) com estatísticas corrigidas.", corrigidos);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.lunix.scheduler;
+
+import br.com.lunix.services.dashboard.EstatisticasService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class EstatisticasDashboardScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasDashboardScheduler.class);
+
+    private final EstatisticasService estatisticasService;
+
+    /*
+        Reconciliação noturna dos contadores do dashboard.
+        As escritas do dia a dia aplicam só a diferença com $inc; aqui tudo
+        é recontado a partir das coleções para corrigir qualquer divergência.
+    */
+
+    // Configurado para rodar todos os dias às 04:30 AM, depois do reparo das estatísticas de avaliação
+    @Scheduled(cron = "${lunix.dashboard.cron-reconciliacao:0 30 4 * * *}")
+    public void reconciliarEstatisticas() {
+        log.info("SCHEDULER: Reconciliando as estatísticas do dashboard...");
+        estatisticasService.reconciliar();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.lunix.scheduler;
 
 import br.com.lunix.services.jogo.JogoPrecoService;
+import br.com.lunix.services.jogo.PlanejadorPrecosService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,16 +15,27 @@ public class JogoPrecoScheduler {
     private static final Logger log = LoggerFactory.getLogger(JogoPrecoScheduler.class);
 
     private final JogoPrecoService precoService;
+    private final PlanejadorPrecosService planejadorPrecos;
 
     /*
-        Executa a atualização de preços automaticamente.
+        Envia para a fila os jogos com a atualização de preços vencida
+        (ver PlanejadorPrecosService), a cada 15 minutos por padrão.
         Cron Pattern: Seg Min Hora Dia Mes DiaSemana
     */
+    @Scheduled(cron = "${lunix.precos.cron-planejamento:0 */15 * * * *}")
+    public void planejarAtualizacoes() {
+        log.info("SCHEDULER: Planejando a atualização de preços dos jogos...");
+        planejadorPrecos.planejar();
+    }
 
-    // Configurado para rodar todos os dias às 03:00 AM
-    @Scheduled(cron = "0 0 3 * * *")
-    public void agendarAtualizacaoDiaria() {
-        log.info("SCHEDULER: Acordando para atualizar preços dos jogos...");
-        precoService.enviarTodosParaFila();
+    /*
+        Preenche o ID da ITAD dos jogos que ainda não têm, para que
+        as atualizações de preços não precisem consultar pelo título.
+        O backfill roda em uma thread própria, fora do agendador.
+    */
+    @Scheduled(cron = "${lunix.itad.cron-backfill:0 0 2 * * *}")
+    public void preencherItadIds() {
+        log.info("SCHEDULER: Preenchendo os IDs da ITAD dos jogos...");
+        precoService.iniciarPreenchimentoItadIds();
     }
 }
@@ -0,0 +1,40 @@
+package br.com.lunix.scheduler;
+
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.dashboard.MetricaService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MetricasScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasScheduler.class);
+
+    private final MetricaService metricaService;
+    private final EstatisticasService estatisticasService;
+
+    /*
+        Gravação das contagens de eventos acumuladas em memória na série
+        temporal de métricas.
+    */
+    @Scheduled(fixedDelayString = "${lunix.metricas.intervalo-envio:60000}")
+    public void enviarEventos() {
+        try {
+            metricaService.enviarEventos();
+        } catch (Exception e) {
+            log.error("SCHEDULER: Erro ao gravar as métricas de eventos: {}", e.getMessage());
+        }
+    }
+
+    // Configurado para rodar logo após a meia-noite: retrato do dia e consolidação semanal/mensal
+    @Scheduled(cron = "${lunix.metricas.cron-retrato:0 5 0 * * *}")
+    public void registrarRetrato() {
+        log.info("SCHEDULER: Gravando o retrato diário das métricas do dashboard...");
+        metricaService.registrarRetrato(estatisticasService.buscar());
+        metricaService.consolidar();
+    }
+}
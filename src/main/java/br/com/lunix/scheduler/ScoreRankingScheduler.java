@@ -0,0 +1,47 @@
+package br.com.lunix.scheduler;
+
+import br.com.lunix.services.ranking.ScoreRankingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ScoreRankingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreRankingScheduler.class);
+
+    private final ScoreRankingService scoreRankingService;
+
+    /*
+        Recálculo periódico do score de ranking (nota média ponderada).
+        As avaliações mudam a nota média na hora; o score que ordena os
+        rankings acompanha com o atraso de uma execução deste job.
+        Roda em todas as instâncias, mas a trava no Redis do
+        ScoreRankingService deixa só uma recalcular por vez.
+    */
+
+    // Configurado para rodar a cada 15 minutos
+    @Scheduled(cron = "${lunix.ranking.cron-score:0 */15 * * * *}")
+    public void recalcularScores() {
+        log.info("SCHEDULER: Recalculando o score de ranking dos jogos...");
+        int alterados = scoreRankingService.recalcularScores();
+        if (alterados >= 0) {
+            log.info("SCHEDULER: {} jogo(s) com score de ranking alterado.", alterados);
+        }
+    }
+
+    // Na subida da aplicação, calcula os scores pendentes (jogos novos ou criados antes do campo existir)
+    @EventListener(ApplicationReadyEvent.class)
+    public void recalcularNaInicializacao() {
+        try {
+            recalcularScores();
+        } catch (Exception e) {
+            log.error("Erro ao calcular o score de ranking na inicialização: {}", e.getMessage());
+        }
+    }
+}
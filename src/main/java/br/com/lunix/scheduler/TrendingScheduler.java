@@ -0,0 +1,41 @@
+package br.com.lunix.scheduler;
+
+import br.com.lunix.services.ranking.TrendingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TrendingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingScheduler.class);
+
+    private final TrendingService trendingService;
+
+    /*
+        Envio dos contadores de atividade acumulados em memória para o Redis.
+        Roda com frequência para que o ranking reflita a atividade de todas
+        as instâncias com pouco atraso.
+    */
+    @Scheduled(fixedDelayString = "${lunix.trending.intervalo-envio:10000}")
+    public void enviarContadores() {
+        try {
+            trendingService.enviarPendentes();
+        } catch (Exception e) {
+            log.error("SCHEDULER: Erro ao enviar os contadores de trending: {}", e.getMessage());
+        }
+    }
+
+    // Remonta o ranking de jogos em alta a partir dos baldes da janela, uma vez por minuto
+    @Scheduled(cron = "${lunix.trending.cron-topo:30 * * * * *}")
+    public void recalcularTopo() {
+        try {
+            trendingService.recalcularTopo();
+        } catch (Exception e) {
+            log.error("SCHEDULER: Erro ao recalcular o trending: {}", e.getMessage());
+        }
+    }
+}
@@ -1,9 +1,9 @@
 package br.com.lunix.services.avaliacao;
 
+import br.com.lunix.config.cache.CacheNames;
 import br.com.lunix.dto.avaliacao.AvaliacaoRequestDto;
 import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
 import br.com.lunix.dto.avaliacao.AvaliacaoUpdateDto;
-import br.com.lunix.dto.avaliacao.ResultadoAgregacaoDto;
 import br.com.lunix.exceptions.AutoAvaliacaoException;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
@@ -14,10 +14,13 @@ import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
 import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.busca.AutocompleteService;
 import br.com.lunix.services.jogo.JogoSecurityService;
+import br.com.lunix.services.ranking.RankingService;
+import br.com.lunix.services.ranking.TrendingService;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +28,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AvaliacaoService {
@@ -34,6 +39,10 @@ public class AvaliacaoService {
 
     private final AvaliacaoMapper mapper;
     private final JogoSecurityService securityService;
+    private final AutocompleteService autocompleteService;
+    private final RankingService rankingService;
+    private final TrendingService trendingService;
+    private final EstatisticasService estatisticasService;
 
     /*
         Método de criação, valida a autenticidade da criação e atualiza as estatísticas
@@ -43,10 +52,7 @@ public class AvaliacaoService {
         @param dto - Dados de avaliação
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", key = "#jogoId"),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, key = "#jogoId")
     public AvaliacaoResponseDto criar(String jogoId, AvaliacaoRequestDto dto) {
         Usuario usuario = securityService.getUsuarioLogado();
         Jogo jogo = jogoRepository.findById(jogoId)
@@ -63,11 +69,13 @@ public class AvaliacaoService {
         Avaliacao avaliacao = mapper.toEntity(dto);
         avaliacao.setUsuario(usuario);
         avaliacao.setJogo(jogo);
+        avaliacao.setAutorRole(Role.principal(usuario.getRoles()));
 
         avaliacao = repository.save(avaliacao);
 
-        // Atualiza a média com o repository customizado
-        atualizarEstatiscasDoJogo(jogo);
+        // Soma a nota e a avaliação nas estatísticas do jogo
+        aplicarNoJogo(jogoId, null, avaliacao.getNota());
+        trendingService.registrarAvaliacao(jogoId);
 
         return mapper.toResponseDto(avaliacao);
     }
@@ -79,10 +87,7 @@ public class AvaliacaoService {
         @param dto - Dados de avaliação
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", allEntries = true),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, allEntries = true)
     public AvaliacaoResponseDto atualizar(String id, AvaliacaoUpdateDto dto) {
         Avaliacao avaliacao = buscarPorIdEntidade(id);
         Usuario usuario = securityService.getUsuarioLogado();
@@ -92,10 +97,14 @@ public class AvaliacaoService {
             throw new RegraDeNegocioException("Você não tem permissão para editar esta avaliação.");
         }
 
+        double notaAnterior = avaliacao.getNota();
         mapper.updateFromEntityDto(dto, avaliacao);
         avaliacao = repository.save(avaliacao);
 
-        atualizarEstatiscasDoJogo(avaliacao.getJogo());
+        // A nota antiga sai e a nova entra; o total não muda
+        if (avaliacao.getNota() != notaAnterior) {
+            aplicarNoJogo(avaliacao.getJogo().getId(), notaAnterior, avaliacao.getNota());
+        }
 
         return mapper.toResponseDto(avaliacao);
     }
@@ -106,10 +115,7 @@ public class AvaliacaoService {
         @param id - ID do jogo a ser deletado
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", allEntries = true),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, allEntries = true)
     public void deletar(String id) {
         Avaliacao avaliacao = buscarPorIdEntidade(id);
         Usuario usuario = securityService.getUsuarioLogado();
@@ -122,10 +128,27 @@ public class AvaliacaoService {
             throw new RegraDeNegocioException("Você não tem permissão para deletar esta avaliação.");
         }
 
-        Jogo jogoAlvo = avaliacao.getJogo();
         repository.delete(avaliacao);
 
-        atualizarEstatiscasDoJogo(jogoAlvo);
+        aplicarNoJogo(avaliacao.getJogo().getId(), avaliacao.getNota(), null);
+    }
+
+    /*
+        Reparo das estatísticas de avaliação: recalcula soma, total, histograma e média de
+        todos os jogos a partir das avaliações e corrige os que divergirem
+        (ex: falha entre gravar a avaliação e incrementar o jogo).
+
+        return: Quantidade de jogos corrigidos
+    */
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, allEntries = true)
+    public int recalcularEstatisticas() {
+        List<String> corrigidos = jogoRepository.recalcularEstatisticasDeAvaliacoes();
+
+        for (Jogo jogo : jogoRepository.findAllById(corrigidos)) {
+            autocompleteService.indexarJogo(jogo);
+            rankingService.atualizar(jogo);
+        }
+        return corrigidos.size();
     }
 
     /*
@@ -187,27 +210,28 @@ public class AvaliacaoService {
     }
 
     /*
-        Método para chamar o repositório customizado para calcular a média
-        de forma performática e atualiza a entidade de jogo.
-
-        @param jogo - Jogo alvo
+        Método que aplica a variação de uma avaliação nas estatísticas do jogo
+        (soma, total, histograma e média) com um incremento atômico no banco,
+        sem reler todas as avaliações, e atualiza o autocomplete e as
+        estatísticas do dashboard com a nota resultante.
+
+        Os rankings por nota não são tocados aqui: o score de ranking depende
+        da média global e é recalculado só pelo ScoreRankingService, que grava
+        o mesmo valor no banco e no Redis.
+
+        @param jogoId - Jogo alvo
+        @param notaRemovida - Nota que deixa de contar (nula na criação)
+        @param notaAdicionada - Nota que passa a contar (nula na remoção)
     */
-    private void atualizarEstatiscasDoJogo(Jogo jogo) {
-        ResultadoAgregacaoDto dados = repository.calcularMediaDoJogo(jogo.getId());
-
-        if (dados != null) {
-            System.out.println("Agregação SUCESSO: Média " + dados.mediaCalculada() + " | Total " + dados.totalAvaliacoes());
-            // Arredonda para 1 casa decimal
-            double mediaArredondada = Math.round(dados.mediaCalculada() * 10.0) / 10.0;
-
-            jogo.setNotaMedia(mediaArredondada);
-            jogo.setTotalAvaliacoes(dados.totalAvaliacoes());
-        } else {
-            System.out.println("Agregação retornou NULL para o jogo: " + jogo.getTitulo());
-            jogo.setNotaMedia(0.0);
-            jogo.setTotalAvaliacoes(0);
+    private void aplicarNoJogo(String jogoId, Double notaRemovida, Double notaAdicionada) {
+        estatisticasService.avaliacaoAlterada(notaRemovida, notaAdicionada);
+
+        Jogo jogo = jogoRepository.aplicarAvaliacao(jogoId, notaRemovida, notaAdicionada);
+        if (jogo == null) {
+            return;
         }
 
-        jogoRepository.save(jogo);
+        // Nota e total mudaram, então a relevância no autocomplete também
+        autocompleteService.indexarJogo(jogo);
     }
 }
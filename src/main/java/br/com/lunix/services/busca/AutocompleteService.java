@@ -0,0 +1,317 @@
+package br.com.lunix.services.busca;
+
+import br.com.lunix.dto.jogos.SugestaoAutocompleteDto;
+import br.com.lunix.dto.jogos.SugestaoAutocompleteDto.Tipo;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Jogo;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/*
+    Service responsável pelo autocomplete da barra de pesquisa.
+
+    Mantém em memória um índice ordenado com os nomes normalizados
+    (minúsculos e sem acentos) de jogos e empresas, permitindo buscas
+    por prefixo sem ir ao banco a cada tecla digitada.
+
+    Cada nome é indexado a partir do início de cada palavra, então
+    "kni" encontra "Hollow Knight".
+
+    Prefixos de até TAMANHO_PREFIXO_CURTO letras casam com uma fatia grande
+    do catálogo, então têm um índice próprio: para cada um, as entradas já
+    ficam ordenadas por relevância e a consulta só lê as primeiras k, sem
+    varrer as chaves em ordem alfabética.
+*/
+@Service
+@RequiredArgsConstructor
+public class AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteService.class);
+
+    private static final int LIMITE_MAXIMO = 20;
+
+    // Prefixos com até este tamanho são servidos pelo índice ordenado por relevância
+    static final int TAMANHO_PREFIXO_CURTO = 2;
+
+    // Limite de chaves lidas por consulta nos prefixos longos, que casam com poucos nomes
+    private static final int MAXIMO_VARREDURA = 10_000;
+
+    private static final char SEPARADOR = '\u0000';
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern NAO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+
+    // Ordem de relevância: nota, quantidade de avaliações e por fim ordem alfabética
+    private static final Comparator<Entrada> RELEVANCIA = Comparator
+            .comparingDouble(Entrada::notaMedia)
+            .thenComparingInt(Entrada::totalAvaliacoes)
+            .thenComparing(Entrada::nome, Comparator.reverseOrder())
+            .thenComparing(Entrada::identificador);
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Indice indice = new Indice();
+
+    // Escritas feitas enquanto uma reconstrução lê o banco, reaplicadas no índice novo antes da troca (guardado por this)
+    private List<Consumer<Indice>> escritasDuranteReconstrucao;
+
+    private record Entrada(String id, String nome, String nomeNormalizado, Tipo tipo, double notaMedia, int totalAvaliacoes) {
+        String identificador() {
+            return tipo.name() + ":" + id;
+        }
+    }
+
+    /*
+        Chaves ordenadas para a busca por prefixo, as chaves de cada entrada
+        para remoção e, para cada prefixo curto, as entradas ordenadas pelo
+        comparador da própria consulta (a melhor por último).
+    */
+    private static class Indice {
+        final ConcurrentSkipListMap<String, Entrada> chaves = new ConcurrentSkipListMap<>();
+        final Map<String, List<String>> chavesPorEntrada = new ConcurrentHashMap<>();
+        final Map<String, ConcurrentSkipListSet<Entrada>> prefixosCurtos = new ConcurrentHashMap<>();
+    }
+
+    /*
+        Busca as melhores sugestões para o termo digitado.
+
+        @param termo - Texto digitado pelo usuário
+        @param limite - Quantidade máxima de sugestões
+        return: Sugestões ordenadas por relevância
+    */
+    public List<SugestaoAutocompleteDto> sugerir(String termo, int limite) {
+        String prefixo = normalizar(termo);
+        if (prefixo.isEmpty()) {
+            return List.of();
+        }
+
+        int k = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+
+        if (prefixo.length() <= TAMANHO_PREFIXO_CURTO) {
+            ConcurrentSkipListSet<Entrada> ordenadas = indice.prefixosCurtos.get(prefixo);
+            if (ordenadas == null) {
+                return List.of();
+            }
+            return ordenadas.descendingSet().stream()
+                    .limit(k)
+                    .map(e -> new SugestaoAutocompleteDto(e.id(), e.nome(), e.tipo(), e.notaMedia()))
+                    .toList();
+        }
+
+        // Heap de tamanho k com a pior sugestão no topo
+        PriorityQueue<Entrada> melhores = new PriorityQueue<>(k + 1, comparador(prefixo));
+        Set<String> vistos = new HashSet<>();
+        int lidas = 0;
+
+        for (Entrada entrada : indice.chaves.subMap(prefixo, prefixo + Character.MAX_VALUE).values()) {
+            if (++lidas > MAXIMO_VARREDURA) break;
+            if (!vistos.add(entrada.identificador())) continue;
+
+            melhores.offer(entrada);
+            if (melhores.size() > k) {
+                melhores.poll();
+            }
+        }
+
+        List<SugestaoAutocompleteDto> resultado = new ArrayList<>(melhores.size());
+        while (!melhores.isEmpty()) {
+            Entrada e = melhores.poll();
+            resultado.add(0, new SugestaoAutocompleteDto(e.id(), e.nome(), e.tipo(), e.notaMedia()));
+        }
+        return resultado;
+    }
+
+    // Adiciona ou atualiza um jogo no índice
+    public void indexarJogo(Jogo jogo) {
+        if (jogo == null || jogo.getId() == null) return;
+        Entrada entrada = new Entrada(jogo.getId(), jogo.getTitulo(), normalizar(jogo.getTitulo()),
+                Tipo.JOGO, jogo.getNotaMedia(), jogo.getTotalAvaliacoes());
+        escrever(alvo -> adicionar(alvo, entrada));
+    }
+
+    // Remove um jogo do índice
+    public void removerJogo(String id) {
+        escrever(alvo -> remover(alvo, Tipo.JOGO.name() + ":" + id));
+    }
+
+    // Adiciona ou atualiza uma empresa no índice
+    public void indexarEmpresa(Empresa empresa) {
+        if (empresa == null || empresa.getId() == null) return;
+        Entrada entrada = new Entrada(empresa.getId(), empresa.getNome(), normalizar(empresa.getNome()),
+                Tipo.EMPRESA, 0.0, 0);
+        escrever(alvo -> adicionar(alvo, entrada));
+    }
+
+    // Remove uma empresa do índice
+    public void removerEmpresa(String id) {
+        escrever(alvo -> remover(alvo, Tipo.EMPRESA.name() + ":" + id));
+    }
+
+    /*
+        Reconstrói o índice inteiro a partir do banco.
+        Roda na subida da aplicação e periodicamente, para que instâncias
+        diferentes convirjam mesmo sem ver as escritas umas das outras.
+
+        As escritas que chegam enquanto o banco é lido vão para o índice
+        atual e também ficam guardadas; antes da troca elas são reaplicadas
+        no índice novo, então nenhuma se perde e a versão mais recente de
+        cada entrada prevalece sobre o que a leitura trouxe.
+    */
+    @Scheduled(fixedDelayString = "${lunix.autocomplete.intervalo-reconstrucao:PT30M}")
+    public void reconstruir() {
+        synchronized (this) {
+            if (escritasDuranteReconstrucao != null) return;
+            escritasDuranteReconstrucao = new ArrayList<>();
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            Indice novo = new Indice();
+
+            Query jogos = new Query();
+            jogos.fields().include("titulo", "notaMedia", "totalAvaliacoes");
+            try (var stream = mongoTemplate.stream(jogos, Document.class, "jogos")) {
+                stream.forEach(doc -> adicionar(novo, new Entrada(
+                        doc.getObjectId("_id").toHexString(),
+                        doc.getString("titulo"),
+                        normalizar(doc.getString("titulo")),
+                        Tipo.JOGO,
+                        numero(doc.get("notaMedia")).doubleValue(),
+                        numero(doc.get("totalAvaliacoes")).intValue())));
+            }
+
+            Query empresas = new Query();
+            empresas.fields().include("nome");
+            try (var stream = mongoTemplate.stream(empresas, Document.class, "empresas")) {
+                stream.forEach(doc -> adicionar(novo, new Entrada(
+                        doc.getObjectId("_id").toHexString(),
+                        doc.getString("nome"),
+                        normalizar(doc.getString("nome")),
+                        Tipo.EMPRESA, 0.0, 0)));
+            }
+
+            int reaplicadas;
+            synchronized (this) {
+                reaplicadas = escritasDuranteReconstrucao.size();
+                escritasDuranteReconstrucao.forEach(escrita -> escrita.accept(novo));
+                indice = novo;
+            }
+            log.info("Índice de autocomplete reconstruído com {} entradas em {} ms ({} escritas reaplicadas).",
+                    novo.chavesPorEntrada.size(), System.currentTimeMillis() - inicio, reaplicadas);
+        } catch (Exception e) {
+            log.error("Erro ao reconstruir o índice de autocomplete: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                escritasDuranteReconstrucao = null;
+            }
+        }
+    }
+
+    /*
+        Normaliza um texto para comparação: remove acentos, deixa minúsculo
+        e troca qualquer pontuação por um único espaço.
+
+        @param texto - Texto original
+    */
+    static String normalizar(String texto) {
+        if (texto == null) return "";
+
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return NAO_ALFANUMERICO.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Aplica a escrita no índice em uso e a guarda para o índice em reconstrução, se houver
+    private synchronized void escrever(Consumer<Indice> escrita) {
+        escrita.accept(indice);
+        if (escritasDuranteReconstrucao != null) {
+            escritasDuranteReconstrucao.add(escrita);
+        }
+    }
+
+    // Nomes que começam com o termo vêm antes dos que só têm uma palavra começando com ele
+    private static Comparator<Entrada> comparador(String prefixo) {
+        return Comparator
+                .<Entrada, Boolean>comparing(e -> e.nomeNormalizado().startsWith(prefixo))
+                .thenComparing(RELEVANCIA);
+    }
+
+    /*
+        Indexa a entrada a partir do início de cada palavra do nome.
+        Só é chamado por escrever (índice em uso) ou pela reconstrução
+        (índice novo, ainda visto por uma única thread).
+    */
+    private static void adicionar(Indice alvo, Entrada entrada) {
+        if (entrada.nomeNormalizado().isEmpty()) return;
+
+        remover(alvo, entrada.identificador());
+
+        String nome = entrada.nomeNormalizado();
+        List<String> chaves = new ArrayList<>();
+        for (int i = 0; i < nome.length(); i++) {
+            if (i == 0 || nome.charAt(i - 1) == ' ') {
+                String chave = nome.substring(i) + SEPARADOR + entrada.identificador();
+                alvo.chaves.put(chave, entrada);
+                chaves.add(chave);
+            }
+        }
+        alvo.chavesPorEntrada.put(entrada.identificador(), chaves);
+
+        for (String prefixo : prefixosCurtos(nome)) {
+            alvo.prefixosCurtos
+                    .computeIfAbsent(prefixo, p -> new ConcurrentSkipListSet<>(comparador(p)))
+                    .add(entrada);
+        }
+    }
+
+    private static void remover(Indice alvo, String identificador) {
+        List<String> antigas = alvo.chavesPorEntrada.remove(identificador);
+        if (antigas == null) return;
+
+        Entrada antiga = alvo.chaves.get(antigas.get(0));
+        antigas.forEach(alvo.chaves::remove);
+        if (antiga != null) {
+            for (String prefixo : prefixosCurtos(antiga.nomeNormalizado())) {
+                ConcurrentSkipListSet<Entrada> ordenadas = alvo.prefixosCurtos.get(prefixo);
+                if (ordenadas != null) {
+                    ordenadas.remove(antiga);
+                }
+            }
+        }
+    }
+
+    // Prefixos de 1 até TAMANHO_PREFIXO_CURTO letras do início de cada palavra do nome normalizado
+    private static Set<String> prefixosCurtos(String nome) {
+        Set<String> prefixos = new HashSet<>();
+        for (int i = 0; i < nome.length(); i++) {
+            if (i != 0 && nome.charAt(i - 1) != ' ') continue;
+            for (int fim = i + 1; fim <= Math.min(i + TAMANHO_PREFIXO_CURTO, nome.length()); fim++) {
+                if (nome.charAt(fim - 1) == ' ') break;
+                prefixos.add(nome.substring(i, fim));
+            }
+        }
+        return prefixos;
+    }
+
+    private static Number numero(Object valor) {
+        return valor instanceof Number n ? n : 0;
+    }
+}
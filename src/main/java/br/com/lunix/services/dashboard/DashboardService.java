@@ -5,110 +5,92 @@ import br.com.lunix.dto.dashboard.DashboardConteudoDto;
 import br.com.lunix.dto.dashboard.DashboardEngajamentoDto;
 import br.com.lunix.dto.dashboard.DashboardUsuariosDto;
 import br.com.lunix.dto.jogos.JogoResponseDto;
-import br.com.lunix.mapper.JogoMapper;
-import br.com.lunix.model.enums.Genero;
-import br.com.lunix.model.enums.Plataforma;
+import br.com.lunix.model.entities.Estatisticas;
 import br.com.lunix.model.enums.Role;
-import br.com.lunix.repository.AvaliacaoRepository;
-import br.com.lunix.repository.EmpresaRepository;
-import br.com.lunix.repository.JogoRepository;
-import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.jogo.JogoService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-// Service responsável por gerar dados de consulta em um Dashboard para ADMIN
+/*
+    Service responsável por gerar dados de consulta em um Dashboard para ADMIN.
+
+    Os números vêm do documento de estatísticas mantido com $inc pelas
+    escritas (ver EstatisticasService), então montar o dashboard é a leitura
+    de um único documento. O top 5 sai do top 10 por score de ranking, que
+    já fica em cache para a Home Page.
+*/
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
-    private final JogoRepository jogoRepository;
-    private final UsuarioRepository usuarioRepository;
-    private final EmpresaRepository empresaRepository;
-    private final AvaliacaoRepository avaliacaoRepository;
-    private final JogoMapper jogoMapper;
+    private final EstatisticasService estatisticasService;
+    private final JogoService jogoService;
 
     // Método para gerar todos o dados
-    @Transactional(readOnly = true)
     public DashboardCompletoDto gerarDashboardCompleto() {
+        Estatisticas estatisticas = estatisticasService.buscar();
+
         return new DashboardCompletoDto(
-                montarDadosUsuarios(),
-                montarDadosConteudo(),
-                montarDadosEngajamento()
+                montarDadosUsuarios(estatisticas),
+                montarDadosConteudo(estatisticas),
+                montarDadosEngajamento(estatisticas)
         );
     }
 
     // Método para montar os dados de usuários
-    private DashboardUsuariosDto montarDadosUsuarios() {
-        long total = usuarioRepository.count();
-        long novosMes = usuarioRepository.countByDataCriacaoAfter(LocalDateTime.now().minusDays(30));
-        long desativados = usuarioRepository.countByAtivo(false);
+    private DashboardUsuariosDto montarDadosUsuarios(Estatisticas estatisticas) {
+        // Novos usuários: soma dos cadastros por dia dentro da janela
+        String primeiroDia = LocalDate.now().minusDays(EstatisticasService.DIAS_NOVOS_USUARIOS - 1).toString();
+        long novosMes = estatisticas.getNovosUsuariosPorDia().entrySet().stream()
+                .filter(dia -> dia.getKey().compareTo(primeiroDia) >= 0)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
 
         Map<String, Long> porRole = new HashMap<>();
-        porRole.put("ADMIN", usuarioRepository.countByRolesContains(Role.ROLE_ADMIN));
-        porRole.put("DEV", usuarioRepository.countByRolesContains(Role.ROLE_DEV));
-        porRole.put("USER", usuarioRepository.countByRolesContains(Role.ROLE_USER));
+        porRole.put("ADMIN", estatisticas.getUsuariosPorRole().getOrDefault(Role.ROLE_ADMIN.name(), 0L));
+        porRole.put("DEV", estatisticas.getUsuariosPorRole().getOrDefault(Role.ROLE_DEV.name(), 0L));
+        porRole.put("USER", estatisticas.getUsuariosPorRole().getOrDefault(Role.ROLE_USER.name(), 0L));
 
-        return new DashboardUsuariosDto(total, desativados, novosMes, porRole);
+        return new DashboardUsuariosDto(estatisticas.getTotalUsuarios(), estatisticas.getUsuariosDesativados(), novosMes, porRole);
     }
 
     // Método para montar os dados de dashboard para o conteúdo principal
-    private DashboardConteudoDto montarDadosConteudo() {
-        long totalJogos = jogoRepository.count();
-
-        long semPreco = jogoRepository.findByPrecosIsEmpty(Pageable.unpaged()).getTotalElements();
-
-        long totalEmpresas = empresaRepository.count();
-
-        // Cálculo aproximado de devs autônomos sem empresa vinculada
-        long totalDevs = jogoRepository.countByEmpresaIsNull();
-
-        // Cálculo de jogos separados por gênero
-        Map<String, Long> porGenero = new HashMap<>();
-        for (Genero g : Genero.values()) {
-            long count = jogoRepository.countByGeneros(g);
-            if (count > 0) porGenero.put(g.name(), count);
-        }
-
-        // Cálculo de jogos separados por plataforma
-        Map<String, Long> porPlataforma = new HashMap<>();
-        for (Plataforma p : Plataforma.values()) {
-            long count = jogoRepository.countByPlataformas(p);
-            if (count > 0) porPlataforma.put(p.name(), count);
-        }
-
-        List<JogoResponseDto> top5 = jogoRepository.findTop10ByOrderByNotaMediaDesc()
-                .stream()
-                .limit(5)
-                .map(jogoMapper::toResponseDto)
-                .toList();
+    private DashboardConteudoDto montarDadosConteudo(Estatisticas estatisticas) {
+        List<JogoResponseDto> top5 = jogoService.buscarTop10MelhoresAvaliados().stream().limit(5).toList();
 
         return new DashboardConteudoDto(
-                totalJogos,
-                semPreco,
-                totalEmpresas,
-                totalDevs,
-                porGenero,
-                porPlataforma,
+                estatisticas.getTotalJogos(),
+                estatisticas.getJogosSemPreco(),
+                estatisticas.getTotalEmpresas(),
+                estatisticas.getJogosSemEmpresa(),
+                semZeros(estatisticas.getJogosPorGenero()),
+                semZeros(estatisticas.getJogosPorPlataforma()),
                 top5
         );
     }
 
     // Método para gerar os dados de engajamento ao Dashboard
-    private DashboardEngajamentoDto montarDadosEngajamento() {
-        long totalReviews = avaliacaoRepository.count();
+    private DashboardEngajamentoDto montarDadosEngajamento(Estatisticas estatisticas) {
+        long totalReviews = estatisticas.getTotalAvaliacoes();
 
-        double mediaGlobal = avaliacaoRepository.calcularMediaGlobal();
+        double mediaGlobal = totalReviews > 0 ? estatisticas.getSomaNotas() / totalReviews : 0.0;
 
         mediaGlobal = Math.round(mediaGlobal * 10.0) / 10.0;
 
         return new DashboardEngajamentoDto(totalReviews, mediaGlobal);
     }
 
+    // Gêneros/plataformas que chegaram a zero pelos decrementos continuam no documento e não são exibidos
+    private Map<String, Long> semZeros(Map<String, Long> contagens) {
+        Map<String, Long> resultado = new HashMap<>();
+        contagens.forEach((chave, valor) -> {
+            if (valor != null && valor > 0) resultado.put(chave, valor);
+        });
+        return resultado;
+    }
 }
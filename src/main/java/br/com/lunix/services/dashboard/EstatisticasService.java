@@ -0,0 +1,263 @@
+package br.com.lunix.services.dashboard;
+
+import br.com.lunix.dto.dashboard.ResumoAvaliacoesDashboardDto;
+import br.com.lunix.dto.dashboard.ResumoJogosDashboardDto;
+import br.com.lunix.dto.dashboard.ResumoUsuariosDashboardDto;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Estatisticas;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.Metrica;
+import br.com.lunix.repository.AvaliacaoRepository;
+import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/*
+    Service responsável pelo documento de estatísticas do dashboard.
+
+    Cada escrita de jogo, usuário, empresa ou avaliação aplica a sua
+    diferença nos contadores com um único $inc, então o dashboard é a
+    leitura de um documento, sem contagem nem agregação na requisição.
+
+    Os incrementos não são atômicos com a escrita de origem (ex: falha
+    entre salvar o jogo e incrementar), por isso o documento inteiro é
+    recalculado a partir das coleções pelo job noturno.
+
+    Cadastros e avaliações também são contados como eventos na série
+    temporal de métricas (MetricaService).
+*/
+@Service
+@RequiredArgsConstructor
+public class EstatisticasService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstatisticasService.class);
+
+    // Quantidade de dias de cadastros guardados no documento (a janela de "novos usuários")
+    static final int DIAS_NOVOS_USUARIOS = 30;
+
+    private final JogoRepository jogoRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MetricaService metricaService;
+
+    // A reconciliação só espera pelo banco, então cada coleção é lida em uma virtual thread
+    private final Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Atributos de um jogo que entram nas contagens, lidos antes e depois de uma escrita
+    public record RetratoJogo(List<String> generos, List<String> plataformas, String classificacao, boolean semEmpresa, boolean semPreco) {
+
+        public static RetratoJogo de(Jogo jogo) {
+            return new RetratoJogo(
+                    nomes(jogo.getGeneros()),
+                    nomes(jogo.getPlataformas()),
+                    jogo.getClassificacao() != null ? jogo.getClassificacao().name() : null,
+                    jogo.getEmpresa() == null,
+                    Jogo.semPreco(jogo.getPrecos()));
+        }
+    }
+
+    // Atributos de um usuário que entram nas contagens, lidos antes e depois de uma escrita
+    public record RetratoUsuario(List<String> roles, boolean ativo, LocalDate diaCadastro) {
+
+        public static RetratoUsuario de(Usuario usuario) {
+            return new RetratoUsuario(
+                    nomes(usuario.getRoles()),
+                    usuario.isAtivo(),
+                    usuario.getDataCriacao() != null ? usuario.getDataCriacao().toLocalDate() : null);
+        }
+    }
+
+    /*
+        Aplica a mudança de um jogo nos contadores.
+
+        @param antes - Retrato antes da escrita (nulo em um cadastro)
+        @param depois - Retrato depois da escrita (nulo em uma exclusão)
+    */
+    public void jogoAlterado(RetratoJogo antes, RetratoJogo depois) {
+        Map<String, Long> diferencas = new LinkedHashMap<>();
+        contarJogo(diferencas, antes, -1);
+        contarJogo(diferencas, depois, 1);
+        aplicar(diferencas);
+
+        if (antes == null && depois != null) metricaService.registrar(Metrica.JOGOS_CADASTRADOS);
+    }
+
+    /*
+        Aplica a mudança de um usuário nos contadores.
+
+        @param antes - Retrato antes da escrita (nulo em um cadastro)
+        @param depois - Retrato depois da escrita
+    */
+    public void usuarioAlterado(RetratoUsuario antes, RetratoUsuario depois) {
+        Map<String, Long> diferencas = new LinkedHashMap<>();
+        contarUsuario(diferencas, antes, -1);
+        contarUsuario(diferencas, depois, 1);
+        aplicar(diferencas);
+
+        if (antes == null) metricaService.registrar(Metrica.USUARIOS_CADASTRADOS);
+    }
+
+    // Soma (1) ou desconta (-1) uma empresa no total
+    public void empresaAlterada(int diferenca) {
+        aplicar(Map.of("totalEmpresas", (long) diferenca));
+    }
+
+    /*
+        Aplica a mudança de uma avaliação no total e na soma das notas,
+        com a mesma convenção do JogoRepositoryImpl.aplicarAvaliacao.
+
+        @param notaRemovida - Nota que deixou de existir (nula em uma criação)
+        @param notaAdicionada - Nota que passou a existir (nula em uma exclusão)
+    */
+    public void avaliacaoAlterada(Double notaRemovida, Double notaAdicionada) {
+        if (notaRemovida == null && notaAdicionada != null) metricaService.registrar(Metrica.AVALIACOES_CRIADAS);
+        if (notaRemovida != null && notaAdicionada == null) metricaService.registrar(Metrica.AVALIACOES_EXCLUIDAS);
+
+        long total = (notaAdicionada != null ? 1 : 0) - (notaRemovida != null ? 1 : 0);
+        double soma = (notaAdicionada != null ? notaAdicionada : 0.0) - (notaRemovida != null ? notaRemovida : 0.0);
+        if (total == 0 && soma == 0) return;
+
+        Update update = new Update().inc("somaNotas", soma);
+        if (total != 0) {
+            update.inc("totalAvaliacoes", total);
+        }
+        mongoTemplate.updateFirst(consultaGlobal(), update, Estatisticas.class);
+    }
+
+    /*
+        Lê o documento de estatísticas. Na primeira leitura (documento
+        ainda inexistente) ele é montado a partir das coleções.
+    */
+    public Estatisticas buscar() {
+        Estatisticas estatisticas = mongoTemplate.findById(Estatisticas.ID_GLOBAL, Estatisticas.class);
+        return estatisticas != null ? estatisticas : reconciliar();
+    }
+
+    /*
+        Recalcula todos os contadores a partir das coleções de origem e
+        grava o documento inteiro, corrigindo qualquer divergência dos
+        incrementos. Cada coleção é lida por uma única agregação e as
+        três agregações rodam em paralelo.
+
+        Incrementos feitos durante a reconciliação podem ser sobrescritos;
+        a diferença é corrigida na execução seguinte.
+    */
+    public Estatisticas reconciliar() {
+        long inicio = System.currentTimeMillis();
+        LocalDate primeiroDia = LocalDate.now().minusDays(DIAS_NOVOS_USUARIOS - 1);
+
+        CompletableFuture<ResumoJogosDashboardDto> jogos = CompletableFuture.supplyAsync(jogoRepository::resumirParaDashboard, executor);
+        CompletableFuture<ResumoUsuariosDashboardDto> usuarios = CompletableFuture.supplyAsync(
+                () -> usuarioRepository.resumirParaDashboard(primeiroDia.atStartOfDay()), executor);
+        CompletableFuture<ResumoAvaliacoesDashboardDto> avaliacoes = CompletableFuture.supplyAsync(avaliacaoRepository::resumirParaDashboard, executor);
+
+        Estatisticas estatisticas = new Estatisticas();
+        estatisticas.setTotalJogos(mongoTemplate.count(new Query(), Jogo.class));
+        estatisticas.setTotalUsuarios(mongoTemplate.count(new Query(), Usuario.class));
+        estatisticas.setTotalEmpresas(mongoTemplate.count(new Query(), Empresa.class));
+
+        ResumoJogosDashboardDto resumoJogos = aguardar(jogos);
+        estatisticas.setJogosSemPreco(resumoJogos.semPreco());
+        estatisticas.setJogosSemEmpresa(resumoJogos.semEmpresa());
+        estatisticas.setJogosPorGenero(new HashMap<>(resumoJogos.porGenero()));
+        estatisticas.setJogosPorPlataforma(new HashMap<>(resumoJogos.porPlataforma()));
+        estatisticas.setJogosPorClassificacao(new HashMap<>(resumoJogos.porClassificacao()));
+
+        ResumoUsuariosDashboardDto resumoUsuarios = aguardar(usuarios);
+        estatisticas.setUsuariosDesativados(resumoUsuarios.desativados());
+        estatisticas.setUsuariosPorRole(new HashMap<>(resumoUsuarios.porRole()));
+        estatisticas.setNovosUsuariosPorDia(new HashMap<>(resumoUsuarios.novosPorDia()));
+
+        ResumoAvaliacoesDashboardDto resumoAvaliacoes = aguardar(avaliacoes);
+        estatisticas.setTotalAvaliacoes(resumoAvaliacoes.total());
+        estatisticas.setSomaNotas(resumoAvaliacoes.somaNotas());
+
+        estatisticas.setReconciliadoEm(LocalDateTime.now());
+        estatisticas = mongoTemplate.save(estatisticas);
+
+        log.info("Estatísticas do dashboard reconciliadas em {} ms.", System.currentTimeMillis() - inicio);
+        return estatisticas;
+    }
+
+    /*
+        Grava as diferenças diferentes de zero com um único $inc. Sem o
+        documento (antes da primeira reconciliação) nada é gravado, para
+        que ele não nasça só com as diferenças.
+    */
+    private void aplicar(Map<String, Long> diferencas) {
+        Update update = new Update();
+        diferencas.forEach((campo, valor) -> {
+            if (valor != 0) update.inc(campo, valor);
+        });
+        if (update.getUpdateObject().isEmpty()) return;
+
+        mongoTemplate.updateFirst(consultaGlobal(), update, Estatisticas.class);
+    }
+
+    private void contarJogo(Map<String, Long> diferencas, RetratoJogo jogo, long sinal) {
+        if (jogo == null) return;
+
+        somar(diferencas, "totalJogos", sinal);
+        if (jogo.semPreco()) somar(diferencas, "jogosSemPreco", sinal);
+        if (jogo.semEmpresa()) somar(diferencas, "jogosSemEmpresa", sinal);
+        jogo.generos().forEach(genero -> somar(diferencas, "jogosPorGenero." + genero, sinal));
+        jogo.plataformas().forEach(plataforma -> somar(diferencas, "jogosPorPlataforma." + plataforma, sinal));
+        if (jogo.classificacao() != null) somar(diferencas, "jogosPorClassificacao." + jogo.classificacao(), sinal);
+    }
+
+    private void contarUsuario(Map<String, Long> diferencas, RetratoUsuario usuario, long sinal) {
+        if (usuario == null) return;
+
+        somar(diferencas, "totalUsuarios", sinal);
+        if (!usuario.ativo()) somar(diferencas, "usuariosDesativados", sinal);
+        usuario.roles().forEach(role -> somar(diferencas, "usuariosPorRole." + role, sinal));
+        if (usuario.diaCadastro() != null) {
+            somar(diferencas, "novosUsuariosPorDia." + usuario.diaCadastro(), sinal);
+        }
+    }
+
+    private static void somar(Map<String, Long> diferencas, String campo, long valor) {
+        diferencas.merge(campo, valor, Long::sum);
+    }
+
+    private static Query consultaGlobal() {
+        return new Query(Criteria.where("_id").is(Estatisticas.ID_GLOBAL));
+    }
+
+    private static List<String> nomes(Collection<? extends Enum<?>> valores) {
+        return valores == null ? List.of() : valores.stream().map(Enum::name).toList();
+    }
+
+    // Espera uma agregação e relança o erro original, sem o CompletionException em volta
+    private static <T> T aguardar(CompletableFuture<T> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.lunix.services.dashboard;
+
+import br.com.lunix.dto.dashboard.PontoSerieDto;
+import br.com.lunix.dto.dashboard.SerieMetricaDto;
+import br.com.lunix.exceptions.RegraDeNegocioException;
+import br.com.lunix.model.entities.Estatisticas;
+import br.com.lunix.model.entities.PontoMetrica;
+import br.com.lunix.model.entities.ResumoMetrica;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import br.com.lunix.repository.MetricaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+    Service responsável pela série temporal de métricas do dashboard.
+
+    Dois tipos de ponto vão para a coleção time series "metricas":
+    - Retratos diários dos contadores do documento de estatísticas
+      (EstatisticasService), gravados uma vez por dia.
+    - Contagens de eventos (cadastros, avaliações), acumuladas em memória
+      e gravadas em lote com o momento truncado na hora.
+
+    Todas as noites os pontos são consolidados em resumos semanais e
+    mensais, que duram mais que os pontos brutos. As séries são lidas
+    só dessas duas coleções, sem percorrer usuários, jogos ou avaliações.
+*/
+@Service
+@RequiredArgsConstructor
+public class MetricaService {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricaService.class);
+
+    // Tamanho máximo do intervalo nas séries lidas dos pontos brutos
+    static final int DIAS_MAXIMO_POR_HORA = 31;
+    static final int DIAS_MAXIMO_POR_DIA = 366;
+
+    // Intervalo usado quando o início não é informado
+    static final int DIAS_PADRAO = 30;
+
+    private final MetricaRepository metricaRepository;
+
+    // Relógio usado para datar os pontos, substituível nos testes
+    Clock relogio = Clock.systemDefaultZone();
+
+    private final Map<Metrica, LongAdder> pendentes = new ConcurrentHashMap<>();
+
+    // Conta uma ocorrência de uma métrica de evento
+    public void registrar(Metrica metrica) {
+        pendentes.computeIfAbsent(metrica, m -> new LongAdder()).increment();
+    }
+
+    /*
+        Grava os eventos acumulados em memória como pontos da hora atual,
+        um por métrica, em um único insert. Vários envios na mesma hora
+        geram vários pontos, que são somados nas leituras.
+
+        Cada contador é zerado com sumThenReset, então eventos que chegam
+        durante o envio entram no próximo lote.
+
+        return: Quantidade de pontos gravados
+    */
+    public int enviarEventos() {
+        LocalDateTime hora = LocalDateTime.now(relogio).truncatedTo(ChronoUnit.HOURS);
+
+        List<PontoMetrica> pontos = new ArrayList<>();
+        pendentes.forEach((metrica, contador) -> {
+            long total = contador.sumThenReset();
+            if (total > 0) pontos.add(new PontoMetrica(metrica, hora, total));
+        });
+        if (pontos.isEmpty()) return 0;
+
+        metricaRepository.insert(pontos);
+        return pontos.size();
+    }
+
+    /*
+        Grava o retrato do dia a partir do documento de estatísticas,
+        datado no início do dia.
+    */
+    public void registrarRetrato(Estatisticas estatisticas) {
+        LocalDateTime dia = LocalDate.now(relogio).atStartOfDay();
+
+        long totalJogos = estatisticas.getTotalJogos();
+        double cobertura = totalJogos > 0 ? arredondar((totalJogos - estatisticas.getJogosSemPreco()) * 100.0 / totalJogos) : 0.0;
+        long totalAvaliacoes = estatisticas.getTotalAvaliacoes();
+        double media = totalAvaliacoes > 0 ? arredondar(estatisticas.getSomaNotas() / totalAvaliacoes) : 0.0;
+
+        metricaRepository.insert(List.of(
+                new PontoMetrica(Metrica.TOTAL_USUARIOS, dia, estatisticas.getTotalUsuarios()),
+                new PontoMetrica(Metrica.USUARIOS_DESATIVADOS, dia, estatisticas.getUsuariosDesativados()),
+                new PontoMetrica(Metrica.TOTAL_JOGOS, dia, totalJogos),
+                new PontoMetrica(Metrica.JOGOS_SEM_PRECO, dia, estatisticas.getJogosSemPreco()),
+                new PontoMetrica(Metrica.COBERTURA_PRECOS, dia, cobertura),
+                new PontoMetrica(Metrica.TOTAL_EMPRESAS, dia, estatisticas.getTotalEmpresas()),
+                new PontoMetrica(Metrica.TOTAL_AVALIACOES, dia, totalAvaliacoes),
+                new PontoMetrica(Metrica.MEDIA_NOTAS, dia, media)
+        ));
+    }
+
+    /*
+        Reconsolida os resumos semanais e mensais a partir do início da
+        semana e do mês anteriores. O período atual é regravado a cada
+        execução até fechar, e o anterior recebe os pontos que chegaram
+        depois da última consolidação dele.
+    */
+    public void consolidar() {
+        long inicio = System.currentTimeMillis();
+        LocalDate hoje = LocalDate.now(relogio);
+
+        metricaRepository.consolidar(Granularidade.SEMANA,
+                hoje.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1).atStartOfDay());
+        metricaRepository.consolidar(Granularidade.MES,
+                hoje.withDayOfMonth(1).minusMonths(1).atStartOfDay());
+
+        log.info("Métricas consolidadas em resumos semanais e mensais em {} ms.", System.currentTimeMillis() - inicio);
+    }
+
+    /*
+        Monta a série de uma métrica no intervalo de dias informado.
+
+        Hora e dia são agrupados a partir dos pontos brutos, com o
+        intervalo limitado; semana e mês são lidos dos resumos, cobrindo
+        toda a retenção deles. O período atual de semana/mês reflete a
+        última consolidação.
+
+        @param inicio - Primeiro dia (opcional, padrão: DIAS_PADRAO antes do fim)
+        @param fim - Último dia, inclusivo (opcional, padrão: hoje)
+    */
+    public SerieMetricaDto buscarSerie(Metrica metrica, Granularidade granularidade, LocalDate inicio, LocalDate fim) {
+        LocalDate ultimoDia = fim != null ? fim : LocalDate.now(relogio);
+        LocalDate primeiroDia = inicio != null ? inicio : ultimoDia.minusDays(DIAS_PADRAO);
+
+        if (primeiroDia.isAfter(ultimoDia)) {
+            throw new RegraDeNegocioException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        validarTamanho(granularidade, primeiroDia, ultimoDia);
+
+        LocalDateTime de = inicioDoPeriodo(granularidade, primeiroDia);
+        LocalDateTime ate = ultimoDia.plusDays(1).atStartOfDay();
+
+        List<ResumoMetrica> resumos = granularidade.isConsolidada()
+                ? metricaRepository.buscarConsolidados(metrica, granularidade, de, ate)
+                : metricaRepository.agruparPontos(metrica, granularidade, de, ate);
+
+        List<PontoSerieDto> pontos = resumos.stream()
+                .map(resumo -> new PontoSerieDto(resumo.getInicio(), resumo.valorDoPeriodo()))
+                .toList();
+
+        return new SerieMetricaDto(metrica, granularidade, pontos);
+    }
+
+    // Grava o que ainda está em memória antes de a aplicação desligar
+    @PreDestroy
+    public void enviarAoDesligar() {
+        try {
+            enviarEventos();
+        } catch (Exception e) {
+            log.warn("Não foi possível gravar as métricas de eventos ao desligar: {}", e.getMessage());
+        }
+    }
+
+    private void validarTamanho(Granularidade granularidade, LocalDate inicio, LocalDate fim) {
+        long dias = ChronoUnit.DAYS.between(inicio, fim) + 1;
+        int maximo = switch (granularidade) {
+            case HORA -> DIAS_MAXIMO_POR_HORA;
+            case DIA -> DIAS_MAXIMO_POR_DIA;
+            default -> Integer.MAX_VALUE;
+        };
+        if (dias > maximo) {
+            throw new RegraDeNegocioException("Intervalo máximo para a granularidade " + granularidade + " é de " + maximo + " dias.");
+        }
+    }
+
+    // Alinha o início ao período que o contém, para que o primeiro resumo não seja descartado
+    private static LocalDateTime inicioDoPeriodo(Granularidade granularidade, LocalDate dia) {
+        return switch (granularidade) {
+            case SEMANA -> dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
+            case MES -> dia.withDayOfMonth(1).atStartOfDay();
+            default -> dia.atStartOfDay();
+        };
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 10.0) / 10.0;
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.lunix.services.empresa;
 
+import br.com.lunix.config.cache.CacheNames;
 import br.com.lunix.dto.empresa.EmpresaDetalhesDto;
 import br.com.lunix.dto.empresa.EmpresaRequestDto;
 import br.com.lunix.dto.empresa.EmpresaResponseDto;
@@ -8,22 +9,27 @@ import br.com.lunix.dto.jogos.JogoResponseDto;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
 import br.com.lunix.mapper.EmpresaMapper;
-import br.com.lunix.mapper.JogoMapper;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.JogoRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.busca.AutocompleteService;
 import br.com.lunix.services.igdb.IgdbApiService;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -34,9 +40,10 @@ public class EmpresaService {
     private final UsuarioRepository usuarioRepository;
 
     private final IgdbApiService igdbApiService;
+    private final AutocompleteService autocompleteService;
+    private final EstatisticasService estatisticasService;
 
     private final EmpresaMapper mapper;
-    private final JogoMapper jogoMapper;
 
     /*
         Cria uma nova empresa no sistema.
@@ -61,6 +68,8 @@ public class EmpresaService {
         }
 
         entity = repository.save(entity);
+        autocompleteService.indexarEmpresa(entity);
+        estatisticasService.empresaAlterada(1);
 
         return mapper.toResponseDto(entity);
     }
@@ -116,10 +125,9 @@ public class EmpresaService {
                 .orElseThrow(() -> new ResourceNotFoundException("Empresa não encontrada com o ID: " + id));
 
         // Busca os jogos vinculados a essa empresa para popular o DTO
-        List<JogoResponseDto> jogosDaEmpresa = jogoRepository.findByEmpresa(empresa, Pageable.unpaged())
-                .stream()
-                .map(jogoMapper::toResponseDto)
-                .collect(Collectors.toList());
+        List<JogoResponseDto> jogosDaEmpresa = jogoRepository
+                .buscarResumos(Criteria.where("empresa").is(empresa), Pageable.unpaged())
+                .getContent();
 
         return mapper.toDetalhesDto(empresa, jogosDaEmpresa);
     }
@@ -127,11 +135,17 @@ public class EmpresaService {
     /*
         Atualiza dados de uma empresa.
         Verifica se a mudança de nome não conflita com outra empresa existente.
+        Se o nome ou a logo mudarem, a cópia do criador é atualizada nos jogos da empresa.
 
         @param id - ID da empresa.
         @param dto - Novos dados.
     */
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CacheNames.JOGOS_DETALHES, allEntries = true),
+            @CacheEvict(value = CacheNames.JOGOS_TOP10_NOTA, allEntries = true),
+            @CacheEvict(value = CacheNames.JOGOS_TOP10_RECENTES, allEntries = true)
+    })
     public EmpresaResponseDto update(String id, EmpresaUpdateDto dto) {
         Empresa empresa = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Empresa não encontrada com o ID: " + id));
@@ -142,6 +156,9 @@ public class EmpresaService {
             throw new RegraDeNegocioException("Já existe uma empresa cadastrada com o nome: " + dto.nome());
         }
 
+        String nomeAnterior = empresa.getNome();
+        String logoAnterior = empresa.getUrlLogo();
+
         mapper.updateEntityFromDto(dto, empresa);
 
         if (empresa.getUrlLogo() == null || empresa.getUrlLogo().isBlank()) {
@@ -152,6 +169,11 @@ public class EmpresaService {
         }
 
         empresa = repository.save(empresa);
+        autocompleteService.indexarEmpresa(empresa);
+
+        if (!Objects.equals(nomeAnterior, empresa.getNome()) || !Objects.equals(logoAnterior, empresa.getUrlLogo())) {
+            jogoRepository.atualizarCriador(CriadorSnapshot.daEmpresa(empresa));
+        }
 
         return mapper.toResponseDto(empresa);
     }
@@ -179,6 +201,8 @@ public class EmpresaService {
 
         // Se passou pelas validações, deleta
         repository.delete(empresa);
+        autocompleteService.removerEmpresa(id);
+        estatisticasService.empresaAlterada(-1);
     }
 
     /*
@@ -1,6 +1,7 @@
 package br.com.lunix.services.itad;
 
 import br.com.lunix.dto.itad.ItadRecords.*;
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
 import br.com.lunix.mapper.ItadMapper;
 import br.com.lunix.model.entities.PrecoPlataforma;
 import org.slf4j.Logger;
@@ -8,14 +9,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,24 +31,35 @@ import java.util.stream.Collectors;
 
     Busca a partir do título, de onde é recuperado um id que será
     utilizado para as lojas e preços referentes ao jogo.
+
+    Toda requisição consome antes um token do LimitadorItad. Sem token,
+    ou com uma resposta 429 da API, é lançada LimiteItadExcedidoException
+    em vez de a thread esperar.
 */
 @Service
 public class ItadApiService {
 
     private static final Logger log = LoggerFactory.getLogger(ItadApiService.class);
+
+    // Quantidade máxima de IDs aceita pelo endpoint de preços em uma requisição
+    public static final int MAXIMO_IDS_POR_REQUISICAO = 200;
+
     private final RestTemplate restTemplate;
     private final String apiKey;
     private final String apiBaseUrl;
+    private final LimitadorItad limitador;
 
     @Autowired
     private ItadMapper itadMapper;
 
     public ItadApiService(@Value("${itad.api.key}") String apiKey,
                           @Value("${itad.api.baseurl}") String apiBaseUrl,
-                          RestTemplateBuilder builder) {
+                          RestTemplateBuilder builder,
+                          LimitadorItad limitador) {
         this.apiKey = apiKey;
         this.apiBaseUrl = apiBaseUrl;
         this.restTemplate = builder.build();
+        this.limitador = limitador;
     }
 
     /*
@@ -105,40 +123,61 @@ public class ItadApiService {
                 .queryParam("title", titulo)
                 .build().toUri();
 
+        limitador.adquirir();
         try {
-            // Registra a resposta
-            ItadLookupResponseDto response = restTemplate.getForObject(uri, ItadLookupResponseDto.class);
+            // Registra a resposta e a cota restante informada nos cabeçalhos
+            ResponseEntity<ItadLookupResponseDto> resposta = restTemplate.getForEntity(uri, ItadLookupResponseDto.class);
+            limitador.registrarCabecalhos(resposta.getHeaders());
 
             // Faz a filtragem da resposta para transformar em DTO
-            return Optional.ofNullable(response)
+            return Optional.ofNullable(resposta.getBody())
                     .filter(ItadLookupResponseDto::found)
                     .map(ItadLookupResponseDto::game)
                     .map(ItadGameLookupDto::id)
                     .orElse(null);
 
         } catch (HttpClientErrorException e) {
+            verificarLimite(e);
             log.error("Erro na API ITAD ao buscar ID para '{}': {} {}", titulo, e.getStatusCode(), e.getResponseBodyAsString());
             return null;
         }
     }
 
     /*
-        Método responsável por buscar todos os preços de um jogo
-        em diversas lojas a partir de um ID.
+        Método público da busca do ID de um jogo na API pelo título,
+        usado pela atualização de preços em lote.
 
-        @param gameId: ID do jogo escolhido vindo da API.
-
-        @return: Devolve uma lista de PrecoPlataforma que contém as lojas
-        e o preço referente aquela loja.
+        @param titulo: Título do jogo a ser buscado.
+        @return: Retorna o ID do jogo na ITAD, ou null se não for encontrado
+        ou em caso de erro. Sem cota de requisições lança LimiteItadExcedidoException.
     */
-    private List<PrecoPlataforma> getPricesForId(String gameId) {
-        /*
-            Faz uma requisição POST para a API enviando o ID por meio de
-            URI, depois faz um mapeamento da resposta gerada para transformar
-            a resposta em PrecoPlataforma.
+    public String buscarIdDoJogo(String titulo) {
+        try {
+            return findGameId(titulo);
+        } catch (LimiteItadExcedidoException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Erro geral ao buscar ID na ITAD para '{}': {}", titulo, e.getMessage());
+            return null;
+        }
+    }
 
-            Em caso de erro devolve uma lista nula.
-        */
+    /*
+        Método responsável por buscar os preços de vários jogos em uma
+        única requisição. O endpoint /games/prices/v3 recebe uma lista
+        de IDs e devolve um resultado por jogo encontrado.
+
+        @param gameIds: IDs dos jogos na ITAD (no máximo MAXIMO_IDS_POR_REQUISICAO).
+
+        @return: Devolve um mapa do ID do jogo para a lista de PrecoPlataforma.
+        Jogos sem resultado não aparecem no mapa; em caso de erro devolve
+        um mapa vazio. Sem cota de requisições lança LimiteItadExcedidoException.
+    */
+    public Map<String, List<PrecoPlataforma>> buscarPrecosEmLote(Collection<String> gameIds) {
+        if (gameIds.isEmpty()) return Collections.emptyMap();
+        if (gameIds.size() > MAXIMO_IDS_POR_REQUISICAO) {
+            throw new IllegalArgumentException("A ITAD aceita no máximo " + MAXIMO_IDS_POR_REQUISICAO + " IDs por requisição.");
+        }
 
         // Gera o link da requisição.
         URI uri = UriComponentsBuilder.fromUriString(apiBaseUrl)
@@ -146,29 +185,52 @@ public class ItadApiService {
                 .queryParam("key", apiKey)
                 .queryParam("country", "BR")
                 .build().toUri();
+        limitador.adquirir();
         try {
-            // Faz o corpo da requisição já que ele só aceita listas
-            List<String> requestBody = List.of(gameId);
-
             // Faz a requisição e armazena no objeto ItadPriceResultDto
-            ItadPriceResultDto[] response = restTemplate.postForObject(uri, requestBody, ItadPriceResultDto[].class);
-
-            // Gera uma resposta com Optional para tratar nulos
-            return Optional.ofNullable(response)
-                    .filter(r -> r.length > 0)
-                    .map(r -> r[0]) // Pegamos o primeiro (e único) resultado do array
-                    .map(ItadPriceResultDto::deals) // Faz o mapeamento das lojas
-                    .map(deals -> deals.stream()
-                            .map(itadMapper::toPrecoPlataforma) // Transforma o objeto da resposta em PrecoPlataforma
-                            .collect(Collectors.toList())) // Transforma a resposta em uma lista
-                    .orElse(Collections.emptyList()); // Em caso de falha devolve uma lista nula
+            ResponseEntity<ItadPriceResultDto[]> resposta = restTemplate.postForEntity(uri, List.copyOf(gameIds), ItadPriceResultDto[].class);
+            limitador.registrarCabecalhos(resposta.getHeaders());
+            ItadPriceResultDto[] response = resposta.getBody();
+            if (response == null) return Collections.emptyMap();
+
+            // Cada resultado traz o ID do jogo, usado para devolver as lojas ao jogo certo
+            Map<String, List<PrecoPlataforma>> precos = new HashMap<>();
+            for (ItadPriceResultDto resultado : response) {
+                if (resultado.id() == null || resultado.deals() == null) continue;
+                precos.put(resultado.id(), resultado.deals().stream()
+                        .map(itadMapper::toPrecoPlataforma) // Transforma o objeto da resposta em PrecoPlataforma
+                        .collect(Collectors.toList()));
+            }
+            return precos;
 
         } catch (HttpClientErrorException e) {
-            log.error("Erro na API ITAD ao buscar preços para o ID '{}': {} {}", gameId, e.getStatusCode(), e.getResponseBodyAsString());
-            return Collections.emptyList();
+            verificarLimite(e);
+            log.error("Erro na API ITAD ao buscar preços para {} IDs: {} {}", gameIds.size(), e.getStatusCode(), e.getResponseBodyAsString());
+            return Collections.emptyMap();
         } catch (Exception e) {
-            log.error("Erro geral ao extrair resposta para o ID '{}': {}", gameId, e.getMessage(), e);
-            return Collections.emptyList();
+            log.error("Erro geral ao extrair resposta para {} IDs: {}", gameIds.size(), e.getMessage(), e);
+            return Collections.emptyMap();
+        }
+    }
+
+    /*
+        Método responsável por buscar todos os preços de um jogo
+        em diversas lojas a partir de um ID.
+
+        @param gameId: ID do jogo escolhido vindo da API.
+
+        @return: Devolve uma lista de PrecoPlataforma que contém as lojas
+        e o preço referente aquela loja.
+    */
+    private List<PrecoPlataforma> getPricesForId(String gameId) {
+        // Um lote de um único ID: o endpoint só aceita listas
+        return buscarPrecosEmLote(List.of(gameId)).getOrDefault(gameId, Collections.emptyList());
+    }
+
+    // Uma resposta 429 pausa as requisições de todas as instâncias pelo tempo pedido pela ITAD
+    private void verificarLimite(HttpStatusCodeException e) {
+        if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throw new LimiteItadExcedidoException(limitador.bloquear(e.getResponseHeaders()));
         }
     }
 }
@@ -0,0 +1,232 @@
+package br.com.lunix.services.itad;
+
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/*
+    Limitador das requisições à ITAD, compartilhado por todos os
+    consumidores de todas as instâncias.
+
+    É um token bucket guardado no Redis: o balde enche taxa tokens por
+    segundo até o máximo de rajada, e cada requisição consome um token.
+    O cálculo roda em um script Lua, então a leitura e a escrita do balde
+    são atômicas entre as instâncias, e usa o relógio do próprio Redis.
+
+    Quando a ITAD pede uma pausa (429 com Retry-After, ou a cota dos
+    cabeçalhos de rate limit zerada), a chave de bloqueio é gravada com
+    esse tempo e nenhuma instância recebe tokens até ela expirar.
+
+    Sem o Redis, o limitador passa a usar um balde em memória com a mesma
+    taxa, que vale só para a instância, até o Redis voltar.
+*/
+@Service
+@RequiredArgsConstructor
+public class LimitadorItad {
+
+    private static final Logger log = LoggerFactory.getLogger(LimitadorItad.class);
+
+    static final String CHAVE_BALDE = "itad:limite:balde";
+    static final String CHAVE_BLOQUEIO = "itad:limite:bloqueio";
+
+    // Pausa aplicada a um 429 sem Retry-After
+    static final Duration BLOQUEIO_PADRAO = Duration.ofSeconds(60);
+
+    // Valores de X-RateLimit-Reset acima deste são um instante (epoch em segundos), não uma duração
+    private static final long RESET_COMO_EPOCH = 1_000_000_000L;
+
+    /*
+        KEYS[1] = balde (hash com tokens e momento), KEYS[2] = bloqueio
+        ARGV[1] = taxa (tokens por segundo), ARGV[2] = rajada (capacidade)
+
+        Devolve 0 quando o token foi consumido, ou os milissegundos até
+        haver um token disponível.
+    */
+    static final RedisScript<Long> SCRIPT_ADQUIRIR = new DefaultRedisScript<>("""
+            local bloqueio = redis.call('PTTL', KEYS[2])
+            if bloqueio > 0 then return bloqueio end
+
+            local tempo = redis.call('TIME')
+            local agora = tonumber(tempo[1]) * 1000 + math.floor(tonumber(tempo[2]) / 1000)
+            local taxa = tonumber(ARGV[1]) / 1000
+            local rajada = tonumber(ARGV[2])
+
+            local balde = redis.call('HMGET', KEYS[1], 'tokens', 'momento')
+            local tokens = tonumber(balde[1]) or rajada
+            local momento = tonumber(balde[2]) or agora
+            tokens = math.min(rajada, tokens + math.max(0, agora - momento) * taxa)
+
+            local espera = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+            else
+                espera = math.ceil((1 - tokens) / taxa)
+            end
+
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'momento', tostring(agora))
+            redis.call('PEXPIRE', KEYS[1], math.ceil(rajada / taxa) + 1000)
+            return espera
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${lunix.itad.limite.taxa:2}")
+    private double taxa;
+
+    @Value("${lunix.itad.limite.rajada:10}")
+    private int rajada;
+
+    // Relógio do balde em memória e do Retry-After em data, substituível nos testes
+    Clock relogio = Clock.systemUTC();
+
+    // Balde em memória, usado enquanto o Redis estiver indisponível
+    private Double tokensLocais;
+    private long momentoLocal;
+    private long bloqueadoAteLocal;
+    private volatile boolean usandoLocal;
+
+    /*
+        Consome um token, se houver.
+
+        return: 0 quando a requisição pode ser feita, ou os milissegundos
+        até o próximo token
+    */
+    public long tentarAdquirir() {
+        try {
+            Long espera = redisTemplate.execute(SCRIPT_ADQUIRIR, List.of(CHAVE_BALDE, CHAVE_BLOQUEIO),
+                    String.valueOf(taxa), String.valueOf(rajada));
+            if (usandoLocal) {
+                usandoLocal = false;
+                log.info("Limitador da ITAD voltou a usar o Redis.");
+            }
+            return espera != null ? espera : 0;
+        } catch (DataAccessException e) {
+            if (!usandoLocal) {
+                usandoLocal = true;
+                log.warn("Redis indisponível, limitador da ITAD usando o balde local: {}", e.getMessage());
+            }
+            return tentarAdquirirLocal();
+        }
+    }
+
+    // Consome um token ou lança LimiteItadExcedidoException com o tempo até o próximo
+    public void adquirir() {
+        long espera = tentarAdquirir();
+        if (espera > 0) {
+            throw new LimiteItadExcedidoException(Duration.ofMillis(espera));
+        }
+    }
+
+    /*
+        Aplica a pausa pedida por uma resposta 429: o Retry-After, ou
+        BLOQUEIO_PADRAO quando ele não vem. Um Retry-After sem espera
+        positiva (data já passada, por diferença de relógio) também vale
+        BLOQUEIO_PADRAO: a ITAD acabou de recusar, e repetir na hora só
+        traria outro 429.
+
+        return: A pausa aplicada (sempre positiva)
+    */
+    public Duration bloquear(HttpHeaders cabecalhos) {
+        Duration espera = lerRetryAfter(cabecalhos != null ? cabecalhos.getFirst(HttpHeaders.RETRY_AFTER) : null);
+        espera = espera != null && espera.isPositive() ? espera : BLOQUEIO_PADRAO;
+        bloquear(espera);
+        return espera;
+    }
+
+    /*
+        Lê os cabeçalhos de rate limit de uma resposta de sucesso. Com a
+        cota restante zerada, bloqueia até o reset informado, em vez de
+        esperar a próxima requisição voltar com 429.
+    */
+    public void registrarCabecalhos(HttpHeaders cabecalhos) {
+        String restante = primeiro(cabecalhos, "X-RateLimit-Remaining", "RateLimit-Remaining");
+        if (restante == null || !restante.trim().equals("0")) return;
+
+        Duration espera = lerReset(primeiro(cabecalhos, "X-RateLimit-Reset", "RateLimit-Reset"));
+        bloquear(espera != null ? espera : BLOQUEIO_PADRAO);
+    }
+
+    private void bloquear(Duration espera) {
+        if (espera.isZero() || espera.isNegative()) return;
+
+        synchronized (this) {
+            bloqueadoAteLocal = Math.max(bloqueadoAteLocal, relogio.millis() + espera.toMillis());
+        }
+        try {
+            redisTemplate.opsForValue().set(CHAVE_BLOQUEIO, "1", espera);
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível gravar o bloqueio da ITAD no Redis: {}", e.getMessage());
+        }
+        log.warn("ITAD pediu uma pausa: requisições bloqueadas por {} ms.", espera.toMillis());
+    }
+
+    // Mesmo cálculo do script, sobre o balde da instância
+    private synchronized long tentarAdquirirLocal() {
+        long agora = relogio.millis();
+        if (bloqueadoAteLocal > agora) return bloqueadoAteLocal - agora;
+
+        double tokens = tokensLocais == null ? rajada
+                : Math.min(rajada, tokensLocais + Math.max(0, agora - momentoLocal) * taxa / 1000);
+        momentoLocal = agora;
+
+        if (tokens >= 1) {
+            tokensLocais = tokens - 1;
+            return 0;
+        }
+        tokensLocais = tokens;
+        return (long) Math.ceil((1 - tokens) * 1000 / taxa);
+    }
+
+    // Retry-After em segundos ou em data HTTP; nulo quando ausente ou inválido
+    Duration lerRetryAfter(String valor) {
+        if (valor == null || valor.isBlank()) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                Instant momento = ZonedDateTime.parse(valor.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Duration.between(relogio.instant(), momento);
+            } catch (DateTimeParseException ignorada) {
+                return null;
+            }
+        }
+    }
+
+    // Reset em segundos até a cota voltar, ou o instante (epoch) em que ela volta
+    Duration lerReset(String valor) {
+        if (valor == null || valor.isBlank()) return null;
+        try {
+            long reset = Long.parseLong(valor.trim());
+            return reset > RESET_COMO_EPOCH
+                    ? Duration.between(relogio.instant(), Instant.ofEpochSecond(reset))
+                    : Duration.ofSeconds(reset);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String primeiro(HttpHeaders cabecalhos, String... nomes) {
+        if (cabecalhos == null) return null;
+        for (String nome : nomes) {
+            String valor = cabecalhos.getFirst(nome);
+            if (valor != null) return valor;
+        }
+        return null;
+    }
+}
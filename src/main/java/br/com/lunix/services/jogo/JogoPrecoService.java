@@ -1,25 +1,48 @@
 package br.com.lunix.services.jogo;
 
+import br.com.lunix.config.cache.CacheNames;
+import br.com.lunix.dto.jogos.EnfileiramentoPrecosDto;
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.PrecoPlataforma;
 import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.dashboard.EstatisticasService.RetratoJogo;
 import br.com.lunix.services.itad.ItadApiService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /*
     Service responsável por controlar a atualização de preços
     com a API do ITAD.
+
+    O consumidor da fila entrega os jogos em lotes: os preços de todo
+    o lote vêm de uma única requisição, gravados de volta com um único
+    bulkWrite. O ID de cada jogo na ITAD é consultado pelo título uma
+    vez e fica gravado no jogo.
 */
 @Service
 @RequiredArgsConstructor
@@ -27,15 +50,37 @@ public class JogoPrecoService {
 
     private static final Logger log = LoggerFactory.getLogger(JogoPrecoService.class);
 
+    // Jogos lidos por página no backfill de IDs da ITAD
+    private static final int TAMANHO_PAGINA_BACKFILL = 200;
+
+    // Tempo máximo de espera pela confirmação do broker para um lote publicado
+    private static final long TEMPO_CONFIRMACAO_MS = 30_000;
+
+    // Peso da última atualização na volatilidade de preços (média móvel exponencial)
+    static final double PESO_VOLATILIDADE = 0.3;
+    static final double VOLATILIDADE_INICIAL = 0.5;
+
     private final JogoRepository jogoRepository;
     private final ItadApiService itadApiService;
     private final RabbitTemplate rabbitTemplate;
 
     private final JogoSecurityService securityService;
+    private final EstatisticasService estatisticasService;
+    private final CacheManager cacheManager;
 
     @Value("${indiezone.rabbitmq.queue}")
     private String queueName;
 
+    // IDs lidos do banco e publicados por lote no envio de todos os jogos para a fila
+    @Value("${lunix.precos.lote-enfileiramento:1000}")
+    private int tamanhoLoteEnfileiramento;
+
+    // Requisições simultâneas à ITAD no backfill de IDs
+    @Value("${lunix.itad.concorrencia-backfill:4}")
+    private int concorrenciaBackfill;
+
+    private final AtomicBoolean backfillEmAndamento = new AtomicBoolean();
+
     // Métodos de envio (Producer)
 
     public void enviarParaFila(String jogoId) {
@@ -43,40 +88,337 @@ public class JogoPrecoService {
         rabbitTemplate.convertAndSend(queueName, jogoId);
     }
 
-    // Método para enviar todos os jogos para a fila
-    public void enviarTodosParaFila() {
-        List<Jogo> todosJogos = jogoRepository.findAll();
-        log.info("Disparando atualização em massa para {} jogos.", todosJogos.size());
-        todosJogos.forEach(jogo -> rabbitTemplate.convertAndSend(queueName, jogo.getId()));
+    // Devolve um lote interrompido para a fila, para ser processado de novo depois
+    public void devolverParaFila(List<String> jogoIds) {
+        log.info("Devolvendo {} jogos para a fila de preços.", jogoIds.size());
+        jogoIds.forEach(jogoId -> rabbitTemplate.convertAndSend(queueName, jogoId));
+    }
+
+    /*
+        Envia todos os jogos para a fila de preços.
+
+        Os IDs vêm de um cursor projetado só no _id, em blocos de
+        tamanhoLoteEnfileiramento, então a memória usada é a de um bloco
+        e não a do catálogo. Cada bloco é publicado em um único canal e
+        confirmado pelo broker de uma vez (publisher confirms), em vez de
+        uma espera por mensagem.
+
+        return: Quantidade de jogos e lotes enviados e a duração do envio
+    */
+    public EnfileiramentoPrecosDto enviarTodosParaFila() {
+        long inicio = System.currentTimeMillis();
+        AtomicInteger lotes = new AtomicInteger();
+
+        long jogos;
+        try {
+            jogos = jogoRepository.percorrerIds(tamanhoLoteEnfileiramento, ids -> {
+                publicarComConfirmacao(ids);
+                lotes.incrementAndGet();
+            });
+        } catch (AmqpException e) {
+            log.error("Envio em massa para a fila de preços interrompido depois de {} lotes confirmados: {}",
+                    lotes.get(), e.getMessage());
+            throw e;
+        }
+
+        EnfileiramentoPrecosDto resultado = new EnfileiramentoPrecosDto(jogos, lotes.get(), System.currentTimeMillis() - inicio);
+        log.info("Atualização em massa: {} jogos enviados para a fila em {} lotes ({} ms).",
+                resultado.jogos(), resultado.lotes(), resultado.duracaoMs());
+        return resultado;
     }
 
     // Método para atualizar todos os jogos manualmente
-    @CacheEvict(value = "jogo-detalhes", allEntries = true)
-    public void solicitarAtualizacaoGlobalAdmin() {
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, allEntries = true)
+    public EnfileiramentoPrecosDto solicitarAtualizacaoGlobalAdmin() {
         var usuario = securityService.getUsuarioLogado();
         // Validação de segurança simplificada
         if (usuario.getRoles().stream().noneMatch(r -> r.name().equals("ROLE_ADMIN"))) {
             throw new RegraDeNegocioException("Apenas admin pode disparar atualização global.");
         }
-        enviarTodosParaFila();
+        return enviarTodosParaFila();
+    }
+
+    // Mensagens ainda na fila de preços (sem contar as já entregues aos consumidores)
+    public long mensagensNaFila() {
+        Long total = rabbitTemplate.execute(canal -> canal.messageCount(queueName));
+        return total != null ? total : 0;
     }
 
     // Métodos de processamento (consumidor)
-    @Transactional
-    @CacheEvict(value = "jogos-detalhes", key = "#jogoId")
-    public boolean processarAtualizacaoLogica(String jogoId) {
-        return jogoRepository.findById(jogoId).map(jogo -> {
-            log.info("Processando atualização de preço para: {}", jogo.getTitulo());
-
-            List<PrecoPlataforma> novosPrecos = itadApiService.buscarPrecosParaJogo(jogo.getTitulo());
-
-            if (!novosPrecos.isEmpty()) {
-                jogo.setPrecos(novosPrecos);
-                jogo.setUltimaAtualizacaoPrecos(LocalDateTime.now());
-                jogoRepository.save(jogo);
-                return true;
+
+    /*
+        Atualiza os preços de um lote de jogos.
+
+        1. Lê os jogos do lote só com título, ID da ITAD, preços e
+           volatilidade (IDs repetidos na fila contam uma vez).
+        2. Usa o ID da ITAD gravado no jogo; só os jogos sem ele são
+           consultados pelo título.
+        3. Busca os preços de todos os IDs em uma requisição. Um ID gravado
+           que volta sem resultado é consultado de novo pelo título, pois
+           o jogo pode ter mudado de ID na ITAD.
+        4. Grava os IDs novos e os preços encontrados com bulkWrite, junto
+           com a volatilidade de preços de cada jogo, e aplica a diferença
+           nas estatísticas do dashboard. Jogos do lote sem preço também
+           recebem a data da verificação em ultimaAtualizacaoPrecos.
+
+        Sem cota de requisições à ITAD (LimitadorItad) o lote é interrompido
+        com LimiteItadExcedidoException, depois de gravar os IDs já consultados.
+
+        @param jogoIds - IDs dos jogos (no máximo ItadApiService.MAXIMO_IDS_POR_REQUISICAO)
+        return: Quantidade de jogos com preços atualizados
+    */
+    public int processarLote(List<String> jogoIds) {
+        List<Jogo> jogos = jogoRepository.buscarParaAtualizacaoPrecos(new LinkedHashSet<>(jogoIds));
+        if (jogos.isEmpty()) return 0;
+
+        // IDs da ITAD consultados pelo título neste lote, para gravar no jogo
+        Map<String, String> idsResolvidos = new HashMap<>();
+
+        Map<String, List<Jogo>> jogosPorItadId;
+        Map<String, List<PrecoPlataforma>> precosPorItadId;
+        try {
+            jogosPorItadId = agruparPorItadId(jogos, idsResolvidos);
+            precosPorItadId = new HashMap<>(itadApiService.buscarPrecosEmLote(jogosPorItadId.keySet()));
+
+            // Resposta vazia é tratada como falha da requisição, não como "nenhum jogo encontrado"
+            List<Jogo> comIdDesatualizado = precosPorItadId.isEmpty() ? List.of() : jogosPorItadId.entrySet().stream()
+                    .filter(entrada -> !precosPorItadId.containsKey(entrada.getKey()))
+                    .flatMap(entrada -> entrada.getValue().stream())
+                    .filter(jogo -> !idsResolvidos.containsKey(jogo.getId()))
+                    .toList();
+            if (!comIdDesatualizado.isEmpty()) {
+                Map<String, List<Jogo>> novos = reconsultarItadIds(comIdDesatualizado, idsResolvidos);
+                precosPorItadId.putAll(itadApiService.buscarPrecosEmLote(novos.keySet()));
+                novos.forEach((itadId, lista) -> jogosPorItadId.computeIfAbsent(itadId, id -> new ArrayList<>()).addAll(lista));
+            }
+        } catch (LimiteItadExcedidoException e) {
+            // Os IDs já consultados ficam gravados, o lote volta para a fila sem repetir essas consultas
+            if (!idsResolvidos.isEmpty()) {
+                jogoRepository.atualizarItadIds(idsResolvidos);
+            }
+            throw e;
+        }
+
+        if (!idsResolvidos.isEmpty()) {
+            jogoRepository.atualizarItadIds(idsResolvidos);
+        }
+
+        Map<String, List<PrecoPlataforma>> precosPorJogo = new HashMap<>();
+        Map<String, Double> volatilidadePorJogo = new HashMap<>();
+        Map<Jogo, RetratoJogo> retratosAntes = new HashMap<>();
+        precosPorItadId.forEach((itadId, precos) -> {
+            if (precos.isEmpty()) return;
+            for (Jogo jogo : jogosPorItadId.getOrDefault(itadId, List.of())) {
+                retratosAntes.put(jogo, RetratoJogo.de(jogo));
+                volatilidadePorJogo.put(jogo.getId(), novaVolatilidade(jogo.getVolatilidadePrecos(), precosMudaram(jogo.getPrecos(), precos)));
+                jogo.setPrecos(precos);
+                precosPorJogo.put(jogo.getId(), precos);
             }
+        });
+
+        LocalDateTime agora = LocalDateTime.now();
+
+        // Com a ITAD respondendo, jogos sem preço também contam como verificados
+        if (!precosPorItadId.isEmpty()) {
+            List<String> semPreco = jogos.stream()
+                    .map(Jogo::getId)
+                    .filter(id -> !precosPorJogo.containsKey(id))
+                    .toList();
+            if (!semPreco.isEmpty()) {
+                jogoRepository.marcarPrecosVerificados(semPreco, agora);
+            }
+        }
+        if (precosPorJogo.isEmpty()) return 0;
+
+        jogoRepository.atualizarPrecos(precosPorJogo, volatilidadePorJogo, agora);
+
+        // Só muda alguma contagem quando o jogo deixa de estar sem preço; os campos não lidos
+        // (gêneros, plataformas, empresa) são iguais no antes e no depois e se anulam
+        retratosAntes.forEach((jogo, antes) -> estatisticasService.jogoAlterado(antes, RetratoJogo.de(jogo)));
+        removerDoCache(precosPorJogo.keySet());
+
+        log.info("Preços atualizados para {} de {} jogos do lote ({} IDs da ITAD consultados).",
+                precosPorJogo.size(), jogos.size(), idsResolvidos.size());
+        return precosPorJogo.size();
+    }
+
+    /*
+        Inicia o backfill de IDs da ITAD (preencherItadIds) em uma thread
+        própria e retorna em seguida. Sem cota, o backfill espera pelo
+        limitador e pode durar horas em um catálogo grande, então não pode
+        prender a thread do agendador, compartilhada pelos outros jobs.
+
+        return: false quando um backfill anterior ainda está rodando
+    */
+    public boolean iniciarPreenchimentoItadIds() {
+        if (!backfillEmAndamento.compareAndSet(false, true)) {
+            log.info("Backfill de IDs da ITAD ainda em andamento, execução ignorada.");
             return false;
-        }).orElse(false);
+        }
+        Thread.ofVirtual().name("itad-backfill").start(() -> {
+            try {
+                preencherItadIds();
+            } catch (Exception e) {
+                log.error("Erro no backfill de IDs da ITAD: {}", e.getMessage(), e);
+            } finally {
+                backfillEmAndamento.set(false);
+            }
+        });
+        return true;
+    }
+
+    /*
+        Preenche o ID da ITAD dos jogos que ainda não têm, percorrendo o
+        catálogo em páginas por _id. As consultas de cada página rodam em
+        virtual threads, com no máximo concorrenciaBackfill requisições
+        simultâneas à ITAD, e os IDs da página são gravados com um único
+        bulkWrite antes da próxima página ser lida.
+
+        Jogos não encontrados continuam sem o ID e são tentados de novo
+        na próxima execução.
+
+        return: Quantidade de jogos que receberam o ID
+    */
+    public int preencherItadIds() {
+        long inicio = System.currentTimeMillis();
+        Semaphore vagas = new Semaphore(concorrenciaBackfill);
+        long preenchidos = 0;
+        int consultados = 0;
+        String ultimoId = null;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Jogo> pagina;
+            do {
+                pagina = jogoRepository.buscarSemItadId(ultimoId, TAMANHO_PAGINA_BACKFILL);
+                if (pagina.isEmpty()) break;
+                ultimoId = pagina.get(pagina.size() - 1).getId();
+                consultados += pagina.size();
+
+                Map<String, String> ids = new ConcurrentHashMap<>();
+                CompletableFuture.allOf(pagina.stream()
+                        .map(jogo -> CompletableFuture.runAsync(() -> {
+                            vagas.acquireUninterruptibly();
+                            try {
+                                String itadId = buscarIdAguardandoLimite(jogo.getTitulo());
+                                if (itadId != null) ids.put(jogo.getId(), itadId);
+                            } finally {
+                                vagas.release();
+                            }
+                        }, executor))
+                        .toArray(CompletableFuture[]::new)).join();
+
+                if (!ids.isEmpty()) {
+                    preenchidos += jogoRepository.atualizarItadIds(ids);
+                }
+            } while (pagina.size() == TAMANHO_PAGINA_BACKFILL);
+        }
+
+        log.info("Backfill de IDs da ITAD: {} de {} jogos preenchidos em {} ms.",
+                preenchidos, consultados, System.currentTimeMillis() - inicio);
+        return (int) preenchidos;
+    }
+
+    /*
+        Consulta o ID pelo título e, sem cota de requisições, espera o tempo
+        informado pelo limitador e tenta de novo. Só o backfill espera: ele
+        roda na própria thread (iniciarPreenchimentoItadIds), sem nenhuma
+        mensagem da fila em mãos.
+    */
+    private String buscarIdAguardandoLimite(String titulo) {
+        while (true) {
+            try {
+                return itadApiService.buscarIdDoJogo(titulo);
+            } catch (LimiteItadExcedidoException e) {
+                try {
+                    Thread.sleep(e.getEspera());
+                } catch (InterruptedException interrompida) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+    }
+
+    /*
+        Publica um bloco de IDs no mesmo canal e espera a confirmação do
+        broker para o bloco inteiro. Uma mensagem recusada ou sem confirmação
+        no prazo interrompe o envio com AmqpException.
+
+        Também usado pelo PlanejadorPrecosService.
+    */
+    void publicarComConfirmacao(List<String> jogoIds) {
+        rabbitTemplate.invoke(operacoes -> {
+            jogoIds.forEach(jogoId -> operacoes.convertAndSend(queueName, jogoId));
+            operacoes.waitForConfirmsOrDie(TEMPO_CONFIRMACAO_MS);
+            return null;
+        });
+    }
+
+    /*
+        Média móvel exponencial de "os preços mudaram nesta atualização"
+        (1 ou 0). Jogo sem histórico começa no meio, 0.5.
+    */
+    static double novaVolatilidade(Double atual, boolean mudou) {
+        double anterior = atual != null ? atual : VOLATILIDADE_INICIAL;
+        return anterior * (1 - PESO_VOLATILIDADE) + (mudou ? PESO_VOLATILIDADE : 0);
+    }
+
+    // Compara o preço atual de cada loja; lojas que entram ou saem também contam como mudança
+    static boolean precosMudaram(List<PrecoPlataforma> antes, List<PrecoPlataforma> depois) {
+        return !precoPorLoja(antes).equals(precoPorLoja(depois));
+    }
+
+    private static Map<String, Double> precoPorLoja(List<PrecoPlataforma> precos) {
+        Map<String, Double> porLoja = new HashMap<>();
+        if (precos != null) {
+            precos.forEach(preco -> porLoja.put(preco.getNomeLoja(), preco.getPrecoAtual()));
+        }
+        return porLoja;
+    }
+
+    // Agrupa os jogos pelo ID da ITAD, consultando pelo título só os que ainda não têm o ID gravado
+    private Map<String, List<Jogo>> agruparPorItadId(List<Jogo> jogos, Map<String, String> idsResolvidos) {
+        // Dois jogos podem apontar para o mesmo ID da ITAD (ex: edições diferentes)
+        Map<String, List<Jogo>> jogosPorItadId = new HashMap<>();
+        for (Jogo jogo : jogos) {
+            String itadId = jogo.getItadId();
+            if (itadId == null) {
+                itadId = itadApiService.buscarIdDoJogo(jogo.getTitulo());
+                if (itadId == null) {
+                    log.warn("Nenhum ID encontrado na API ITAD para o jogo: {}", jogo.getTitulo());
+                    continue;
+                }
+                jogo.setItadId(itadId);
+                idsResolvidos.put(jogo.getId(), itadId);
+            }
+            jogosPorItadId.computeIfAbsent(itadId, id -> new ArrayList<>()).add(jogo);
+        }
+        return jogosPorItadId;
+    }
+
+    /*
+        Consulta de novo pelo título os jogos cujo ID gravado não trouxe
+        resultado e devolve, agrupados, só os que passaram a ter outro ID.
+        Se a consulta falhar ou trouxer o mesmo ID, o ID gravado é mantido.
+    */
+    private Map<String, List<Jogo>> reconsultarItadIds(List<Jogo> jogos, Map<String, String> idsResolvidos) {
+        Map<String, List<Jogo>> novos = new HashMap<>();
+        for (Jogo jogo : jogos) {
+            String itadId = itadApiService.buscarIdDoJogo(jogo.getTitulo());
+            if (itadId == null || itadId.equals(jogo.getItadId())) continue;
+
+            log.info("ID da ITAD do jogo '{}' mudou de {} para {}.", jogo.getTitulo(), jogo.getItadId(), itadId);
+            jogo.setItadId(itadId);
+            idsResolvidos.put(jogo.getId(), itadId);
+            novos.computeIfAbsent(itadId, id -> new ArrayList<>()).add(jogo);
+        }
+        return novos;
+    }
+
+    // Remove os detalhes dos jogos atualizados do cache, um a um (o @CacheEvict só cobre uma chave)
+    private void removerDoCache(Iterable<String> jogoIds) {
+        Cache cache = cacheManager.getCache(CacheNames.JOGOS_DETALHES);
+        if (cache == null) return;
+        jogoIds.forEach(cache::evict);
     }
 }
@@ -3,6 +3,7 @@ package br.com.lunix.services.jogo;
 import br.com.lunix.dto.jogos.JogoAdminRequestDto;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.Usuario;
@@ -79,11 +80,13 @@ public class JogoSecurityService {
             Empresa empresa = empresaRepository.findById(empresaId)
                     .orElseThrow(() -> new ResourceNotFoundException("Empresa não encontrada: " + empresaId));
             jogo.setEmpresa(empresa);
+            jogo.setCriador(CriadorSnapshot.daEmpresa(empresa));
 
         } else if (devId != null && !devId.isBlank()) {
             Usuario dev = usuarioRepository.findById(devId)
                     .orElseThrow(() -> new ResourceNotFoundException("Dev não encontrado: " + devId));
             jogo.setDevAutonomo(dev);
+            jogo.setCriador(CriadorSnapshot.doDev(dev));
 
         } else {
             throw new RegraDeNegocioException("Admin deve informar ID da Empresa para vincular o jogo.");
@@ -94,8 +97,10 @@ public class JogoSecurityService {
     private void vincularComoDev(Jogo jogo, Usuario devLogado) {
         if (devLogado.getEmpresa() != null) {
             jogo.setEmpresa(devLogado.getEmpresa());
+            jogo.setCriador(CriadorSnapshot.daEmpresa(devLogado.getEmpresa()));
         } else {
             jogo.setDevAutonomo(devLogado);
+            jogo.setCriador(CriadorSnapshot.doDev(devLogado));
         }
     }
 }
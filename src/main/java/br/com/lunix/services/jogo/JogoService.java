@@ -1,13 +1,18 @@
 package br.com.lunix.services.jogo;
 
+import br.com.lunix.config.cache.CacheNames;
 import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
 import br.com.lunix.dto.jogos.*;
+import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
 import br.com.lunix.mapper.AvaliacaoMapper;
 import br.com.lunix.mapper.JogoMapper;
+import br.com.lunix.model.entities.Avaliacao;
 import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Estatisticas;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
 import br.com.lunix.model.enums.Genero;
 import br.com.lunix.model.enums.Plataforma;
 import br.com.lunix.model.enums.Role;
@@ -15,18 +20,32 @@ import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.JogoRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.busca.AutocompleteService;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.dashboard.EstatisticasService.RetratoJogo;
+import br.com.lunix.services.ranking.RankingService;
+import br.com.lunix.services.ranking.TrendingService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 /*
     Service responsável por orquestração das atividades de jogos
@@ -36,6 +55,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JogoService {
 
+    // Abaixo disso o índice de texto não gera tokens úteis e a busca cai para prefixo
+    private static final int TAMANHO_MINIMO_BUSCA_TEXTUAL = 3;
+
+    // Limite de jogos por chamada da busca de histogramas em lote
+    static final int MAXIMO_HISTOGRAMAS = 100;
+
+    // Maior página aceita nas listagens por cursor e na busca facetada
+    static final int TAMANHO_MAXIMO_PAGINA = 50;
+
     private final JogoRepository jogoRepository;
     private final AvaliacaoRepository avaliacaoRepository;
     private final EmpresaRepository empresaRepository;
@@ -46,6 +74,10 @@ public class JogoService {
 
     private final JogoSecurityService securityService;
     private final JogoPrecoService precoService;
+    private final AutocompleteService autocompleteService;
+    private final RankingService rankingService;
+    private final TrendingService trendingService;
+    private final EstatisticasService estatisticasService;
 
     /*
         Método responsável por cadastrar um novo jogo na plataforma.
@@ -54,10 +86,6 @@ public class JogoService {
         return: Retorna o DTO do jogo recém-criado.
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true),
-            @CacheEvict(value = "jogos-top10-recentes", allEntries = true)
-    })
     public JogoResponseDto cadastrar(JogoAdminRequestDto requestAdmin) {
         Jogo jogo = jogoMapper.toEntity(requestAdmin.jogoData());
 
@@ -65,6 +93,9 @@ public class JogoService {
         securityService.definirDonoDoJogo(jogo, requestAdmin);
 
         jogo = jogoRepository.save(jogo);
+        autocompleteService.indexarJogo(jogo);
+        rankingService.atualizar(jogo);
+        estatisticasService.jogoAlterado(null, RetratoJogo.de(jogo));
 
         // Delega a integração de preço
         precoService.enviarParaFila(jogo.getId());
@@ -77,23 +108,45 @@ public class JogoService {
         Valida se o usuário tem permissão sobre aquele jogo específico.
         Limpa caches relacionados para garantir consistência dos dados.
 
+        Só os campos do cadastro são gravados, com $set, para não
+        sobrescrever o que outras escritas mantêm no mesmo documento
+        (estatísticas de avaliação, score de ranking, preços, ID da ITAD).
+
         @param id - ID do jogo.
         @param dto - Novos dados.
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", key = "#id"),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true),
-            @CacheEvict(value = "jogos-top10-recentes", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, key = "#id")
     public JogoResponseDto atualizar(String id, JogoUpdateDto dto) {
         Jogo jogo = buscarPorId(id);
 
         // Validação delegada
         securityService.validarPermissaoEdicao(jogo);
 
+        RetratoJogo antes = RetratoJogo.de(jogo);
+        String tituloAnterior = jogo.getTitulo();
         jogoMapper.updateEntityFromDto(dto, jogo);
-        jogo = jogoRepository.save(jogo);
+
+        Update update = new Update()
+                .set("titulo", jogo.getTitulo())
+                .set("tituloNormalizado", jogo.getTituloNormalizado())
+                .set("descricao", jogo.getDescricao())
+                .set("urlCapa", jogo.getUrlCapa())
+                .set("urlTrailer", jogo.getUrlTrailer())
+                .set("screenshots", jogo.getScreenshots())
+                .set("dataLancamento", jogo.getDataLancamento())
+                .set("classificacao", jogo.getClassificacao())
+                .set("generos", jogo.getGeneros())
+                .set("plataformas", jogo.getPlataformas());
+        // Com outro título o jogo pode ser outro na ITAD, então o ID é consultado de novo na próxima atualização de preços
+        if (!Objects.equals(tituloAnterior, jogo.getTitulo())) {
+            update.unset("itadId");
+        }
+
+        jogo = gravarCampos(id, update);
+        autocompleteService.indexarJogo(jogo);
+        rankingService.atualizar(jogo);
+        estatisticasService.jogoAlterado(antes, RetratoJogo.de(jogo));
 
         return jogoMapper.toResponseDto(jogo);
     }
@@ -105,17 +158,25 @@ public class JogoService {
         @param dto - Lista nova de gêneros.
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", key = "#id"),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true),
-            @CacheEvict(value = "jogos-top10-recentes", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, key = "#id")
     public void patchGeneros(String id, JogoGenresPatchDto dto) {
         Jogo jogo = buscarPorId(id);
         securityService.validarPermissaoEdicao(jogo);
 
+        RetratoJogo antes = RetratoJogo.de(jogo);
         jogoMapper.updateGeneros(dto, jogo);
-        jogoRepository.save(jogo);
+        jogo = gravarCampos(id, new Update().set("generos", jogo.getGeneros()));
+        rankingService.atualizar(jogo);
+        estatisticasService.jogoAlterado(antes, RetratoJogo.de(jogo));
+    }
+
+    // Grava só os campos editados e devolve o documento atual, com o que outras escritas mudaram nesse meio tempo
+    private Jogo gravarCampos(String id, Update update) {
+        Jogo jogo = jogoRepository.atualizarCampos(id, update);
+        if (jogo == null) {
+            throw new ResourceNotFoundException("Jogo não encontrado. ID: " + id);
+        }
+        return jogo;
     }
 
 
@@ -126,15 +187,14 @@ public class JogoService {
         @param id - ID do jogo a ser deletado.
     */
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = "jogos-detalhes", key = "#id"),
-            @CacheEvict(value = "jogos-top10-nota", allEntries = true),
-            @CacheEvict(value = "jogos-top10-recentes", allEntries = true)
-    })
+    @CacheEvict(value = CacheNames.JOGOS_DETALHES, key = "#id")
     public void deletar(String id) {
         Jogo jogo = buscarPorId(id);
         securityService.validarPermissaoEdicao(jogo);
         jogoRepository.delete(jogo);
+        autocompleteService.removerJogo(id);
+        rankingService.remover(id);
+        estatisticasService.jogoAlterado(RetratoJogo.de(jogo), null);
     }
 
     /*
@@ -143,19 +203,19 @@ public class JogoService {
         @param id - Identificador único do jogo
     */
     @Transactional(readOnly = true)
-    @Cacheable(value = "jogos-detalhes", key = "#id")
+    @Cacheable(value = CacheNames.JOGOS_DETALHES, key = "#id", sync = true)
     public JogoDetalhesDto buscarDetalhesPorId(String id) {
         Jogo jogo = buscarPorId(id);
 
-        Pageable top3 = PageRequest.of(0,3, Sort.by("dataCriacao").descending());
-
-        List<Usuario> admins = usuarioRepository.findByRolesContains(Role.ROLE_ADMIN);
-        List<Usuario> devs = usuarioRepository.findByRolesContains(Role.ROLE_DEV);
-        List<Usuario> users = usuarioRepository.findApenasUsuariosComuns();
+        // Uma única agregação traz as 3 avaliações mais recentes de cada categoria de autor
+        Map<Role, List<AvaliacaoResponseDto>> reviews = avaliacaoRepository.buscarRecentesPorAutorRole(id, 3)
+                .stream()
+                .collect(Collectors.groupingBy(Avaliacao::getAutorRole,
+                        Collectors.mapping(avaliacaoMapper::toResponseDto, Collectors.toList())));
 
-        var reviewsAdmin = buscarReviewsFiltradas(jogo, admins, top3);
-        var reviewsDev = buscarReviewsFiltradas(jogo, devs, top3);
-        var reviewsUser = buscarReviewsFiltradas(jogo, users, top3);
+        var reviewsAdmin = reviews.getOrDefault(Role.ROLE_ADMIN, List.of());
+        var reviewsDev = reviews.getOrDefault(Role.ROLE_DEV, List.of());
+        var reviewsUser = reviews.getOrDefault(Role.ROLE_USER, List.of());
 
         return jogoMapper.toDetalhesDto(jogo, reviewsAdmin, reviewsDev, reviewsUser);
     }
@@ -169,12 +229,17 @@ public class JogoService {
     @Transactional(readOnly = true)
     public Page<JogoResponseDto> listarTodos(int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataLancamento").descending());
-        return jogoRepository.findAll(pageable).map(jogoMapper::toResponseDto);
+        return jogoRepository.buscarResumos(null, pageable);
     }
 
     /*
-        Realiza a busca de jogos pelo título (Search Bar).
-        A busca é parcial (containing) e ignora maiúsculas/minúsculas.
+        Realiza a busca de jogos pelo título e descrição (Search Bar).
+
+        Termos com 3 ou mais caracteres usam o índice de texto do Mongo,
+        com stemming e ordenação por relevância. Termos menores não geram
+        tokens úteis no índice, então caem em uma busca por prefixo do título
+        em minúsculas (tituloNormalizado): o regex ancorado e sensível a
+        maiúsculas vira um intervalo justo no índice, que também dá a ordem.
 
         @param titulo - Termo a ser pesquisado.
         @param page - Número da página.
@@ -183,8 +248,19 @@ public class JogoService {
     */
     @Transactional(readOnly = true)
     public Page<JogoResponseDto> buscarPorTitulo(String titulo, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("titulo").ascending());
-        return jogoRepository.findByTituloContainingIgnoreCase(titulo, pageable).map(jogoMapper::toResponseDto);
+        String termo = titulo == null ? "" : titulo.trim();
+
+        if (termo.isEmpty()) {
+            return Page.empty(PageRequest.of(page, size));
+        }
+
+        if (termo.length() < TAMANHO_MINIMO_BUSCA_TEXTUAL) {
+            Pageable pageable = PageRequest.of(page, size, Sort.by("tituloNormalizado").ascending());
+            String prefixo = "^" + Pattern.quote(Jogo.normalizarTitulo(termo));
+            return jogoRepository.buscarResumos(Criteria.where("tituloNormalizado").regex(prefixo), pageable);
+        }
+
+        return jogoRepository.buscarPorTexto(termo, PageRequest.of(page, size));
     }
 
     /*
@@ -198,7 +274,7 @@ public class JogoService {
     @Transactional(readOnly = true)
     public Page<JogoResponseDto> buscarPorGenero(Genero genero, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataLancamento").descending());
-        return jogoRepository.findByGeneros(genero, pageable).map(jogoMapper::toResponseDto);
+        return jogoRepository.buscarResumos(Criteria.where("generos").is(genero), pageable);
     }
 
     /*
@@ -211,7 +287,7 @@ public class JogoService {
     @Transactional(readOnly = true)
     public Page<JogoResponseDto> buscarPorPlataforma(Plataforma plataforma, int page, int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataLancamento").descending());
-        return jogoRepository.findByPlataformas(plataforma, pageable).map(jogoMapper::toResponseDto);
+        return jogoRepository.buscarResumos(Criteria.where("plataformas").is(plataforma), pageable);
     }
 
     /*
@@ -226,7 +302,7 @@ public class JogoService {
         Empresa empresa = empresaRepository.findById(empresaId)
                 .orElseThrow(() -> new ResourceNotFoundException("Empresa não encontrada."));
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataLancamento").descending());
-        return jogoRepository.findByEmpresa(empresa, pageable).map(jogoMapper::toResponseDto);
+        return jogoRepository.buscarResumos(Criteria.where("empresa").is(empresa), pageable);
     }
 
     /*
@@ -241,7 +317,129 @@ public class JogoService {
         Usuario dev = usuarioRepository.findById(devId)
                 .orElseThrow(() -> new ResourceNotFoundException("Dev não encontrado."));
         Pageable pageable = PageRequest.of(page, size, Sort.by("dataLancamento").descending());
-        return jogoRepository.findByDevAutonomo(dev, pageable).map(jogoMapper::toResponseDto);
+        return jogoRepository.buscarResumos(Criteria.where("devAutonomo").is(dev), pageable);
+    }
+
+    /*
+        Lista todos os jogos utilizando paginação por cursor.
+        Indicado para rolagem infinita, pois o custo de cada página
+        não cresce com a profundidade e não há contagem total.
+
+        @param cursor - Token devolvido pela página anterior (nulo na primeira página)
+        @param ordenacao - Ordenação desejada (ignorada quando o cursor é informado)
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoSliceDto listarTodosPorCursor(String cursor, JogoCursor.Ordenacao ordenacao, int size) {
+        return paginarPorCursor(null, cursor, ordenacao, size);
+    }
+
+    /*
+        Filtra os jogos por gênero utilizando paginação por cursor.
+
+        @param genero - Enum do gênero desejado.
+        @param cursor - Token devolvido pela página anterior.
+        @param ordenacao - Ordenação desejada.
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoSliceDto buscarPorGeneroPorCursor(Genero genero, String cursor, JogoCursor.Ordenacao ordenacao, int size) {
+        return paginarPorCursor(Criteria.where("generos").is(genero), cursor, ordenacao, size);
+    }
+
+    /*
+        Filtra os jogos por plataforma utilizando paginação por cursor.
+
+        @param plataforma - Enum da plataforma desejada.
+        @param cursor - Token devolvido pela página anterior.
+        @param ordenacao - Ordenação desejada.
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoSliceDto buscarPorPlataformaPorCursor(Plataforma plataforma, String cursor, JogoCursor.Ordenacao ordenacao, int size) {
+        return paginarPorCursor(Criteria.where("plataformas").is(plataforma), cursor, ordenacao, size);
+    }
+
+    /*
+        Filtra os jogos de uma empresa utilizando paginação por cursor.
+
+        @param empresaId - Identificador único da empresa.
+        @param cursor - Token devolvido pela página anterior.
+        @param ordenacao - Ordenação desejada.
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoSliceDto buscarPorEmpresaPorCursor(String empresaId, String cursor, JogoCursor.Ordenacao ordenacao, int size) {
+        Empresa empresa = empresaRepository.findById(empresaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Empresa não encontrada."));
+        return paginarPorCursor(Criteria.where("empresa").is(empresa), cursor, ordenacao, size);
+    }
+
+    /*
+        Filtra os jogos de um dev autônomo utilizando paginação por cursor.
+
+        @param devId - Identificador único do desenvolvedor.
+        @param cursor - Token devolvido pela página anterior.
+        @param ordenacao - Ordenação desejada.
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoSliceDto buscarPorDevPorCursor(String devId, String cursor, JogoCursor.Ordenacao ordenacao, int size) {
+        Usuario dev = usuarioRepository.findById(devId)
+                .orElseThrow(() -> new ResourceNotFoundException("Dev não encontrado."));
+        return paginarPorCursor(Criteria.where("devAutonomo").is(dev), cursor, ordenacao, size);
+    }
+
+    /*
+        Busca facetada: combina gêneros, plataformas, classificações,
+        faixa de anos de lançamento e faixa de preço.
+
+        A página é lida por cursor (lançamento e _id), como nas listagens
+        por cursor, e o token da próxima página vem em proximoCursor. Sem
+        cursor, page > 0 ainda pula as páginas anteriores, para os clientes
+        que paginam por número.
+
+        Além da página de jogos, devolve a contagem de jogos filtrados em
+        cada gênero, plataforma e classificação (valores ausentes vêm com
+        zero), em uma agregação sobre o conjunto filtrado. Sem nenhum filtro
+        as contagens são as do catálogo inteiro, lidas do documento de
+        estatísticas mantido a cada escrita de jogo.
+
+        @param filtro - Filtros opcionais da busca
+        @param cursor - Token devolvido pela página anterior (opcional)
+        @param page - Número da página (ignorado quando há cursor)
+        @param size - Quantidade de itens por página.
+    */
+    @Transactional(readOnly = true)
+    public JogoFiltroResponseDto filtrar(JogoFiltroDto filtro, String cursor, int page, int size) {
+        Pageable pageable = PageRequest.of(page, limitarTamanhoDaPagina(size), Sort.by(Sort.Direction.DESC, "dataLancamento", "_id"));
+
+        Criteria criterio = montarCriterioDoFiltro(filtro);
+        Criteria filtroDaPagina = criterio.getCriteriaObject().isEmpty() ? null : criterio;
+
+        List<JogoResponseDto> jogos;
+        String proximoCursor = null;
+        if (page > 0 && (cursor == null || cursor.isBlank())) {
+            jogos = jogoRepository.buscarResumos(filtroDaPagina, pageable).getContent();
+        } else {
+            JogoCursor posicao = (cursor == null || cursor.isBlank()) ? null : JogoCursor.decodificar(cursor);
+            if (posicao != null && posicao.ordenacao() != JogoCursor.Ordenacao.LANCAMENTO) {
+                throw new RegraDeNegocioException("Cursor de paginação inválido.");
+            }
+            JogoSliceDto slice = jogoRepository.buscarResumosComCursor(filtroDaPagina, JogoCursor.Ordenacao.LANCAMENTO, posicao, pageable.getPageSize());
+            jogos = slice.conteudo();
+            proximoCursor = slice.proximoCursor();
+        }
+
+        ResultadoFiltroJogosDto contagens = filtroDaPagina == null ? contarCatalogo() : jogoRepository.contarFacetas(filtroDaPagina);
+
+        return new JogoFiltroResponseDto(
+                new PageImpl<>(jogos, pageable, contagens.total()),
+                proximoCursor,
+                preencherFacetas(Genero.class, contagens.generos()),
+                preencherFacetas(Plataforma.class, contagens.plataformas()),
+                preencherFacetas(ClassificacaoIndicativa.class, contagens.classificacoes())
+        );
     }
 
     /*
@@ -257,31 +455,102 @@ public class JogoService {
         Pageable pageable = PageRequest.of(page, size, Sort.by("titulo").ascending());
 
         if (usuario.getRoles().contains(Role.ROLE_ADMIN)) {
-            return jogoRepository.findAll(pageable).map(jogoMapper::toResponseDto); // Caso seja um admin pega todos os jogos
+            return jogoRepository.buscarResumos(null, pageable); // Caso seja um admin pega todos os jogos
         }
         if (usuario.getEmpresa() != null) {
-            return jogoRepository.findByEmpresa(usuario.getEmpresa(), pageable).map(jogoMapper::toResponseDto);
+            return jogoRepository.buscarResumos(Criteria.where("empresa").is(usuario.getEmpresa()), pageable);
         } else {
-            return jogoRepository.findByDevAutonomo(usuario, pageable).map(jogoMapper::toResponseDto);
+            return jogoRepository.buscarResumos(Criteria.where("devAutonomo").is(usuario), pageable);
         }
     }
 
     /*
-        Busca os 10 jogos com melhor nota média.
-        Resultado é armazenado em cache para performance da Home Page.
+        Busca os 10 jogos com melhor score de ranking (nota média ponderada).
+        A ordem vem do ranking no Redis e o resultado é armazenado em cache
+        para performance da Home Page. O cache só é limpo quando uma escrita
+        mexe no topo do ranking (ver RankingService).
     */
-    @Cacheable(value = "jogos-top10-nota")
+    @Cacheable(value = CacheNames.JOGOS_TOP10_NOTA, sync = true)
     public List<JogoResponseDto> buscarTop10MelhoresAvaliados() {
-        return jogoRepository.findTop10ByOrderByNotaMediaDesc().stream().map(jogoMapper::toResponseDto).toList();
+        List<String> ids = rankingService.topNota(10);
+        if (ids.isEmpty()) {
+            // Ranking ainda não montado (ou perdido): cai para a consulta no banco
+            return jogoRepository.buscarResumos(null, Sort.by("scoreRanking").descending(), 10);
+        }
+        return jogoRepository.buscarResumosPorIds(ids);
     }
 
     /*
         Busca os 10 jogos lançados mais recentemente.
         Resultado é armazenado em cache.
     */
-    @Cacheable(value = "jogos-top10-recentes")
+    @Cacheable(value = CacheNames.JOGOS_TOP10_RECENTES, sync = true)
     public List<JogoResponseDto> buscarTop10Lancamentos() {
-        return jogoRepository.findTop10ByOrderByDataLancamentoDesc().stream().map(jogoMapper::toResponseDto).toList();
+        List<String> ids = rankingService.maisRecentes(10);
+        if (ids.isEmpty()) {
+            return jogoRepository.buscarResumos(null, Sort.by("dataLancamento").descending(), 10);
+        }
+        return jogoRepository.buscarResumosPorIds(ids);
+    }
+
+    /*
+        Busca os jogos com melhor nota média de um gênero, direto do ranking no Redis.
+
+        @param genero - Gênero do ranking
+        @param limite - Quantidade de jogos (máximo RankingService.LIMITE_MAXIMO)
+    */
+    public List<JogoResponseDto> buscarTopPorGenero(Genero genero, int limite) {
+        return jogoRepository.buscarResumosPorIds(rankingService.topPorGenero(genero, limite));
+    }
+
+    /*
+        Busca os jogos em alta (mais avaliados e visitados recentemente),
+        na ordem do ranking de trending montado em segundo plano.
+
+        @param limite - Quantidade de jogos (máximo RankingService.LIMITE_MAXIMO)
+    */
+    public List<JogoResponseDto> buscarTrending(int limite) {
+        List<String> ids = trendingService.topo(limite);
+        return ids.isEmpty() ? List.of() : jogoRepository.buscarResumosPorIds(ids);
+    }
+
+    /*
+        Busca os jogos com melhor nota média de uma plataforma, direto do ranking no Redis.
+
+        @param plataforma - Plataforma do ranking
+        @param limite - Quantidade de jogos (máximo RankingService.LIMITE_MAXIMO)
+    */
+    public List<JogoResponseDto> buscarTopPorPlataforma(Plataforma plataforma, int limite) {
+        return jogoRepository.buscarResumosPorIds(rankingService.topPorPlataforma(plataforma, limite));
+    }
+
+    /*
+        Busca os histogramas de nota de vários jogos com uma única consulta,
+        lidos do próprio documento de cada jogo (mantidos a cada avaliação).
+
+        @param ids - IDs dos jogos (máximo MAXIMO_HISTOGRAMAS por chamada)
+    */
+    public List<HistogramaNotasDto> buscarHistogramas(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RegraDeNegocioException("Informe ao menos um jogo.");
+        }
+
+        List<String> distintos = ids.stream().distinct().toList();
+        if (distintos.size() > MAXIMO_HISTOGRAMAS) {
+            throw new RegraDeNegocioException("É possível buscar no máximo " + MAXIMO_HISTOGRAMAS + " histogramas por vez.");
+        }
+        return jogoRepository.buscarHistogramas(distintos);
+    }
+
+    /*
+        Sugestões para a barra de pesquisa, servidas do índice em memória
+        sem consulta ao banco.
+
+        @param termo - Texto digitado até o momento
+        @param limite - Quantidade máxima de sugestões
+    */
+    public List<SugestaoAutocompleteDto> autocompletar(String termo, int limite) {
+        return autocompleteService.sugerir(termo, limite);
     }
 
     /*
@@ -295,21 +564,103 @@ public class JogoService {
     }
 
     /*
-        Método privado para buscar avaliações filtradas
+        Método privado que executa a paginação por cursor, lendo o resumo
+        dos jogos direto do banco (sem materializar a entidade).
+        O tamanho da página é limitado a TAMANHO_MAXIMO_PAGINA.
+
+        @param filtro - Filtro base da listagem
+        @param token - Cursor recebido do cliente
+        @param ordenacao - Ordenação usada quando não há cursor
+        @param size - Quantidade de itens por página
+    */
+    private JogoSliceDto paginarPorCursor(Criteria filtro, String token, JogoCursor.Ordenacao ordenacao, int size) {
+        int tamanho = limitarTamanhoDaPagina(size);
+
+        JogoCursor cursor = (token == null || token.isBlank()) ? null : JogoCursor.decodificar(token);
+
+        // O cursor carrega a ordenação que o gerou, garantindo consistência entre as páginas
+        JogoCursor.Ordenacao ordem = cursor != null ? cursor.ordenacao() : ordenacao;
+
+        return jogoRepository.buscarResumosComCursor(filtro, ordem, cursor, tamanho);
+    }
+
+    // Rejeita páginas vazias e reduz as grandes demais ao máximo permitido
+    private int limitarTamanhoDaPagina(int size) {
+        if (size < 1) {
+            throw new RegraDeNegocioException("O tamanho da página deve ser maior que zero.");
+        }
+        return Math.min(size, TAMANHO_MAXIMO_PAGINA);
+    }
+
+    /*
+        Monta o critério da busca facetada validando as faixas informadas.
+        Valores de uma mesma lista usam $in e filtros diferentes são combinados com E.
 
-        @param jogo - Jogo específico a se buscar avaliações
-        @param autores - Usuários autores das avaliações
-        @param pageable - Método de paginação
+        @param filtro - Filtros recebidos (pode ser nulo)
     */
-    private List<AvaliacaoResponseDto> buscarReviewsFiltradas(Jogo jogo, List<Usuario> autores, Pageable pageable) {
-        if (autores.isEmpty()) {
-            return List.of();
+    private Criteria montarCriterioDoFiltro(JogoFiltroDto filtro) {
+        if (filtro == null) {
+            return new Criteria();
         }
 
-        return avaliacaoRepository.findByJogoAndUsuarioIn(jogo, autores, pageable)
-                .getContent()
-                .stream()
-                .map(avaliacaoMapper::toResponseDto)
-                .toList();
+        List<Criteria> criterios = new ArrayList<>();
+
+        if (filtro.generos() != null && !filtro.generos().isEmpty()) {
+            criterios.add(Criteria.where("generos").in(filtro.generos()));
+        }
+        if (filtro.plataformas() != null && !filtro.plataformas().isEmpty()) {
+            criterios.add(Criteria.where("plataformas").in(filtro.plataformas()));
+        }
+        if (filtro.classificacoes() != null && !filtro.classificacoes().isEmpty()) {
+            criterios.add(Criteria.where("classificacao").in(filtro.classificacoes()));
+        }
+
+        if (filtro.anoInicio() != null || filtro.anoFim() != null) {
+            if (filtro.anoInicio() != null && filtro.anoFim() != null && filtro.anoInicio() > filtro.anoFim()) {
+                throw new RegraDeNegocioException("O ano inicial não pode ser maior que o ano final.");
+            }
+
+            Criteria data = Criteria.where("dataLancamento");
+            if (filtro.anoInicio() != null) data.gte(LocalDate.of(filtro.anoInicio(), 1, 1));
+            if (filtro.anoFim() != null) data.lt(LocalDate.of(filtro.anoFim() + 1, 1, 1));
+            criterios.add(data);
+        }
+
+        if (filtro.precoMin() != null || filtro.precoMax() != null) {
+            if ((filtro.precoMin() != null && filtro.precoMin() < 0) || (filtro.precoMax() != null && filtro.precoMax() < 0)) {
+                throw new RegraDeNegocioException("Os preços do filtro não podem ser negativos.");
+            }
+            if (filtro.precoMin() != null && filtro.precoMax() != null && filtro.precoMin() > filtro.precoMax()) {
+                throw new RegraDeNegocioException("O preço mínimo não pode ser maior que o preço máximo.");
+            }
+
+            // $elemMatch garante que a mesma loja atenda às duas pontas da faixa
+            Criteria preco = Criteria.where("precoAtual");
+            if (filtro.precoMin() != null) preco.gte(filtro.precoMin());
+            if (filtro.precoMax() != null) preco.lte(filtro.precoMax());
+            criterios.add(Criteria.where("precos").elemMatch(preco));
+        }
+
+        return criterios.isEmpty() ? new Criteria() : new Criteria().andOperator(criterios);
+    }
+
+    // Garante uma entrada para cada valor do enum, com zero para os que não apareceram
+    private <E extends Enum<E>> Map<E, Long> preencherFacetas(Class<E> tipo, Map<String, Long> contagens) {
+        Map<E, Long> facetas = new EnumMap<>(tipo);
+        for (E valor : tipo.getEnumConstants()) {
+            facetas.put(valor, contagens == null ? 0L : contagens.getOrDefault(valor.name(), 0L));
+        }
+        return facetas;
+    }
+
+    // Contagens do catálogo inteiro, do documento de estatísticas (uma leitura, sem contar a coleção)
+    private ResultadoFiltroJogosDto contarCatalogo() {
+        Estatisticas estatisticas = estatisticasService.buscar();
+        return new ResultadoFiltroJogosDto(
+                estatisticas.getTotalJogos(),
+                estatisticas.getJogosPorGenero(),
+                estatisticas.getJogosPorPlataforma(),
+                estatisticas.getJogosPorClassificacao()
+        );
     }
 }
\ No newline at end of file
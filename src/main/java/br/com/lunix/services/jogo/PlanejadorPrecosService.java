@@ -0,0 +1,161 @@
+package br.com.lunix.services.jogo;
+
+import br.com.lunix.dto.jogos.CandidatoAtualizacaoPrecosDto;
+import br.com.lunix.dto.jogos.EnfileiramentoPrecosDto;
+import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.ranking.TrendingService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/*
+    Service que decide quais jogos têm os preços atualizados em cada
+    passada do agendador, no lugar de enviar o catálogo inteiro para a
+    fila uma vez por dia.
+
+    Cada jogo tem o próprio intervalo entre atualizações, entre o mínimo
+    e o máximo configurados: quanto mais popular (avaliações e atividade
+    recente no trending) e mais volátil (preços que mudaram nas últimas
+    atualizações), mais perto do mínimo. Ao enviar um jogo para a fila, o
+    planejador grava em proximaAtualizacaoPrecos quando ele vence de novo,
+    então as atualizações se espalham pelo dia e um jogo ainda na fila
+    não é enviado outra vez.
+
+    A leitura usa o índice de proximaAtualizacaoPrecos (migração V1_015)
+    e só alcança os jogos vencidos.
+*/
+@Service
+@RequiredArgsConstructor
+public class PlanejadorPrecosService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanejadorPrecosService.class);
+
+    private final JogoRepository jogoRepository;
+    private final JogoPrecoService precoService;
+    private final TrendingService trendingService;
+
+    // Intervalo entre atualizações do jogo mais popular e volátil
+    @Value("${lunix.precos.intervalo-minimo-horas:6}")
+    private int intervaloMinimoHoras;
+
+    // Intervalo entre atualizações do jogo sem avaliações, atividade nem mudança de preço
+    @Value("${lunix.precos.intervalo-maximo-horas:168}")
+    private int intervaloMaximoHoras;
+
+    // Avaliações (somadas à atividade recente) a partir das quais o jogo conta como popularidade máxima
+    @Value("${lunix.precos.avaliacoes-referencia:500}")
+    private int avaliacoesReferencia;
+
+    // Limite de mensagens na fila de preços; a passada só completa o que falta até ele
+    @Value("${lunix.precos.maximo-por-planejamento:5000}")
+    private int maximoPorPlanejamento;
+
+    @Value("${lunix.precos.lote-enfileiramento:1000}")
+    private int tamanhoLote;
+
+    // Relógio da passada, substituível nos testes
+    Clock relogio = Clock.systemDefaultZone();
+
+    /*
+        Envia para a fila os jogos com a atualização de preços vencida e
+        grava o próximo vencimento de cada um, lote a lote, depois da
+        confirmação do broker. Se a gravação falhar, o jogo continua
+        vencido e volta na próxima passada (no máximo uma mensagem repetida).
+
+        A fila ainda com mensagens da passada anterior (consumidores sem
+        cota da ITAD, por exemplo) reduz o envio desta, para o atraso não
+        crescer a cada passada. Os jogos que ficam de fora continuam
+        vencidos e entram nas próximas, os nunca planejados e os mais
+        atrasados primeiro.
+
+        return: Quantidade de jogos e de lotes enviados e a duração
+    */
+    public EnfileiramentoPrecosDto planejar() {
+        long inicio = System.currentTimeMillis();
+
+        long capacidade = maximoPorPlanejamento - precoService.mensagensNaFila();
+        if (capacidade <= 0) {
+            log.info("Planejamento de preços adiado: fila ainda com {} ou mais mensagens.", maximoPorPlanejamento);
+            return new EnfileiramentoPrecosDto(0, 0, System.currentTimeMillis() - inicio);
+        }
+
+        Map<String, Double> atividade = atividadeRecente();
+        LocalDateTime agora = LocalDateTime.now(relogio);
+        Duration minimo = Duration.ofHours(intervaloMinimoHoras);
+        Duration maximo = Duration.ofHours(intervaloMaximoHoras);
+
+        long jogos = 0;
+        int lotes = 0;
+        Map<String, LocalDateTime> lote = new LinkedHashMap<>();
+        try (Stream<CandidatoAtualizacaoPrecosDto> candidatos =
+                     jogoRepository.buscarCandidatosAtualizacaoPrecos(agora, tamanhoLote)) {
+            for (CandidatoAtualizacaoPrecosDto candidato : (Iterable<CandidatoAtualizacaoPrecosDto>) candidatos.limit(capacidade)::iterator) {
+                Duration intervalo = calcularIntervalo(candidato.totalAvaliacoes(), atividade.getOrDefault(candidato.id(), 0.0),
+                        candidato.volatilidadePrecos(), avaliacoesReferencia, minimo, maximo);
+                lote.put(candidato.id(), agora.plus(intervalo));
+
+                if (lote.size() == tamanhoLote) {
+                    enviar(lote);
+                    jogos += lote.size();
+                    lotes++;
+                    lote = new LinkedHashMap<>();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            enviar(lote);
+            jogos += lote.size();
+            lotes++;
+        }
+
+        long duracao = System.currentTimeMillis() - inicio;
+        log.info("Planejamento de preços: {} jogos vencidos enviados para a fila em {} lotes ({} ms).", jogos, lotes, duracao);
+        return new EnfileiramentoPrecosDto(jogos, lotes, duracao);
+    }
+
+    /*
+        Intervalo entre atualizações de um jogo, interpolado em escala
+        geométrica entre o máximo (peso 0) e o mínimo (peso 1).
+
+        O peso é a média da popularidade e da volatilidade, ambas de 0 a 1.
+        A popularidade é logarítmica, para poucos jogos muito avaliados não
+        empurrarem todos os outros para o máximo; a volatilidade é a média
+        móvel gravada pelo JogoPrecoService, ou 0.5 para jogo sem histórico.
+    */
+    static Duration calcularIntervalo(int totalAvaliacoes, double atividade, Double volatilidade,
+                                      int avaliacoesReferencia, Duration minimo, Duration maximo) {
+        double popularidade = Math.min(1, Math.log1p(Math.max(0, totalAvaliacoes + atividade))
+                / Math.log1p(Math.max(1, avaliacoesReferencia)));
+        double variacao = volatilidade != null ? Math.clamp(volatilidade, 0, 1) : JogoPrecoService.VOLATILIDADE_INICIAL;
+        double peso = (popularidade + variacao) / 2;
+
+        double segundos = maximo.toSeconds() * Math.pow((double) minimo.toSeconds() / maximo.toSeconds(), peso);
+        return Duration.ofSeconds(Math.round(segundos));
+    }
+
+    // Publica o lote com confirmação e só então grava o próximo vencimento dos jogos
+    private void enviar(Map<String, LocalDateTime> proximaPorJogo) {
+        precoService.publicarComConfirmacao(List.copyOf(proximaPorJogo.keySet()));
+        jogoRepository.agendarAtualizacoesPrecos(proximaPorJogo);
+    }
+
+    // Pontos do trending; sem o Redis o planejamento segue só com as avaliações
+    private Map<String, Double> atividadeRecente() {
+        try {
+            return trendingService.pontuacoesDoTopo();
+        } catch (Exception e) {
+            log.warn("Trending indisponível, planejamento de preços sem a atividade recente: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,476 @@
+package br.com.lunix.services.ranking;
+
+import br.com.lunix.config.cache.CacheNames;
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/*
+    Service responsável pelos rankings da home page, mantidos no Redis
+    como sorted sets (membro = id do jogo, score = critério do ranking):
+
+    - ranking:nota                      -> todos os jogos pelo score de ranking
+    - ranking:recentes                  -> jogos pela data de lançamento
+    - ranking:nota:genero:{GENERO}       -> score de ranking dentro de cada gênero
+    - ranking:nota:plataforma:{PLATAFORMA} -> score de ranking dentro de cada plataforma
+
+    O score de ranking é a nota média ponderada calculada pelo
+    ScoreRankingService, para que um jogo com poucas avaliações não
+    passe na frente de jogos com muitas avaliações boas.
+
+    Os sets guardam todos os jogos, e não só os N primeiros, para que um jogo
+    que cai no ranking seja substituído pelo próximo sem reconsultar o banco.
+    Cada escrita atualiza só o jogo alterado e os caches de top 10 só são
+    limpos quando o jogo estava ou passou a estar entre os primeiros.
+
+    Toda escrita também marca o jogo em ranking:alterados (score = momento
+    da escrita), para que uma reconstrução reaplique por cima do resultado
+    o que mudou enquanto ela lia o banco.
+*/
+@Service
+@RequiredArgsConstructor
+public class RankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(RankingService.class);
+
+    static final String NOTA = "ranking:nota";
+    static final String RECENTES = "ranking:recentes";
+    static final String PREFIXO_GENERO = "ranking:nota:genero:";
+    static final String PREFIXO_PLATAFORMA = "ranking:nota:plataforma:";
+
+    // Tamanho dos rankings servidos pelos caches de top 10
+    static final int TOPO = 10;
+
+    public static final int LIMITE_MAXIMO = 50;
+
+    static final String ALTERADOS = "ranking:alterados";
+    static final String TRAVA_RECONSTRUCAO = "ranking:reconstrucao:trava";
+
+    // Validade da trava e das chaves temporárias da reconstrução, e por quanto tempo os alterados são lembrados
+    static final Duration VALIDADE_RECONSTRUCAO = Duration.ofMinutes(30);
+
+    // Folga na leitura dos alterados, para diferenças de relógio entre as instâncias
+    private static final Duration FOLGA_ALTERADOS = Duration.ofMinutes(1);
+
+    private static final int LOTE_RECONSTRUCAO = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final TravaRedis travaRedis;
+
+    /*
+        Atualiza a posição de um jogo em todos os rankings.
+        Gêneros e plataformas que o jogo deixou de ter são removidos.
+
+        @param jogo - Jogo já salvo, com score, lançamento, gêneros e plataformas atuais
+    */
+    public void atualizar(Jogo jogo) {
+        if (jogo == null || jogo.getId() == null) return;
+
+        String id = jogo.getId();
+        Long lancamento = jogo.getDataLancamento() != null ? jogo.getDataLancamento().toEpochDay() : null;
+        List<String> generos = nomes(jogo.getGeneros());
+        List<String> plataformas = nomes(jogo.getPlataformas());
+
+        executarMedindoTopo(id, ops -> {
+            escreverJogo(ops, id, jogo.getScoreRanking(), lancamento, generos, plataformas);
+            marcarAlterado(ops, id);
+            descartarAlteradosAntigos(ops);
+        });
+    }
+
+    /*
+        Remove um jogo de todos os rankings.
+
+        @param jogoId - Id do jogo removido
+    */
+    public void remover(String jogoId) {
+        if (jogoId == null) return;
+
+        executarMedindoTopo(jogoId, ops -> {
+            removerJogo(ops, jogoId);
+            marcarAlterado(ops, jogoId);
+            descartarAlteradosAntigos(ops);
+        });
+    }
+
+    /*
+        Grava os novos scores calculados pelo ScoreRankingService no ranking
+        geral e nos rankings dos gêneros e plataformas de cada jogo, em
+        pipelines de um lote por vez.
+
+        Como o job muda o score de vários jogos de uma vez, o cache do top 10
+        por nota é limpo uma única vez ao final.
+
+        @param jogos - Jogos com o score alterado
+    */
+    public void atualizarScores(List<EstatisticasRankingDto> jogos) {
+        for (int inicio = 0; inicio < jogos.size(); inicio += LOTE_RECONSTRUCAO) {
+            List<EstatisticasRankingDto> lote = jogos.subList(inicio, Math.min(inicio + LOTE_RECONSTRUCAO, jogos.size()));
+
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+
+                    for (EstatisticasRankingDto jogo : lote) {
+                        ops.opsForZSet().add(NOTA, jogo.jogoId(), jogo.scoreRanking());
+                        for (String genero : jogo.generos()) {
+                            ops.opsForZSet().add(PREFIXO_GENERO + genero, jogo.jogoId(), jogo.scoreRanking());
+                        }
+                        for (String plataforma : jogo.plataformas()) {
+                            ops.opsForZSet().add(PREFIXO_PLATAFORMA + plataforma, jogo.jogoId(), jogo.scoreRanking());
+                        }
+                        marcarAlterado(ops, jogo.jogoId());
+                    }
+                    descartarAlteradosAntigos(ops);
+                    return null;
+                }
+            });
+        }
+
+        if (!jogos.isEmpty()) {
+            limparCache(CacheNames.JOGOS_TOP10_NOTA);
+        }
+    }
+
+    // Ids dos jogos com maior score de ranking
+    public List<String> topNota(int limite) {
+        return buscarIds(NOTA, limite);
+    }
+
+    // Ids dos jogos lançados mais recentemente
+    public List<String> maisRecentes(int limite) {
+        return buscarIds(RECENTES, limite);
+    }
+
+    // Ids dos jogos com maior score de ranking dentro do gênero
+    public List<String> topPorGenero(Genero genero, int limite) {
+        return buscarIds(PREFIXO_GENERO + genero.name(), limite);
+    }
+
+    // Ids dos jogos com maior score de ranking dentro da plataforma
+    public List<String> topPorPlataforma(Plataforma plataforma, int limite) {
+        return buscarIds(PREFIXO_PLATAFORMA + plataforma.name(), limite);
+    }
+
+    /*
+        Reconstrói todos os rankings a partir do banco, para recuperação
+        após perda de dados no Redis ou divergência.
+
+        Só uma instância reconstrói por vez (trava com SET NX). Os sets são
+        montados em chaves temporárias próprias desta execução, que expiram
+        sozinhas se ela falhar, e trocados com RENAME, então os leitores
+        nunca veem um ranking pela metade. Um ranking só é apagado quando
+        esta execução não encontrou nenhum jogo para ele.
+
+        As escritas feitas enquanto o banco era lido são reaplicadas depois
+        da troca, a partir do estado atual dos jogos marcados em ranking:alterados.
+
+        return: Quantidade de jogos indexados, ou -1 se outra instância já está reconstruindo
+    */
+    public long reconstruir() {
+        Optional<String> trava = travaRedis.adquirir(TRAVA_RECONSTRUCAO, VALIDADE_RECONSTRUCAO);
+        if (trava.isEmpty()) {
+            log.info("Reconstrução dos rankings ignorada: outra instância já está reconstruindo.");
+            return -1;
+        }
+
+        try {
+            return reconstruirComTrava();
+        } finally {
+            travaRedis.liberar(TRAVA_RECONSTRUCAO, trava.get());
+        }
+    }
+
+    private long reconstruirComTrava() {
+        long inicio = System.currentTimeMillis();
+        String sufixo = ":reconstrucao:" + UUID.randomUUID();
+        Set<String> montadas = new HashSet<>();
+
+        Query query = new Query();
+        query.fields().include("scoreRanking", "dataLancamento", "generos", "plataformas");
+
+        long total = 0;
+        List<Document> lote = new ArrayList<>(LOTE_RECONSTRUCAO);
+        try (var stream = mongoTemplate.stream(query, Document.class, "jogos")) {
+            for (Document doc : (Iterable<Document>) stream::iterator) {
+                lote.add(doc);
+                if (lote.size() == LOTE_RECONSTRUCAO) {
+                    gravarLote(lote, sufixo, montadas);
+                    total += lote.size();
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravarLote(lote, sufixo, montadas);
+            total += lote.size();
+        }
+
+        for (String chave : todasAsChaves()) {
+            if (!montadas.contains(chave)) {
+                // Nenhum jogo desta execução entrou no ranking: um set vazio não chega a existir
+                redisTemplate.delete(chave);
+            } else if (Boolean.TRUE.equals(redisTemplate.hasKey(chave + sufixo))) {
+                redisTemplate.rename(chave + sufixo, chave);
+            } else {
+                log.warn("Chave temporária {} expirou antes da troca; o ranking atual foi mantido.", chave + sufixo);
+            }
+        }
+
+        int reaplicados = reaplicarAlterados(inicio - FOLGA_ALTERADOS.toMillis());
+
+        limparCache(CacheNames.JOGOS_TOP10_NOTA);
+        limparCache(CacheNames.JOGOS_TOP10_RECENTES);
+
+        log.info("Rankings reconstruídos com {} jogos em {} ms ({} alterados durante a leitura reaplicados).",
+                total, System.currentTimeMillis() - inicio, reaplicados);
+        return total;
+    }
+
+    /*
+        Regrava nos rankings, a partir do estado atual no banco, os jogos
+        marcados como alterados desde o momento informado. Jogos que não
+        existem mais são removidos de todos os rankings.
+    */
+    private int reaplicarAlterados(long desde) {
+        Set<String> ids = redisTemplate.opsForZSet().rangeByScore(ALTERADOS, desde, Double.POSITIVE_INFINITY);
+        if (ids == null || ids.isEmpty()) return 0;
+
+        Query query = new Query(Criteria.where("_id").in(ids.stream().map(ObjectId::new).toList()));
+        query.fields().include("scoreRanking", "dataLancamento", "generos", "plataformas");
+        List<Document> atuais = mongoTemplate.find(query, Document.class, "jogos");
+        Set<String> existentes = atuais.stream().map(doc -> doc.getObjectId("_id").toHexString()).collect(Collectors.toSet());
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+
+                for (Document doc : atuais) {
+                    escreverJogo(ops, doc.getObjectId("_id").toHexString(), nota(doc), lancamento(doc),
+                            doc.getList("generos", String.class, List.of()), doc.getList("plataformas", String.class, List.of()));
+                }
+                for (String id : ids) {
+                    if (!existentes.contains(id)) {
+                        removerJogo(ops, id);
+                    }
+                }
+                return null;
+            }
+        });
+        return ids.size();
+    }
+
+    // Na subida da aplicação, monta os rankings caso o Redis esteja vazio (primeira execução ou perda de dados)
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirSeVazio() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(NOTA))) {
+                reconstruir();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao montar os rankings na inicialização: {}", e.getMessage());
+        }
+    }
+
+    private List<String> buscarIds(String chave, int limite) {
+        int n = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(chave, 0, n - 1);
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    /*
+        Executa as escritas em um único pipeline, lendo a posição do jogo nos
+        rankings globais antes e depois. Como o Redis executa o pipeline em
+        ordem, as posições lidas correspondem exatamente a esta escrita.
+    */
+    private void executarMedindoTopo(String id, Consumer<RedisOperations<String, String>> escritas) {
+        List<Object> resultados = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+
+                ops.opsForZSet().reverseRank(NOTA, id);
+                ops.opsForZSet().reverseRank(RECENTES, id);
+                escritas.accept(ops);
+                ops.opsForZSet().reverseRank(NOTA, id);
+                ops.opsForZSet().reverseRank(RECENTES, id);
+                return null;
+            }
+        });
+
+        int n = resultados.size();
+        if (noTopo(resultados.get(0)) || noTopo(resultados.get(n - 2))) {
+            limparCache(CacheNames.JOGOS_TOP10_NOTA);
+        }
+        if (noTopo(resultados.get(1)) || noTopo(resultados.get(n - 1))) {
+            limparCache(CacheNames.JOGOS_TOP10_RECENTES);
+        }
+    }
+
+    // Grava um lote de jogos nas chaves temporárias da reconstrução, anotando quais rankings receberam jogos
+    private void gravarLote(List<Document> lote, String sufixo, Set<String> montadas) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                Set<String> doLote = new HashSet<>();
+
+                for (Document doc : lote) {
+                    String id = doc.getObjectId("_id").toHexString();
+                    double nota = nota(doc);
+
+                    adicionarTemporario(ops, doLote, NOTA, sufixo, id, nota);
+                    Long lancamento = lancamento(doc);
+                    if (lancamento != null) {
+                        adicionarTemporario(ops, doLote, RECENTES, sufixo, id, lancamento);
+                    }
+                    for (String genero : doc.getList("generos", String.class, List.of())) {
+                        adicionarTemporario(ops, doLote, PREFIXO_GENERO + genero, sufixo, id, nota);
+                    }
+                    for (String plataforma : doc.getList("plataformas", String.class, List.of())) {
+                        adicionarTemporario(ops, doLote, PREFIXO_PLATAFORMA + plataforma, sufixo, id, nota);
+                    }
+                }
+
+                for (String chave : doLote) {
+                    ops.expire(chave + sufixo, VALIDADE_RECONSTRUCAO);
+                }
+                montadas.addAll(doLote);
+                return null;
+            }
+        });
+    }
+
+    private static void adicionarTemporario(RedisOperations<String, String> ops, Set<String> doLote,
+                                            String chave, String sufixo, String id, double score) {
+        ops.opsForZSet().add(chave + sufixo, id, score);
+        doLote.add(chave);
+    }
+
+    // Grava o jogo em todos os rankings e o tira dos gêneros e plataformas que ele não tem mais
+    private static void escreverJogo(RedisOperations<String, String> ops, String id, double score, Long lancamento,
+                                     List<String> generos, List<String> plataformas) {
+        ops.opsForZSet().add(NOTA, id, score);
+
+        if (lancamento != null) {
+            ops.opsForZSet().add(RECENTES, id, lancamento);
+        } else {
+            ops.opsForZSet().remove(RECENTES, id);
+        }
+
+        for (Genero genero : Genero.values()) {
+            if (generos.contains(genero.name())) {
+                ops.opsForZSet().add(PREFIXO_GENERO + genero.name(), id, score);
+            } else {
+                ops.opsForZSet().remove(PREFIXO_GENERO + genero.name(), id);
+            }
+        }
+        for (Plataforma plataforma : Plataforma.values()) {
+            if (plataformas.contains(plataforma.name())) {
+                ops.opsForZSet().add(PREFIXO_PLATAFORMA + plataforma.name(), id, score);
+            } else {
+                ops.opsForZSet().remove(PREFIXO_PLATAFORMA + plataforma.name(), id);
+            }
+        }
+    }
+
+    private static void removerJogo(RedisOperations<String, String> ops, String id) {
+        ops.opsForZSet().remove(NOTA, id);
+        ops.opsForZSet().remove(RECENTES, id);
+        for (Genero genero : Genero.values()) {
+            ops.opsForZSet().remove(PREFIXO_GENERO + genero.name(), id);
+        }
+        for (Plataforma plataforma : Plataforma.values()) {
+            ops.opsForZSet().remove(PREFIXO_PLATAFORMA + plataforma.name(), id);
+        }
+    }
+
+    // Marca o jogo como alterado agora, para uma reconstrução em andamento reaplicar
+    private static void marcarAlterado(RedisOperations<String, String> ops, String id) {
+        ops.opsForZSet().add(ALTERADOS, id, System.currentTimeMillis());
+    }
+
+    // Descarta as marcas mais antigas que qualquer reconstrução em andamento
+    private static void descartarAlteradosAntigos(RedisOperations<String, String> ops) {
+        ops.opsForZSet().removeRangeByScore(ALTERADOS, Double.NEGATIVE_INFINITY,
+                System.currentTimeMillis() - VALIDADE_RECONSTRUCAO.toMillis());
+    }
+
+    private List<String> todasAsChaves() {
+        List<String> chaves = new ArrayList<>(List.of(NOTA, RECENTES));
+        for (Genero genero : Genero.values()) {
+            chaves.add(PREFIXO_GENERO + genero.name());
+        }
+        for (Plataforma plataforma : Plataforma.values()) {
+            chaves.add(PREFIXO_PLATAFORMA + plataforma.name());
+        }
+        return chaves;
+    }
+
+    private void limparCache(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static double nota(Document doc) {
+        return doc.get("scoreRanking") instanceof Number numero ? numero.doubleValue() : 0.0;
+    }
+
+    private static Long lancamento(Document doc) {
+        return doc.get("dataLancamento") instanceof Date data ? diaDoLancamento(data) : null;
+    }
+
+    private static boolean noTopo(Object posicao) {
+        return posicao instanceof Number numero && numero.longValue() < TOPO;
+    }
+
+    // O Spring Data grava o LocalDate como meia-noite no fuso padrão, então a leitura usa o mesmo fuso
+    private static long diaDoLancamento(Date data) {
+        return LocalDate.ofInstant(data.toInstant(), ZoneId.systemDefault()).toEpochDay();
+    }
+
+    private static List<String> nomes(Collection<? extends Enum<?>> valores) {
+        return valores == null ? List.of() : valores.stream().map(Enum::name).toList();
+    }
+}
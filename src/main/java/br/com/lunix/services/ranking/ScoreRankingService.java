@@ -0,0 +1,122 @@
+package br.com.lunix.services.ranking;
+
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.repository.AvaliacaoRepository;
+import br.com.lunix.repository.JogoRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+    Service responsável pelo score de ranking dos jogos, uma média
+    bayesiana (a mesma fórmula do IMDb):
+
+        score = (soma + m * C) / (total + m)
+
+    onde C é a média global de todas as avaliações e m é o peso mínimo,
+    quantas avaliações "fictícias" com nota C cada jogo recebe. Um jogo com
+    uma única nota 10 fica perto de C, enquanto um jogo com centenas de
+    avaliações fica perto da própria média.
+
+    O cálculo roda em segundo plano (ScoreRankingScheduler), então
+    as leituras dos rankings só ordenam por um campo já gravado. Com
+    várias instâncias, só a que pegar a trava no Redis (TravaRedis)
+    recalcula; as outras pulam a execução.
+*/
+@Service
+@RequiredArgsConstructor
+public class ScoreRankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScoreRankingService.class);
+
+    // Diferença abaixo da qual o score gravado é mantido, para não reescrever jogos que não mudaram
+    private static final double TOLERANCIA = 1e-9;
+
+    // Trava do recálculo, com validade abaixo do intervalo do agendamento (15 min) para não atravessar a próxima execução
+    static final String TRAVA_RECALCULO = "ranking:score:trava";
+    static final Duration VALIDADE_RECALCULO = Duration.ofMinutes(10);
+
+    // Jogos lidos, calculados e gravados por vez
+    static final int TAMANHO_LOTE = 500;
+
+    private final JogoRepository jogoRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final RankingService rankingService;
+    private final TravaRedis travaRedis;
+
+    @Value("${lunix.ranking.peso-minimo:10}")
+    private double pesoMinimo;
+
+    /*
+        Recalcula o score de todos os jogos.
+
+        A média global vem de uma agregação sobre as avaliações
+        (calcularMediaGlobal). Os jogos são percorridos em blocos de
+        TAMANHO_LOTE: o score de cada bloco é calculado em paralelo com um
+        parallel stream (ForkJoinPool) e só os jogos cujo score mudou são
+        gravados no banco e nos rankings do Redis, antes de ler o próximo
+        bloco. Assim só um bloco fica em memória, independente do catálogo.
+
+        return: Quantidade de jogos com score alterado, ou -1 se outra
+        instância já está recalculando
+    */
+    public int recalcularScores() {
+        Optional<String> trava = travaRedis.adquirir(TRAVA_RECALCULO, VALIDADE_RECALCULO);
+        if (trava.isEmpty()) {
+            log.info("Recálculo do score de ranking ignorado: outra instância já está recalculando.");
+            return -1;
+        }
+
+        try {
+            return recalcularComTrava();
+        } finally {
+            travaRedis.liberar(TRAVA_RECALCULO, trava.get());
+        }
+    }
+
+    private int recalcularComTrava() {
+        long inicio = System.currentTimeMillis();
+        Double media = avaliacaoRepository.calcularMediaGlobal();
+        double mediaGlobal = media != null ? media : 0.0;
+
+        AtomicInteger alterados = new AtomicInteger();
+        long total = jogoRepository.percorrerEstatisticasDeRanking(TAMANHO_LOTE, lote -> {
+            List<EstatisticasRankingDto> alteradosDoLote = lote.parallelStream()
+                    .map(jogo -> {
+                        double score = calcularScore(jogo.somaNotas(), jogo.totalAvaliacoes(), mediaGlobal, pesoMinimo);
+                        return mudou(jogo.scoreRanking(), score) ? jogo.comScore(score) : null;
+                    })
+                    .filter(Objects::nonNull)
+                    .toList();
+
+            if (!alteradosDoLote.isEmpty()) {
+                jogoRepository.atualizarScoresRanking(alteradosDoLote);
+                rankingService.atualizarScores(alteradosDoLote);
+                alterados.addAndGet(alteradosDoLote.size());
+            }
+        });
+
+        log.info("Score de ranking recalculado para {} jogos (média global {}, {} alterados) em {} ms.",
+                total, String.format("%.2f", mediaGlobal), alterados.get(), System.currentTimeMillis() - inicio);
+        return alterados.get();
+    }
+
+    // Média bayesiana de um jogo
+    static double calcularScore(double somaNotas, int totalAvaliacoes, double mediaGlobal, double pesoMinimo) {
+        if (totalAvaliacoes + pesoMinimo <= 0) return 0.0;
+        return (somaNotas + pesoMinimo * mediaGlobal) / (totalAvaliacoes + pesoMinimo);
+    }
+
+    // Jogo sem score gravado (nunca calculado) sempre conta como alterado
+    private static boolean mudou(Double scoreAtual, double novoScore) {
+        return scoreAtual == null || Math.abs(scoreAtual - novoScore) > TOLERANCIA;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.lunix.services.ranking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/*
+    Trava distribuída simples no Redis, para jobs que não devem rodar em
+    mais de uma instância ao mesmo tempo (reconstrução dos rankings,
+    recálculo dos scores).
+
+    A trava é um SET NX com validade: se a instância cair no meio do job,
+    ela expira sozinha. Cada aquisição grava um token próprio e a liberação
+    só apaga a chave se o token ainda for o mesmo, para não soltar a trava
+    que outra instância adquiriu depois de esta ter expirado.
+*/
+@Component
+@RequiredArgsConstructor
+public class TravaRedis {
+
+    // KEYS[1] = trava, ARGV[1] = token de quem adquiriu
+    static final RedisScript<Long> SCRIPT_LIBERAR = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /*
+        Tenta adquirir a trava.
+
+        @param chave - Chave da trava no Redis
+        @param validade - Tempo máximo que a trava fica com esta instância
+        return: Token da aquisição, ou vazio se outra instância está com a trava
+    */
+    public Optional<String> adquirir(String chave, Duration validade) {
+        String token = UUID.randomUUID().toString();
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(chave, token, validade))
+                ? Optional.of(token)
+                : Optional.empty();
+    }
+
+    // Libera a trava, se ela ainda for desta aquisição
+    public void liberar(String chave, String token) {
+        redisTemplate.execute(SCRIPT_LIBERAR, List.of(chave), token);
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.lunix.services.ranking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+    Service responsável pelo ranking de jogos em alta (trending), medido
+    pela atividade recente: avaliações criadas e visualizações da página
+    de detalhes, com decaimento exponencial no tempo.
+
+    Os eventos são contados em memória e enviados em lote para o Redis,
+    onde cada hora tem o seu balde (sorted set trending:balde:{hora}, com
+    membro = id do jogo e score = pontos da hora). O ranking é montado com
+    um ZUNIONSTORE dos baldes da janela, cada um com peso 2^(-idade / meia-vida),
+    sem nenhuma agregação sobre as avaliações.
+
+    A memória é limitada independente do tamanho do catálogo: o contador em
+    memória aceita no máximo MAXIMO_PENDENTES jogos entre dois envios, cada
+    balde guarda só os MAXIMO_POR_BALDE jogos com mais pontos e expira
+    sozinho ao sair da janela, e o ranking final guarda só o topo.
+
+    Visualizações só contam para usuários autenticados, uma vez por usuário
+    e jogo em cada balde, para que recarregar a página ou repetir o GET
+    anônimo não empurre um jogo para o topo. A deduplicação é em memória
+    (limitada a MAXIMO_VISUALIZACOES_DISTINTAS pares por balde), então cada
+    instância conta o mesmo usuário no máximo uma vez por hora.
+*/
+@Service
+@RequiredArgsConstructor
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    static final String PREFIXO_BALDE = "trending:balde:";
+    static final String TOPO_TRENDING = "trending:topo";
+
+    static final Duration DURACAO_BALDE = Duration.ofHours(1);
+    static final int BALDES_NA_JANELA = 48;
+    static final double MEIA_VIDA_EM_BALDES = 12;
+
+    static final int PONTOS_AVALIACAO = 5;
+    static final int PONTOS_VISUALIZACAO = 1;
+
+    static final int MAXIMO_PENDENTES = 10_000;
+    static final int MAXIMO_POR_BALDE = 1_000;
+    static final int MAXIMO_VISUALIZACOES_DISTINTAS = 100_000;
+    static final int TAMANHO_TOPO = 100;
+    static final Duration EXPIRACAO_CALCULO = Duration.ofMinutes(5);
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Relógio usado para saber o balde atual, substituível nos testes
+    Clock relogio = Clock.systemUTC();
+
+    private final Map<String, Long> pendentes = new ConcurrentHashMap<>();
+
+    // Pares balde:jogo:usuário já contados como visualização
+    private final Cache<String, Boolean> visualizacoesContadas = Caffeine.newBuilder()
+            .expireAfterWrite(DURACAO_BALDE)
+            .maximumSize(MAXIMO_VISUALIZACOES_DISTINTAS)
+            .build();
+
+    // Conta uma avaliação criada para o jogo
+    public void registrarAvaliacao(String jogoId) {
+        registrar(jogoId, PONTOS_AVALIACAO);
+    }
+
+    // Conta a visualização da página de detalhes do jogo, uma vez por usuário a cada balde; visitantes anônimos não contam
+    public void registrarVisualizacao(String jogoId, String usuario) {
+        if (jogoId == null || usuario == null) return;
+
+        String chave = baldeAtual() + ":" + jogoId + ":" + usuario;
+        if (visualizacoesContadas.asMap().putIfAbsent(chave, Boolean.TRUE) == null) {
+            registrar(jogoId, PONTOS_VISUALIZACAO);
+        }
+    }
+
+    /*
+        Envia os pontos acumulados em memória para o balde da hora atual,
+        em um único pipeline, e corta o balde para os jogos com mais pontos.
+
+        Cada contador é retirado do mapa com um remove atômico, e o registro
+        soma com merge na mesma entrada: um evento ou entra no valor retirado
+        ou cria uma entrada nova, que vai no próximo lote.
+    */
+    public void enviarPendentes() {
+        if (pendentes.isEmpty()) return;
+
+        Map<String, Long> lote = new HashMap<>();
+        for (String jogoId : pendentes.keySet()) {
+            Long pontos = pendentes.remove(jogoId);
+            if (pontos != null && pontos > 0) {
+                lote.put(jogoId, pontos);
+            }
+        }
+        if (lote.isEmpty()) return;
+
+        String balde = chaveDoBalde(baldeAtual());
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+
+                lote.forEach((jogoId, pontos) -> ops.opsForZSet().incrementScore(balde, jogoId, pontos));
+                ops.opsForZSet().removeRange(balde, 0, -(MAXIMO_POR_BALDE + 1));
+                ops.expire(balde, DURACAO_BALDE.multipliedBy(BALDES_NA_JANELA + 1));
+                return null;
+            }
+        });
+    }
+
+    /*
+        Monta o ranking de jogos em alta a partir dos baldes da janela.
+
+        O ZUNIONSTORE soma os baldes no próprio Redis aplicando o peso de
+        decaimento de cada um; o resultado é gravado em uma chave temporária,
+        cortado para o topo e trocado com RENAME, então os leitores nunca
+        veem um ranking pela metade.
+
+        A chave temporária é única por execução, porque todas as instâncias
+        rodam o mesmo cron: com uma chave compartilhada, o RENAME de uma
+        podia publicar o cálculo que outra ainda estava cortando. Ela expira
+        sozinha se a execução falhar antes do RENAME.
+    */
+    public void recalcularTopo() {
+        long atual = baldeAtual();
+
+        List<String> baldes = new ArrayList<>(BALDES_NA_JANELA);
+        double[] pesos = new double[BALDES_NA_JANELA];
+        for (int idade = 0; idade < BALDES_NA_JANELA; idade++) {
+            baldes.add(chaveDoBalde(atual - idade));
+            pesos[idade] = pesoDaIdade(idade);
+        }
+
+        String temporaria = TOPO_TRENDING + ":calculo:" + UUID.randomUUID();
+        Long total = redisTemplate.opsForZSet().unionAndStore(baldes.get(0), baldes.subList(1, baldes.size()),
+                temporaria, Aggregate.SUM, Weights.of(pesos));
+
+        if (total == null || total == 0) {
+            redisTemplate.delete(TOPO_TRENDING);
+            return;
+        }
+        redisTemplate.expire(temporaria, EXPIRACAO_CALCULO);
+        redisTemplate.opsForZSet().removeRange(temporaria, 0, -(TAMANHO_TOPO + 1));
+        redisTemplate.rename(temporaria, TOPO_TRENDING);
+
+        log.debug("Trending recalculado a partir de {} jogos ativos na janela.", total);
+    }
+
+    // Ids dos jogos em alta, do mais ativo para o menos ativo
+    public List<String> topo(int limite) {
+        int n = Math.min(Math.max(limite, 1), RankingService.LIMITE_MAXIMO);
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(TOPO_TRENDING, 0, n - 1);
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    // Pontos de atividade recente dos jogos em alta (id -> pontos com decaimento), para quem precisa do valor e não só da ordem
+    public Map<String, Double> pontuacoesDoTopo() {
+        Set<ZSetOperations.TypedTuple<String>> topo = redisTemplate.opsForZSet().rangeWithScores(TOPO_TRENDING, 0, -1);
+        Map<String, Double> pontuacoes = new HashMap<>();
+        if (topo != null) {
+            topo.forEach(jogo -> pontuacoes.put(jogo.getValue(), jogo.getScore()));
+        }
+        return pontuacoes;
+    }
+
+    // Envia o que ainda está em memória antes de a aplicação desligar
+    @PreDestroy
+    public void enviarAoDesligar() {
+        try {
+            enviarPendentes();
+        } catch (Exception e) {
+            log.warn("Não foi possível enviar os contadores de trending ao desligar: {}", e.getMessage());
+        }
+    }
+
+    /*
+        Soma os pontos no contador em memória. Com o limite de jogos atingido,
+        jogos que ainda não estão no lote são ignorados até o próximo envio:
+        um jogo em alta recebe eventos o tempo todo e entra no lote seguinte.
+    */
+    private void registrar(String jogoId, int pontos) {
+        if (jogoId == null) return;
+
+        if (pendentes.size() >= MAXIMO_PENDENTES && !pendentes.containsKey(jogoId)) return;
+        pendentes.merge(jogoId, (long) pontos, Long::sum);
+    }
+
+    private long baldeAtual() {
+        return relogio.millis() / DURACAO_BALDE.toMillis();
+    }
+
+    static String chaveDoBalde(long balde) {
+        return PREFIXO_BALDE + balde;
+    }
+
+    // Peso de um balde com a idade informada (0 = hora atual): metade a cada meia-vida
+    static double pesoDaIdade(int idade) {
+        return Math.pow(2, -idade / MEIA_VIDA_EM_BALDES);
+    }
+}
@@ -11,6 +11,8 @@ import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.dashboard.EstatisticasService.RetratoUsuario;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -29,6 +31,7 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
     private final UsuarioMapper mapper;
+    private final EstatisticasService estatisticasService;
 
     /*
         Realiza o login do usuário na aplicação e devolve um Token JWT
@@ -78,6 +81,7 @@ public class AuthService {
         usuario.setSenha(passwordEncoder.encode(dto.senha()));
 
         usuario = usuarioRepository.save(usuario);
+        estatisticasService.usuarioAlterado(null, RetratoUsuario.de(usuario));
 
         return mapper.toProfileDto(usuario);
     }
@@ -1,14 +1,23 @@
 package br.com.lunix.services.usuario;
 
+import br.com.lunix.config.cache.CacheNames;
 import br.com.lunix.dto.usuario.*;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
 import br.com.lunix.mapper.UsuarioMapper;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.Role;
+import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.EmpresaRepository;
+import br.com.lunix.repository.JogoRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.dashboard.EstatisticasService.RetratoUsuario;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,13 +26,19 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Objects;
+
 @Service
 @RequiredArgsConstructor
 public class UsuarioService {
 
     private final UsuarioRepository repository;
     private final EmpresaRepository empresaRepository;
+    private final JogoRepository jogoRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CacheManager cacheManager;
+    private final EstatisticasService estatisticasService;
 
     private final UsuarioMapper mapper;
 
@@ -77,6 +92,8 @@ public class UsuarioService {
         Usuario usuario = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado. ID: " + id));
 
+        String nomeAnterior = usuario.getNome();
+        RetratoUsuario antes = RetratoUsuario.de(usuario);
         mapper.updateEntityFromDto(dto, usuario);
 
         // Lógica manual para vincular Empresa (se o ID for passado)
@@ -91,6 +108,9 @@ public class UsuarioService {
         }
 
         usuario = repository.save(usuario);
+        propagarNomeParaJogos(usuario, nomeAnterior);
+        estatisticasService.usuarioAlterado(antes, RetratoUsuario.de(usuario));
+
         return mapper.toAdminListDto(usuario);
     }
 
@@ -106,6 +126,8 @@ public class UsuarioService {
         Usuario usuario = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado."));
 
+        String nomeAnterior = usuario.getNome();
+
         // Atualiza Nome (se enviado)
         if (dto.nome() != null && !dto.nome().isBlank()) {
             usuario.setNome(dto.nome());
@@ -125,6 +147,8 @@ public class UsuarioService {
         }
 
         usuario = repository.save(usuario);
+        propagarNomeParaJogos(usuario, nomeAnterior);
+
         return mapper.toProfileDto(usuario);
     }
 
@@ -138,9 +162,16 @@ public class UsuarioService {
         Usuario usuario = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado. ID: " + id));
 
+        RetratoUsuario antes = RetratoUsuario.de(usuario);
         usuario.setRoles(dto.roles());
 
         usuario = repository.save(usuario);
+        estatisticasService.usuarioAlterado(antes, RetratoUsuario.de(usuario));
+
+        // A categoria do autor é gravada em cada avaliação, então precisa acompanhar a troca de roles
+        if (avaliacaoRepository.atualizarAutorRole(usuario.getId(), Role.principal(usuario.getRoles())) > 0) {
+            limparCache(CacheNames.JOGOS_DETALHES);
+        }
 
         return mapper.toAdminListDto(usuario);
     }
@@ -156,7 +187,36 @@ public class UsuarioService {
         Usuario usuario = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado. ID: " + id));
 
+        RetratoUsuario antes = RetratoUsuario.de(usuario);
         usuario.setAtivo(false);
         repository.save(usuario);
+        estatisticasService.usuarioAlterado(antes, RetratoUsuario.de(usuario));
+    }
+
+    /*
+        Atualiza a cópia do criador nos jogos do dev autônomo quando
+        o nome dele muda. Usuários sem a role DEV não possuem jogos.
+
+        Os caches de jogos são limpos aqui, e não por @CacheEvict, para que
+        a limpeza só aconteça quando algum jogo realmente mudou.
+
+        @param usuario - Usuário já salvo com o novo nome
+        @param nomeAnterior - Nome antes da atualização
+    */
+    private void propagarNomeParaJogos(Usuario usuario, String nomeAnterior) {
+        if (usuario.getRoles().contains(Role.ROLE_DEV) && !Objects.equals(nomeAnterior, usuario.getNome())) {
+            if (jogoRepository.atualizarCriador(CriadorSnapshot.doDev(usuario)) > 0) {
+                limparCache(CacheNames.JOGOS_DETALHES);
+                limparCache(CacheNames.JOGOS_TOP10_NOTA);
+                limparCache(CacheNames.JOGOS_TOP10_RECENTES);
+            }
+        }
+    }
+
+    private void limparCache(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.clear();
+        }
     }
 }
@@ -0,0 +1,112 @@
+package br.com.lunix.benchmark;
+
+import br.com.lunix.config.cache.CborRedisSerializer;
+import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
+import br.com.lunix.dto.jogos.JogoDetalhesDto;
+import br.com.lunix.dto.jogos.JogoResponseDto;
+import br.com.lunix.dto.usuario.UsuarioPublicProfileDto;
+import br.com.lunix.model.entities.PrecoPlataforma;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/*
+    Benchmark que compara os serializadores dos valores de cache no Redis:
+    serialização Java (formato anterior), CBOR e CBOR com compressão LZ4.
+
+    Mede o tamanho do payload e o tempo médio de escrita e leitura de um
+    JogoDetalhesDto completo (preços, screenshots e 9 avaliações) e de uma
+    lista de top 10. Não precisa de Redis, apenas da JVM.
+*/
+@Disabled("Benchmark de execução manual.")
+public class CacheSerializacaoBenchmarkTest {
+
+    private static final int AQUECIMENTO = 20_000;
+    private static final int REPETICOES = 50_000;
+
+    @Test
+    public void compararSerializadores() {
+        ClassLoader classLoader = getClass().getClassLoader();
+
+        Map<String, RedisSerializer<Object>> serializadores = new LinkedHashMap<>();
+        serializadores.put("JDK (anterior)", RedisSerializer.java(classLoader));
+        serializadores.put("CBOR", new CborRedisSerializer(classLoader, 0));
+        serializadores.put("CBOR + LZ4 (2KB)", new CborRedisSerializer(classLoader, 2048));
+
+        Map<String, Object> valores = new LinkedHashMap<>();
+        valores.put("Detalhes", criarDetalhes());
+        valores.put("Top 10", criarTop10());
+
+        System.out.println("========================================================");
+        System.out.println("  SERIALIZAÇÃO DO CACHE - " + REPETICOES + " repetições");
+        System.out.println("========================================================");
+
+        valores.forEach((nomeValor, valor) -> {
+            System.out.println("  " + nomeValor);
+            serializadores.forEach((nome, serializador) -> medir(nome, serializador, valor));
+        });
+    }
+
+    private void medir(String nome, RedisSerializer<Object> serializador, Object valor) {
+        byte[] bytes = serializador.serialize(valor);
+
+        for (int i = 0; i < AQUECIMENTO; i++) {
+            serializador.deserialize(serializador.serialize(valor));
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            serializador.serialize(valor);
+        }
+        double escritaUs = (System.nanoTime() - inicio) / 1_000.0 / REPETICOES;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            serializador.deserialize(bytes);
+        }
+        double leituraUs = (System.nanoTime() - inicio) / 1_000.0 / REPETICOES;
+
+        System.out.printf("    %-18s | %7d bytes | escrita %7.2f µs | leitura %7.2f µs%n", nome, bytes.length, escritaUs, leituraUs);
+    }
+
+    // Perfil de um jogo importado: descrição longa, 8 screenshots, 5 lojas e 3 avaliações por seção
+    private JogoDetalhesDto criarDetalhes() {
+        List<PrecoPlataforma> precos = new ArrayList<>();
+        for (String loja : List.of("Steam", "GOG", "Epic Games Store", "Humble Store", "Fanatical")) {
+            precos.add(new PrecoPlataforma(loja, 29.99, 59.99, 50, "https://loja.com/" + loja + "/celeste"));
+        }
+
+        List<String> screenshots = IntStream.range(0, 8).mapToObj(i -> "https://img.lunix.com/screens/celeste/" + i + ".jpg").toList();
+
+        return new JogoDetalhesDto("650c1f2e9b1d4a0012345678", "Celeste", "Lorem ipsum dolor sit amet. ".repeat(60),
+                "https://img.lunix.com/capas/celeste.jpg", LocalDate.of(2018, 1, 25), ClassificacaoIndicativa.LIVRE,
+                List.of(Genero.PLATAFORMA, Genero.RPG), precos, List.of(Plataforma.PC, Plataforma.NINTENDO_SWITCH),
+                9.5, 1234, List.of(3, 2, 5, 8, 15, 30, 61, 140, 310, 420, 240), "Maddy Makes Games", "https://videos.lunix.com/celeste.mp4", screenshots,
+                criarAvaliacoes("admin"), criarAvaliacoes("user"), criarAvaliacoes("dev"));
+    }
+
+    private List<AvaliacaoResponseDto> criarAvaliacoes(String prefixo) {
+        return IntStream.range(0, 3)
+                .mapToObj(i -> new AvaliacaoResponseDto(prefixo + "-av-" + i, 8.5, "Comentário de avaliação número " + i + " sobre o jogo.",
+                        LocalDateTime.of(2025, 1, 1, 10, 0).plusDays(i), new UsuarioPublicProfileDto(prefixo + "-" + i, "Usuário " + i)))
+                .toList();
+    }
+
+    private List<JogoResponseDto> criarTop10() {
+        return IntStream.range(0, 10)
+                .mapToObj(i -> new JogoResponseDto("650c1f2e9b1d4a00123456" + i, "Jogo " + i, "https://img.lunix.com/capas/" + i + ".jpg",
+                        "Estúdio " + i, 9.0 - i * 0.1, List.of(Genero.RPG, Genero.PLATAFORMA), ClassificacaoIndicativa.DEZ))
+                .toList();
+    }
+}
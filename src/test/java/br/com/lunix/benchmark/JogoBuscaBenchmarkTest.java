@@ -0,0 +1,122 @@
+package br.com.lunix.benchmark;
+
+import br.com.lunix.config.migrations.V1_006__CreateWeightedTextIndex;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/*
+    Benchmark que compara a busca antiga por regex (containing, case-insensitive)
+    com a busca textual pelo índice ponderado em uma coleção de 100 mil jogos.
+
+    Precisa de um MongoDB rodando (MONGO_URL ou localhost:27017) e usa um
+    banco próprio que é apagado ao final.
+*/
+@Disabled("Benchmark que precisa de um MongoDB real e deve ser executado manualmente.")
+public class JogoBuscaBenchmarkTest {
+
+    private static final int TOTAL_JOGOS = 100_000;
+    private static final int REPETICOES = 50;
+    private static final List<String> TERMOS = List.of("knight", "cavaleiro", "dungeon", "estrela", "hollow");
+
+    private static final String[] PALAVRAS = {
+            "hollow", "knight", "dungeon", "star", "estrela", "cavaleiro", "dead", "cells", "celeste",
+            "mountain", "montanha", "shadow", "sombra", "legend", "lenda", "forest", "floresta", "cave",
+            "caverna", "ocean", "oceano", "city", "cidade", "dragon", "dragão", "spirit", "espírito"
+    };
+
+    private static MongoClient client;
+    private static MongoTemplate template;
+
+    @BeforeAll
+    static void popularColecao() {
+        String uri = System.getenv().getOrDefault("MONGO_URL", "mongodb://localhost:27017");
+        client = MongoClients.create(uri);
+        template = new MongoTemplate(client, "lunix_benchmark");
+        template.dropCollection("jogos");
+
+        Random random = new Random(42);
+        List<Document> lote = new ArrayList<>();
+
+        for (int i = 0; i < TOTAL_JOGOS; i++) {
+            lote.add(new Document("titulo", gerarFrase(random, 3))
+                    .append("descricao", gerarFrase(random, 25)));
+
+            if (lote.size() == 5_000) {
+                template.getCollection("jogos").insertMany(lote);
+                lote.clear();
+            }
+        }
+
+        new V1_006__CreateWeightedTextIndex().createWeightedTextIndex(template);
+    }
+
+    @AfterAll
+    static void limpar() {
+        template.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    public void compararRegexComBuscaTextual() {
+        System.out.println("========================================================");
+        System.out.println("     BENCHMARK DE BUSCA - " + TOTAL_JOGOS + " JOGOS (média de " + REPETICOES + ")");
+        System.out.println("========================================================");
+
+        for (String termo : TERMOS) {
+            double regexMs = medir(() -> {
+                Query query = new Query(Criteria.where("titulo")
+                        .regex(Pattern.compile(Pattern.quote(termo), Pattern.CASE_INSENSITIVE)))
+                        .with(Sort.by("titulo")).limit(10);
+                return template.find(query, Document.class, "jogos").size();
+            });
+
+            double textoMs = medir(() -> {
+                Query query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(termo))
+                        .sortByScore().limit(10);
+                return template.find(query, Document.class, "jogos").size();
+            });
+
+            System.out.printf("  %-10s | regex: %8.2f ms | texto: %8.2f ms | ganho: %5.1fx%n",
+                    termo, regexMs, textoMs, regexMs / textoMs);
+        }
+    }
+
+    // Executa a consulta algumas vezes para aquecer e devolve a média em milissegundos
+    private double medir(Supplier<Integer> consulta) {
+        for (int i = 0; i < 5; i++) {
+            consulta.get();
+        }
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICOES; i++) {
+            consulta.get();
+        }
+        return (System.nanoTime() - inicio) / 1_000_000.0 / REPETICOES;
+    }
+
+    private static String gerarFrase(Random random, int palavras) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < palavras; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+        }
+        return sb.toString();
+    }
+}
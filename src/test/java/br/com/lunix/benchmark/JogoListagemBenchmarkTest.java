@@ -0,0 +1,205 @@
+package br.com.lunix.benchmark;
+
+import br.com.lunix.dto.jogos.JogoResponseDto;
+import br.com.lunix.mapper.JogoMapper;
+import br.com.lunix.model.entities.CriadorSnapshot;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.PrecoPlataforma;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import br.com.lunix.repository.JogoRepositoryImpl;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+    Benchmark que compara a listagem antiga (entidade Jogo completa +
+    JogoMapper, resolvendo as DBRefs jogo a jogo) com o modelo de leitura
+    projetado do JogoRepositoryImpl.
+
+    Para cada página mede os bytes recebidos do banco (somando as respostas
+    de find/getMore), a quantidade de comandos enviados e os bytes alocados
+    pela thread.
+
+    Precisa de um MongoDB rodando (MONGO_URL ou localhost:27017) e usa um
+    banco próprio que é apagado ao final.
+*/
+@Disabled("Benchmark que precisa de um MongoDB real e deve ser executado manualmente.")
+public class JogoListagemBenchmarkTest {
+
+    private static final int TOTAL_JOGOS = 5_000;
+    private static final int TOTAL_EMPRESAS = 200;
+    private static final int TAMANHO_PAGINA = 20;
+    private static final int PAGINAS = 100;
+
+    private static final AtomicLong bytesRecebidos = new AtomicLong();
+    private static final AtomicLong comandos = new AtomicLong();
+
+    private static MongoClient client;
+    private static MongoTemplate template;
+    private static JogoRepositoryImpl repositorio;
+    private static final JogoMapper mapper = new JogoMapper();
+
+    @BeforeAll
+    static void popularColecao() {
+        String uri = System.getenv().getOrDefault("MONGO_URL", "mongodb://localhost:27017");
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(uri))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandSucceeded(CommandSucceededEvent event) {
+                        if (event.getCommandName().equals("find") || event.getCommandName().equals("getMore")) {
+                            comandos.incrementAndGet();
+                            bytesRecebidos.addAndGet(tamanho(event.getResponse()));
+                        }
+                    }
+                })
+                .build());
+        template = new MongoTemplate(client, "lunix_benchmark");
+        template.getDb().drop();
+        repositorio = new JogoRepositoryImpl(template);
+
+        List<Empresa> empresas = new ArrayList<>();
+        for (int i = 0; i < TOTAL_EMPRESAS; i++) {
+            Empresa empresa = new Empresa();
+            empresa.setNome("Estúdio " + i);
+            empresa.setDescricao("Descrição do estúdio " + i);
+            empresas.add(template.save(empresa));
+        }
+
+        Random random = new Random(42);
+        List<Jogo> lote = new ArrayList<>();
+        for (int i = 0; i < TOTAL_JOGOS; i++) {
+            lote.add(criarJogo(i, empresas.get(random.nextInt(empresas.size())), random));
+            if (lote.size() == 500) {
+                template.insertAll(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    @AfterAll
+    static void limpar() {
+        template.getDb().drop();
+        client.close();
+    }
+
+    @Test
+    public void compararEntidadeComProjecao() {
+        Sort porLancamento = Sort.by("dataLancamento").descending();
+
+        Medicao antes = medir(pagina -> () -> {
+            Query query = new Query().with(PageRequest.of(pagina, TAMANHO_PAGINA, porLancamento));
+            return template.find(query, Jogo.class).stream().map(mapper::toResponseDto).toList();
+        });
+
+        Medicao depois = medir(pagina -> () ->
+                repositorio.buscarResumos(null, (Pageable) PageRequest.of(pagina, TAMANHO_PAGINA, porLancamento)).getContent());
+
+        System.out.println("========================================================");
+        System.out.println("  LISTAGEM DE JOGOS - média por página de " + TAMANHO_PAGINA + " (" + PAGINAS + " páginas)");
+        System.out.println("========================================================");
+        imprimir("Entidade + mapper", antes);
+        imprimir("Projeção", depois);
+        System.out.printf("  Redução: %.1fx bytes | %.1fx alocação%n",
+                (double) antes.bytesPorPagina() / depois.bytesPorPagina(),
+                (double) antes.alocadoPorPagina() / depois.alocadoPorPagina());
+    }
+
+    private record Medicao(long bytesPorPagina, long comandosPorPagina, long alocadoPorPagina, double msPorPagina) {}
+
+    private interface Listagem {
+        Supplier<List<JogoResponseDto>> pagina(int numero);
+    }
+
+    // Aquece e depois mede bytes recebidos, comandos e alocação média por página
+    private Medicao medir(Listagem listagem) {
+        for (int i = 0; i < 20; i++) {
+            listagem.pagina(i).get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        bytesRecebidos.set(0);
+        comandos.set(0);
+        long alocadoInicio = threads.getThreadAllocatedBytes(threadId);
+        long inicio = System.nanoTime();
+
+        for (int i = 0; i < PAGINAS; i++) {
+            listagem.pagina(i).get();
+        }
+
+        long tempo = System.nanoTime() - inicio;
+        long alocado = threads.getThreadAllocatedBytes(threadId) - alocadoInicio;
+
+        return new Medicao(bytesRecebidos.get() / PAGINAS, comandos.get() / PAGINAS, alocado / PAGINAS, tempo / 1_000_000.0 / PAGINAS);
+    }
+
+    private void imprimir(String nome, Medicao medicao) {
+        System.out.printf("  %-18s | %8d bytes | %4d comandos | %10d bytes alocados | %6.2f ms%n",
+                nome, medicao.bytesPorPagina(), medicao.comandosPorPagina(), medicao.alocadoPorPagina(), medicao.msPorPagina());
+    }
+
+    private static long tamanho(BsonDocument resposta) {
+        if (resposta instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        return new RawBsonDocument(resposta, new BsonDocumentCodec()).getByteBuffer().remaining();
+    }
+
+    // Jogo com o mesmo perfil dos importados: descrição longa, screenshots e preços de várias lojas
+    private static Jogo criarJogo(int i, Empresa empresa, Random random) {
+        Jogo jogo = new Jogo();
+        jogo.setTitulo("Jogo " + i);
+        jogo.setDescricao("Lorem ipsum dolor sit amet. ".repeat(40));
+        jogo.setUrlCapa("https://img.lunix.com/capas/" + i + ".jpg");
+        jogo.setUrlTrailer("https://videos.lunix.com/trailers/" + i + ".mp4");
+        jogo.setClassificacao(ClassificacaoIndicativa.values()[random.nextInt(ClassificacaoIndicativa.values().length)]);
+        jogo.setGeneros(List.of(Genero.values()[random.nextInt(Genero.values().length)], Genero.ACAO));
+        jogo.setPlataformas(List.of(Plataforma.PC, Plataforma.NINTENDO_SWITCH));
+        jogo.setNotaMedia(random.nextDouble() * 10);
+        jogo.setDataLancamento(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(5000)));
+        jogo.setEmpresa(empresa);
+        jogo.setCriador(CriadorSnapshot.daEmpresa(empresa));
+
+        List<String> screenshots = new ArrayList<>();
+        for (int s = 0; s < 8; s++) {
+            screenshots.add("https://img.lunix.com/screens/" + i + "/" + s + ".jpg");
+        }
+        jogo.setScreenshots(screenshots);
+
+        List<PrecoPlataforma> precos = new ArrayList<>();
+        for (String loja : List.of("Steam", "GOG", "Epic Games Store", "Humble Store", "Fanatical")) {
+            double base = 20 + random.nextInt(60);
+            precos.add(new PrecoPlataforma(loja, base * 0.7, base, 30, "https://loja.com/" + loja + "/" + i));
+        }
+        jogo.setPrecos(precos);
+        return jogo;
+    }
+}
@@ -0,0 +1,226 @@
+package br.com.lunix.benchmark;
+
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
+import br.com.lunix.mapper.ItadMapper;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.itad.ItadApiService;
+import br.com.lunix.services.itad.LimitadorItad;
+import br.com.lunix.services.jogo.JogoPrecoService;
+import br.com.lunix.services.jogo.JogoSecurityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/*
+    Benchmark da vazão dos consumidores de preços conforme a quantidade de
+    consumidores simultâneos, contra um stub local da ITAD.
+
+    O stub (HttpServer do JDK) responde o endpoint de preços com LATENCIA_ITAD
+    de atraso e, no cenário com limite, devolve 429 acima de LIMITE_ITAD
+    requisições por segundo. O MongoDB é simulado com atrasos fixos na
+    leitura e na escrita do lote.
+
+    Sem broker, a fila é uma BlockingQueue de lotes e cada consumidor é uma
+    virtual thread que repete o que o listener faz: processarLote e, sem cota,
+    devolve o lote para a fila e espera o tempo informado (a pausa do container).
+
+    Dois cenários:
+    - Sem limite: nem o stub nem o limitador seguram nada, mostra a escala
+      da concorrência.
+    - Com limite: o limitador na mesma taxa do stub, a vazão para no limite
+      independente dos consumidores e o stub não devolve nenhum 429.
+*/
+@Disabled("Benchmark de execução manual.")
+public class PrecoConsumidoresBenchmarkTest {
+
+    private static final int TAMANHO_LOTE = 50;
+    private static final long LATENCIA_ITAD = 120;
+    private static final long LATENCIA_LEITURA = 5;
+    private static final long LATENCIA_ESCRITA = 10;
+    private static final int LIMITE_ITAD = 5;
+
+    private static final List<Integer> CONSUMIDORES = List.of(1, 2, 4, 8, 16);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static HttpServer stub;
+    private static volatile int limiteStub;
+    private static final AtomicInteger respostas429 = new AtomicInteger();
+    private static final AtomicLong segundoAtual = new AtomicLong();
+    private static final AtomicInteger requisicoesNoSegundo = new AtomicInteger();
+
+    @BeforeAll
+    static void iniciarStub() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/games/prices/v3", PrecoConsumidoresBenchmarkTest::responderPrecos);
+        stub.start();
+    }
+
+    @AfterAll
+    static void pararStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    public void medirVazaoPorConsumidores() {
+        System.out.println("========================================================");
+        System.out.println("  CONSUMIDORES DE PREÇOS - lotes de " + TAMANHO_LOTE + ", ITAD com " + LATENCIA_ITAD + " ms");
+        System.out.println("========================================================");
+
+        // Aquecimento da JVM e do cliente HTTP, para a primeira medição não pagar o JIT
+        System.out.println("  Aquecimento");
+        medir(4, 16, Integer.MAX_VALUE);
+
+        System.out.println("  Sem limite");
+        for (int consumidores : CONSUMIDORES) {
+            medir(consumidores, consumidores * 8, Integer.MAX_VALUE);
+        }
+
+        System.out.println("  Com limite de " + LIMITE_ITAD + " req/s (stub e limitador)");
+        for (int consumidores : List.of(1, 4, 16)) {
+            medir(consumidores, 30, LIMITE_ITAD);
+        }
+    }
+
+    private void medir(int consumidores, int lotes, int limite) {
+        limiteStub = limite;
+        JogoPrecoService service = criarService(limite);
+
+        BlockingQueue<List<String>> fila = new LinkedBlockingQueue<>();
+        for (int i = 0; i < lotes; i++) {
+            int lote = i;
+            fila.add(IntStream.range(0, TAMANHO_LOTE).mapToObj(j -> "jogo-" + lote + "-" + j).toList());
+        }
+
+        respostas429.set(0);
+        requisicoesNoSegundo.set(0);
+        AtomicInteger mensagens = new AtomicInteger();
+        long inicio = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < consumidores; c++) {
+                executor.submit(() -> {
+                    List<String> lote;
+                    while ((lote = fila.poll()) != null) {
+                        try {
+                            service.processarLote(lote);
+                            mensagens.addAndGet(lote.size());
+                        } catch (LimiteItadExcedidoException e) {
+                            fila.add(lote);
+                            Thread.sleep(e.getEspera());
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        System.out.printf("    %2d consumidores | %5d mensagens em %6.2f s | %8.1f msg/s | %d respostas 429%n",
+                consumidores, mensagens.get(), segundos, mensagens.get() / segundos, respostas429.get());
+    }
+
+    private JogoPrecoService criarService(double taxa) {
+        // Sem Redis no benchmark: toda chamada falha e o limitador usa o balde local, com a mesma lógica do script
+        StringRedisTemplate redis = mock(StringRedisTemplate.class, invocation -> {
+            throw new RedisConnectionFailureException("benchmark");
+        });
+        LimitadorItad limitador = new LimitadorItad(redis);
+        ReflectionTestUtils.setField(limitador, "taxa", taxa);
+        ReflectionTestUtils.setField(limitador, "rajada", 1);
+
+        ItadApiService itad = new ItadApiService("BENCHMARK", "http://localhost:" + stub.getAddress().getPort(),
+                new RestTemplateBuilder(), limitador);
+        ReflectionTestUtils.setField(itad, "itadMapper", new ItadMapper());
+
+        JogoRepository repository = mock(JogoRepository.class, withSettings().stubOnly());
+        when(repository.buscarParaAtualizacaoPrecos(any())).thenAnswer(invocation -> {
+            Thread.sleep(LATENCIA_LEITURA);
+            Iterable<String> ids = invocation.getArgument(0);
+            return StreamSupport.stream(ids.spliterator(), false).map(id -> {
+                Jogo jogo = new Jogo();
+                jogo.setId(id);
+                jogo.setTitulo(id);
+                jogo.setItadId("itad-" + id);
+                return jogo;
+            }).toList();
+        });
+        when(repository.atualizarPrecos(any(), any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(LATENCIA_ESCRITA);
+            return (long) invocation.getArgument(0, Map.class).size();
+        });
+
+        return new JogoPrecoService(repository, itad, mock(RabbitTemplate.class), mock(JogoSecurityService.class),
+                mock(EstatisticasService.class, withSettings().stubOnly()), mock(CacheManager.class, withSettings().stubOnly()));
+    }
+
+    // Endpoint de preços do stub: uma oferta por ID pedido, ou 429 acima do limite por segundo
+    private static void responderPrecos(HttpExchange troca) throws IOException {
+        long segundo = System.currentTimeMillis() / 1000;
+        if (segundoAtual.getAndSet(segundo) != segundo) {
+            requisicoesNoSegundo.set(0);
+        }
+        if (requisicoesNoSegundo.incrementAndGet() > limiteStub) {
+            respostas429.incrementAndGet();
+            troca.getResponseHeaders().set("Retry-After", "1");
+            troca.sendResponseHeaders(429, -1);
+            troca.close();
+            return;
+        }
+
+        try {
+            Thread.sleep(LATENCIA_ITAD);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<String> ids = objectMapper.readValue(troca.getRequestBody(), objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, String.class));
+        String corpo = ids.stream()
+                .map(id -> """
+                        {"id":"%s","deals":[{"shop":{"id":61,"name":"Steam"},"price":{"amount":19.99,"currency":"BRL"},\
+                        "regular":{"amount":39.99,"currency":"BRL"},"cut":50,"url":"url/steam","drm":[]}]}"""
+                        .formatted(id))
+                .collect(Collectors.joining(",", "[", "]"));
+
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json");
+        troca.sendResponseHeaders(200, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.lunix.config.cache;
+
+import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
+import br.com.lunix.dto.jogos.JogoDetalhesDto;
+import br.com.lunix.dto.jogos.JogoResponseDto;
+import br.com.lunix.dto.usuario.UsuarioPublicProfileDto;
+import br.com.lunix.model.entities.PrecoPlataforma;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CborRedisSerializerTest {
+
+    private final CborRedisSerializer serializador = new CborRedisSerializer(getClass().getClassLoader(), 4096);
+
+    @Test
+    @DisplayName("Deve ler de volta os detalhes do jogo com preços, datas e avaliações")
+    void roundTripDetalhes() {
+        JogoDetalhesDto detalhes = criarDetalhes("Descrição curta");
+
+        Object lido = serializador.deserialize(serializador.serialize(detalhes));
+
+        assertThat(lido).isInstanceOf(JogoDetalhesDto.class);
+        JogoDetalhesDto copia = (JogoDetalhesDto) lido;
+        assertThat(copia.titulo()).isEqualTo("Celeste");
+        assertThat(copia.dataLancamento()).isEqualTo(LocalDate.of(2018, 1, 25));
+        assertThat(copia.generos()).containsExactly(Genero.PLATAFORMA, Genero.RPG);
+        assertThat(copia.precos().get(0).getNomeLoja()).isEqualTo("Steam");
+        assertThat(copia.avaliacoesAdmin().get(0).usuario().nome()).isEqualTo("Admin");
+        assertThat(copia.avaliacoesAdmin().get(0).dataCriacao()).isEqualTo(LocalDateTime.of(2025, 1, 1, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Deve ler de volta listas de resumos (top 10)")
+    void roundTripLista() {
+        List<JogoResponseDto> top10 = IntStream.range(0, 10)
+                .mapToObj(i -> new JogoResponseDto("id-" + i, "Jogo " + i, "url", "Criador", 9.0, List.of(Genero.RPG), ClassificacaoIndicativa.LIVRE))
+                .toList();
+
+        Object lido = serializador.deserialize(serializador.serialize(top10));
+
+        assertThat(lido).asList().hasSize(10).first().isEqualTo(top10.get(0));
+    }
+
+    @Test
+    @DisplayName("Deve comprimir valores acima do limite e continuar lendo corretamente")
+    void comprimeValoresGrandes() {
+        JogoDetalhesDto grande = criarDetalhes("Lorem ipsum dolor sit amet. ".repeat(500));
+
+        byte[] bytes = serializador.serialize(grande);
+
+        assertThat(bytes[0]).isEqualTo((byte) 2);
+        assertThat(bytes.length).isLessThan(grande.descricao().length());
+        assertThat(((JogoDetalhesDto) serializador.deserialize(bytes)).descricao()).isEqualTo(grande.descricao());
+    }
+
+    @Test
+    @DisplayName("Deve recusar tipos fora dos pacotes permitidos")
+    void recusaTipoNaoPermitido() {
+        CborRedisSerializer semCompressao = new CborRedisSerializer(getClass().getClassLoader(), 0);
+        byte[] bytes = semCompressao.serialize("https://lunix.com");
+
+        // Troca o tipo gravado (java.lang.String) por um de pacote não permitido com o mesmo tamanho
+        String conteudo = new String(bytes, java.nio.charset.StandardCharsets.ISO_8859_1)
+                .replace("java.lang.String", "java.net.Socket0");
+
+        assertThatThrownBy(() -> semCompressao.deserialize(conteudo.getBytes(java.nio.charset.StandardCharsets.ISO_8859_1)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    private JogoDetalhesDto criarDetalhes(String descricao) {
+        AvaliacaoResponseDto avaliacao = new AvaliacaoResponseDto("av-1", 9.5, "Excelente",
+                LocalDateTime.of(2025, 1, 1, 10, 0), new UsuarioPublicProfileDto("user-1", "Admin"));
+
+        return new JogoDetalhesDto("game-1", "Celeste", descricao, "url", LocalDate.of(2018, 1, 25),
+                ClassificacaoIndicativa.LIVRE, List.of(Genero.PLATAFORMA, Genero.RPG),
+                List.of(new PrecoPlataforma("Steam", 19.99, 36.99, 46, "https://store.steampowered.com")),
+                List.of(Plataforma.PC), 9.5, 1, List.of(0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0), "Maddy Makes Games", null, List.of("s1", "s2"),
+                List.of(avaliacao), List.of(), List.of());
+    }
+}
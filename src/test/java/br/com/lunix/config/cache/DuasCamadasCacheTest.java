@@ -0,0 +1,241 @@
+package br.com.lunix.config.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class DuasCamadasCacheTest {
+
+    private Cache remoto;
+    private DuasCamadasCache cache;
+    private List<String> publicadas;
+    private RedisSerializer<Object> delegado;
+    private SerializadorMedido serializador;
+
+    @BeforeEach
+    void setUp() {
+        delegado = spy(RedisSerializer.java());
+        serializador = new SerializadorMedido(delegado);
+        publicadas = new ArrayList<>();
+
+        // Como o RedisCache, grava e lê os valores pelo serializador na thread de quem chama
+        remoto = spy(new ConcurrentMapCache("jogos-detalhes") {
+            @Override
+            public void put(Object key, Object value) {
+                super.put(key, serializador.serialize(value));
+            }
+
+            @Override
+            protected Object lookup(Object key) {
+                Object bytes = super.lookup(key);
+                return bytes == null ? null : serializador.deserialize((byte[]) bytes);
+            }
+        });
+
+        cache = criarCache(Duration.ofMinutes(1), Duration.ZERO);
+    }
+
+    // Recargas em segundo plano rodam na própria thread, para que os testes sejam determinísticos
+    private DuasCamadasCache criarCache(Duration ttlLocal, Duration janelaVencido) {
+        CacheProperties.Camadas camadas = new CacheProperties.Camadas(
+                Duration.ofMinutes(10), ttlLocal, DataSize.ofMegabytes(1), janelaVencido);
+        return new DuasCamadasCache("jogos-detalhes", remoto, camadas,
+                (nome, chave) -> publicadas.add(nome + ":" + chave), serializador, Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Deve recusar valores nulos sem gravar nada no Redis")
+    void putNuloRecusado() {
+        assertThatThrownBy(() -> cache.put("game-1", null)).isInstanceOf(IllegalArgumentException.class);
+
+        verify(remoto, never()).put(any(), any());
+        assertThat(cache.get("game-1")).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve servir leituras repetidas da L1 sem ir ao Redis")
+    void leituraRepetidaUsaL1() {
+        remoto.put("game-1", "Celeste");
+
+        assertThat(cache.get("game-1").get()).isEqualTo("Celeste");
+        assertThat(cache.get("game-1").get()).isEqualTo("Celeste");
+
+        verify(remoto, times(1)).get("game-1");
+    }
+
+    @Test
+    @DisplayName("Deve carregar o valor pelo loader e gravar nas duas camadas")
+    void getComLoaderGravaNasDuasCamadas() {
+        String valor = cache.get("game-1", () -> "Celeste");
+
+        assertThat(valor).isEqualTo("Celeste");
+        assertThat(remoto.get("game-1").get()).isEqualTo("Celeste");
+        assertThat(cache.get("game-1", () -> "Outro")).isEqualTo("Celeste");
+    }
+
+    @Test
+    @DisplayName("Deve pesar a entrada da L1 pelo tamanho medido na L2, sem serializar o valor de novo")
+    @SuppressWarnings("unchecked")
+    void pesoDaL1ReaproveitaMedidaDaL2() {
+        String valor = "Celeste ".repeat(100);
+        int tamanho = RedisSerializer.java().serialize(valor).length;
+
+        cache.put("game-1", valor);
+
+        var local = (com.github.benmanes.caffeine.cache.Cache<String, ?>) cache.getNativeCache();
+        // O Caffeine soma os pesos na manutenção, que pode rodar em outra thread
+        local.cleanUp();
+        assertThat(local.policy().eviction().orElseThrow().weightedSize()).hasValue(tamanho);
+        verify(delegado, times(1)).serialize(valor);
+    }
+
+    @Test
+    @DisplayName("Deve pesar pelo tamanho lido do Redis ao trazer o valor para a L1")
+    @SuppressWarnings("unchecked")
+    void pesoDaL1NaLeituraDoRedis() {
+        remoto.put("game-1", "Hades");
+        int tamanho = RedisSerializer.java().serialize("Hades").length;
+
+        assertThat(cache.get("game-1").get()).isEqualTo("Hades");
+
+        var local = (com.github.benmanes.caffeine.cache.Cache<String, ?>) cache.getNativeCache();
+        // O Caffeine soma os pesos na manutenção, que pode rodar em outra thread
+        local.cleanUp();
+        assertThat(local.policy().eviction().orElseThrow().weightedSize()).hasValue(tamanho);
+    }
+
+    @Test
+    @DisplayName("Deve remover das duas camadas e publicar a invalidação")
+    void evictRemoveEPublica() {
+        cache.put("game-1", "Celeste");
+
+        cache.evict("game-1");
+
+        assertThat(cache.get("game-1")).isNull();
+        assertThat(remoto.get("game-1")).isNull();
+        assertThat(publicadas).containsExactly("jogos-detalhes:game-1");
+    }
+
+    @Test
+    @DisplayName("Deve publicar chave nula ao limpar o cache inteiro")
+    void clearPublicaChaveNula() {
+        cache.put("game-1", "Celeste");
+
+        cache.clear();
+
+        assertThat(cache.get("game-1")).isNull();
+        assertThat(publicadas).containsExactly("jogos-detalhes:null");
+    }
+
+    @Test
+    @DisplayName("Invalidação recebida de outra instância deve limpar só a L1")
+    void invalidarLocalMantemRedis() {
+        cache.put("game-1", "Celeste");
+
+        cache.invalidarLocal("game-1");
+
+        // A próxima leitura volta ao Redis, que ainda tem o valor
+        assertThat(cache.get("game-1").get()).isEqualTo("Celeste");
+        verify(remoto, times(1)).get("game-1");
+        assertThat(publicadas).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Faltas simultâneas da mesma chave devem executar o loader uma única vez")
+    void faltasSimultaneasCarregamUmaVez() throws Exception {
+        int threads = 32;
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch chamaram = new CountDownLatch(threads);
+
+        Callable<String> loader = () -> {
+            cargas.incrementAndGet();
+            // Segura a carga até todas as threads terem chegado ao cache
+            chamaram.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            return "Celeste";
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    chamaram.countDown();
+                    return cache.get("game-1", loader);
+                }));
+            }
+            largada.countDown();
+
+            for (Future<String> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("Celeste");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(cargas).hasValue(1);
+        verify(remoto, times(1)).put("game-1", "Celeste");
+    }
+
+    @Test
+    @DisplayName("Falha do loader deve chegar a quem espera e não deve ficar registrada")
+    void falhaDoLoaderNaoFicaPresa() {
+        Callable<String> falha = () -> {
+            throw new IllegalStateException("Mongo fora do ar");
+        };
+
+        assertThatThrownBy(() -> cache.get("game-1", falha))
+                .isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+
+        // A carga seguinte começa do zero
+        assertThat(cache.get("game-1", () -> "Celeste")).isEqualTo("Celeste");
+    }
+
+    @Test
+    @DisplayName("Entrada vencida deve ser servida enquanto é recarregada")
+    void entradaVencidaServidaDuranteRecarga() {
+        cache = criarCache(Duration.ZERO, Duration.ofMinutes(5));
+
+        assertThat(cache.get("game-1", () -> "v1")).isEqualTo("v1");
+        // Simula a expiração no Redis, para que a recarga precise do loader
+        remoto.evict("game-1");
+
+        assertThat(cache.get("game-1", () -> "v2")).isEqualTo("v1");
+        assertThat(cache.get("game-1", () -> "v3")).isEqualTo("v2");
+    }
+
+    @Test
+    @DisplayName("Remoção durante a carga não deve deixar o valor antigo no cache")
+    void remocaoDuranteCargaDescartaValor() {
+        String valor = cache.get("game-1", () -> {
+            cache.evict("game-1");
+            return "antigo";
+        });
+
+        assertThat(valor).isEqualTo("antigo");
+        assertThat(remoto.get("game-1")).isNull();
+        assertThat(cache.get("game-1")).isNull();
+    }
+}
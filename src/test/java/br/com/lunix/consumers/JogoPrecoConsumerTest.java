@@ -0,0 +1,148 @@
+package br.com.lunix.consumers;
+
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
+import br.com.lunix.services.jogo.JogoPrecoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JogoPrecoConsumerTest {
+
+    @InjectMocks
+    private JogoPrecoConsumer consumer;
+
+    @Mock private JogoPrecoService precoService;
+    @Mock private RabbitListenerEndpointRegistry registry;
+    @Mock private ScheduledExecutorService retomadas;
+    @Mock private MessageListenerContainer container;
+
+    @BeforeEach
+    void setUp() {
+        consumer.retomadas = retomadas;
+    }
+
+    @Test
+    @DisplayName("Deve processar o lote sem pausar o listener")
+    void consumirLoteSucesso() {
+        when(precoService.processarLote(List.of("game-1", "game-2"))).thenReturn(2);
+
+        consumer.consumirLote(List.of("game-1", "game-2"));
+
+        verify(precoService, never()).devolverParaFila(any());
+        verifyNoInteractions(registry, retomadas);
+    }
+
+    @Test
+    @DisplayName("Sem cota na ITAD deve devolver o lote para a fila e pausar o listener pelo tempo informado")
+    void consumirLoteSemCotaDevolveEPausa() {
+        when(precoService.processarLote(any())).thenThrow(new LimiteItadExcedidoException(Duration.ofSeconds(30)));
+        when(registry.getListenerContainer(JogoPrecoConsumer.LISTENER_PRECOS)).thenReturn(container);
+
+        consumer.consumirLote(List.of("game-1", "game-2"));
+
+        verify(precoService).devolverParaFila(List.of("game-1", "game-2"));
+
+        // O stop roda agora e a volta é agendada para depois da espera
+        ArgumentCaptor<Runnable> parada = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Runnable> volta = ArgumentCaptor.forClass(Runnable.class);
+        verify(retomadas).execute(parada.capture());
+        verify(retomadas).schedule(volta.capture(), eq(30_000L), eq(TimeUnit.MILLISECONDS));
+
+        parada.getValue().run();
+        volta.getValue().run();
+        verify(container).stop();
+        verify(container).start();
+    }
+
+    @Test
+    @DisplayName("Falha do MongoDB ou do Redis deve devolver o lote para a fila e pausar o listener, sem confirmar o lote perdido")
+    void consumirLoteFalhaDeDadosDevolveEPausa() {
+        when(precoService.processarLote(any())).thenThrow(new DataAccessResourceFailureException("Mongo indisponível"));
+        when(registry.getListenerContainer(JogoPrecoConsumer.LISTENER_PRECOS)).thenReturn(container);
+
+        consumer.consumirLote(List.of("game-1", "game-2"));
+
+        verify(precoService).devolverParaFila(List.of("game-1", "game-2"));
+        verify(retomadas).schedule(any(Runnable.class), eq(JogoPrecoConsumer.PAUSA_FALHA_DADOS.toMillis()), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("Outros erros devem ser relançados para o retry do container, sem confirmar o lote em silêncio")
+    void consumirLoteErroInesperadoRelanca() {
+        when(precoService.processarLote(any())).thenThrow(new IllegalStateException("bug"));
+
+        assertThatThrownBy(() -> consumer.consumirLote(List.of("game-1")))
+                .isInstanceOf(IllegalStateException.class);
+
+        verify(precoService, never()).devolverParaFila(any());
+        verifyNoInteractions(retomadas);
+    }
+
+    @Test
+    @DisplayName("Não deve agendar uma segunda pausa enquanto o listener já está pausado")
+    void consumirLoteJaPausadoNaoRepetePausa() {
+        when(precoService.processarLote(any())).thenThrow(new LimiteItadExcedidoException(Duration.ofSeconds(5)));
+        when(registry.getListenerContainer(JogoPrecoConsumer.LISTENER_PRECOS)).thenReturn(container);
+
+        consumer.consumirLote(List.of("game-1"));
+        consumer.consumirLote(List.of("game-2"));
+
+        verify(precoService, times(2)).devolverParaFila(any());
+        verify(retomadas, times(1)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    @DisplayName("O listener deve voltar no tempo mesmo com a thread do agendador do Spring presa em um job longo")
+    void voltaDoListenerNaoEsperaOAgendador() throws InterruptedException {
+        // Agendador padrão do Spring (uma thread) ocupado por um job longo, como o backfill esperando cota
+        ThreadPoolTaskScheduler agendador = new ThreadPoolTaskScheduler();
+        agendador.initialize();
+        CountDownLatch jobLongo = new CountDownLatch(1);
+        agendador.execute(() -> {
+            try {
+                jobLongo.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        JogoPrecoConsumer real = new JogoPrecoConsumer(precoService, registry);
+        when(precoService.processarLote(any())).thenThrow(new LimiteItadExcedidoException(JogoPrecoConsumer.PAUSA_MINIMA));
+        when(registry.getListenerContainer(JogoPrecoConsumer.LISTENER_PRECOS)).thenReturn(container);
+
+        try {
+            real.consumirLote(List.of("game-1"));
+
+            verify(container, timeout(3000)).stop();
+            verify(container, timeout(3000)).start();
+            assertThat(jobLongo.getCount()).isEqualTo(1);
+        } finally {
+            jobLongo.countDown();
+            agendador.shutdown();
+            real.encerrar();
+        }
+    }
+}
@@ -2,12 +2,14 @@ package br.com.lunix.mapper;
 
 import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
 import br.com.lunix.dto.jogos.*;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.ClassificacaoIndicativa;
 import br.com.lunix.model.enums.Genero;
 import br.com.lunix.model.enums.Plataforma;
+import br.com.lunix.model.enums.TipoCriador;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -159,6 +161,19 @@ class JogoMapperTest {
         assertThat(dto.nomeCriador()).isEqualTo("Maddy Thorson");
     }
 
+    @Test
+    @DisplayName("Deve priorizar a cópia embutida do criador sobre as referências")
+    void toResponseDtoCriadorSnapshot() {
+        Empresa empresa = new Empresa();
+        empresa.setNome("Nome Antigo");
+        jogoBase.setEmpresa(empresa);
+        jogoBase.setCriador(new CriadorSnapshot("emp-1", TipoCriador.EMPRESA, "Extremely OK Games", null));
+
+        JogoResponseDto dto = mapper.toResponseDto(jogoBase);
+
+        assertThat(dto.nomeCriador()).isEqualTo("Extremely OK Games");
+    }
+
     @Test
     @DisplayName("Deve retornar 'Desconhecido' se não houver criador vinculado")
     void toResponseDtoCriadorDesconhecido() {
@@ -198,4 +213,16 @@ class JogoMapperTest {
         assertThat(dto.avaliacoesUsuario()).hasSize(1);
         assertThat(dto.avaliacoesUsuario().get(0).nota()).isEqualTo(10.0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve devolver o histograma sempre com as 11 faixas, mesmo em jogos antigos")
+    void toDetalhesDtoHistogramaNormalizado() {
+        jogoBase.setHistogramaNotas(null);
+        assertThat(mapper.toDetalhesDto(jogoBase, null, null, null).histogramaNotas())
+                .hasSize(Jogo.FAIXAS_HISTOGRAMA).containsOnly(0);
+
+        jogoBase.setHistogramaNotas(List.of(0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 2));
+        assertThat(mapper.toDetalhesDto(jogoBase, null, null, null).histogramaNotas())
+                .containsExactly(0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 2);
+    }
+}
@@ -0,0 +1,356 @@
+package br.com.lunix.repository;
+
+import br.com.lunix.config.migrations.*;
+import br.com.lunix.dto.jogos.CandidatoAtualizacaoPrecosDto;
+import br.com.lunix.dto.jogos.JogoCursor;
+import br.com.lunix.model.entities.Avaliacao;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import br.com.lunix.model.enums.Plataforma;
+import br.com.lunix.model.enums.Role;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/*
+    Testes de regressão dos planos de consulta.
+
+    Sobe um MongoDB embarcado, aplica as migrações de índices, executa
+    cada consulta dos repositórios (incluindo as listagens do modelo de
+    leitura de jogos) e roda explain() sobre os comandos
+    enviados ao banco. Falha se o plano vencedor tiver COLLSCAN
+    (varredura completa) ou SORT (ordenação em memória).
+
+    Se o binário do MongoDB não puder ser baixado, o banco sobe em um
+    container (mongo:7.0) pelo Testcontainers. Sem nenhum dos dois a classe
+    falha, para a regressão não passar batida; só é ignorada quando o
+    build pede isso explicitamente com -Dlunix.explain.ignorar=true.
+    O plano vencedor de cada consulta é impresso na saída do teste.
+*/
+class PlanoDeConsultaRepositoryTest {
+
+    private static final Set<String> COMANDOS_DE_LEITURA = Set.of("find", "aggregate", "count");
+    private static final Set<String> ESTAGIOS_PROIBIDOS = Set.of("COLLSCAN", "SORT");
+
+    private static final List<BsonDocument> comandos = new CopyOnWriteArrayList<>();
+
+    private static final String IMAGEM_MONGO = "mongo:7.0";
+    private static final int PORTA_MONGO = 27017;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static GenericContainer<?> container;
+    private static MongoClient client;
+    private static MongoTemplate template;
+
+    private static JogoRepository jogoRepository;
+    private static AvaliacaoRepository avaliacaoRepository;
+    private static UsuarioRepository usuarioRepository;
+    private static EmpresaRepository empresaRepository;
+    private static MetricaRepository metricaRepository;
+
+    private static Empresa empresa;
+    private static Usuario dev;
+    private static Jogo jogo;
+
+    @BeforeAll
+    static void subirBanco() {
+        client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(subirMongo()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        if (COMANDOS_DE_LEITURA.contains(event.getCommandName())) {
+                            comandos.add(event.getCommand().clone());
+                        }
+                    }
+                })
+                .build());
+        template = new MongoTemplate(client, "lunix_explain");
+
+        new V1_001__CreateInitialIndexes().createUserEmailIndex(template);
+        new V1_004__CreateQueryIndexes().createPerfomanceIndexes(template);
+        new V1_005__CreatePlatformIndex().createPlatformIndex(template);
+        new V1_006__CreateWeightedTextIndex().createWeightedTextIndex(template);
+        new V1_007__CreateFacetedSearchIndexes().createFacetedSearchIndexes(template);
+        new V1_008__CreateQueryShapedIndexes().createQueryShapedIndexes(template);
+        new V1_009__BackfillCriadorSnapshot().backfillCriadorSnapshot(template);
+        new V1_010__BackfillAutorRole().backfillAutorRole(template);
+        new V1_013__CreateScoreRankingIndex().createScoreRankingIndex(template);
+        new V1_014__CreateMetricasCollections().createMetricasCollections(template);
+        new V1_015__CreatePriceRefreshIndex().createPriceRefreshIndex(template);
+        new V1_016__BackfillTituloNormalizado().backfillTituloNormalizado(template);
+
+        MongoRepositoryFactory factory = new MongoRepositoryFactory(template);
+        jogoRepository = factory.getRepository(JogoRepository.class, RepositoryFragments.just(new JogoRepositoryImpl(template)));
+        avaliacaoRepository = factory.getRepository(AvaliacaoRepository.class, RepositoryFragments.just(new AvaliacaoRepositoryImpl(template)));
+        usuarioRepository = factory.getRepository(UsuarioRepository.class, RepositoryFragments.just(new UsuarioRepositoryImpl(template)));
+        empresaRepository = factory.getRepository(EmpresaRepository.class);
+        metricaRepository = factory.getRepository(MetricaRepository.class, RepositoryFragments.just(new MetricaRepositoryImpl(template)));
+
+        popularColecoes();
+    }
+
+    /*
+        Sobe o MongoDB embarcado ou, se o binário não estiver disponível,
+        um container. Devolve a string de conexão.
+    */
+    private static String subirMongo() {
+        try {
+            mongod = Mongod.instance().start(Version.Main.V7_0);
+            ServerAddress endereco = mongod.current().getServerAddress();
+            return "mongodb://" + endereco.getHost() + ":" + endereco.getPort();
+        } catch (RuntimeException embarcado) {
+            if (DockerClientFactory.instance().isDockerAvailable()) {
+                container = new GenericContainer<>(DockerImageName.parse(IMAGEM_MONGO))
+                        .withExposedPorts(PORTA_MONGO)
+                        .waitingFor(Wait.forLogMessage("(?i).*waiting for connections.*", 1));
+                container.start();
+                return "mongodb://" + container.getHost() + ":" + container.getMappedPort(PORTA_MONGO);
+            }
+            if (Boolean.getBoolean("lunix.explain.ignorar")) {
+                Assumptions.abort("MongoDB indisponível e verificação de planos ignorada por -Dlunix.explain.ignorar: " + embarcado.getMessage());
+            }
+            throw new IllegalStateException("Nem o MongoDB embarcado nem o Docker estão disponíveis para verificar os planos de consulta. "
+                    + "Use -Dlunix.explain.ignorar=true para pular esta verificação de propósito.", embarcado);
+        }
+    }
+
+    @AfterAll
+    static void derrubarBanco() {
+        if (client != null) client.close();
+        if (mongod != null) mongod.close();
+        if (container != null) container.stop();
+    }
+
+    @BeforeEach
+    void limparComandos() {
+        comandos.clear();
+    }
+
+    @Test
+    @DisplayName("Consultas de jogos devem usar índice sem ordenação em memória")
+    void consultasDeJogos() {
+        Pageable porLancamento = PageRequest.of(0, 10, Sort.by("dataLancamento").descending());
+        Pageable porTitulo = PageRequest.of(0, 10, Sort.by("titulo").ascending());
+
+        jogoRepository.buscarResumos(null, porLancamento);
+        jogoRepository.buscarResumos(null, porTitulo);
+        jogoRepository.buscarResumos(Criteria.where("tituloNormalizado").regex("^" + Pattern.quote("ho")),
+                PageRequest.of(0, 10, Sort.by("tituloNormalizado").ascending()));
+        jogoRepository.buscarResumos(Criteria.where("generos").is(Genero.RPG), porLancamento);
+        jogoRepository.buscarResumos(Criteria.where("plataformas").is(Plataforma.PC), porLancamento);
+        jogoRepository.buscarResumos(Criteria.where("empresa").is(empresa), porLancamento);
+        jogoRepository.buscarResumos(Criteria.where("empresa").is(empresa), porTitulo);
+        jogoRepository.buscarResumos(Criteria.where("devAutonomo").is(dev), porLancamento);
+        jogoRepository.buscarResumos(Criteria.where("devAutonomo").is(dev), porTitulo);
+        jogoRepository.buscarResumos(null, Sort.by("scoreRanking").descending(), 10);
+        jogoRepository.buscarResumos(null, Sort.by("dataLancamento").descending(), 10);
+        jogoRepository.findByPrecosIsEmpty(Pageable.unpaged());
+        jogoRepository.countByGeneros(Genero.RPG);
+        jogoRepository.countByPlataformas(Plataforma.PC);
+        jogoRepository.countByEmpresaIsNull();
+        jogoRepository.existsByEmpresa(empresa);
+        jogoRepository.percorrerIds(2, ids -> { });
+        jogoRepository.buscarParaAtualizacaoPrecos(List.of(jogo.getId()));
+        JogoCursor cursor = JogoCursor.decodificar(jogoRepository.buscarResumosComCursor(null, JogoCursor.Ordenacao.LANCAMENTO, null, 1).proximoCursor());
+        jogoRepository.buscarResumosComCursor(null, JogoCursor.Ordenacao.LANCAMENTO, cursor, 10);
+        jogoRepository.buscarResumosComCursor(Criteria.where("generos").in(Genero.RPG), JogoCursor.Ordenacao.LANCAMENTO, cursor, 10);
+        jogoRepository.contarFacetas(Criteria.where("generos").in(Genero.RPG));
+        jogoRepository.contarFacetas(new Criteria().andOperator(Criteria.where("plataformas").in(Plataforma.PC),
+                Criteria.where("dataLancamento").gte(LocalDate.of(2015, 1, 1))));
+        try (Stream<CandidatoAtualizacaoPrecosDto> candidatos =
+                     jogoRepository.buscarCandidatosAtualizacaoPrecos(LocalDateTime.now(), 2)) {
+            candidatos.toList();
+        }
+
+        verificarPlanos();
+    }
+
+    @Test
+    @DisplayName("Consultas de avaliações devem usar índice sem ordenação em memória")
+    void consultasDeAvaliacoes() {
+        Pageable recentes = PageRequest.of(0, 10, Sort.by("dataCriacao").descending());
+
+        avaliacaoRepository.findByJogo(jogo, recentes);
+        avaliacaoRepository.findByUsuario(dev, recentes);
+        avaliacaoRepository.existsByUsuarioAndJogo(dev, jogo);
+        avaliacaoRepository.buscarRecentesPorAutorRole(jogo.getId(), 3);
+
+        verificarPlanos();
+    }
+
+    @Test
+    @DisplayName("Consultas de usuários e empresas devem usar índice sem ordenação em memória")
+    void consultasDeUsuariosEEmpresas() {
+        Pageable porNome = PageRequest.of(0, 10, Sort.by("nome").ascending());
+
+        usuarioRepository.findByEmail("dev@lunix.com");
+        usuarioRepository.findByRolesContains(Role.ROLE_DEV);
+        usuarioRepository.findApenasUsuariosComuns();
+        usuarioRepository.findByNomeContainingIgnoreCase("dev", porNome);
+        usuarioRepository.existsByEmpresa(empresa);
+        usuarioRepository.countByRolesContains(Role.ROLE_ADMIN);
+        usuarioRepository.countByAtivo(true);
+        usuarioRepository.countByDataCriacaoAfter(LocalDateTime.now().minusDays(30));
+
+        empresaRepository.findByNomeContainingIgnoreCase("team", porNome);
+        empresaRepository.findByNomeIgnoreCase("Team Cherry");
+        empresaRepository.findByPaisOrigemIgnoreCase("Austrália", porNome);
+
+        verificarPlanos();
+    }
+
+    @Test
+    @DisplayName("Séries consolidadas de métricas devem usar índice sem ordenação em memória")
+    void consultasDeMetricas() {
+        LocalDateTime fim = LocalDate.now().plusDays(1).atStartOfDay();
+
+        metricaRepository.buscarConsolidados(Metrica.AVALIACOES_CRIADAS, Granularidade.SEMANA, fim.minusYears(1), fim);
+        metricaRepository.buscarConsolidados(Metrica.TOTAL_USUARIOS, Granularidade.MES, fim.minusYears(3), fim);
+
+        verificarPlanos();
+    }
+
+    @Test
+    @DisplayName("aplicarAvaliacao deve devolver o score de ranking gravado no banco")
+    void aplicarAvaliacaoDevolveScoreGravado() {
+        template.updateFirst(new Query(Criteria.where("_id").is(jogo.getId())), new Update().set("scoreRanking", 8.7), Jogo.class);
+
+        Jogo criado = jogoRepository.aplicarAvaliacao(jogo.getId(), null, 6.0);
+        Jogo apagado = jogoRepository.aplicarAvaliacao(jogo.getId(), 6.0, null);
+
+        double gravado = template.findById(jogo.getId(), Jogo.class).getScoreRanking();
+        assertThat(criado.getScoreRanking()).isEqualTo(gravado).isEqualTo(8.7);
+        assertThat(apagado.getScoreRanking()).isEqualTo(gravado);
+    }
+
+    // Executa explain em cada comando capturado e verifica os estágios do plano vencedor
+    private void verificarPlanos() {
+        assertThat(comandos).isNotEmpty();
+
+        for (BsonDocument comando : new ArrayList<>(comandos)) {
+            BsonDocument semMetadados = comando.clone();
+            List.of("$db", "lsid", "$clusterTime", "$readPreference", "txnNumber").forEach(semMetadados::remove);
+
+            Document explain = template.getDb().runCommand(new BsonDocument("explain", semMetadados)
+                    .append("verbosity", new BsonString("queryPlanner")));
+
+            List<String> estagios = new ArrayList<>();
+            coletarEstagios(explain, false, estagios);
+            System.out.println("PLANO " + estagios + " <- " + semMetadados.toJson());
+
+            assertThat(estagios)
+                    .as("Plano de %s", semMetadados.toJson())
+                    .isNotEmpty()
+                    .doesNotContainAnyElementsOf(ESTAGIOS_PROIBIDOS);
+        }
+    }
+
+    // Percorre o resultado do explain coletando os estágios que estão dentro de winningPlan
+    private void coletarEstagios(Object no, boolean dentroDoPlano, List<String> estagios) {
+        if (no instanceof Document doc) {
+            for (var entrada : doc.entrySet()) {
+                if (entrada.getKey().equals("rejectedPlans")) continue;
+
+                boolean plano = dentroDoPlano || entrada.getKey().equals("winningPlan");
+                if (plano && entrada.getKey().equals("stage") && entrada.getValue() instanceof String estagio) {
+                    estagios.add(estagio);
+                }
+                coletarEstagios(entrada.getValue(), plano, estagios);
+            }
+        } else if (no instanceof List<?> lista) {
+            lista.forEach(item -> coletarEstagios(item, dentroDoPlano, estagios));
+        }
+    }
+
+    private static void popularColecoes() {
+        empresa = new Empresa();
+        empresa.setNome("Team Cherry");
+        empresa.setPaisOrigem("Austrália");
+        empresa = template.save(empresa);
+
+        dev = new Usuario();
+        dev.setNome("Dev Solo");
+        dev.setEmail("dev@lunix.com");
+        dev.setRoles(Set.of(Role.ROLE_USER, Role.ROLE_DEV));
+        dev = template.save(dev);
+
+        Usuario comum = new Usuario();
+        comum.setNome("Jogador");
+        comum.setEmail("user@lunix.com");
+        comum.setRoles(Set.of(Role.ROLE_USER));
+        template.save(comum);
+
+        jogo = criarJogo("Hollow Knight", LocalDate.of(2017, 2, 24));
+        jogo.setEmpresa(empresa);
+        jogo = template.save(jogo);
+
+        Jogo jogoDoDev = criarJogo("Undertale", LocalDate.of(2015, 9, 15));
+        jogoDoDev.setDevAutonomo(dev);
+        template.save(jogoDoDev);
+
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.setJogo(jogo);
+        avaliacao.setUsuario(dev);
+        avaliacao.setNota(9.5);
+        avaliacao.setComentario("Excelente");
+        avaliacao.setAutorRole(Role.ROLE_DEV);
+        template.save(avaliacao);
+    }
+
+    private static Jogo criarJogo(String titulo, LocalDate lancamento) {
+        Jogo novo = new Jogo();
+        novo.setTitulo(titulo);
+        novo.setDataLancamento(lancamento);
+        novo.setClassificacao(ClassificacaoIndicativa.DEZ);
+        novo.setGeneros(List.of(Genero.RPG, Genero.METROIDVANIA));
+        novo.setPlataformas(List.of(Plataforma.PC));
+        return novo;
+    }
+}
@@ -3,7 +3,6 @@ package br.com.lunix.services.avaliacao;
 import br.com.lunix.dto.avaliacao.AvaliacaoRequestDto;
 import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
 import br.com.lunix.dto.avaliacao.AvaliacaoUpdateDto;
-import br.com.lunix.dto.avaliacao.ResultadoAgregacaoDto;
 import br.com.lunix.exceptions.AutoAvaliacaoException;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
@@ -15,7 +14,11 @@ import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
 import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.busca.AutocompleteService;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import br.com.lunix.services.jogo.JogoSecurityService;
+import br.com.lunix.services.ranking.RankingService;
+import br.com.lunix.services.ranking.TrendingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -52,6 +55,15 @@ class AvaliacaoServiceTest {
     private AvaliacaoMapper mapper;
     @Mock
     private JogoSecurityService securityService;
+    @Mock
+    private AutocompleteService autocompleteService;
+    @Mock
+    private RankingService rankingService;
+    @Mock
+    private TrendingService trendingService;
+
+    @Mock
+    private EstatisticasService estatisticasService;
 
     // Objetos base
     private Usuario usuarioComum;
@@ -107,7 +119,6 @@ class AvaliacaoServiceTest {
     void criarSucesso() {
         // Arrange
         AvaliacaoRequestDto requestDto = new AvaliacaoRequestDto(9.5, "Bom jogo");
-        ResultadoAgregacaoDto agregacaoDto = new ResultadoAgregacaoDto(jogo.getId(), 9.5, 1);
         AvaliacaoResponseDto responseDto = new AvaliacaoResponseDto("av-1", 9.5, "Bom jogo", null, null);
 
         when(securityService.getUsuarioLogado()).thenReturn(usuarioComum);
@@ -116,8 +127,12 @@ class AvaliacaoServiceTest {
         when(mapper.toEntity(requestDto)).thenReturn(avaliacao);
         when(repository.save(any(Avaliacao.class))).thenReturn(avaliacao);
 
-        // Mock do recálculo de média
-        when(repository.calcularMediaDoJogo("game-1")).thenReturn(agregacaoDto);
+        // Mock do incremento atômico, que devolve o jogo já com as novas estatísticas
+        Jogo atualizado = new Jogo();
+        atualizado.setId("game-1");
+        atualizado.setNotaMedia(10.0);
+        atualizado.setTotalAvaliacoes(1);
+        when(jogoRepository.aplicarAvaliacao("game-1", null, 10.0)).thenReturn(atualizado);
         when(mapper.toResponseDto(avaliacao)).thenReturn(responseDto);
 
         // Act
@@ -127,10 +142,14 @@ class AvaliacaoServiceTest {
         assertThat(result).isNotNull();
         verify(repository).save(any(Avaliacao.class));
 
-        // Verifica se atualizou o jogo com os dados da agregação
-        verify(jogoRepository).save(jogo);
-        assertThat(jogo.getNotaMedia()).isEqualTo(9.5);
-        assertThat(jogo.getTotalAvaliacoes()).isEqualTo(1);
+        // Verifica se incrementou as estatísticas sem regravar o jogo inteiro
+        verify(jogoRepository).aplicarAvaliacao("game-1", null, 10.0);
+        verify(jogoRepository, never()).save(any(Jogo.class));
+        assertThat(avaliacao.getAutorRole()).isEqualTo(Role.ROLE_USER);
+        // E reposicionou o jogo no autocomplete com a nova nota
+        verify(autocompleteService).indexarJogo(atualizado);
+        // E contou a avaliação como atividade recente do jogo
+        verify(trendingService).registrarAvaliacao("game-1");
     }
 
     @Test
@@ -194,14 +213,32 @@ class AvaliacaoServiceTest {
         when(securityService.getUsuarioLogado()).thenReturn(usuarioComum); // Autor da review
         when(repository.save(avaliacao)).thenReturn(avaliacao);
 
-        // Mock do recálculo após update
-        when(repository.calcularMediaDoJogo(jogo.getId())).thenReturn(new ResultadoAgregacaoDto(jogo.getId(), 5.0, 1));
+        // O mapper troca a nota de 10 para 5
+        doAnswer(invocation -> {
+            avaliacao.setNota(5.0);
+            return null;
+        }).when(mapper).updateFromEntityDto(updateDto, avaliacao);
 
         service.atualizar("av-1", updateDto);
 
         verify(mapper).updateFromEntityDto(updateDto, avaliacao);
         verify(repository).save(avaliacao);
-        verify(jogoRepository).save(jogo);
+        // A nota antiga sai e a nova entra, sem mexer no total
+        verify(jogoRepository).aplicarAvaliacao("game-1", 10.0, 5.0);
+    }
+
+    @Test
+    @DisplayName("Não deve mexer nas estatísticas quando a edição mantém a nota")
+    void atualizarSoComentarioNaoAlteraEstatisticas() {
+        AvaliacaoUpdateDto updateDto = new AvaliacaoUpdateDto(10, "Só o comentário");
+
+        when(repository.findById("av-1")).thenReturn(Optional.of(avaliacao));
+        when(securityService.getUsuarioLogado()).thenReturn(usuarioComum);
+        when(repository.save(avaliacao)).thenReturn(avaliacao);
+
+        service.atualizar("av-1", updateDto);
+
+        verify(jogoRepository, never()).aplicarAvaliacao(any(), any(), any());
     }
 
     @Test
@@ -227,7 +264,34 @@ class AvaliacaoServiceTest {
         service.deletar("av-1");
 
         verify(repository).delete(avaliacao);
-        verify(repository).calcularMediaDoJogo(jogo.getId()); // Recalculou
+        verify(jogoRepository).aplicarAvaliacao("game-1", 10.0, null); // Descontou a nota e a avaliação
+    }
+
+    @Test
+    @DisplayName("Criar, editar e apagar avaliações não deve gravar score nos rankings (só o job de score grava)")
+    void avaliacoesNaoAlteramScoreDosRankings() {
+        AvaliacaoRequestDto requestDto = new AvaliacaoRequestDto(10.0, "Bom jogo");
+        Jogo atualizado = new Jogo();
+        atualizado.setId("game-1");
+        atualizado.setScoreRanking(8.7);
+
+        when(securityService.getUsuarioLogado()).thenReturn(usuarioComum);
+        when(jogoRepository.findById("game-1")).thenReturn(Optional.of(jogo));
+        when(mapper.toEntity(requestDto)).thenReturn(avaliacao);
+        when(repository.save(any(Avaliacao.class))).thenReturn(avaliacao);
+        when(repository.findById("av-1")).thenReturn(Optional.of(avaliacao));
+        when(jogoRepository.aplicarAvaliacao(eq("game-1"), any(), any())).thenReturn(atualizado);
+        doAnswer(invocation -> {
+            avaliacao.setNota(5.0);
+            return null;
+        }).when(mapper).updateFromEntityDto(any(), eq(avaliacao));
+
+        service.criar("game-1", requestDto);
+        service.atualizar("av-1", new AvaliacaoUpdateDto(5, "Mudando nota"));
+        service.deletar("av-1");
+
+        // O score no Redis continua o mesmo gravado no banco pelo último recálculo
+        verifyNoInteractions(rankingService);
     }
 
     @Test
@@ -283,4 +347,17 @@ class AvaliacaoServiceTest {
 
         assertThat(result.getContent()).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Reparo deve reindexar apenas os jogos com estatísticas corrigidas")
+    void recalcularEstatisticasReindexaCorrigidos() {
+        when(jogoRepository.recalcularEstatisticasDeAvaliacoes()).thenReturn(List.of("game-1"));
+        when(jogoRepository.findAllById(List.of("game-1"))).thenReturn(List.of(jogo));
+
+        int corrigidos = service.recalcularEstatisticas();
+
+        assertThat(corrigidos).isEqualTo(1);
+        verify(autocompleteService).indexarJogo(jogo);
+        verify(rankingService).atualizar(jogo);
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.lunix.services.busca;
+
+import br.com.lunix.dto.jogos.SugestaoAutocompleteDto;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Jogo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTest {
+
+    @InjectMocks
+    private AutocompleteService service;
+
+    @Mock private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        service.indexarJogo(criarJogo("1", "Hollow Knight", 9.5, 300));
+        service.indexarJogo(criarJogo("2", "Hades", 9.7, 500));
+        service.indexarJogo(criarJogo("3", "Knights of Pen & Paper", 7.0, 20));
+        service.indexarJogo(criarJogo("4", "Ori and the Will of the Wisps", 9.0, 100));
+
+        Empresa empresa = new Empresa();
+        empresa.setId("e1");
+        empresa.setNome("Estúdio Ação");
+        service.indexarEmpresa(empresa);
+    }
+
+    @Test
+    @DisplayName("Deve sugerir pelo início de qualquer palavra sem consultar o banco")
+    void sugerirPorPalavra() {
+        List<SugestaoAutocompleteDto> result = service.sugerir("kni", 10);
+
+        assertThat(result).extracting(SugestaoAutocompleteDto::id).containsExactly("3", "1");
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve ordenar pela nota entre nomes que começam com o termo")
+    void sugerirOrdenadoPorNota() {
+        List<SugestaoAutocompleteDto> result = service.sugerir("H", 10);
+
+        assertThat(result).extracting(SugestaoAutocompleteDto::nome).containsExactly("Hades", "Hollow Knight");
+    }
+
+    @Test
+    @DisplayName("Deve ignorar acentos e respeitar o limite")
+    void sugerirSemAcentos() {
+        assertThat(service.sugerir("estudio acao", 10))
+                .singleElement()
+                .extracting(SugestaoAutocompleteDto::tipo)
+                .isEqualTo(SugestaoAutocompleteDto.Tipo.EMPRESA);
+
+        assertThat(service.sugerir("o", 1)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve refletir atualização e remoção de jogos")
+    void atualizarERemover() {
+        service.indexarJogo(criarJogo("2", "Hades II", 9.8, 10));
+        assertThat(service.sugerir("hades", 10)).extracting(SugestaoAutocompleteDto::nome).containsExactly("Hades II");
+
+        service.removerJogo("2");
+        assertThat(service.sugerir("hades", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve devolver os mais relevantes de um prefixo curto mesmo com muitos nomes antes na ordem alfabética")
+    void prefixoCurtoOrdenadoPorRelevancia() {
+        for (int i = 0; i < 12_000; i++) {
+            service.indexarJogo(criarJogo("a" + i, String.format("Aaa %05d", i), 1.0, 1));
+        }
+        service.indexarJogo(criarJogo("z", "Azul", 9.9, 50));
+
+        assertThat(service.sugerir("a", 1)).extracting(SugestaoAutocompleteDto::nome).containsExactly("Azul");
+        assertThat(service.sugerir("az", 5)).extracting(SugestaoAutocompleteDto::nome).containsExactly("Azul");
+    }
+
+    @Test
+    @DisplayName("Deve refletir atualização e remoção nos prefixos curtos")
+    void atualizarERemoverPrefixoCurto() {
+        service.indexarJogo(criarJogo("1", "Hollow Knight", 9.9, 900));
+        assertThat(service.sugerir("h", 10)).extracting(SugestaoAutocompleteDto::nome).containsExactly("Hollow Knight", "Hades");
+
+        service.removerJogo("1");
+        assertThat(service.sugerir("h", 10)).extracting(SugestaoAutocompleteDto::nome).containsExactly("Hades");
+        assertThat(service.sugerir("kn", 10)).extracting(SugestaoAutocompleteDto::id).containsExactly("3");
+    }
+
+    @Test
+    @DisplayName("Deve manter as escritas feitas durante a reconstrução do índice")
+    void reconstruirMantemEscritasConcorrentes() {
+        String celeste = new ObjectId().toHexString();
+        Document hades = new Document("_id", new ObjectId()).append("titulo", "Hades").append("notaMedia", 9.7).append("totalAvaliacoes", 500);
+        Document hollow = new Document("_id", new ObjectId()).append("titulo", "Hollow Knight").append("notaMedia", 9.5).append("totalAvaliacoes", 300);
+
+        // A leitura do banco já passou pelo Hollow Knight quando ele é removido e o Celeste é criado
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("jogos"))).thenAnswer(invocation ->
+                Stream.of(hollow, hades).peek(doc -> {
+                    if (doc == hades) {
+                        service.indexarJogo(criarJogo(celeste, "Celeste", 9.0, 80));
+                        service.removerJogo(hollow.getObjectId("_id").toHexString());
+                    }
+                }));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("empresas"))).thenReturn(Stream.empty());
+
+        service.reconstruir();
+
+        assertThat(service.sugerir("celeste", 10)).extracting(SugestaoAutocompleteDto::id).containsExactly(celeste);
+        assertThat(service.sugerir("hollow", 10)).isEmpty();
+        assertThat(service.sugerir("hades", 10)).hasSize(1);
+    }
+
+    private Jogo criarJogo(String id, String titulo, double nota, int total) {
+        Jogo jogo = new Jogo();
+        jogo.setId(id);
+        jogo.setTitulo(titulo);
+        jogo.setNotaMedia(nota);
+        jogo.setTotalAvaliacoes(total);
+        return jogo;
+    }
+}
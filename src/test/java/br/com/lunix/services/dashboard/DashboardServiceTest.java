@@ -2,30 +2,23 @@ package br.com.lunix.services.dashboard;
 
 import br.com.lunix.dto.dashboard.DashboardCompletoDto;
 import br.com.lunix.dto.jogos.JogoResponseDto;
-import br.com.lunix.mapper.JogoMapper;
-import br.com.lunix.model.entities.Avaliacao;
-import br.com.lunix.model.entities.Jogo;
-import br.com.lunix.model.enums.Genero;
-import br.com.lunix.model.enums.Plataforma;
-import br.com.lunix.model.enums.Role;
-import br.com.lunix.repository.*;
+import br.com.lunix.model.entities.Estatisticas;
+import br.com.lunix.services.jogo.JogoService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceTest {
@@ -33,45 +26,33 @@ class DashboardServiceTest {
     @InjectMocks
     private DashboardService service;
 
-    @Mock private JogoRepository jogoRepository;
-    @Mock private UsuarioRepository usuarioRepository;
-    @Mock private EmpresaRepository empresaRepository;
-    @Mock private AvaliacaoRepository avaliacaoRepository;
-    @Mock private JogoMapper jogoMapper;
+    @Mock private EstatisticasService estatisticasService;
+    @Mock private JogoService jogoService;
 
     @Test
-    @DisplayName("Deve gerar dashboard completo com dados preenchidos e cálculos corretos")
+    @DisplayName("Deve gerar dashboard completo a partir do documento de estatísticas")
     void gerarDashboardDadosCompletos() {
-        when(usuarioRepository.count()).thenReturn(100L);
-        when(usuarioRepository.countByAtivo(false)).thenReturn(5L);
-        when(usuarioRepository.countByDataCriacaoAfter(any(LocalDateTime.class))).thenReturn(10L);
-        when(usuarioRepository.countByRolesContains(Role.ROLE_ADMIN)).thenReturn(2L);
-        when(usuarioRepository.countByRolesContains(Role.ROLE_DEV)).thenReturn(20L);
-        when(usuarioRepository.countByRolesContains(Role.ROLE_USER)).thenReturn(78L);
-
-        when(jogoRepository.count()).thenReturn(50L);
-        when(empresaRepository.count()).thenReturn(15L);
-        when(jogoRepository.countByEmpresaIsNull()).thenReturn(5L); // Devs autônomos
-
-        // Jogos sem preço (retorna Page)
-        when(jogoRepository.findByPrecosIsEmpty(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(new Jogo(), new Jogo()))); // 2 jogos sem preço
-
-        // Top 5 jogos (Mock do stream/map)
-        Jogo jogoMock = new Jogo();
-        when(jogoRepository.findTop10ByOrderByNotaMediaDesc()).thenReturn(List.of(jogoMock));
-        when(jogoMapper.toResponseDto(any(Jogo.class))).thenReturn(mock(JogoResponseDto.class));
-
-        // Mocks de Gênero e Plataforma
-        when(jogoRepository.countByGeneros(any())).thenReturn(0L);
-        when(jogoRepository.countByGeneros(Genero.RPG)).thenReturn(10L);
-
-        when(jogoRepository.countByPlataformas(any())).thenReturn(0L);
-        when(jogoRepository.countByPlataformas(Plataforma.PC)).thenReturn(25L);
-
-        when(avaliacaoRepository.count()).thenReturn(2L);
-
-        when(avaliacaoRepository.calcularMediaGlobal()).thenReturn(9.0);
+        Estatisticas estatisticas = new Estatisticas();
+        estatisticas.setTotalUsuarios(100);
+        estatisticas.setUsuariosDesativados(5);
+        estatisticas.setUsuariosPorRole(new HashMap<>(Map.of("ROLE_ADMIN", 2L, "ROLE_DEV", 20L, "ROLE_USER", 78L)));
+        estatisticas.setNovosUsuariosPorDia(new HashMap<>(Map.of(
+                LocalDate.now().toString(), 4L,
+                LocalDate.now().minusDays(10).toString(), 6L,
+                LocalDate.now().minusDays(40).toString(), 50L))); // Fora da janela de 30 dias
+
+        estatisticas.setTotalJogos(50);
+        estatisticas.setJogosSemPreco(2);
+        estatisticas.setJogosSemEmpresa(5);
+        estatisticas.setTotalEmpresas(15);
+        estatisticas.setJogosPorGenero(new HashMap<>(Map.of("RPG", 10L, "ACAO", 0L)));
+        estatisticas.setJogosPorPlataforma(new HashMap<>(Map.of("PC", 25L)));
+
+        estatisticas.setTotalAvaliacoes(3);
+        estatisticas.setSomaNotas(26.0);
+
+        when(estatisticasService.buscar()).thenReturn(estatisticas);
+        when(jogoService.buscarTop10MelhoresAvaliados()).thenReturn(Collections.nCopies(10, mock(JogoResponseDto.class)));
 
         DashboardCompletoDto result = service.gerarDashboardCompleto();
 
@@ -79,49 +60,41 @@ class DashboardServiceTest {
 
         // Valida Usuários
         assertThat(result.usuarios().totalUsuarios()).isEqualTo(100);
-        assertThat(result.usuarios().distribuicaoPorRole()).containsEntry("ADMIN", 2L);
+        assertThat(result.usuarios().usuariosDesativados()).isEqualTo(5);
+        assertThat(result.usuarios().novosUsuariosUltimoMes()).isEqualTo(10);
+        assertThat(result.usuarios().distribuicaoPorRole()).containsEntry("ADMIN", 2L).containsEntry("USER", 78L);
 
         // Valida Conteúdo
         assertThat(result.conteudo().totalJogos()).isEqualTo(50);
         assertThat(result.conteudo().totalJogosSemPreco()).isEqualTo(2);
+        assertThat(result.conteudo().totalEmpresas()).isEqualTo(15);
+        assertThat(result.conteudo().totalDevsAutonomos()).isEqualTo(5);
         assertThat(result.conteudo().jogosPorGenero()).containsEntry("RPG", 10L);
         assertThat(result.conteudo().jogosPorGenero()).doesNotContainKey("ACAO");
         assertThat(result.conteudo().jogosPorPlataforma()).containsEntry("PC", 25L);
+        assertThat(result.conteudo().top5MelhoresJogos()).hasSize(5);
 
-        // Valida Engajamento
-        assertThat(result.engajamento().totalAvaliacoes()).isEqualTo(2);
-        assertThat(result.engajamento().mediaGlobalNotas()).isEqualTo(9.0);
+        // Valida Engajamento (26 / 3 = 8.67, arredondado para 8.7)
+        assertThat(result.engajamento().totalAvaliacoes()).isEqualTo(3);
+        assertThat(result.engajamento().mediaGlobalNotas()).isEqualTo(8.7);
+
+        // O dashboard é só a leitura do documento
+        verify(estatisticasService, never()).reconciliar();
     }
 
     @Test
     @DisplayName("Deve gerar dashboard com zeros quando não houver dados (Edge Case)")
     void gerarDashboardSemDados() {
-        when(usuarioRepository.count()).thenReturn(0L);
-        when(usuarioRepository.countByAtivo(false)).thenReturn(0L);
-        when(usuarioRepository.countByDataCriacaoAfter(any())).thenReturn(0L);
-        when(usuarioRepository.countByRolesContains(any())).thenReturn(0L);
-
-        when(jogoRepository.count()).thenReturn(0L);
-        when(empresaRepository.count()).thenReturn(0L);
-        when(jogoRepository.countByEmpresaIsNull()).thenReturn(0L);
-
-        when(jogoRepository.findByPrecosIsEmpty(any(Pageable.class)))
-                .thenReturn(new PageImpl<>(Collections.emptyList())); // 0 jogos sem preço
-
-        when(jogoRepository.findTop10ByOrderByNotaMediaDesc()).thenReturn(Collections.emptyList());
-
-        when(jogoRepository.countByGeneros(any())).thenReturn(0L);
-        when(jogoRepository.countByPlataformas(any())).thenReturn(0L);
-
-        when(avaliacaoRepository.count()).thenReturn(0L);
-        when(avaliacaoRepository.calcularMediaGlobal()).thenReturn(0.0); // Lista vazia para testar média 0
+        when(estatisticasService.buscar()).thenReturn(new Estatisticas());
+        when(jogoService.buscarTop10MelhoresAvaliados()).thenReturn(List.of());
 
         DashboardCompletoDto result = service.gerarDashboardCompleto();
 
         assertThat(result).isNotNull();
 
-        // Usuários zerados
+        // Usuários zerados, mas com todas as roles presentes
         assertThat(result.usuarios().totalUsuarios()).isZero();
+        assertThat(result.usuarios().novosUsuariosUltimoMes()).isZero();
         assertThat(result.usuarios().distribuicaoPorRole().get("ADMIN")).isZero();
 
         // Conteúdo zerado e mapas vazios
@@ -132,4 +105,4 @@ class DashboardServiceTest {
         // Média deve ser 0.0 (evitou divisão por zero)
         assertThat(result.engajamento().mediaGlobalNotas()).isEqualTo(0.0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package br.com.lunix.services.dashboard;
+
+import br.com.lunix.dto.dashboard.ResumoAvaliacoesDashboardDto;
+import br.com.lunix.dto.dashboard.ResumoJogosDashboardDto;
+import br.com.lunix.dto.dashboard.ResumoUsuariosDashboardDto;
+import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Estatisticas;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Metrica;
+import br.com.lunix.model.enums.Plataforma;
+import br.com.lunix.repository.AvaliacaoRepository;
+import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.dashboard.EstatisticasService.RetratoJogo;
+import org.bson.Document;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EstatisticasServiceTest {
+
+    @InjectMocks
+    private EstatisticasService service;
+
+    @Mock private JogoRepository jogoRepository;
+    @Mock private UsuarioRepository usuarioRepository;
+    @Mock private AvaliacaoRepository avaliacaoRepository;
+    @Mock private MongoTemplate mongoTemplate;
+    @Mock private MetricaService metricaService;
+
+    // Captura o $inc enviado ao documento de estatísticas
+    private Document incrementoEnviado() {
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), captor.capture(), eq(Estatisticas.class));
+        return (Document) captor.getValue().getUpdateObject().get("$inc");
+    }
+
+    @Test
+    @DisplayName("Deve incrementar só os contadores que mudaram entre o antes e o depois do jogo")
+    void jogoAlteradoIncrementaDiferencas() {
+        RetratoJogo antes = new RetratoJogo(List.of("RPG", "ACAO"), List.of("PC"), "LIVRE", false, true);
+        RetratoJogo depois = new RetratoJogo(List.of("RPG", "ESTRATEGIA"), List.of("PC"), "DEZ", false, false);
+
+        service.jogoAlterado(antes, depois);
+
+        Document inc = incrementoEnviado();
+        assertThat(inc).containsEntry("jogosPorGenero.ACAO", -1L)
+                .containsEntry("jogosPorGenero.ESTRATEGIA", 1L)
+                .containsEntry("jogosSemPreco", -1L)
+                .containsEntry("jogosPorClassificacao.LIVRE", -1L)
+                .containsEntry("jogosPorClassificacao.DEZ", 1L)
+                .doesNotContainKeys("totalJogos", "jogosPorGenero.RPG", "jogosPorPlataforma.PC");
+    }
+
+    @Test
+    @DisplayName("Deve contar um jogo cadastrado em todos os seus contadores")
+    void jogoCadastradoIncrementaTudo() {
+        Jogo jogo = new Jogo();
+        jogo.setGeneros(List.of(Genero.RPG));
+        jogo.setPlataformas(List.of(Plataforma.PC));
+
+        service.jogoAlterado(null, RetratoJogo.de(jogo));
+
+        Document inc = incrementoEnviado();
+        assertThat(inc).containsEntry("totalJogos", 1L)
+                .containsEntry("jogosSemPreco", 1L)
+                .containsEntry("jogosSemEmpresa", 1L)
+                .containsEntry("jogosPorGenero.RPG", 1L)
+                .containsEntry("jogosPorPlataforma.PC", 1L);
+
+        verify(metricaService).registrar(Metrica.JOGOS_CADASTRADOS);
+    }
+
+    @Test
+    @DisplayName("Não deve escrever nada quando a alteração não muda nenhum contador")
+    void jogoSemDiferencaNaoEscreve() {
+        RetratoJogo retrato = new RetratoJogo(List.of("RPG"), List.of("PC"), "LIVRE", false, false);
+
+        service.jogoAlterado(retrato, retrato);
+
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve aplicar a troca de nota de uma avaliação só na soma das notas")
+    void avaliacaoEditadaAlteraSoSoma() {
+        service.avaliacaoAlterada(6.0, 9.0);
+
+        Document inc = incrementoEnviado();
+        assertThat(inc).containsEntry("somaNotas", 3.0).doesNotContainKey("totalAvaliacoes");
+
+        // Edição não é um evento de criação nem de exclusão
+        verifyNoInteractions(metricaService);
+    }
+
+    @Test
+    @DisplayName("Deve descontar a avaliação excluída do total e da soma")
+    void avaliacaoExcluidaDecrementa() {
+        service.avaliacaoAlterada(7.0, null);
+
+        Document inc = incrementoEnviado();
+        assertThat(inc).containsEntry("somaNotas", -7.0).containsEntry("totalAvaliacoes", -1L);
+
+        verify(metricaService).registrar(Metrica.AVALIACOES_EXCLUIDAS);
+    }
+
+    @Test
+    @DisplayName("Deve montar o documento inteiro a partir das coleções na reconciliação")
+    void reconciliarMontaDocumento() {
+        when(jogoRepository.resumirParaDashboard()).thenReturn(new ResumoJogosDashboardDto(2L, 5L, Map.of("RPG", 10L), Map.of("PC", 25L), Map.of("LIVRE", 30L)));
+        when(usuarioRepository.resumirParaDashboard(any(LocalDateTime.class))).thenReturn(
+                new ResumoUsuariosDashboardDto(4L, Map.of("2026-01-10", 3L), Map.of("ROLE_USER", 90L)));
+        when(avaliacaoRepository.resumirParaDashboard()).thenReturn(new ResumoAvaliacoesDashboardDto(8L, 60.0));
+        when(mongoTemplate.count(any(Query.class), eq(Jogo.class))).thenReturn(50L);
+        when(mongoTemplate.count(any(Query.class), eq(Usuario.class))).thenReturn(100L);
+        when(mongoTemplate.count(any(Query.class), eq(Empresa.class))).thenReturn(15L);
+        when(mongoTemplate.save(any(Estatisticas.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Estatisticas result = service.reconciliar();
+
+        assertThat(result.getId()).isEqualTo(Estatisticas.ID_GLOBAL);
+        assertThat(result.getTotalJogos()).isEqualTo(50);
+        assertThat(result.getJogosSemPreco()).isEqualTo(2);
+        assertThat(result.getJogosSemEmpresa()).isEqualTo(5);
+        assertThat(result.getJogosPorGenero()).containsEntry("RPG", 10L);
+        assertThat(result.getJogosPorClassificacao()).containsEntry("LIVRE", 30L);
+        assertThat(result.getTotalUsuarios()).isEqualTo(100);
+        assertThat(result.getUsuariosDesativados()).isEqualTo(4);
+        assertThat(result.getNovosUsuariosPorDia()).containsEntry("2026-01-10", 3L);
+        assertThat(result.getTotalEmpresas()).isEqualTo(15);
+        assertThat(result.getTotalAvaliacoes()).isEqualTo(8);
+        assertThat(result.getSomaNotas()).isEqualTo(60.0);
+        assertThat(result.getReconciliadoEm()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Deve reconciliar na primeira leitura quando o documento ainda não existe")
+    void buscarSemDocumentoReconcilia() {
+        when(mongoTemplate.findById(Estatisticas.ID_GLOBAL, Estatisticas.class)).thenReturn(null);
+        when(jogoRepository.resumirParaDashboard()).thenReturn(new ResumoJogosDashboardDto(0, 0, Map.of(), Map.of(), Map.of()));
+        when(usuarioRepository.resumirParaDashboard(any())).thenReturn(new ResumoUsuariosDashboardDto(0, Map.of(), Map.of()));
+        when(avaliacaoRepository.resumirParaDashboard()).thenReturn(new ResumoAvaliacoesDashboardDto(0, 0.0));
+        when(mongoTemplate.save(any(Estatisticas.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Estatisticas result = service.buscar();
+
+        assertThat(result).isNotNull();
+        verify(mongoTemplate).save(any(Estatisticas.class));
+    }
+}
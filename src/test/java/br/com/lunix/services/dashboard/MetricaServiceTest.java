@@ -0,0 +1,161 @@
+package br.com.lunix.services.dashboard;
+
+import br.com.lunix.dto.dashboard.SerieMetricaDto;
+import br.com.lunix.exceptions.RegraDeNegocioException;
+import br.com.lunix.model.entities.Estatisticas;
+import br.com.lunix.model.entities.PontoMetrica;
+import br.com.lunix.model.entities.ResumoMetrica;
+import br.com.lunix.model.enums.Granularidade;
+import br.com.lunix.model.enums.Metrica;
+import br.com.lunix.repository.MetricaRepository;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricaServiceTest {
+
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+
+    @InjectMocks
+    private MetricaService service;
+
+    @Mock private MetricaRepository metricaRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Quarta-feira, 18/03/2026 às 14:37
+        service.relogio = Clock.fixed(LocalDateTime.of(2026, 3, 18, 14, 37).atZone(FUSO).toInstant(), FUSO);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PontoMetrica> pontosGravados() {
+        ArgumentCaptor<List<PontoMetrica>> captor = ArgumentCaptor.forClass(List.class);
+        verify(metricaRepository).insert(captor.capture());
+        return captor.getValue();
+    }
+
+    private ResumoMetrica resumo(Metrica metrica, LocalDateTime inicio, double soma, double ultimo) {
+        return new ResumoMetrica(null, metrica, null, inicio, soma, 0, 0, ultimo, 1);
+    }
+
+    @Test
+    @DisplayName("Deve gravar os eventos acumulados como um ponto por métrica na hora atual e zerar os contadores")
+    void enviarEventosGravaPorHora() {
+        service.registrar(Metrica.AVALIACOES_CRIADAS);
+        service.registrar(Metrica.AVALIACOES_CRIADAS);
+        service.registrar(Metrica.USUARIOS_CADASTRADOS);
+
+        int gravados = service.enviarEventos();
+
+        assertThat(gravados).isEqualTo(2);
+        assertThat(pontosGravados())
+                .allSatisfy(ponto -> assertThat(ponto.getMomento()).isEqualTo(LocalDateTime.of(2026, 3, 18, 14, 0)))
+                .extracting(PontoMetrica::getMetrica, PontoMetrica::getValor)
+                .containsExactlyInAnyOrder(
+                        Tuple.tuple(Metrica.AVALIACOES_CRIADAS, 2.0),
+                        Tuple.tuple(Metrica.USUARIOS_CADASTRADOS, 1.0));
+
+        // O segundo envio não tem nada novo
+        assertThat(service.enviarEventos()).isZero();
+        verify(metricaRepository, times(1)).insert(anyList());
+    }
+
+    @Test
+    @DisplayName("Deve gravar o retrato do dia com cobertura de preços e média calculadas")
+    void registrarRetratoCalculaDerivadas() {
+        Estatisticas estatisticas = new Estatisticas();
+        estatisticas.setTotalJogos(40);
+        estatisticas.setJogosSemPreco(10);
+        estatisticas.setTotalAvaliacoes(3);
+        estatisticas.setSomaNotas(26.0);
+
+        service.registrarRetrato(estatisticas);
+
+        List<PontoMetrica> pontos = pontosGravados();
+        assertThat(pontos).hasSize(8)
+                .allSatisfy(ponto -> assertThat(ponto.getMomento()).isEqualTo(LocalDate.of(2026, 3, 18).atStartOfDay()));
+        assertThat(pontos).filteredOn(p -> p.getMetrica() == Metrica.COBERTURA_PRECOS)
+                .singleElement().extracting(PontoMetrica::getValor).isEqualTo(75.0);
+        assertThat(pontos).filteredOn(p -> p.getMetrica() == Metrica.MEDIA_NOTAS)
+                .singleElement().extracting(PontoMetrica::getValor).isEqualTo(8.7);
+    }
+
+    @Test
+    @DisplayName("Deve consolidar a partir do início da semana e do mês anteriores")
+    void consolidarDesdePeriodoAnterior() {
+        service.consolidar();
+
+        verify(metricaRepository).consolidar(Granularidade.SEMANA, LocalDate.of(2026, 3, 9).atStartOfDay());
+        verify(metricaRepository).consolidar(Granularidade.MES, LocalDate.of(2026, 2, 1).atStartOfDay());
+    }
+
+    @Test
+    @DisplayName("Deve somar eventos e usar o último retrato ao montar a série diária dos pontos brutos")
+    void buscarSerieDiariaUsaPontosBrutos() {
+        LocalDateTime dia = LocalDate.of(2026, 3, 17).atStartOfDay();
+        when(metricaRepository.agruparPontos(Metrica.AVALIACOES_CRIADAS, Granularidade.DIA,
+                LocalDate.of(2026, 3, 10).atStartOfDay(), LocalDate.of(2026, 3, 19).atStartOfDay()))
+                .thenReturn(List.of(resumo(Metrica.AVALIACOES_CRIADAS, dia, 12, 3)));
+        when(metricaRepository.agruparPontos(eq(Metrica.TOTAL_USUARIOS), eq(Granularidade.DIA), any(), any()))
+                .thenReturn(List.of(resumo(Metrica.TOTAL_USUARIOS, dia, 300, 150)));
+
+        SerieMetricaDto eventos = service.buscarSerie(Metrica.AVALIACOES_CRIADAS, Granularidade.DIA, LocalDate.of(2026, 3, 10), null);
+        SerieMetricaDto retratos = service.buscarSerie(Metrica.TOTAL_USUARIOS, Granularidade.DIA, null, null);
+
+        assertThat(eventos.pontos()).singleElement().satisfies(ponto -> {
+            assertThat(ponto.inicio()).isEqualTo(dia);
+            assertThat(ponto.valor()).isEqualTo(12);
+        });
+        assertThat(retratos.pontos()).singleElement().extracting(p -> p.valor()).isEqualTo(150.0);
+        verify(metricaRepository, never()).buscarConsolidados(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve ler a série mensal dos resumos, alinhando o início ao primeiro dia do mês")
+    void buscarSerieMensalUsaResumos() {
+        when(metricaRepository.buscarConsolidados(Metrica.JOGOS_CADASTRADOS, Granularidade.MES,
+                LocalDate.of(2025, 6, 1).atStartOfDay(), LocalDate.of(2026, 4, 1).atStartOfDay()))
+                .thenReturn(List.of());
+
+        SerieMetricaDto serie = service.buscarSerie(Metrica.JOGOS_CADASTRADOS, Granularidade.MES,
+                LocalDate.of(2025, 6, 15), LocalDate.of(2026, 3, 31));
+
+        assertThat(serie.pontos()).isEmpty();
+        verify(metricaRepository, never()).agruparPontos(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar intervalo invertido ou grande demais para a granularidade por hora")
+    void buscarSerieValidaIntervalo() {
+        assertThatThrownBy(() -> service.buscarSerie(Metrica.TOTAL_JOGOS, Granularidade.DIA,
+                LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 1)))
+                .isInstanceOf(RegraDeNegocioException.class);
+
+        assertThatThrownBy(() -> service.buscarSerie(Metrica.AVALIACOES_CRIADAS, Granularidade.HORA,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 1)))
+                .isInstanceOf(RegraDeNegocioException.class)
+                .hasMessageContaining("31 dias");
+
+        verifyNoInteractions(metricaRepository);
+    }
+}
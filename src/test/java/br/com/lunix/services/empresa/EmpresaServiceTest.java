@@ -6,22 +6,27 @@ import br.com.lunix.dto.empresa.EmpresaResponseDto;
 import br.com.lunix.dto.empresa.EmpresaUpdateDto;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.mapper.EmpresaMapper;
-import br.com.lunix.mapper.JogoMapper;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.enums.TipoCriador;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.JogoRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.busca.AutocompleteService;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import br.com.lunix.services.igdb.IgdbApiService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Criteria;
 
 import java.util.Collections;
 import java.util.List;
@@ -43,8 +48,9 @@ class EmpresaServiceTest {
     @Mock private JogoRepository jogoRepository;
     @Mock private UsuarioRepository usuarioRepository;
     @Mock private IgdbApiService igdbApiService;
-    @Mock private JogoMapper jogoMapper;
+    @Mock private AutocompleteService autocompleteService;
     @Mock private EmpresaMapper mapper;
+    @Mock private EstatisticasService estatisticasService;
 
     private Empresa empresa;
     private EmpresaRequestDto requestDto;
@@ -121,6 +127,29 @@ class EmpresaServiceTest {
         verify(repository).save(empresa);
     }
 
+    @Test
+    @DisplayName("Deve propagar o novo nome da empresa para a cópia do criador nos jogos")
+    void updatePropagaNomeParaJogos() {
+        EmpresaUpdateDto updateDto = new EmpresaUpdateDto("Lunix Studios", "Desc", "BR", "url");
+
+        when(repository.findById("emp-1")).thenReturn(Optional.of(empresa));
+        when(repository.findByNomeIgnoreCase("Lunix Studios")).thenReturn(Optional.empty());
+        doAnswer(inv -> {
+            empresa.setNome("Lunix Studios");
+            empresa.setUrlLogo("url");
+            return null;
+        }).when(mapper).updateEntityFromDto(updateDto, empresa);
+        when(repository.save(empresa)).thenReturn(empresa);
+
+        service.update("emp-1", updateDto);
+
+        ArgumentCaptor<CriadorSnapshot> captor = ArgumentCaptor.forClass(CriadorSnapshot.class);
+        verify(jogoRepository).atualizarCriador(captor.capture());
+        assertThat(captor.getValue().getTipo()).isEqualTo(TipoCriador.EMPRESA);
+        assertThat(captor.getValue().getIdOrigem()).isEqualTo("emp-1");
+        assertThat(captor.getValue().getNome()).isEqualTo("Lunix Studios");
+    }
+
     @Test
     @DisplayName("Deve impedir atualização se o novo nome pertencer a outra empresa")
     void updateNomeDuplicado() {
@@ -177,7 +206,7 @@ class EmpresaServiceTest {
     void findByIdSucesso() {
         when(repository.findById("emp-1")).thenReturn(Optional.of(empresa));
 
-        when(jogoRepository.findByEmpresa(any(Empresa.class), any(Pageable.class)))
+        when(jogoRepository.buscarResumos(any(Criteria.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(Collections.emptyList()));
 
         EmpresaDetalhesDto detalhesDto = mock(EmpresaDetalhesDto.class);
@@ -187,7 +216,7 @@ class EmpresaServiceTest {
 
         assertThat(result).isNotNull();
 
-        verify(jogoRepository).findByEmpresa(eq(empresa), any(Pageable.class));
+        verify(jogoRepository).buscarResumos(any(Criteria.class), eq(Pageable.unpaged()));
     }
 
     @Test
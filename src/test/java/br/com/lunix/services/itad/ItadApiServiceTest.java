@@ -1,5 +1,6 @@
 package br.com.lunix.services.itad;
 
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
 import br.com.lunix.mapper.ItadMapper;
 import br.com.lunix.model.entities.PrecoPlataforma;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,16 +9,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 @RestClientTest(ItadApiService.class)
@@ -38,6 +51,9 @@ public class ItadApiServiceTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @MockitoBean
+    private LimitadorItad limitador;
+
     @BeforeEach
     public void setup() {
         mockServer.reset();
@@ -102,4 +118,70 @@ public class ItadApiServiceTest {
         assertThat(precoSteam.getNomeLoja()).isEqualTo("Steam");
         assertThat(precoSteam.getPrecoAtual()).isEqualTo(47.49);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void deveBuscarPrecosDeVariosJogosEmUmaRequisicao() throws Exception {
+        String pricesUrl = UriComponentsBuilder.fromUriString("https://api.isthereanydeal.com")
+                .path("/games/prices/v3")
+                .queryParam("key", "TEST_ITAD_KEY").queryParam("country", "BR")
+                .build().toUri().toString();
+
+        String pricesResponse = """
+                [
+                    { "id": "id-hades", "deals": [
+                        { "shop": {"id": 61, "name": "Steam"}, "price": {"amount": 47.49, "currency": "BRL"},
+                          "regular": {"amount": 94.99, "currency": "BRL"}, "cut": 50, "url": "url/steam", "drm": [] } ] },
+                    { "id": "id-celeste", "deals": [
+                        { "shop": {"id": 35, "name": "GOG"}, "price": {"amount": 36.99, "currency": "BRL"},
+                          "regular": {"amount": 36.99, "currency": "BRL"}, "cut": 0, "url": "url/gog", "drm": [] } ] }
+                ]
+                """;
+
+        mockServer.expect(requestTo(pricesUrl))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of("id-hades", "id-celeste", "id-sem-oferta"))))
+                .andRespond(withSuccess(pricesResponse, MediaType.APPLICATION_JSON));
+
+        Map<String, List<PrecoPlataforma>> resultado = itadApiService.buscarPrecosEmLote(List.of("id-hades", "id-celeste", "id-sem-oferta"));
+
+        mockServer.verify();
+
+        // Uma única requisição, com cada lista de preços devolvida ao seu jogo
+        assertThat(resultado).containsOnlyKeys("id-hades", "id-celeste");
+        assertThat(resultado.get("id-hades")).extracting(PrecoPlataforma::getNomeLoja).containsExactly("Steam");
+        assertThat(resultado.get("id-celeste")).extracting(PrecoPlataforma::getNomeLoja).containsExactly("GOG");
+    }
+
+    @Test
+    public void deveRepassarORetryAfterDeUmaResposta429AoLimitador() {
+        String pricesUrl = UriComponentsBuilder.fromUriString("https://api.isthereanydeal.com")
+                .path("/games/prices/v3")
+                .queryParam("key", "TEST_ITAD_KEY").queryParam("country", "BR")
+                .build().toUri().toString();
+
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set(HttpHeaders.RETRY_AFTER, "30");
+        mockServer.expect(requestTo(pricesUrl))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(cabecalhos));
+        when(limitador.bloquear(any())).thenReturn(Duration.ofSeconds(30));
+
+        // O 429 não vira um mapa vazio (falha comum): o lote precisa saber que deve esperar
+        assertThatThrownBy(() -> itadApiService.buscarPrecosEmLote(List.of("id-hades")))
+                .isInstanceOf(LimiteItadExcedidoException.class)
+                .extracting("espera").isEqualTo(Duration.ofSeconds(30));
+
+        mockServer.verify();
+        verify(limitador).bloquear(argThat(h -> "30".equals(h.getFirst(HttpHeaders.RETRY_AFTER))));
+    }
+
+    @Test
+    public void naoDeveChamarAApiSemCotaNoLimitador() {
+        doThrow(new LimiteItadExcedidoException(Duration.ofMillis(500))).when(limitador).adquirir();
+
+        assertThatThrownBy(() -> itadApiService.buscarIdDoJogo("Hades"))
+                .isInstanceOf(LimiteItadExcedidoException.class);
+
+        // Nenhuma requisição esperada no servidor
+        mockServer.verify();
+    }
+}
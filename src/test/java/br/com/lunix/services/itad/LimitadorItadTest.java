@@ -0,0 +1,166 @@
+package br.com.lunix.services.itad;
+
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LimitadorItadTest {
+
+    @InjectMocks
+    private LimitadorItad limitador;
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valores;
+
+    private static final Instant AGORA = Instant.parse("2026-01-10T12:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(limitador, "taxa", 1.0);
+        ReflectionTestUtils.setField(limitador, "rajada", 2);
+        limitador.relogio = Clock.fixed(AGORA, ZoneOffset.UTC);
+    }
+
+    private void redisResponde(Long espera) {
+        when(redisTemplate.execute(eq(LimitadorItad.SCRIPT_ADQUIRIR),
+                eq(List.of(LimitadorItad.CHAVE_BALDE, LimitadorItad.CHAVE_BLOQUEIO)), any(Object[].class)))
+                .thenReturn(espera);
+    }
+
+    private void redisFora() {
+        when(redisTemplate.execute(eq(LimitadorItad.SCRIPT_ADQUIRIR), any(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("Conexão recusada"));
+    }
+
+    @Test
+    @DisplayName("Deve liberar a requisição quando o script consome um token do balde no Redis")
+    void adquirirComToken() {
+        redisResponde(0L);
+
+        assertThat(limitador.tentarAdquirir()).isZero();
+        limitador.adquirir();
+    }
+
+    @Test
+    @DisplayName("Deve lançar a exceção com o tempo até o próximo token quando o balde está vazio")
+    void adquirirSemTokenLancaExcecao() {
+        redisResponde(1500L);
+
+        assertThatThrownBy(() -> limitador.adquirir())
+                .isInstanceOf(LimiteItadExcedidoException.class)
+                .extracting("espera").isEqualTo(Duration.ofMillis(1500));
+    }
+
+    @Test
+    @DisplayName("Sem Redis, deve usar o balde em memória com a mesma taxa e rajada")
+    void semRedisUsaBaldeLocal() {
+        redisFora();
+
+        // Rajada de 2: as duas primeiras passam, a terceira espera um token inteiro (1/s)
+        assertThat(limitador.tentarAdquirir()).isZero();
+        assertThat(limitador.tentarAdquirir()).isZero();
+        assertThat(limitador.tentarAdquirir()).isEqualTo(1000);
+
+        // Meio segundo depois, falta meio token
+        limitador.relogio = Clock.fixed(AGORA.plusMillis(500), ZoneOffset.UTC);
+        assertThat(limitador.tentarAdquirir()).isEqualTo(500);
+
+        limitador.relogio = Clock.fixed(AGORA.plusMillis(1000), ZoneOffset.UTC);
+        assertThat(limitador.tentarAdquirir()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deve bloquear todas as instâncias pelo Retry-After de uma resposta 429")
+    void bloquearPeloRetryAfter() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set(HttpHeaders.RETRY_AFTER, "30");
+
+        Duration espera = limitador.bloquear(cabecalhos);
+
+        assertThat(espera).isEqualTo(Duration.ofSeconds(30));
+        verify(valores).set(LimitadorItad.CHAVE_BLOQUEIO, "1", Duration.ofSeconds(30));
+    }
+
+    @Test
+    @DisplayName("Sem Retry-After, o 429 deve bloquear pelo tempo padrão; o bloqueio vale também para o balde local")
+    void bloquearSemRetryAfterUsaPadrao() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        redisFora();
+
+        Duration espera = limitador.bloquear(new HttpHeaders());
+
+        assertThat(espera).isEqualTo(LimitadorItad.BLOQUEIO_PADRAO);
+        assertThat(limitador.tentarAdquirir()).isEqualTo(LimitadorItad.BLOQUEIO_PADRAO.toMillis());
+    }
+
+    @Test
+    @DisplayName("Retry-After com data já passada deve bloquear pelo tempo padrão, nunca por uma espera negativa")
+    void bloquearRetryAfterNoPassadoUsaPadrao() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set(HttpHeaders.RETRY_AFTER, "Sat, 10 Jan 2026 11:59:00 GMT");
+
+        Duration espera = limitador.bloquear(cabecalhos);
+
+        assertThat(espera).isEqualTo(LimitadorItad.BLOQUEIO_PADRAO);
+        verify(valores).set(LimitadorItad.CHAVE_BLOQUEIO, "1", LimitadorItad.BLOQUEIO_PADRAO);
+    }
+
+    @Test
+    @DisplayName("Deve bloquear até o reset quando os cabeçalhos de rate limit informam a cota zerada")
+    void registrarCabecalhosComCotaZerada() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set("X-RateLimit-Remaining", "0");
+        cabecalhos.set("X-RateLimit-Reset", String.valueOf(AGORA.plusSeconds(12).getEpochSecond()));
+
+        limitador.registrarCabecalhos(cabecalhos);
+
+        verify(valores).set(LimitadorItad.CHAVE_BLOQUEIO, "1", Duration.ofSeconds(12));
+    }
+
+    @Test
+    @DisplayName("Não deve bloquear enquanto ainda houver cota nos cabeçalhos")
+    void registrarCabecalhosComCota() {
+        HttpHeaders cabecalhos = new HttpHeaders();
+        cabecalhos.set("X-RateLimit-Remaining", "5");
+        cabecalhos.set("X-RateLimit-Reset", "12");
+
+        limitador.registrarCabecalhos(cabecalhos);
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve ler o Retry-After em segundos ou em data HTTP")
+    void lerRetryAfter() {
+        assertThat(limitador.lerRetryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+        assertThat(limitador.lerRetryAfter("Sat, 10 Jan 2026 12:00:45 GMT")).isEqualTo(Duration.ofSeconds(45));
+        assertThat(limitador.lerRetryAfter("amanhã")).isNull();
+        assertThat(limitador.lerRetryAfter(null)).isNull();
+    }
+}
@@ -1,29 +1,46 @@
 package br.com.lunix.services.jogo;
 
+import br.com.lunix.config.cache.CacheNames;
+import br.com.lunix.dto.jogos.EnfileiramentoPrecosDto;
+import br.com.lunix.exceptions.LimiteItadExcedidoException;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.PrecoPlataforma;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
 import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import br.com.lunix.services.itad.ItadApiService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -46,6 +63,18 @@ class JogoPrecoServiceTest {
     @Mock
     private JogoSecurityService securityService;
 
+    @Mock
+    private EstatisticasService estatisticasService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cacheDetalhes;
+
+    @Mock
+    private RabbitOperations canal;
+
     // Constante para simular o valor do application.properties
     private final String QUEUE_NAME = "indiezone.prices";
 
@@ -66,20 +95,59 @@ class JogoPrecoServiceTest {
         verify(rabbitTemplate).convertAndSend(QUEUE_NAME, jogoId);
     }
 
+    // Entrega os IDs informados em blocos, como o cursor do repositório
+    @SuppressWarnings("unchecked")
+    private void idsDoCatalogo(List<String>... blocos) {
+        when(jogoRepository.percorrerIds(anyInt(), any())).thenAnswer(invocation -> {
+            Consumer<List<String>> consumidor = invocation.getArgument(1);
+            long total = 0;
+            for (List<String> bloco : blocos) {
+                consumidor.accept(bloco);
+                total += bloco.size();
+            }
+            return total;
+        });
+    }
+
+    // Executa os callbacks do RabbitTemplate.invoke contra o canal simulado
+    @SuppressWarnings("unchecked")
+    private void canalExecutaCallbacks() {
+        when(rabbitTemplate.invoke(any(RabbitOperations.OperationsCallback.class))).thenAnswer(invocation ->
+                invocation.getArgument(0, RabbitOperations.OperationsCallback.class).doInRabbit(canal));
+    }
+
     @Test
-    @DisplayName("Deve buscar todos os jogos e enviar cada um para a fila")
+    @DisplayName("Deve percorrer os IDs em blocos e publicar cada bloco com uma única confirmação")
     void enviarTodosParaFilaSucesso() {
         // Cenário
-        Jogo j1 = new Jogo(); j1.setId("1");
-        Jogo j2 = new Jogo(); j2.setId("2");
-        when(jogoRepository.findAll()).thenReturn(List.of(j1, j2));
+        idsDoCatalogo(List.of("1", "2"), List.of("3"));
+        canalExecutaCallbacks();
 
         // Ação
-        service.enviarTodosParaFila();
+        EnfileiramentoPrecosDto resultado = service.enviarTodosParaFila();
 
         // Verificação
-        verify(rabbitTemplate, times(1)).convertAndSend(QUEUE_NAME, "1");
-        verify(rabbitTemplate, times(1)).convertAndSend(QUEUE_NAME, "2");
+        assertThat(resultado.jogos()).isEqualTo(3);
+        assertThat(resultado.lotes()).isEqualTo(2);
+        verify(canal).convertAndSend(QUEUE_NAME, "1");
+        verify(canal).convertAndSend(QUEUE_NAME, "2");
+        verify(canal).convertAndSend(QUEUE_NAME, "3");
+        verify(canal, times(2)).waitForConfirmsOrDie(anyLong());
+        verify(jogoRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Deve interromper o envio quando o broker não confirma um lote")
+    void enviarTodosParaFilaSemConfirmacao() {
+        idsDoCatalogo(List.of("1", "2"), List.of("3"));
+        canalExecutaCallbacks();
+        doThrow(new AmqpTimeoutException("Sem confirmação")).when(canal).waitForConfirmsOrDie(anyLong());
+
+        assertThatThrownBy(() -> service.enviarTodosParaFila())
+                .isInstanceOf(AmqpTimeoutException.class);
+
+        // O primeiro lote falhou: o segundo nem é publicado
+        verify(canal, never()).convertAndSend(QUEUE_NAME, "3");
     }
 
     @Test
@@ -88,15 +156,14 @@ class JogoPrecoServiceTest {
         Usuario admin = new Usuario();
         admin.setRoles(Set.of(Role.ROLE_ADMIN));
 
-        Jogo jogoTeste = new Jogo();
-        jogoTeste.setId("id-do-jogo-123");
-
         when(securityService.getUsuarioLogado()).thenReturn(admin);
-        when(jogoRepository.findAll()).thenReturn(List.of(jogoTeste));
+        idsDoCatalogo(List.of("id-do-jogo-123"));
+        canalExecutaCallbacks();
 
-        service.solicitarAtualizacaoGlobalAdmin();
+        EnfileiramentoPrecosDto resultado = service.solicitarAtualizacaoGlobalAdmin();
 
-        verify(rabbitTemplate, times(1))
+        assertThat(resultado.jogos()).isEqualTo(1);
+        verify(canal, times(1))
                 .convertAndSend(eq(QUEUE_NAME), eq("id-do-jogo-123"));
     }
 
@@ -116,59 +183,238 @@ class JogoPrecoServiceTest {
         verifyNoInteractions(rabbitTemplate);
     }
 
-    @Test
-    @DisplayName("processarAtualizacaoLogica: Deve atualizar preços quando API retorna dados")
-    void processarAtualizacaoLogicaSucesso() {
-        // Cenário
-        String jogoId = "game-1";
+    private Jogo criarJogo(String id, String titulo) {
         Jogo jogo = new Jogo();
-        jogo.setId(jogoId);
-        jogo.setTitulo("Hades");
+        jogo.setId(id);
+        jogo.setTitulo(titulo);
+        return jogo;
+    }
 
+    @Test
+    @DisplayName("processarLote: Deve buscar os preços do lote em uma requisição e gravar com um bulkWrite")
+    @SuppressWarnings("unchecked")
+    void processarLoteSucesso() {
+        // Cenário
+        Jogo hades = criarJogo("game-1", "Hades");
+        Jogo celeste = criarJogo("game-2", "Celeste");
+        Jogo desconhecido = criarJogo("game-3", "Jogo Desconhecido");
         PrecoPlataforma preco = new PrecoPlataforma("Steam", 50.0, 100.0, 50, "url");
-        List<PrecoPlataforma> novosPrecos = List.of(preco);
 
-        when(jogoRepository.findById(jogoId)).thenReturn(Optional.of(jogo));
-        when(itadApiService.buscarPrecosParaJogo("Hades")).thenReturn(novosPrecos);
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades, celeste, desconhecido));
+        when(itadApiService.buscarIdDoJogo("Hades")).thenReturn("itad-hades");
+        when(itadApiService.buscarIdDoJogo("Celeste")).thenReturn("itad-celeste");
+        when(itadApiService.buscarIdDoJogo("Jogo Desconhecido")).thenReturn(null);
+        when(itadApiService.buscarPrecosEmLote(Set.of("itad-hades", "itad-celeste")))
+                .thenReturn(Map.of("itad-hades", List.of(preco), "itad-celeste", List.of()));
+        when(cacheManager.getCache(CacheNames.JOGOS_DETALHES)).thenReturn(cacheDetalhes);
 
         // Ação
-        boolean atualizou = service.processarAtualizacaoLogica(jogoId);
+        int atualizados = service.processarLote(List.of("game-1", "game-2", "game-3", "game-1"));
 
-        // Verificação
-        assertThat(atualizou).isTrue();
-        assertThat(jogo.getPrecos()).hasSize(1);
-        assertThat(jogo.getUltimaAtualizacaoPrecos()).isNotNull(); // Data foi atualizada
-        verify(jogoRepository).save(jogo);
+        // Verificação: só o jogo com preços é gravado, sem salvar o documento inteiro
+        assertThat(atualizados).isEqualTo(1);
+        ArgumentCaptor<Map<String, List<PrecoPlataforma>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(jogoRepository).atualizarPrecos(captor.capture(), any(), any(LocalDateTime.class));
+        assertThat(captor.getValue()).containsOnlyKeys("game-1");
+        verify(jogoRepository, never()).save(any());
+
+        verify(itadApiService, times(1)).buscarPrecosEmLote(any());
+        verify(estatisticasService, times(1)).jogoAlterado(any(), any());
+        verify(cacheDetalhes).evict("game-1");
+
+        // Os IDs consultados ficam gravados para as próximas atualizações
+        verify(jogoRepository).atualizarItadIds(Map.of("game-1", "itad-hades", "game-2", "itad-celeste"));
+
+        // Os jogos sem preço ficam marcados como verificados, para o planejador respeitar o intervalo deles
+        verify(jogoRepository).marcarPrecosVerificados(eq(List.of("game-2", "game-3")), any(LocalDateTime.class));
     }
 
     @Test
-    @DisplayName("processarAtualizacaoLogica: Não deve atualizar se API retornar lista vazia")
-    void processarAtualizacaoLogicaSemPrecos() {
-        // Cenário
-        String jogoId = "game-1";
-        Jogo jogo = new Jogo();
-        jogo.setId(jogoId);
-        jogo.setTitulo("Jogo Desconhecido");
+    @DisplayName("processarLote: Deve gravar a volatilidade de preços como média móvel das mudanças")
+    @SuppressWarnings("unchecked")
+    void processarLoteAtualizaVolatilidade() {
+        Jogo hades = criarJogo("game-1", "Hades");
+        hades.setItadId("itad-hades");
+        hades.setPrecos(List.of(new PrecoPlataforma("Steam", 50.0, 100.0, 50, "url")));
+        hades.setVolatilidadePrecos(0.2);
+        Jogo celeste = criarJogo("game-2", "Celeste");
+        celeste.setItadId("itad-celeste");
+        celeste.setPrecos(List.of(new PrecoPlataforma("Steam", 30.0, 60.0, 50, "url")));
+        celeste.setVolatilidadePrecos(0.2);
+
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades, celeste));
+        when(itadApiService.buscarPrecosEmLote(Set.of("itad-hades", "itad-celeste"))).thenReturn(Map.of(
+                "itad-hades", List.of(new PrecoPlataforma("Steam", 40.0, 100.0, 60, "url")),
+                "itad-celeste", List.of(new PrecoPlataforma("Steam", 30.0, 60.0, 50, "url"))));
+
+        service.processarLote(List.of("game-1", "game-2"));
+
+        ArgumentCaptor<Map<String, Double>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(jogoRepository).atualizarPrecos(any(), captor.capture(), any(LocalDateTime.class));
+        // Hades mudou de preço: 0.2 * 0.7 + 0.3; Celeste manteve: 0.2 * 0.7
+        assertThat(captor.getValue().get("game-1")).isCloseTo(0.44, within(1e-9));
+        assertThat(captor.getValue().get("game-2")).isCloseTo(0.14, within(1e-9));
+        verify(jogoRepository, never()).marcarPrecosVerificados(any(), any());
+    }
 
-        when(jogoRepository.findById(jogoId)).thenReturn(Optional.of(jogo));
-        when(itadApiService.buscarPrecosParaJogo("Jogo Desconhecido")).thenReturn(Collections.emptyList());
+    @Test
+    @DisplayName("Deve considerar mudança de preço a troca de valor e a entrada ou saída de uma loja")
+    void precosMudaram() {
+        PrecoPlataforma steam = new PrecoPlataforma("Steam", 50.0, 100.0, 50, "url");
+        PrecoPlataforma gog = new PrecoPlataforma("GOG", 45.0, 100.0, 55, "url");
+
+        assertThat(JogoPrecoService.precosMudaram(List.of(steam), List.of(new PrecoPlataforma("Steam", 50.0, 100.0, 50, "outra")))).isFalse();
+        assertThat(JogoPrecoService.precosMudaram(List.of(steam), List.of(new PrecoPlataforma("Steam", 45.0, 100.0, 55, "url")))).isTrue();
+        assertThat(JogoPrecoService.precosMudaram(List.of(steam), List.of(steam, gog))).isTrue();
+        assertThat(JogoPrecoService.precosMudaram(null, List.of(steam))).isTrue();
+        assertThat(JogoPrecoService.novaVolatilidade(null, false)).isCloseTo(0.35, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("processarLote: Não deve consultar pelo título jogos que já têm o ID da ITAD")
+    void processarLoteUsaItadIdGravado() {
+        Jogo hades = criarJogo("game-1", "Hades");
+        hades.setItadId("itad-hades");
+        PrecoPlataforma preco = new PrecoPlataforma("Steam", 50.0, 100.0, 50, "url");
+
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades));
+        when(itadApiService.buscarPrecosEmLote(Set.of("itad-hades"))).thenReturn(Map.of("itad-hades", List.of(preco)));
+
+        int atualizados = service.processarLote(List.of("game-1"));
+
+        assertThat(atualizados).isEqualTo(1);
+        verify(itadApiService, never()).buscarIdDoJogo(any());
+        verify(jogoRepository, never()).atualizarItadIds(any());
+    }
+
+    @Test
+    @DisplayName("processarLote: Deve consultar de novo pelo título quando o ID gravado não é encontrado")
+    void processarLoteReconsultaItadIdNaoEncontrado() {
+        Jogo hades = criarJogo("game-1", "Hades");
+        hades.setItadId("itad-antigo");
+        Jogo celeste = criarJogo("game-2", "Celeste");
+        celeste.setItadId("itad-celeste");
+        PrecoPlataforma preco = new PrecoPlataforma("Steam", 50.0, 100.0, 50, "url");
+
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades, celeste));
+        when(itadApiService.buscarPrecosEmLote(Set.of("itad-antigo", "itad-celeste")))
+                .thenReturn(Map.of("itad-celeste", List.of(preco)));
+        when(itadApiService.buscarIdDoJogo("Hades")).thenReturn("itad-novo");
+        when(itadApiService.buscarPrecosEmLote(Set.of("itad-novo"))).thenReturn(Map.of("itad-novo", List.of(preco)));
+
+        int atualizados = service.processarLote(List.of("game-1", "game-2"));
+
+        assertThat(atualizados).isEqualTo(2);
+        verify(itadApiService, never()).buscarIdDoJogo("Celeste");
+        verify(jogoRepository).atualizarItadIds(Map.of("game-1", "itad-novo"));
+    }
+
+    @Test
+    @DisplayName("processarLote: Não deve reconsultar os IDs quando a busca de preços falha")
+    void processarLoteFalhaNaBuscaMantemIds() {
+        Jogo hades = criarJogo("game-1", "Hades");
+        hades.setItadId("itad-hades");
+
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades));
+        when(itadApiService.buscarPrecosEmLote(any())).thenReturn(Collections.emptyMap());
+
+        int atualizados = service.processarLote(List.of("game-1"));
+
+        assertThat(atualizados).isZero();
+        verify(itadApiService, never()).buscarIdDoJogo(any());
+    }
+
+    @Test
+    @DisplayName("processarLote: Sem cota na ITAD deve gravar os IDs já consultados e interromper o lote")
+    void processarLoteSemCotaGravaIdsConsultados() {
+        Jogo hades = criarJogo("game-1", "Hades");
+        Jogo celeste = criarJogo("game-2", "Celeste");
+
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(hades, celeste));
+        when(itadApiService.buscarIdDoJogo("Hades")).thenReturn("itad-hades");
+        when(itadApiService.buscarIdDoJogo("Celeste")).thenThrow(new LimiteItadExcedidoException(Duration.ofSeconds(1)));
+
+        assertThatThrownBy(() -> service.processarLote(List.of("game-1", "game-2")))
+                .isInstanceOf(LimiteItadExcedidoException.class);
+
+        verify(jogoRepository).atualizarItadIds(Map.of("game-1", "itad-hades"));
+        verify(itadApiService, never()).buscarPrecosEmLote(any());
+        verify(jogoRepository, never()).atualizarPrecos(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("preencherItadIds: Deve percorrer o catálogo em páginas e gravar os IDs encontrados")
+    void preencherItadIdsPorPagina() {
+        ReflectionTestUtils.setField(service, "concorrenciaBackfill", 2);
+
+        List<Jogo> pagina = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pagina.add(criarJogo("%024x".formatted(i), "Jogo " + i));
+        }
+        Jogo ultimo = criarJogo("%024x".formatted(999), "Sem ID");
+
+        when(jogoRepository.buscarSemItadId(null, 200)).thenReturn(pagina);
+        when(jogoRepository.buscarSemItadId("%024x".formatted(199), 200)).thenReturn(List.of(ultimo));
+        when(itadApiService.buscarIdDoJogo(any())).thenAnswer(invocation ->
+                "Sem ID".equals(invocation.getArgument(0)) ? null : "itad-" + invocation.getArgument(0));
+        when(jogoRepository.atualizarItadIds(any())).thenAnswer(invocation -> (long) invocation.getArgument(0, Map.class).size());
+
+        int preenchidos = service.preencherItadIds();
+
+        assertThat(preenchidos).isEqualTo(200);
+        verify(itadApiService, times(201)).buscarIdDoJogo(any());
+        // A segunda página só tem um jogo não encontrado: nada a gravar e o backfill termina
+        verify(jogoRepository, times(1)).atualizarItadIds(any());
+        verify(jogoRepository, times(2)).buscarSemItadId(any(), eq(200));
+    }
+
+    @Test
+    @DisplayName("iniciarPreenchimentoItadIds: Deve retornar na hora e não iniciar um segundo backfill em paralelo")
+    void iniciarPreenchimentoItadIdsEmSegundoPlano() throws InterruptedException {
+        ReflectionTestUtils.setField(service, "concorrenciaBackfill", 1);
+        CountDownLatch preso = new CountDownLatch(1);
+        CountDownLatch consultando = new CountDownLatch(1);
+        when(jogoRepository.buscarSemItadId(null, 200)).thenReturn(List.of(criarJogo("%024x".formatted(1), "Hades")));
+        when(itadApiService.buscarIdDoJogo("Hades")).thenAnswer(invocation -> {
+            consultando.countDown();
+            preso.await();
+            return null;
+        });
+
+        // O backfill fica preso esperando a ITAD, mas quem chamou (o agendador) já está livre
+        assertThat(service.iniciarPreenchimentoItadIds()).isTrue();
+        assertThat(consultando.await(3, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.iniciarPreenchimentoItadIds()).isFalse();
+
+        preso.countDown();
+        verify(jogoRepository, timeout(3000).times(1)).buscarSemItadId(null, 200);
+    }
+
+    @Test
+    @DisplayName("processarLote: Não deve atualizar se nenhum jogo do lote tiver preços")
+    void processarLoteSemPrecos() {
+        // Cenário
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of(criarJogo("game-1", "Jogo Desconhecido")));
+        when(itadApiService.buscarIdDoJogo("Jogo Desconhecido")).thenReturn("itad-1");
+        when(itadApiService.buscarPrecosEmLote(any())).thenReturn(Collections.emptyMap());
 
         // Ação
-        boolean atualizou = service.processarAtualizacaoLogica(jogoId);
+        int atualizados = service.processarLote(List.of("game-1"));
 
         // Verificação
-        assertThat(atualizou).isFalse();
-        verify(jogoRepository, never()).save(any()); // Não deve salvar se nada mudou
+        assertThat(atualizados).isZero();
+        verify(jogoRepository, never()).atualizarPrecos(any(), any(), any()); // Não deve gravar se nada mudou
+        verifyNoInteractions(estatisticasService);
     }
 
     @Test
-    @DisplayName("processarAtualizacaoLogica: Deve retornar false se jogo não existir no banco")
-    void processarAtualizacaoLogicaJogoNaoEncontrado() {
-        when(jogoRepository.findById("id-invalido")).thenReturn(Optional.empty());
+    @DisplayName("processarLote: Deve retornar zero se nenhum jogo do lote existir no banco")
+    void processarLoteJogosNaoEncontrados() {
+        when(jogoRepository.buscarParaAtualizacaoPrecos(any())).thenReturn(List.of());
 
-        boolean atualizou = service.processarAtualizacaoLogica("id-invalido");
+        int atualizados = service.processarLote(List.of("id-invalido"));
 
-        assertThat(atualizou).isFalse();
+        assertThat(atualizados).isZero();
         verifyNoInteractions(itadApiService); // Nem deve chamar a API
     }
-}
\ No newline at end of file
+}
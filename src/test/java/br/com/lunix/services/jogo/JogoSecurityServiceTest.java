@@ -7,6 +7,7 @@ import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
+import br.com.lunix.model.enums.TipoCriador;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.UsuarioRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -172,6 +173,8 @@ class JogoSecurityServiceTest {
 
         assertThat(jogo.getDevAutonomo()).isEqualTo(devAutonomo);
         assertThat(jogo.getEmpresa()).isNull();
+        assertThat(jogo.getCriador().getTipo()).isEqualTo(TipoCriador.DEV_AUTONOMO);
+        assertThat(jogo.getCriador().getIdOrigem()).isEqualTo(devAutonomo.getId());
     }
 
     @Test
@@ -183,6 +186,8 @@ class JogoSecurityServiceTest {
 
         assertThat(jogo.getEmpresa()).isEqualTo(empresa);
         assertThat(jogo.getDevAutonomo()).isNull();
+        assertThat(jogo.getCriador().getTipo()).isEqualTo(TipoCriador.EMPRESA);
+        assertThat(jogo.getCriador().getNome()).isEqualTo(empresa.getNome());
     }
 
     @Test
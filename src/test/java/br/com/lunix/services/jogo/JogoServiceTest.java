@@ -1,34 +1,55 @@
 package br.com.lunix.services.jogo;
 
+import br.com.lunix.dto.avaliacao.AvaliacaoResponseDto;
 import br.com.lunix.dto.jogos.*;
+import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
+import br.com.lunix.mapper.AvaliacaoMapper;
 import br.com.lunix.mapper.JogoMapper;
+import br.com.lunix.model.entities.Avaliacao;
 import br.com.lunix.model.entities.Empresa;
+import br.com.lunix.model.entities.Estatisticas;
 import br.com.lunix.model.entities.Jogo;
 import br.com.lunix.model.entities.Usuario;
+import br.com.lunix.model.enums.ClassificacaoIndicativa;
 import br.com.lunix.model.enums.Genero;
 import br.com.lunix.model.enums.Plataforma;
 import br.com.lunix.model.enums.Role;
+import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.busca.AutocompleteService;
+import br.com.lunix.services.dashboard.EstatisticasService;
+import br.com.lunix.services.ranking.RankingService;
+import br.com.lunix.services.ranking.TrendingService;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +62,12 @@ class JogoServiceTest {
     @Mock private JogoMapper jogoMapper;
     @Mock private JogoSecurityService securityService;
     @Mock private JogoPrecoService precoService;
+    @Mock private AutocompleteService autocompleteService;
+    @Mock private AvaliacaoRepository avaliacaoRepository;
+    @Mock private AvaliacaoMapper avaliacaoMapper;
+    @Mock private RankingService rankingService;
+    @Mock private TrendingService trendingService;
+    @Mock private EstatisticasService estatisticasService;
 
     private Jogo jogo;
     private JogoRequestDto requestDto;
@@ -82,16 +109,68 @@ class JogoServiceTest {
         verify(jogoRepository).save(jogo);
         // Verifica se enviou para a fila de preços
         verify(precoService).enviarParaFila("game-1");
+        // E se entrou nos rankings
+        verify(rankingService).atualizar(jogo);
     }
 
     @Test
-    @DisplayName("Deve atualizar jogo com sucesso se tiver permissão")
+    @DisplayName("Deve montar o top 10 pela ordem do ranking sem ordenar no banco")
+    void top10UsaOrdemDoRanking() {
+        List<String> ids = List.of("game-2", "game-1");
+        when(rankingService.topNota(10)).thenReturn(ids);
+        when(jogoRepository.buscarResumosPorIds(ids)).thenReturn(List.of(responseDto));
+
+        List<JogoResponseDto> resultado = service.buscarTop10MelhoresAvaliados();
+
+        assertThat(resultado).containsExactly(responseDto);
+        verify(jogoRepository, never()).buscarResumos(any(), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Deve cair para a consulta no banco quando o ranking estiver vazio")
+    void top10SemRankingConsultaBanco() {
+        when(rankingService.topNota(10)).thenReturn(List.of());
+        when(jogoRepository.buscarResumos(isNull(), any(Sort.class), eq(10))).thenReturn(List.of(responseDto));
+
+        assertThat(service.buscarTop10MelhoresAvaliados()).containsExactly(responseDto);
+        verify(jogoRepository, never()).buscarResumosPorIds(any());
+    }
+
+    @Test
+    @DisplayName("Deve separar as avaliações dos detalhes por categoria do autor com uma única consulta")
+    void buscarDetalhesSeparaAvaliacoesPorAutorRole() {
+        Avaliacao daAdmin = criarAvaliacao("av-1", Role.ROLE_ADMIN);
+        Avaliacao doDev = criarAvaliacao("av-2", Role.ROLE_DEV);
+        Avaliacao doUsuario = criarAvaliacao("av-3", Role.ROLE_USER);
+        AvaliacaoResponseDto dtoAdmin = new AvaliacaoResponseDto("av-1", 9.0, null, null, null);
+        AvaliacaoResponseDto dtoDev = new AvaliacaoResponseDto("av-2", 8.0, null, null, null);
+        AvaliacaoResponseDto dtoUsuario = new AvaliacaoResponseDto("av-3", 7.0, null, null, null);
+
+        when(jogoRepository.findById("game-1")).thenReturn(Optional.of(jogo));
+        when(avaliacaoRepository.buscarRecentesPorAutorRole("game-1", 3)).thenReturn(List.of(daAdmin, doDev, doUsuario));
+        when(avaliacaoMapper.toResponseDto(daAdmin)).thenReturn(dtoAdmin);
+        when(avaliacaoMapper.toResponseDto(doDev)).thenReturn(dtoDev);
+        when(avaliacaoMapper.toResponseDto(doUsuario)).thenReturn(dtoUsuario);
+
+        service.buscarDetalhesPorId("game-1");
+
+        verify(jogoMapper).toDetalhesDto(jogo, List.of(dtoAdmin), List.of(dtoDev), List.of(dtoUsuario));
+        verify(avaliacaoRepository, times(1)).buscarRecentesPorAutorRole("game-1", 3);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar jogo gravando só os campos do cadastro, sem regravar o documento")
     void atualizarSucesso() {
         JogoUpdateDto updateDto = mock(JogoUpdateDto.class);
+        // Documento atual no banco, com estatísticas e preços gravados por outras escritas
+        Jogo gravado = new Jogo();
+        gravado.setId("game-1");
+        gravado.setTitulo("Celeste");
+        gravado.setScoreRanking(8.2);
 
         when(jogoRepository.findById("game-1")).thenReturn(Optional.of(jogo));
-        when(jogoRepository.save(jogo)).thenReturn(jogo);
-        when(jogoMapper.toResponseDto(jogo)).thenReturn(responseDto);
+        when(jogoRepository.atualizarCampos(eq("game-1"), any(Update.class))).thenReturn(gravado);
+        when(jogoMapper.toResponseDto(gravado)).thenReturn(responseDto);
 
         // Act
         service.atualizar("game-1", updateDto);
@@ -99,7 +178,52 @@ class JogoServiceTest {
         // Assert
         verify(securityService).validarPermissaoEdicao(jogo);
         verify(jogoMapper).updateEntityFromDto(updateDto, jogo);
-        verify(jogoRepository).save(jogo);
+        verify(jogoRepository, never()).save(any());
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(jogoRepository).atualizarCampos(eq("game-1"), captor.capture());
+        Document campos = captor.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(campos).containsKeys("titulo", "generos", "plataformas")
+                .doesNotContainKeys("somaNotas", "totalAvaliacoes", "histogramaNotas", "scoreRanking", "precos", "itadId", "ultimaAtualizacaoPrecos");
+        // Título igual: o ID da ITAD fica como está
+        assertThat(captor.getValue().getUpdateObject()).doesNotContainKey("$unset");
+        // Os rankings recebem o documento atual, com o score gravado
+        verify(rankingService).atualizar(gravado);
+    }
+
+    @Test
+    @DisplayName("Deve remover o ID da ITAD quando o título muda")
+    void atualizarTituloRemoveItadId() {
+        JogoUpdateDto updateDto = mock(JogoUpdateDto.class);
+        doAnswer(invocation -> {
+            jogo.setTitulo("Celeste Classic");
+            return null;
+        }).when(jogoMapper).updateEntityFromDto(updateDto, jogo);
+
+        when(jogoRepository.findById("game-1")).thenReturn(Optional.of(jogo));
+        when(jogoRepository.atualizarCampos(eq("game-1"), any(Update.class))).thenReturn(jogo);
+
+        service.atualizar("game-1", updateDto);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(jogoRepository).atualizarCampos(eq("game-1"), captor.capture());
+        assertThat(captor.getValue().getUpdateObject().get("$unset", Document.class)).containsOnlyKeys("itadId");
+    }
+
+    @Test
+    @DisplayName("PATCH de gêneros deve gravar só os gêneros")
+    void patchGenerosGravaSoGeneros() {
+        JogoGenresPatchDto patchDto = mock(JogoGenresPatchDto.class);
+        when(jogoRepository.findById("game-1")).thenReturn(Optional.of(jogo));
+        when(jogoRepository.atualizarCampos(eq("game-1"), any(Update.class))).thenReturn(jogo);
+
+        service.patchGeneros("game-1", patchDto);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(jogoRepository).atualizarCampos(eq("game-1"), captor.capture());
+        assertThat(captor.getValue().getUpdateObject()).containsOnlyKeys("$set");
+        assertThat(captor.getValue().getUpdateObject().get("$set", Document.class)).containsOnlyKeys("generos");
+        verify(jogoRepository, never()).save(any());
     }
 
     @Test
@@ -122,13 +246,14 @@ class JogoServiceTest {
 
         verify(securityService).validarPermissaoEdicao(jogo);
         verify(jogoRepository).delete(jogo);
+        verify(rankingService).remover("game-1");
     }
 
     @Test
     @DisplayName("Deve buscar jogos por gênero paginado")
     void buscarPorGeneroSucesso() {
-        Page<Jogo> page = new PageImpl<>(List.of(jogo));
-        when(jogoRepository.findByGeneros(eq(Genero.RPG), any(Pageable.class))).thenReturn(page);
+        Page<JogoResponseDto> page = new PageImpl<>(List.of(responseDto));
+        when(jogoRepository.buscarResumos(eq(Criteria.where("generos").is(Genero.RPG)), any(Pageable.class))).thenReturn(page);
 
         Page<JogoResponseDto> result = service.buscarPorGenero(Genero.RPG, 0, 10);
 
@@ -138,8 +263,8 @@ class JogoServiceTest {
     @Test
     @DisplayName("Deve buscar jogos por plataforma paginado")
     void buscarPorPlataformaSucesso() {
-        Page<Jogo> page = new PageImpl<>(List.of(jogo));
-        when(jogoRepository.findByPlataformas(eq(Plataforma.PC), any(Pageable.class))).thenReturn(page);
+        Page<JogoResponseDto> page = new PageImpl<>(List.of(responseDto));
+        when(jogoRepository.buscarResumos(eq(Criteria.where("plataformas").is(Plataforma.PC)), any(Pageable.class))).thenReturn(page);
 
         Page<JogoResponseDto> result = service.buscarPorPlataforma(Plataforma.PC, 0, 10);
 
@@ -153,22 +278,22 @@ class JogoServiceTest {
         admin.setRoles(Set.of(Role.ROLE_ADMIN));
 
         when(securityService.getUsuarioLogado()).thenReturn(admin);
-        when(jogoRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(jogo)));
+        when(jogoRepository.buscarResumos(isNull(), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDto)));
 
         service.listarMeusJogos(0, 10);
 
-        verify(jogoRepository).findAll(any(Pageable.class));
+        verify(jogoRepository).buscarResumos(isNull(), any(Pageable.class));
     }
 
     @Test
     @DisplayName("listarMeusJogos: Dev Autônomo deve ver apenas seus jogos")
     void listarMeusJogosDevAutonomo() {
         when(securityService.getUsuarioLogado()).thenReturn(usuarioDev);
-        when(jogoRepository.findByDevAutonomo(eq(usuarioDev), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(jogo)));
+        when(jogoRepository.buscarResumos(eq(Criteria.where("devAutonomo").is(usuarioDev)), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDto)));
 
         service.listarMeusJogos(0, 10);
 
-        verify(jogoRepository).findByDevAutonomo(eq(usuarioDev), any(Pageable.class));
+        verify(jogoRepository).buscarResumos(eq(Criteria.where("devAutonomo").is(usuarioDev)), any(Pageable.class));
     }
 
     @Test
@@ -180,10 +305,210 @@ class JogoServiceTest {
         devEmpresa.setEmpresa(empresa);
 
         when(securityService.getUsuarioLogado()).thenReturn(devEmpresa);
-        when(jogoRepository.findByEmpresa(eq(empresa), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(jogo)));
+        when(jogoRepository.buscarResumos(eq(Criteria.where("empresa").is(empresa)), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(responseDto)));
 
         service.listarMeusJogos(0, 10);
 
-        verify(jogoRepository).findByEmpresa(eq(empresa), any(Pageable.class));
+        verify(jogoRepository).buscarResumos(eq(Criteria.where("empresa").is(empresa)), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Cursor: Deve ler a página de resumos do repositório sem materializar os jogos")
+    void listarTodosPorCursorUsaResumos() {
+        JogoSliceDto slice = new JogoSliceDto(List.of(responseDto), "proximo", true, 1);
+        when(jogoRepository.buscarResumosComCursor(isNull(), eq(JogoCursor.Ordenacao.LANCAMENTO), isNull(), eq(1)))
+                .thenReturn(slice);
+
+        JogoSliceDto result = service.listarTodosPorCursor(null, JogoCursor.Ordenacao.LANCAMENTO, 1);
+
+        assertThat(result).isEqualTo(slice);
+        verifyNoInteractions(jogoMapper);
+    }
+
+    @Test
+    @DisplayName("Cursor: Deve reutilizar a ordenação gravada no cursor recebido")
+    void buscarPorGeneroPorCursorUsaOrdenacaoDoCursor() {
+        String token = new JogoCursor(JogoCursor.Ordenacao.TITULO, "650c1f1e8f1b2a3c4d5e6f70", "Celeste").codificar();
+
+        when(jogoRepository.buscarResumosComCursor(any(), eq(JogoCursor.Ordenacao.TITULO), any(JogoCursor.class), eq(10)))
+                .thenReturn(new JogoSliceDto(List.of(responseDto), null, false, 10));
+
+        JogoSliceDto result = service.buscarPorGeneroPorCursor(Genero.RPG, token, JogoCursor.Ordenacao.LANCAMENTO, 10);
+
+        assertThat(result.temProximo()).isFalse();
+        assertThat(result.proximoCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Cursor: Deve limitar o tamanho da página e rejeitar tamanho zero")
+    void cursorLimitaTamanhoDaPagina() {
+        when(jogoRepository.buscarResumosComCursor(isNull(), eq(JogoCursor.Ordenacao.LANCAMENTO), isNull(), eq(JogoService.TAMANHO_MAXIMO_PAGINA)))
+                .thenReturn(new JogoSliceDto(List.of(), null, false, JogoService.TAMANHO_MAXIMO_PAGINA));
+
+        JogoSliceDto result = service.listarTodosPorCursor(null, JogoCursor.Ordenacao.LANCAMENTO, 10_000);
+
+        assertThat(result.tamanho()).isEqualTo(JogoService.TAMANHO_MAXIMO_PAGINA);
+        assertThatThrownBy(() -> service.listarTodosPorCursor(null, JogoCursor.Ordenacao.LANCAMENTO, 0))
+                .isInstanceOf(RegraDeNegocioException.class);
+    }
+
+    @Test
+    @DisplayName("Cursor: Deve lançar erro para cursor inválido")
+    void cursorInvalido() {
+        assertThatThrownBy(() -> service.listarTodosPorCursor("nao-e-um-cursor", JogoCursor.Ordenacao.LANCAMENTO, 10))
+                .isInstanceOf(RegraDeNegocioException.class);
+
+        verifyNoInteractions(jogoRepository);
+    }
+
+    @Test
+    @DisplayName("Busca: Termos longos devem usar a busca textual por relevância")
+    void buscarPorTituloUsaBuscaTextual() {
+        when(jogoRepository.buscarPorTexto(eq("hollow knight"), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+        Page<JogoResponseDto> result = service.buscarPorTitulo("  hollow knight ", 0, 10);
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(jogoRepository, never()).buscarResumos(any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Busca: Termos curtos devem cair para a busca por prefixo do título")
+    void buscarPorTituloTermoCurtoUsaPrefixo() {
+        when(jogoRepository.buscarResumos(any(Criteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(responseDto)));
+
+        Page<JogoResponseDto> result = service.buscarPorTitulo("Cé", 0, 10);
+
+        assertThat(result.getContent()).hasSize(1);
+        verify(jogoRepository, never()).buscarPorTexto(any(), any());
+
+        // Regex sensível a maiúsculas sobre o título em minúsculas, para o índice usar um intervalo justo
+        ArgumentCaptor<Criteria> criteria = ArgumentCaptor.forClass(Criteria.class);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(jogoRepository).buscarResumos(criteria.capture(), pageable.capture());
+        Object regex = criteria.getValue().getCriteriaObject().get("tituloNormalizado");
+        assertThat(regex).isInstanceOf(Pattern.class);
+        assertThat(((Pattern) regex).pattern()).isEqualTo("^" + Pattern.quote("cé"));
+        assertThat(((Pattern) regex).flags()).isZero();
+        assertThat(pageable.getValue().getSort().getOrderFor("tituloNormalizado")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Filtro: Deve montar a página por cursor e preencher todas as facetas com zero quando ausentes")
+    void filtrarPreencheFacetas() {
+        JogoFiltroDto filtro = new JogoFiltroDto(List.of(Genero.RPG), null, null, 2015, 2020, null, 30.0);
+
+        when(jogoRepository.buscarResumosComCursor(any(Criteria.class), eq(JogoCursor.Ordenacao.LANCAMENTO), isNull(), eq(10)))
+                .thenReturn(new JogoSliceDto(List.of(responseDto), "proximo", true, 10));
+        when(jogoRepository.contarFacetas(any(Criteria.class)))
+                .thenReturn(new ResultadoFiltroJogosDto(11, Map.of("RPG", 11L, "ACAO", 4L), Map.of("PC", 9L), Map.of()));
+        JogoFiltroResponseDto result = service.filtrar(filtro, null, 0, 10);
+
+        assertThat(result.resultados().getTotalElements()).isEqualTo(11);
+        assertThat(result.resultados().getContent()).containsExactly(responseDto);
+        assertThat(result.proximoCursor()).isEqualTo("proximo");
+        assertThat(result.generos()).hasSize(Genero.values().length).containsEntry(Genero.RPG, 11L).containsEntry(Genero.TERROR, 0L);
+        assertThat(result.plataformas()).containsEntry(Plataforma.PC, 9L);
+        assertThat(result.classificacoes()).hasSize(ClassificacaoIndicativa.values().length).containsValue(0L);
+        verifyNoInteractions(estatisticasService);
+    }
+
+    @Test
+    @DisplayName("Filtro: Sem filtros deve ler as contagens do catálogo do documento de estatísticas")
+    void filtrarSemFiltroUsaEstatisticas() {
+        Estatisticas estatisticas = new Estatisticas();
+        estatisticas.setTotalJogos(40);
+        estatisticas.setJogosPorGenero(Map.of("RPG", 12L));
+        estatisticas.setJogosPorPlataforma(Map.of("PC", 35L));
+        estatisticas.setJogosPorClassificacao(Map.of("LIVRE", 20L));
+
+        when(jogoRepository.buscarResumosComCursor(isNull(), eq(JogoCursor.Ordenacao.LANCAMENTO), isNull(), eq(10)))
+                .thenReturn(new JogoSliceDto(List.of(responseDto), null, false, 10));
+        when(estatisticasService.buscar()).thenReturn(estatisticas);
+
+        JogoFiltroResponseDto result = service.filtrar(null, null, 0, 10);
+
+        assertThat(result.resultados().getTotalElements()).isEqualTo(40);
+        assertThat(result.generos()).containsEntry(Genero.RPG, 12L);
+        assertThat(result.plataformas()).containsEntry(Plataforma.PC, 35L);
+        assertThat(result.classificacoes()).containsEntry(ClassificacaoIndicativa.LIVRE, 20L);
+        verify(jogoRepository, never()).contarFacetas(any());
+    }
+
+    @Test
+    @DisplayName("Filtro: Deve continuar a partir do cursor recebido e rejeitar cursor de outra ordenação")
+    void filtrarComCursor() {
+        JogoCursor cursor = new JogoCursor(JogoCursor.Ordenacao.LANCAMENTO, "650c1f1e8f1b2a3c4d5e6f70", "2018-01-25");
+        String deTitulo = new JogoCursor(JogoCursor.Ordenacao.TITULO, "650c1f1e8f1b2a3c4d5e6f70", "Celeste").codificar();
+        JogoFiltroDto filtro = new JogoFiltroDto(List.of(Genero.RPG), null, null, null, null, null, null);
+
+        when(jogoRepository.buscarResumosComCursor(any(Criteria.class), eq(JogoCursor.Ordenacao.LANCAMENTO), eq(cursor), eq(10)))
+                .thenReturn(new JogoSliceDto(List.of(responseDto), null, false, 10));
+        when(jogoRepository.contarFacetas(any(Criteria.class)))
+                .thenReturn(new ResultadoFiltroJogosDto(11, Map.of(), Map.of(), Map.of()));
+
+        // O número da página é ignorado quando há cursor
+        JogoFiltroResponseDto result = service.filtrar(filtro, cursor.codificar(), 3, 10);
+
+        assertThat(result.resultados().getContent()).containsExactly(responseDto);
+        assertThat(result.proximoCursor()).isNull();
+        assertThatThrownBy(() -> service.filtrar(filtro, deTitulo, 0, 10)).isInstanceOf(RegraDeNegocioException.class);
+    }
+
+    @Test
+    @DisplayName("Filtro: Deve rejeitar faixas invertidas sem consultar o banco")
+    void filtrarFaixaInvalida() {
+        JogoFiltroDto anos = new JogoFiltroDto(null, null, null, 2022, 2010, null, null);
+        JogoFiltroDto precos = new JogoFiltroDto(null, null, null, null, null, 50.0, 10.0);
+
+        assertThatThrownBy(() -> service.filtrar(anos, null, 0, 10)).isInstanceOf(RegraDeNegocioException.class);
+        assertThatThrownBy(() -> service.filtrar(precos, null, 0, 10)).isInstanceOf(RegraDeNegocioException.class);
+
+        verifyNoInteractions(jogoRepository);
+    }
+
+    @Test
+    @DisplayName("Histogramas: Deve buscar cada jogo uma única vez")
+    void buscarHistogramasRemoveDuplicados() {
+        HistogramaNotasDto histograma = new HistogramaNotasDto("game-1", List.of(0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 0), 3);
+        when(jogoRepository.buscarHistogramas(List.of("game-1", "game-2"))).thenReturn(List.of(histograma));
+
+        List<HistogramaNotasDto> result = service.buscarHistogramas(List.of("game-1", "game-2", "game-1"));
+
+        assertThat(result).containsExactly(histograma);
+    }
+
+    @Test
+    @DisplayName("Histogramas: Deve rejeitar lista vazia ou acima do limite sem consultar o banco")
+    void buscarHistogramasForaDoLimite() {
+        List<String> muitos = java.util.stream.IntStream.rangeClosed(0, JogoService.MAXIMO_HISTOGRAMAS)
+                .mapToObj(i -> "game-" + i).toList();
+
+        assertThatThrownBy(() -> service.buscarHistogramas(List.of())).isInstanceOf(RegraDeNegocioException.class);
+        assertThatThrownBy(() -> service.buscarHistogramas(muitos)).isInstanceOf(RegraDeNegocioException.class);
+
+        verifyNoInteractions(jogoRepository);
+    }
+
+    @Test
+    @DisplayName("Trending: Deve devolver os jogos na ordem do ranking e não consultar o banco com o ranking vazio")
+    void buscarTrending() {
+        when(trendingService.topo(10)).thenReturn(List.of("game-1"));
+        when(jogoRepository.buscarResumosPorIds(List.of("game-1"))).thenReturn(List.of(responseDto));
+
+        assertThat(service.buscarTrending(10)).containsExactly(responseDto);
+
+        when(trendingService.topo(5)).thenReturn(List.of());
+        assertThat(service.buscarTrending(5)).isEmpty();
+        verify(jogoRepository, times(1)).buscarResumosPorIds(any());
+    }
+
+    private Avaliacao criarAvaliacao(String id, Role autorRole) {
+        Avaliacao avaliacao = new Avaliacao();
+        avaliacao.setId(id);
+        avaliacao.setAutorRole(autorRole);
+        return avaliacao;
     }
-}
\ No newline at end of file
+}
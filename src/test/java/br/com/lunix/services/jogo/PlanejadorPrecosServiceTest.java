@@ -0,0 +1,162 @@
+package br.com.lunix.services.jogo;
+
+import br.com.lunix.dto.jogos.CandidatoAtualizacaoPrecosDto;
+import br.com.lunix.dto.jogos.EnfileiramentoPrecosDto;
+import br.com.lunix.repository.JogoRepository;
+import br.com.lunix.services.ranking.TrendingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlanejadorPrecosServiceTest {
+
+    @InjectMocks
+    private PlanejadorPrecosService planejador;
+
+    @Mock private JogoRepository jogoRepository;
+    @Mock private JogoPrecoService precoService;
+    @Mock private TrendingService trendingService;
+
+    private static final Instant INSTANTE = Instant.parse("2026-01-10T12:00:00Z");
+    private static final LocalDateTime AGORA = LocalDateTime.ofInstant(INSTANTE, ZoneOffset.UTC);
+    private static final Duration MINIMO = Duration.ofHours(6);
+    private static final Duration MAXIMO = Duration.ofHours(168);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(planejador, "intervaloMinimoHoras", 6);
+        ReflectionTestUtils.setField(planejador, "intervaloMaximoHoras", 168);
+        ReflectionTestUtils.setField(planejador, "avaliacoesReferencia", 500);
+        ReflectionTestUtils.setField(planejador, "maximoPorPlanejamento", 100);
+        ReflectionTestUtils.setField(planejador, "tamanhoLote", 2);
+        planejador.relogio = Clock.fixed(INSTANTE, ZoneOffset.UTC);
+    }
+
+    private CandidatoAtualizacaoPrecosDto candidato(String id, int avaliacoes, Double volatilidade) {
+        return new CandidatoAtualizacaoPrecosDto(id, avaliacoes, volatilidade);
+    }
+
+    @Test
+    @DisplayName("O intervalo deve ir do máximo (sem popularidade nem volatilidade) ao mínimo (popular e volátil)")
+    void calcularIntervaloNosExtremos() {
+        assertThat(PlanejadorPrecosService.calcularIntervalo(0, 0, 0.0, 500, MINIMO, MAXIMO)).isEqualTo(MAXIMO);
+        assertThat(PlanejadorPrecosService.calcularIntervalo(500, 0, 1.0, 500, MINIMO, MAXIMO)).isEqualTo(MINIMO);
+        assertThat(PlanejadorPrecosService.calcularIntervalo(100_000, 0, 1.0, 500, MINIMO, MAXIMO)).isEqualTo(MINIMO);
+    }
+
+    @Test
+    @DisplayName("Popularidade, atividade recente e volatilidade devem encurtar o intervalo")
+    void calcularIntervaloEncurtaComOsSinais() {
+        Duration semHistorico = PlanejadorPrecosService.calcularIntervalo(10, 0, null, 500, MINIMO, MAXIMO);
+        Duration maisAvaliado = PlanejadorPrecosService.calcularIntervalo(200, 0, null, 500, MINIMO, MAXIMO);
+        Duration emAlta = PlanejadorPrecosService.calcularIntervalo(10, 300, null, 500, MINIMO, MAXIMO);
+        Duration volatil = PlanejadorPrecosService.calcularIntervalo(10, 0, 0.9, 500, MINIMO, MAXIMO);
+
+        assertThat(semHistorico).isBetween(MINIMO, MAXIMO);
+        assertThat(maisAvaliado).isLessThan(semHistorico);
+        assertThat(emAlta).isLessThan(semHistorico);
+        assertThat(volatil).isLessThan(semHistorico);
+    }
+
+    @Test
+    @DisplayName("Deve enviar os jogos vencidos em lotes confirmados e gravar o próximo vencimento de cada um")
+    @SuppressWarnings("unchecked")
+    void planejarEnviaVencidosEAgenda() {
+        when(precoService.mensagensNaFila()).thenReturn(0L);
+        when(trendingService.pontuacoesDoTopo()).thenReturn(Map.of("em-alta", 5000.0));
+        when(jogoRepository.buscarCandidatosAtualizacaoPrecos(AGORA, 2)).thenReturn(Stream.of(
+                candidato("nunca", 0, null),
+                candidato("em-alta", 0, 1.0),
+                candidato("esquecido", 0, 0.0)));
+
+        EnfileiramentoPrecosDto resultado = planejador.planejar();
+
+        assertThat(resultado.jogos()).isEqualTo(3);
+        assertThat(resultado.lotes()).isEqualTo(2);
+        InOrder ordem = inOrder(precoService, jogoRepository);
+        ordem.verify(precoService).publicarComConfirmacao(List.of("nunca", "em-alta"));
+        ordem.verify(jogoRepository).agendarAtualizacoesPrecos(Map.of(
+                "nunca", AGORA.plus(PlanejadorPrecosService.calcularIntervalo(0, 0, null, 500, MINIMO, MAXIMO)),
+                "em-alta", AGORA.plus(MINIMO)));
+        ordem.verify(precoService).publicarComConfirmacao(List.of("esquecido"));
+        ordem.verify(jogoRepository).agendarAtualizacoesPrecos(Map.of("esquecido", AGORA.plus(MAXIMO)));
+    }
+
+    @Test
+    @DisplayName("Sem a confirmação do broker, o lote não deve ser agendado e continua vencido")
+    void planejarSemConfirmacaoNaoAgenda() {
+        when(precoService.mensagensNaFila()).thenReturn(0L);
+        when(trendingService.pontuacoesDoTopo()).thenReturn(Map.of());
+        when(jogoRepository.buscarCandidatosAtualizacaoPrecos(any(), anyInt())).thenReturn(Stream.of(candidato("a", 0, null)));
+        doThrow(new AmqpTimeoutException("Sem confirmação")).when(precoService).publicarComConfirmacao(any());
+
+        assertThatThrownBy(() -> planejador.planejar()).isInstanceOf(AmqpTimeoutException.class);
+
+        verify(jogoRepository, never()).agendarAtualizacoesPrecos(any());
+    }
+
+    @Test
+    @DisplayName("Deve completar só o que falta até o limite de mensagens na fila")
+    void planejarRespeitaCapacidadeDaFila() {
+        when(precoService.mensagensNaFila()).thenReturn(97L);
+        when(trendingService.pontuacoesDoTopo()).thenReturn(Map.of());
+        when(jogoRepository.buscarCandidatosAtualizacaoPrecos(any(), anyInt())).thenReturn(Stream.of(
+                candidato("a", 0, null), candidato("b", 0, null),
+                candidato("c", 0, null), candidato("d", 0, null)));
+
+        EnfileiramentoPrecosDto resultado = planejador.planejar();
+
+        assertThat(resultado.jogos()).isEqualTo(3);
+        verify(precoService).publicarComConfirmacao(List.of("a", "b"));
+        verify(precoService).publicarComConfirmacao(List.of("c"));
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia, a passada não deve ler o banco nem publicar")
+    void planejarComFilaCheia() {
+        when(precoService.mensagensNaFila()).thenReturn(150L);
+
+        EnfileiramentoPrecosDto resultado = planejador.planejar();
+
+        assertThat(resultado.jogos()).isZero();
+        verifyNoInteractions(jogoRepository, trendingService);
+        verify(precoService, never()).publicarComConfirmacao(any());
+    }
+
+    @Test
+    @DisplayName("Sem o trending, deve planejar só com as avaliações")
+    void planejarSemTrending() {
+        when(precoService.mensagensNaFila()).thenReturn(0L);
+        when(trendingService.pontuacoesDoTopo()).thenThrow(new RedisConnectionFailureException("Conexão recusada"));
+        when(jogoRepository.buscarCandidatosAtualizacaoPrecos(eq(AGORA), anyInt()))
+                .thenReturn(Stream.of(candidato("nunca", 0, null)));
+
+        assertThat(planejador.planejar().jogos()).isEqualTo(1);
+        verify(precoService).publicarComConfirmacao(List.of("nunca"));
+    }
+}
@@ -0,0 +1,239 @@
+package br.com.lunix.services.ranking;
+
+import br.com.lunix.config.cache.CacheNames;
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.model.entities.Jogo;
+import br.com.lunix.model.enums.Genero;
+import br.com.lunix.model.enums.Plataforma;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RankingServiceTest {
+
+    @InjectMocks
+    private RankingService service;
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private MongoTemplate mongoTemplate;
+    @Mock private CacheManager cacheManager;
+    @Mock private TravaRedis travaRedis;
+
+    @Mock private RedisOperations<String, String> operacoes;
+    @Mock private ZSetOperations<String, String> zset;
+    @Mock private Cache cacheTopNota;
+
+    private Jogo jogo;
+
+    @BeforeEach
+    void setUp() {
+        jogo = new Jogo();
+        jogo.setId("game-1");
+        jogo.setScoreRanking(9.0);
+        jogo.setDataLancamento(LocalDate.of(2018, 1, 25));
+        jogo.setGeneros(List.of(Genero.RPG));
+        jogo.setPlataformas(List.of(Plataforma.PC));
+    }
+
+    // Executa o pipeline contra os mocks e devolve as posições (antes/depois) informadas
+    @SuppressWarnings("unchecked")
+    private void pipelineRetorna(Long notaAntes, Long recentesAntes, Long notaDepois, Long recentesDepois) {
+        lenient().when(operacoes.opsForZSet()).thenReturn(zset);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(operacoes);
+            return Arrays.asList(notaAntes, recentesAntes, 1L, 1L, notaDepois, recentesDepois);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o jogo nos rankings globais e só nos gêneros/plataformas que ele tem")
+    void atualizarGravaNosSetsDoJogo() {
+        pipelineRetorna(null, null, 30L, 40L);
+
+        service.atualizar(jogo);
+
+        verify(zset).add(RankingService.NOTA, "game-1", 9.0);
+        verify(zset).add(RankingService.RECENTES, "game-1", LocalDate.of(2018, 1, 25).toEpochDay());
+        verify(zset).add(RankingService.PREFIXO_GENERO + "RPG", "game-1", 9.0);
+        verify(zset).add(RankingService.PREFIXO_PLATAFORMA + "PC", "game-1", 9.0);
+        verify(zset).remove(RankingService.PREFIXO_GENERO + "ACAO", "game-1");
+        verify(zset, never()).add(eq(RankingService.PREFIXO_GENERO + "ACAO"), any(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Deve limpar só o cache do top 10 cujo topo foi afetado")
+    void atualizarNoTopoLimpaCacheAfetado() {
+        pipelineRetorna(12L, 40L, 3L, 40L);
+        when(cacheManager.getCache(CacheNames.JOGOS_TOP10_NOTA)).thenReturn(cacheTopNota);
+
+        service.atualizar(jogo);
+
+        verify(cacheTopNota).clear();
+        verify(cacheManager, never()).getCache(CacheNames.JOGOS_TOP10_RECENTES);
+    }
+
+    @Test
+    @DisplayName("Não deve limpar os caches quando o jogo está fora do topo antes e depois")
+    void atualizarForaDoTopoMantemCaches() {
+        pipelineRetorna(25L, 40L, 22L, 40L);
+
+        service.atualizar(jogo);
+
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("Deve limpar o cache ao remover um jogo que estava no topo")
+    void removerDoTopoLimpaCache() {
+        pipelineRetorna(0L, 40L, null, null);
+        when(cacheManager.getCache(CacheNames.JOGOS_TOP10_NOTA)).thenReturn(cacheTopNota);
+
+        service.remover("game-1");
+
+        verify(zset).remove(RankingService.NOTA, "game-1");
+        verify(zset).remove(RankingService.PREFIXO_PLATAFORMA + "PC", "game-1");
+        verify(cacheTopNota).clear();
+    }
+
+    @Test
+    @DisplayName("Deve ler o ranking do gênero em ordem decrescente respeitando o limite máximo")
+    void topPorGeneroLimitaQuantidade() {
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.reverseRange(RankingService.PREFIXO_GENERO + "RPG", 0, RankingService.LIMITE_MAXIMO - 1))
+                .thenReturn(new LinkedHashSet<>(List.of("game-2", "game-1")));
+
+        List<String> ids = service.topPorGenero(Genero.RPG, 500);
+
+        assertThat(ids).containsExactly("game-2", "game-1");
+    }
+
+    @Test
+    @DisplayName("Deve gravar os scores recalculados nos rankings do jogo e limpar o top 10 por nota")
+    @SuppressWarnings("unchecked")
+    void atualizarScoresGravaNosSetsDoJogo() {
+        lenient().when(operacoes.opsForZSet()).thenReturn(zset);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(operacoes);
+            return List.of();
+        });
+        when(cacheManager.getCache(CacheNames.JOGOS_TOP10_NOTA)).thenReturn(cacheTopNota);
+
+        service.atualizarScores(List.of(new EstatisticasRankingDto("game-1", 10.0, 1, 7.5, List.of("RPG"), List.of("PC"))));
+
+        verify(zset).add(RankingService.NOTA, "game-1", 7.5);
+        verify(zset).add(RankingService.PREFIXO_GENERO + "RPG", "game-1", 7.5);
+        verify(zset).add(RankingService.PREFIXO_PLATAFORMA + "PC", "game-1", 7.5);
+        verify(cacheTopNota).clear();
+    }
+
+    @Test
+    @DisplayName("Reconstrução: Não deve ler o banco quando outra instância está com a trava")
+    void reconstruirSemTravaNaoFazNada() {
+        when(travaRedis.adquirir(RankingService.TRAVA_RECONSTRUCAO, RankingService.VALIDADE_RECONSTRUCAO)).thenReturn(Optional.empty());
+
+        assertThat(service.reconstruir()).isEqualTo(-1);
+
+        verifyNoInteractions(mongoTemplate);
+        verify(redisTemplate, never()).delete(anyString());
+        verify(travaRedis, never()).liberar(any(), any());
+    }
+
+    @Test
+    @DisplayName("Reconstrução: Deve trocar cada ranking pela chave temporária desta execução e apagar só os que ficaram vazios")
+    @SuppressWarnings("unchecked")
+    void reconstruirUsaChaveTemporariaPropria() {
+        reconstrucaoCom(Stream.of(documentoDoJogo()), Set.of());
+        when(redisTemplate.hasKey(anyString())).thenReturn(true);
+
+        assertThat(service.reconstruir()).isEqualTo(1);
+
+        ArgumentCaptor<String> temporaria = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).rename(temporaria.capture(), eq(RankingService.NOTA));
+        assertThat(temporaria.getValue()).startsWith(RankingService.NOTA + ":reconstrucao:");
+        verify(operacoes).expire(temporaria.getValue(), RankingService.VALIDADE_RECONSTRUCAO);
+        verify(redisTemplate).rename(startsWith(RankingService.PREFIXO_GENERO + "RPG:reconstrucao:"), eq(RankingService.PREFIXO_GENERO + "RPG"));
+
+        verify(redisTemplate).delete(RankingService.PREFIXO_GENERO + "ACAO");
+        verify(redisTemplate, never()).delete(RankingService.NOTA);
+        verify(travaRedis).liberar(RankingService.TRAVA_RECONSTRUCAO, "token");
+    }
+
+    @Test
+    @DisplayName("Reconstrução: Não deve apagar o ranking atual quando a chave temporária montada sumiu antes da troca")
+    void reconstruirNaoApagaRankingSeTemporariaSumiu() {
+        reconstrucaoCom(Stream.of(documentoDoJogo()), Set.of());
+        when(redisTemplate.hasKey(anyString())).thenReturn(false);
+
+        service.reconstruir();
+
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+        verify(redisTemplate, never()).delete(RankingService.NOTA);
+        verify(redisTemplate, never()).delete(RankingService.PREFIXO_PLATAFORMA + "PC");
+    }
+
+    @Test
+    @DisplayName("Reconstrução: Deve reaplicar os jogos alterados durante a leitura e tirar dos rankings os removidos")
+    void reconstruirReaplicaAlterados() {
+        String removido = new ObjectId().toHexString();
+        reconstrucaoCom(Stream.empty(), Set.of(removido));
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("jogos"))).thenReturn(List.of());
+
+        service.reconstruir();
+
+        verify(zset).remove(RankingService.NOTA, removido);
+        verify(zset).remove(RankingService.PREFIXO_GENERO + "RPG", removido);
+        verify(travaRedis).liberar(RankingService.TRAVA_RECONSTRUCAO, "token");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void reconstrucaoCom(Stream<Document> jogos, Set<String> alterados) {
+        when(travaRedis.adquirir(RankingService.TRAVA_RECONSTRUCAO, RankingService.VALIDADE_RECONSTRUCAO)).thenReturn(Optional.of("token"));
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("jogos"))).thenReturn(jogos);
+        lenient().when(operacoes.opsForZSet()).thenReturn(zset);
+        lenient().when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(operacoes);
+            return List.of();
+        });
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.rangeByScore(eq(RankingService.ALTERADOS), anyDouble(), anyDouble())).thenReturn(alterados);
+    }
+
+    private Document documentoDoJogo() {
+        Date lancamento = Date.from(LocalDate.of(2018, 1, 25).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return new Document("_id", new ObjectId())
+                .append("scoreRanking", 8.5)
+                .append("dataLancamento", lancamento)
+                .append("generos", List.of("RPG"))
+                .append("plataformas", List.of("PC"));
+    }
+}
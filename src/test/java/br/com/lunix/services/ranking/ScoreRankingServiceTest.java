@@ -0,0 +1,138 @@
+package br.com.lunix.services.ranking;
+
+import br.com.lunix.dto.jogos.EstatisticasRankingDto;
+import br.com.lunix.repository.AvaliacaoRepository;
+import br.com.lunix.repository.JogoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScoreRankingServiceTest {
+
+    @InjectMocks
+    private ScoreRankingService service;
+
+    @Mock private JogoRepository jogoRepository;
+    @Mock private AvaliacaoRepository avaliacaoRepository;
+    @Mock private RankingService rankingService;
+    @Mock private TravaRedis travaRedis;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "pesoMinimo", 10.0);
+    }
+
+    private void comTrava() {
+        when(travaRedis.adquirir(ScoreRankingService.TRAVA_RECALCULO, ScoreRankingService.VALIDADE_RECALCULO))
+                .thenReturn(Optional.of("token"));
+    }
+
+    // Entrega os jogos ao consumidor em blocos, como o cursor do repositório
+    @SuppressWarnings("unchecked")
+    private void jogosEmBlocos(List<EstatisticasRankingDto>... blocos) {
+        when(jogoRepository.percorrerEstatisticasDeRanking(eq(ScoreRankingService.TAMANHO_LOTE), any())).thenAnswer(invocation -> {
+            Consumer<List<EstatisticasRankingDto>> consumidor = invocation.getArgument(1);
+            long total = 0;
+            for (List<EstatisticasRankingDto> bloco : blocos) {
+                consumidor.accept(bloco);
+                total += bloco.size();
+            }
+            return total;
+        });
+    }
+
+    @Test
+    @DisplayName("Deve colocar o jogo com muitas avaliações boas acima do jogo com uma única nota 10")
+    void muitasAvaliacoesVencemNotaUnica() {
+        double mediaGlobal = 7.0;
+
+        double notaUnica = ScoreRankingService.calcularScore(10.0, 1, mediaGlobal, 10);
+        double muitasAvaliacoes = ScoreRankingService.calcularScore(9.6 * 500, 500, mediaGlobal, 10);
+
+        assertThat(muitasAvaliacoes).isGreaterThan(notaUnica);
+        assertThat(notaUnica).isCloseTo(7.27, within(0.01));
+        assertThat(ScoreRankingService.calcularScore(0, 0, mediaGlobal, 10)).isEqualTo(mediaGlobal);
+    }
+
+    @Test
+    @DisplayName("Deve gravar só os jogos cujo score mudou ou nunca foi calculado, bloco a bloco")
+    @SuppressWarnings("unchecked")
+    void gravaApenasAlterados() {
+        comTrava();
+        when(avaliacaoRepository.calcularMediaGlobal()).thenReturn(8.0);
+        EstatisticasRankingDto semScore = new EstatisticasRankingDto("game-1", 10.0, 1, null, List.of("RPG"), List.of("PC"));
+        double scoreAtual = ScoreRankingService.calcularScore(30.0, 4, 8.0, 10);
+        EstatisticasRankingDto inalterado = new EstatisticasRankingDto("game-2", 30.0, 4, scoreAtual, List.of(), List.of());
+        EstatisticasRankingDto desatualizado = new EstatisticasRankingDto("game-3", 18.0, 2, 1.0, List.of(), List.of());
+        jogosEmBlocos(List.of(semScore, inalterado), List.of(desatualizado));
+
+        int alterados = service.recalcularScores();
+
+        ArgumentCaptor<List<EstatisticasRankingDto>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jogoRepository, times(2)).atualizarScoresRanking(captor.capture());
+        verify(rankingService).atualizarScores(captor.getAllValues().get(0));
+        verify(rankingService).atualizarScores(captor.getAllValues().get(1));
+
+        assertThat(alterados).isEqualTo(2);
+        assertThat(captor.getAllValues().get(0)).singleElement().satisfies(jogo -> {
+            assertThat(jogo.jogoId()).isEqualTo("game-1");
+            assertThat(jogo.scoreRanking()).isCloseTo((10.0 + 10 * 8.0) / 11, within(1e-9));
+        });
+        assertThat(captor.getAllValues().get(1)).extracting(EstatisticasRankingDto::jogoId).containsExactly("game-3");
+        verify(travaRedis).liberar(ScoreRankingService.TRAVA_RECALCULO, "token");
+    }
+
+    @Test
+    @DisplayName("Não deve escrever no banco nem no Redis quando nenhum score mudou")
+    void semAlteracoesNaoEscreve() {
+        comTrava();
+        when(avaliacaoRepository.calcularMediaGlobal()).thenReturn(0.0);
+        jogosEmBlocos(List.of(new EstatisticasRankingDto("game-1", 0.0, 0, 0.0, List.of(), List.of())));
+
+        assertThat(service.recalcularScores()).isZero();
+
+        verify(jogoRepository, never()).atualizarScoresRanking(any());
+        verifyNoInteractions(rankingService);
+    }
+
+    @Test
+    @DisplayName("Não deve recalcular quando outra instância está com a trava")
+    void outraInstanciaComTrava() {
+        when(travaRedis.adquirir(ScoreRankingService.TRAVA_RECALCULO, ScoreRankingService.VALIDADE_RECALCULO))
+                .thenReturn(Optional.empty());
+
+        assertThat(service.recalcularScores()).isEqualTo(-1);
+
+        verifyNoInteractions(jogoRepository, avaliacaoRepository, rankingService);
+        verify(travaRedis, never()).liberar(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a trava mesmo quando o recálculo falha")
+    void liberaTravaNaFalha() {
+        comTrava();
+        when(avaliacaoRepository.calcularMediaGlobal()).thenThrow(new IllegalStateException("Mongo fora"));
+
+        assertThatThrownBy(() -> service.recalcularScores()).isInstanceOf(IllegalStateException.class);
+
+        verify(travaRedis).liberar(ScoreRankingService.TRAVA_RECALCULO, "token");
+    }
+}
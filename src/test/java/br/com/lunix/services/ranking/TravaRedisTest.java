@@ -0,0 +1,56 @@
+package br.com.lunix.services.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TravaRedisTest {
+
+    @InjectMocks
+    private TravaRedis trava;
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private ValueOperations<String, String> valores;
+
+    @Test
+    @DisplayName("Deve devolver o token gravado com SET NX quando a trava está livre")
+    void adquirirTravaLivre() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        when(valores.setIfAbsent(eq("job"), anyString(), eq(Duration.ofMinutes(5)))).thenReturn(true);
+
+        Optional<String> token = trava.adquirir("job", Duration.ofMinutes(5));
+
+        assertThat(token).isPresent();
+        verify(valores).setIfAbsent("job", token.get(), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Não deve adquirir a trava que outra instância já tem")
+    void adquirirTravaOcupada() {
+        when(redisTemplate.opsForValue()).thenReturn(valores);
+        when(valores.setIfAbsent(eq("job"), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertThat(trava.adquirir("job", Duration.ofMinutes(5))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve liberar a trava só pelo script que confere o token")
+    void liberarConfereToken() {
+        trava.liberar("job", "token-1");
+
+        verify(redisTemplate).execute(TravaRedis.SCRIPT_LIBERAR, List.of("job"), "token-1");
+    }
+}
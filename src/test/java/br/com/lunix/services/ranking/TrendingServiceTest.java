@@ -0,0 +1,198 @@
+package br.com.lunix.services.ranking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @InjectMocks
+    private TrendingService service;
+
+    @Mock private StringRedisTemplate redisTemplate;
+    @Mock private RedisOperations<String, String> operacoes;
+    @Mock private ZSetOperations<String, String> zset;
+
+    // 10 horas depois da época: o balde atual é o 10
+    private static final long BALDE_ATUAL = 10;
+
+    @BeforeEach
+    void setUp() {
+        service.relogio = Clock.fixed(Instant.ofEpochSecond(BALDE_ATUAL * 3600 + 120), ZoneOffset.UTC);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void executarPipeline() {
+        when(operacoes.opsForZSet()).thenReturn(zset);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, SessionCallback.class).execute(operacoes);
+            return List.of();
+        });
+    }
+
+    @Test
+    @DisplayName("Deve somar os eventos em memória e enviar um único incremento por jogo para o balde da hora")
+    void enviarPendentesAgrupaPorJogo() {
+        executarPipeline();
+        service.registrarAvaliacao("game-1");
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+        service.registrarVisualizacao("game-1", "bia@lunix.com");
+        service.registrarVisualizacao("game-2", "ana@lunix.com");
+
+        service.enviarPendentes();
+
+        String balde = TrendingService.chaveDoBalde(BALDE_ATUAL);
+        verify(zset).incrementScore(balde, "game-1", TrendingService.PONTOS_AVALIACAO + 2 * TrendingService.PONTOS_VISUALIZACAO);
+        verify(zset).incrementScore(balde, "game-2", TrendingService.PONTOS_VISUALIZACAO);
+        verify(zset).removeRange(balde, 0, -(TrendingService.MAXIMO_POR_BALDE + 1));
+        verify(operacoes).expire(eq(balde), any());
+    }
+
+    @Test
+    @DisplayName("Não deve acessar o Redis quando não há eventos pendentes")
+    void enviarSemPendentes() {
+        service.enviarPendentes();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve limitar a quantidade de jogos contados em memória entre dois envios")
+    void limiteDeJogosPendentes() {
+        executarPipeline();
+        for (int i = 0; i <= TrendingService.MAXIMO_PENDENTES; i++) {
+            service.registrarVisualizacao("game-" + i, "ana@lunix.com");
+        }
+
+        service.enviarPendentes();
+
+        verify(zset, times(TrendingService.MAXIMO_PENDENTES)).incrementScore(anyString(), anyString(), anyDouble());
+    }
+
+    @Test
+    @DisplayName("Deve contar a visualização de um usuário uma única vez por jogo no mesmo balde")
+    void visualizacaoRepetidaContaUmaVez() {
+        executarPipeline();
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+
+        service.enviarPendentes();
+
+        verify(zset).incrementScore(TrendingService.chaveDoBalde(BALDE_ATUAL), "game-1", TrendingService.PONTOS_VISUALIZACAO);
+    }
+
+    @Test
+    @DisplayName("Deve contar de novo a visualização do mesmo usuário quando muda o balde")
+    void visualizacaoEmOutroBaldeContaDeNovo() {
+        executarPipeline();
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+        service.enviarPendentes();
+
+        service.relogio = Clock.offset(service.relogio, TrendingService.DURACAO_BALDE);
+        service.registrarVisualizacao("game-1", "ana@lunix.com");
+        service.enviarPendentes();
+
+        verify(zset).incrementScore(TrendingService.chaveDoBalde(BALDE_ATUAL + 1), "game-1", TrendingService.PONTOS_VISUALIZACAO);
+    }
+
+    @Test
+    @DisplayName("Não deve contar visualizações anônimas")
+    void visualizacaoAnonimaNaoConta() {
+        service.registrarVisualizacao("game-1", null);
+
+        service.enviarPendentes();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    @DisplayName("Deve somar os baldes da janela com peso que cai pela metade a cada meia-vida")
+    @SuppressWarnings("unchecked")
+    void recalcularTopoAplicaDecaimento() {
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.unionAndStore(anyString(), any(Collection.class), anyString(), any(Aggregate.class), any(Weights.class))).thenReturn(3L);
+
+        service.recalcularTopo();
+
+        ArgumentCaptor<Collection<String>> outros = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<String> temporaria = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Weights> pesos = ArgumentCaptor.forClass(Weights.class);
+        verify(zset).unionAndStore(eq(TrendingService.chaveDoBalde(BALDE_ATUAL)), outros.capture(),
+                temporaria.capture(), eq(Aggregate.SUM), pesos.capture());
+
+        assertThat(outros.getValue()).hasSize(TrendingService.BALDES_NA_JANELA - 1)
+                .first().isEqualTo(TrendingService.chaveDoBalde(BALDE_ATUAL - 1));
+        assertThat(pesos.getValue().getWeight(0)).isEqualTo(1.0);
+        assertThat(pesos.getValue().getWeight((int) TrendingService.MEIA_VIDA_EM_BALDES)).isCloseTo(0.5, within(1e-9));
+        assertThat(temporaria.getValue()).startsWith(TrendingService.TOPO_TRENDING + ":calculo:");
+        verify(redisTemplate).expire(temporaria.getValue(), TrendingService.EXPIRACAO_CALCULO);
+        verify(redisTemplate).rename(temporaria.getValue(), TrendingService.TOPO_TRENDING);
+    }
+
+    @Test
+    @DisplayName("Deve usar uma chave temporária diferente em cada cálculo do topo")
+    @SuppressWarnings("unchecked")
+    void recalcularTopoUsaChaveTemporariaPropria() {
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.unionAndStore(anyString(), any(Collection.class), anyString(), any(Aggregate.class), any(Weights.class))).thenReturn(3L);
+
+        service.recalcularTopo();
+        service.recalcularTopo();
+
+        ArgumentCaptor<String> temporarias = ArgumentCaptor.forClass(String.class);
+        verify(zset, times(2)).unionAndStore(anyString(), any(Collection.class), temporarias.capture(), any(Aggregate.class), any(Weights.class));
+        assertThat(temporarias.getAllValues()).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Deve apagar o ranking quando não houve atividade na janela")
+    @SuppressWarnings("unchecked")
+    void recalcularTopoSemAtividade() {
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.unionAndStore(anyString(), any(Collection.class), anyString(), any(Aggregate.class), any(Weights.class))).thenReturn(0L);
+
+        service.recalcularTopo();
+
+        verify(redisTemplate).delete(TrendingService.TOPO_TRENDING);
+        verify(redisTemplate, never()).rename(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Deve devolver os pontos de cada jogo do ranking em alta")
+    void pontuacoesDoTopo() {
+        when(redisTemplate.opsForZSet()).thenReturn(zset);
+        when(zset.rangeWithScores(TrendingService.TOPO_TRENDING, 0, -1)).thenReturn(Set.of(
+                ZSetOperations.TypedTuple.of("jogo-1", 12.5), ZSetOperations.TypedTuple.of("jogo-2", 3.0)));
+
+        assertThat(service.pontuacoesDoTopo()).containsOnly(entry("jogo-1", 12.5), entry("jogo-2", 3.0));
+    }
+}
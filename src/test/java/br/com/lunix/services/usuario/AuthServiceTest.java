@@ -11,6 +11,7 @@ import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.repository.EmpresaRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -43,6 +44,7 @@ class AuthServiceTest {
     @Mock private AuthenticationManager authenticationManager;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private UsuarioMapper mapper;
+    @Mock private EstatisticasService estatisticasService;
 
     private Usuario usuario;
     private UsuarioRegistroDto registroDto;
@@ -4,18 +4,25 @@ import br.com.lunix.dto.usuario.*;
 import br.com.lunix.exceptions.RegraDeNegocioException;
 import br.com.lunix.exceptions.ResourceNotFoundException;
 import br.com.lunix.mapper.UsuarioMapper;
+import br.com.lunix.model.entities.CriadorSnapshot;
 import br.com.lunix.model.entities.Empresa;
 import br.com.lunix.model.entities.Usuario;
 import br.com.lunix.model.enums.Role;
+import br.com.lunix.repository.AvaliacaoRepository;
 import br.com.lunix.repository.EmpresaRepository;
+import br.com.lunix.repository.JogoRepository;
 import br.com.lunix.repository.UsuarioRepository;
+import br.com.lunix.services.dashboard.EstatisticasService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -28,6 +35,7 @@ import java.util.Set;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +48,10 @@ class UsuarioServiceTest {
     @Mock private EmpresaRepository empresaRepository;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private UsuarioMapper mapper;
+    @Mock private JogoRepository jogoRepository;
+    @Mock private CacheManager cacheManager;
+    @Mock private AvaliacaoRepository avaliacaoRepository;
+    @Mock private EstatisticasService estatisticasService;
 
     private Usuario usuario;
     private Empresa empresa;
@@ -140,6 +152,54 @@ class UsuarioServiceTest {
                 .hasMessageContaining("Empresa não encontrada");
     }
 
+    @Test
+    @DisplayName("Deve propagar o novo nome do dev para a cópia do criador nos jogos")
+    void atualizarProprioPerfilDevPropagaNome() {
+        usuario.setRoles(Set.of(Role.ROLE_USER, Role.ROLE_DEV));
+        UsuarioSelfUpdateDto dto = new UsuarioSelfUpdateDto("João Dev", null, null);
+        Cache cache = mock(Cache.class);
+
+        when(repository.findById("user-1")).thenReturn(Optional.of(usuario));
+        when(repository.save(usuario)).thenReturn(usuario);
+        when(jogoRepository.atualizarCriador(any(CriadorSnapshot.class))).thenReturn(2L);
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+
+        service.atualizarProprioPerfil("user-1", dto);
+
+        ArgumentCaptor<CriadorSnapshot> captor = ArgumentCaptor.forClass(CriadorSnapshot.class);
+        verify(jogoRepository).atualizarCriador(captor.capture());
+        assertThat(captor.getValue().getIdOrigem()).isEqualTo("user-1");
+        assertThat(captor.getValue().getNome()).isEqualTo("João Dev");
+        verify(cache, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("Não deve tocar nos jogos se o nome do dev não mudou")
+    void atualizarProprioPerfilDevMesmoNome() {
+        usuario.setRoles(Set.of(Role.ROLE_USER, Role.ROLE_DEV));
+        UsuarioSelfUpdateDto dto = new UsuarioSelfUpdateDto("João", null, null);
+
+        when(repository.findById("user-1")).thenReturn(Optional.of(usuario));
+        when(repository.save(usuario)).thenReturn(usuario);
+
+        service.atualizarProprioPerfil("user-1", dto);
+
+        verify(jogoRepository, never()).atualizarCriador(any());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar a categoria do autor nas avaliações ao trocar as roles")
+    void atualizarRolesAtualizaAvaliacoes() {
+        UsuarioRolePatchDto dto = new UsuarioRolePatchDto(Set.of(Role.ROLE_USER, Role.ROLE_DEV));
+
+        when(repository.findById("user-1")).thenReturn(Optional.of(usuario));
+        when(repository.save(usuario)).thenReturn(usuario);
+
+        service.atualizarRoles("user-1", dto);
+
+        verify(avaliacaoRepository).atualizarAutorRole("user-1", Role.ROLE_DEV);
+    }
+
     @Test
     @DisplayName("Deve atualizar perfil próprio (Nome, Email e Senha)")
     void atualizarProprioPerfilCompleto() {